@@ -1,23 +1,30 @@
 package com.mycompany.smppclient;
 
 import com.mycompany.smppclient.config.SmppProperties;
+import com.mycompany.smppclient.db.AuditWriter;
+import com.mycompany.smppclient.db.JdbcMessageStore;
 import com.mycompany.smppclient.db.Db;
+import com.mycompany.smppclient.db.Outbox;
+import com.mycompany.smppclient.db.PartitionManager;
 import com.mycompany.smppclient.db.SmppDao;
-import com.mycompany.smppclient.pdu.BindTransceiverReq;
+import com.mycompany.smppclient.db.SmscAccountRegistry;
+import com.mycompany.smppclient.db.SpillJournal;
 import com.mycompany.smppclient.pdu.SubmitSmReq;
 import com.mycompany.smppclient.session.DeliverSmEvent;
+import com.mycompany.smppclient.session.OutboxDispatcher;
 import com.mycompany.smppclient.session.SmppSender;
 import com.mycompany.smppclient.session.SmppSessionConfig;
 import com.mycompany.smppclient.session.SmppSessionManager;
-import com.mycompany.smppclient.socket.SmppSocketClient;
+import com.mycompany.smppclient.session.SmppSessionPool;
 import com.mycompany.smppclient.socket.SmppSocketConfig;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Scanner;
-import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ScheduledExecutorService;
 
 public class SmppMainRunner {
 
@@ -26,50 +33,58 @@ public class SmppMainRunner {
 
         // ---- DB ----
         Db db = new Db(p.dbUrl, p.dbUser, p.dbPass);
-        SmppDao dao = new SmppDao(db);
-
-        SmppDao.SmscAccount a1 = dao.loadSmscAccountByName("smscdef");
-        if (a1 == null) throw new RuntimeException("DB’de smpp.smsc_account name='smscdef' yok / pasif");
+        SmppDao dao = new SmppDao(db, SmppDao.PduLogIngest.valueOf(p.dbIngest), p.dbNodeId,
+                SmppDao.RawStorage.valueOf(p.dbRaw));
+
+        // ---- partition bakımı (schema_partitioned.sql) ----
+        if (!p.dbPartition.equals("OFF")) {
+            ScheduledExecutorService maint = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "smpp-partition");
+                t.setDaemon(true);
+                return t;
+            });
+            PartitionManager pm = new PartitionManager(db, PartitionManager.Granularity.valueOf(p.dbPartition),
+                    7, p.dbRetentionDays, true);
+            pm.start(maint, 60 * 60_000L);
+        }
 
         // ---- socket cfg ----
         SmppSocketConfig sockCfg = new SmppSocketConfig(5000, 5000, 3, 1000);
 
-        // ---- 2 socket ----
-        SmppSocketClient socket1 = new SmppSocketClient(sockCfg, null);
-        SmppSocketClient socket2 = new SmppSocketClient(sockCfg, null);
-
-        // ---- 2 inbox ----
-        BlockingQueue<DeliverSmEvent> inbox1 = new LinkedBlockingQueue<>();
-        BlockingQueue<DeliverSmEvent> inbox2 = new LinkedBlockingQueue<>();
-
-        // ---- session id ----
-        String sessionId1 = "sess-1-" + UUID.randomUUID();
-        String sessionId2 = "sess-2-" + UUID.randomUUID();
-
-        // ---- flags ----
-        AtomicBoolean alive1 = new AtomicBoolean(false); // başlangıçta KAPALI
-        AtomicBoolean alive2 = new AtomicBoolean(false); // başlangıçta KAPALI
-
         // ---- session cfg ----
         SmppSessionConfig cfg = new SmppSessionConfig(15000, 30000);
 
-        // ---- 2 session manager ----
-        SmppSessionManager sm1 = new SmppSessionManager(
-                socket1, cfg, inbox1::offer, dao, sessionId1, a1.systemId
-        );
-        SmppSessionManager sm2 = new SmppSessionManager(
-                socket2, cfg, inbox2::offer, dao, sessionId2, a1.systemId
-        );
+        // ---- inbox (tüm bind'ler aynı kuyruğa) ----
+        BlockingQueue<DeliverSmEvent> inbox = new LinkedBlockingQueue<>();
+
+        // ---- pool: her hesaba 2 bind ----
+        SmppSessionPool pool = new SmppSessionPool();
+        // ---- DB log: db.spill verildiyse DB kesintisinde kayıtlar yerel journal'a düşer ----
+        // kayıtlar IO thread'inden gelir: kuyruk dolarsa beklemek yerine en eskisi atılır (journal varsa nadiren)
+        SpillJournal spill = p.dbSpill.isEmpty() ? null : new SpillJournal(Path.of(p.dbSpill));
+        AuditWriter audit = new AuditWriter(dao, AuditWriter.DEFAULT_CAPACITY, AuditWriter.DEFAULT_BATCH_SIZE,
+                AuditWriter.DEFAULT_FLUSH_INTERVAL_MS, AuditWriter.OverflowPolicy.DROP_OLDEST, spill);
+
+        // ---- hesaplar: smpp.smsc_account'taki tüm aktif hesaplar; değişiklikler JVM çalışırken havuza uygulanır ----
+        SmscAccountRegistry accounts = new SmscAccountRegistry(dao, db,
+                pool.accountListener(2, sockCfg, cfg, inbox::offer, new JdbcMessageStore(audit)));
+        accounts.start();
+        if (accounts.size() == 0) throw new RuntimeException("DB’de aktif smpp.smsc_account yok");
+
+        // ---- outbox: smpp.outbox'a eklenen mesajlar bind açıkken gönderilir ----
+        OutboxDispatcher outbox = null;
+        if (!p.outboxOwner.isEmpty()) {
+            outbox = new OutboxDispatcher(new Outbox(db), pool, p.outboxOwner);
+            outbox.start();
+        }
+        OutboxDispatcher outboxRef = outbox;
 
         System.out.println("READY (NOT CONNECTED).");
         System.out.println("Komutlar:");
-        System.out.println("  open1 / open 1     (session1 bind/connect)");
-        System.out.println("  open2 / open 2     (session2 bind/connect)");
-        System.out.println("  send1 <msisdn> <msg>");
-        System.out.println("  send2 <msisdn> <msg>");
-        System.out.println("  quit1 / quit 1     (session1 unbind+disconnect)");
-        System.out.println("  quit2 / quit 2     (session2 unbind+disconnect)");
-        System.out.println("  quit               (ikisini kapat + çık)");
+        System.out.println("  open               (tüm bind'leri aç)");
+        System.out.println("  send <msisdn> <msg> (en az yüklü bind'den gönderir)");
+        System.out.println("  status             (bind durumları)");
+        System.out.println("  quit               (hepsini kapat + çık)");
 
         // ---- INPUT ----
         Thread input = new Thread(() -> {
@@ -83,114 +98,45 @@ public class SmppMainRunner {
                     line = line.trim();
                     if (line.isEmpty()) continue;
 
-                    // ---- OPEN1 ----
-                    if (line.equalsIgnoreCase("open1") || line.equalsIgnoreCase("open 1")) {
-                        if (alive1.get()) {
-                            System.out.println("[OPEN1] zaten açık/bound");
-                            continue;
-                        }
-
-                        BindTransceiverReq bind1 = new BindTransceiverReq();
-                        bind1.setSystemId(a1.systemId);
-                        bind1.setPassword(a1.password);
-                        bind1.setSystemType(a1.systemType);
-                        bind1.setInterfaceVersion(a1.interfaceVersion);
-                        bind1.setAddrTon(a1.addrTon);
-                        bind1.setAddrNpi(a1.addrNpi);
-                        bind1.setAddressRange(a1.addressRange);
-
-                        boolean ok = sm1.bind(a1.host, a1.port, bind1);
-                        if (!ok) {
-                            System.out.println("[OPEN1] bind failed");
-                            alive1.set(false);
-                            continue;
-                        }
-
-                        sm1.startEnquireLinkTask();
-                        alive1.set(true);
-                        System.out.println("[OPEN1] OK (bound)");
+                    // ---- OPEN ----
+                    if (line.equalsIgnoreCase("open")) {
+                        int ok = pool.openAll();
+                        System.out.println("[OPEN] bound=" + ok + "/" + pool.size());
                         continue;
                     }
 
-                    // ---- OPEN2 ----
-                    if (line.equalsIgnoreCase("open2") || line.equalsIgnoreCase("open 2")) {
-                        if (alive2.get()) {
-                            System.out.println("[OPEN2] zaten açık/bound");
-                            continue;
+                    // ---- STATUS ----
+                    if (line.equalsIgnoreCase("status")) {
+                        for (SmppSessionPool.Member m : pool.members()) {
+                            SmppSessionManager sm = m.session;
+                            System.out.println("[STATUS] " + m.accountName + " " + sm.getSessionId()
+                                    + " bound=" + sm.isBound()
+                                    + " recovering=" + sm.isRecovering()
+                                    + " outstanding=" + sm.getOutstandingCount()
+                                    + " latencyMs=" + String.format("%.1f", sm.getSubmitLatencyMs()));
                         }
-
-                        BindTransceiverReq bind2 = new BindTransceiverReq();
-                        bind2.setSystemId(a1.systemId);
-                        bind2.setPassword(a1.password);
-                        bind2.setSystemType(a1.systemType);
-                        bind2.setInterfaceVersion(a1.interfaceVersion);
-                        bind2.setAddrTon(a1.addrTon);
-                        bind2.setAddrNpi(a1.addrNpi);
-                        bind2.setAddressRange(a1.addressRange);
-
-                        boolean ok = sm2.bind(a1.host, a1.port, bind2);
-                        if (!ok) {
-                            System.out.println("[OPEN2] bind failed");
-                            alive2.set(false);
-                            continue;
-                        }
-
-                        sm2.startEnquireLinkTask();
-                        alive2.set(true);
-                        System.out.println("[OPEN2] OK (bound)");
-                        continue;
-                    }
-
-                    // ---- QUIT1 ----
-                    if (line.equalsIgnoreCase("quit1") || line.equalsIgnoreCase("quit 1")) {
-                        if (!alive1.get()) {
-                            System.out.println("[QUIT1] zaten kapalı");
-                            continue;
-                        }
-                        alive1.set(false);
-                        try { System.out.println("[QUIT1] unbind=" + sm1.unbind()); } catch (Exception e) { System.out.println("[QUIT1] unbind err=" + e.getMessage()); }
-                        // socket1.close() YOK! (tekrar open1 yapabilmek için)
-                        System.out.println("[QUIT1] CLOSED");
-                        continue;
-                    }
-
-                    // ---- QUIT2 ----
-                    if (line.equalsIgnoreCase("quit2") || line.equalsIgnoreCase("quit 2")) {
-                        if (!alive2.get()) {
-                            System.out.println("[QUIT2] zaten kapalı");
-                            continue;
-                        }
-                        alive2.set(false);
-                        try { System.out.println("[QUIT2] unbind=" + sm2.unbind()); } catch (Exception e) { System.out.println("[QUIT2] unbind err=" + e.getMessage()); }
-
-                        System.out.println("[QUIT2] CLOSED");
                         continue;
                     }
 
                     // ---- QUIT (EXIT) ----
                     if (line.equalsIgnoreCase("quit") || line.equalsIgnoreCase("exit")) {
-                        if (alive1.getAndSet(false)) {
-                            try { System.out.println("[QUIT] smsc1 unbind=" + sm1.unbind()); } catch (Exception ignored) {}
-                        }
-                        if (alive2.getAndSet(false)) {
-                            try { System.out.println("[QUIT] smsc2 unbind=" + sm2.unbind()); } catch (Exception ignored) {}
-                        }
-                        try { socket1.close(); } catch (Exception ignored) {}
-                        try { socket2.close(); } catch (Exception ignored) {}
+                        if (outboxRef != null) outboxRef.close();
+                        accounts.close();
+                        pool.close();
+                        audit.close();
+                        if (spill != null) spill.close();
                         System.exit(0);
                     }
 
                     // ---- SEND ----
-                    boolean use1 = line.startsWith("send1 ");
-                    boolean use2 = line.startsWith("send2 ");
-                    if (!use1 && !use2) {
-                        System.out.println("Kullanım: open1/open2, send1/send2, quit1/quit2, quit");
+                    if (!line.startsWith("send ")) {
+                        System.out.println("Kullanım: open, send, status, quit");
                         continue;
                     }
 
                     String[] parts = line.split(" ", 3);
                     if (parts.length < 3) {
-                        System.out.println("Kullanım: send1 +905xxxxxxxxx mesaj  |  send2 +905xxxxxxxxx mesaj");
+                        System.out.println("Kullanım: send +905xxxxxxxxx mesaj");
                         continue;
                     }
 
@@ -214,21 +160,12 @@ public class SmppMainRunner {
                     req.setRegisteredDelivery((byte) 1);
                     req.setDataCoding((byte) 0x00);
 
-                    if (use1) {
-                        if (!alive1.get()) {
-                            System.out.println("[SMSC1] kapalı. önce open1");
-                            continue;
-                        }
-                        List<String> ids = sm1.sendConcatTrSingleShiftUnpacked(req, msg);
-                        System.out.println("[SMSC1 SUBMIT] ids=" + ids);
-                    } else {
-                        if (!alive2.get()) {
-                            System.out.println("[SMSC2] kapalı. önce open2");
-                            continue;
-                        }
-                        List<String> ids = sm2.sendConcatTrSingleShiftUnpacked(req, msg);
-                        System.out.println("[SMSC2 SUBMIT] ids=" + ids);
+                    if (pool.usableCount() == 0) {
+                        System.out.println("[SMSC] bound bind yok. önce open");
+                        continue;
                     }
+                    List<String> ids = pool.sendConcatTrSingleShiftUnpacked(req, msg);
+                    System.out.println("[SUBMIT] ids=" + ids);
 
                 } catch (Exception e) {
                     System.out.println("[INPUT ERROR] " + e.getMessage());
@@ -239,45 +176,25 @@ public class SmppMainRunner {
         input.setDaemon(true);
         input.start();
 
-        // ---- RX1 ----
-        Thread rx1 = new Thread(() -> {
-            while (true) {
-                try {
-                    DeliverSmEvent ev = inbox1.take();
-                    System.out.println("[SMSC1 DELIVER_SM] esm=0x" + String.format("%02X", ev.esmClass)
-                            + " dc=0x" + String.format("%02X", ev.dataCoding)
-                            + " from=" + ev.sourceAddr
-                            + " to=" + ev.destinationAddr
-                            + " text=" + ev.text);
-
-                    if (ev.isDeliveryReceipt && ev.receipt != null) {
-                        System.out.println("[SMSC1 DLR] " + ev.receipt);
-                    }
-                } catch (Exception ignored) {}
-            }
-        });
-        rx1.setDaemon(true);
-        rx1.start();
-
-        // ---- RX2 ----
-        Thread rx2 = new Thread(() -> {
+        // ---- RX ----
+        Thread rx = new Thread(() -> {
             while (true) {
                 try {
-                    DeliverSmEvent ev = inbox2.take();
-                    System.out.println("[SMSC2 DELIVER_SM] esm=0x" + String.format("%02X", ev.esmClass)
+                    DeliverSmEvent ev = inbox.take();
+                    System.out.println("[DELIVER_SM] esm=0x" + String.format("%02X", ev.esmClass)
                             + " dc=0x" + String.format("%02X", ev.dataCoding)
                             + " from=" + ev.sourceAddr
                             + " to=" + ev.destinationAddr
                             + " text=" + ev.text);
 
                     if (ev.isDeliveryReceipt && ev.receipt != null) {
-                        System.out.println("[SMSC2 DLR] " + ev.receipt);
+                        System.out.println("[DLR] " + ev.receipt);
                     }
                 } catch (Exception ignored) {}
             }
         });
-        rx2.setDaemon(true);
-        rx2.start();
+        rx.setDaemon(true);
+        rx.start();
 
         Thread.currentThread().join();
     }
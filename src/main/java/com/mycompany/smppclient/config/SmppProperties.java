@@ -18,6 +18,20 @@ public class SmppProperties {
     public final String dbUrl;
     public final String dbUser;
     public final String dbPass;
+    /** pdu_log yazım modu: INSERT (varsayılan) veya COPY */
+    public final String dbIngest;
+    /** COPY modunda id üreteci için JVM numarası (0..1023) */
+    public final int dbNodeId;
+    /** ham PDU saklama: HEX (varsayılan) veya BYTEA */
+    public final String dbRaw;
+    /** partition bakımı: OFF (varsayılan), DAILY veya WEEKLY (schema_partitioned.sql ile) */
+    public final String dbPartition;
+    /** bu kadar günden eski partition'lar kaldırılır; 0 = kaldırma */
+    public final int dbRetentionDays;
+    /** DB yazılamazken audit kayıtlarının düşeceği journal dosyası; boş = yok */
+    public final String dbSpill;
+    /** verildiyse smpp.outbox bu isimle (locked_by) boşaltılır; boş = outbox dispatcher yok */
+    public final String outboxOwner;
 
     private SmppProperties(Properties p) {
         this.host = req(p, "smpp.host");
@@ -33,6 +47,13 @@ public class SmppProperties {
         this.dbUrl = req(p, "db.url");
         this.dbUser = req(p, "db.user");
         this.dbPass = req(p, "db.pass");
+        this.dbIngest = opt(p, "db.ingest", "INSERT").toUpperCase();
+        this.dbNodeId = Integer.parseInt(opt(p, "db.nodeId", "0"));
+        this.dbRaw = opt(p, "db.raw", "HEX").toUpperCase();
+        this.dbPartition = opt(p, "db.partition", "OFF").toUpperCase();
+        this.dbRetentionDays = Integer.parseInt(opt(p, "db.retentionDays", "0"));
+        this.dbSpill = opt(p, "db.spill", "");
+        this.outboxOwner = opt(p, "outbox.owner", "");
     }
 
     public static SmppProperties loadFromTestResources() {
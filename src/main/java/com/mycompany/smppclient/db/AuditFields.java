@@ -0,0 +1,30 @@
+package com.mycompany.smppclient.db;
+
+import java.util.Map;
+
+/**
+ * pdu_log.decoded_json alanları. Map kurmak yerine alanlar writer thread'inde doğrudan
+ * {@link AuditJsonWriter}'ın tamponuna yazılır; socket thread'inde sadece bu nesne oluşur.
+ * <p>
+ * Uygulamalar yakaladıkları değerleri sonradan değiştirmemelidir (yazım asenkron).
+ */
+@FunctionalInterface
+public interface AuditFields {
+
+    /** Alanları sırayla yazar ({@code {}} parantezlerini writer koyar). */
+    void writeTo(AuditJsonWriter out);
+
+    /** Eski Map tabanlı çağıranlar için; değerler {@link AuditJsonWriter#field(String, Object)} ile yazılır. */
+    static AuditFields of(Map<String, ?> map) {
+        if (map == null) return null;
+        return out -> {
+            for (Map.Entry<String, ?> e : map.entrySet()) out.field(e.getKey(), e.getValue());
+        };
+    }
+
+    /** Daha önce {@link AuditJsonWriter} ile üretilmiş JSON nesnesi (journal replay'i). */
+    static AuditFields json(byte[] utf8Object) {
+        if (utf8Object == null) return null;
+        return out -> out.rawObjectFields(utf8Object);
+    }
+}
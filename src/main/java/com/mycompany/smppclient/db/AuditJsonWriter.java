@@ -0,0 +1,250 @@
+package com.mycompany.smppclient.db;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * {@link AuditFields}'ı yeniden kullanılan bir byte dizisine UTF-8 JSON nesnesi olarak yazar.
+ * <p>
+ * Ara Map / String / boxing yok: sayılar ve hex doğrudan byte olarak yazılır. Kaçış RFC 8259'a göre:
+ * {@code "} {@code \} ve tüm kontrol karakterleri (0x00-0x1F). PostgreSQL jsonb {@code \u0000}'ı ve
+ * eşi olmayan surrogate'ları kabul etmediği için bunlar U+FFFD olarak yazılır.
+ * Thread-safe değildir; her writer thread'i kendi örneğini kullanır.
+ */
+public final class AuditJsonWriter {
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    private byte[] buf;
+    private int len;
+    private boolean first;
+
+    public AuditJsonWriter() {
+        this(512);
+    }
+
+    public AuditJsonWriter(int initialCapacity) {
+        this.buf = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * Tamponu sıfırlayıp alanları {@code {...}} olarak yazar.
+     * @return false ise (fields null) tampon boştur
+     */
+    public boolean encode(AuditFields fields) {
+        len = 0;
+        if (fields == null) return false;
+        put('{');
+        first = true;
+        fields.writeTo(this);
+        put('}');
+        return true;
+    }
+
+    /** Son {@link #encode}'un çıktısı: {@link #array()}'in ilk {@link #length()} byte'ı. */
+    public byte[] array() { return buf; }
+
+    public int length() { return len; }
+
+    public byte[] toByteArray() { return Arrays.copyOf(buf, len); }
+
+    @Override
+    public String toString() { return new String(buf, 0, len, StandardCharsets.UTF_8); }
+
+    /** Tek seferlik dönüşüm (test / log için). */
+    public static String toJson(AuditFields fields) {
+        AuditJsonWriter w = new AuditJsonWriter(128);
+        return w.encode(fields) ? w.toString() : null;
+    }
+
+    // ---------- alanlar ----------
+
+    public AuditJsonWriter field(String name, int v) {
+        return field(name, (long) v);
+    }
+
+    public AuditJsonWriter field(String name, long v) {
+        name(name);
+        putLong(v);
+        return this;
+    }
+
+    public AuditJsonWriter field(String name, boolean v) {
+        name(name);
+        put(v ? TRUE : FALSE);
+        return this;
+    }
+
+    public AuditJsonWriter field(String name, String v) {
+        name(name);
+        if (v == null) put(NULL);
+        else string(v);
+        return this;
+    }
+
+    /** Büyük harf hex string; null için {@code ""} ({@code Hex.toHex} ile aynı). */
+    public AuditJsonWriter hexField(String name, byte[] v) {
+        return hexField(name, v, 0, v == null ? 0 : v.length);
+    }
+
+    /** v[off, off + n) aralığı; alınan PDU'nun içinden kopyasız yazmak için. */
+    public AuditJsonWriter hexField(String name, byte[] v, int off, int n) {
+        name(name);
+        if (v == null) n = 0;
+        ensure(2 + n * 2);
+        buf[len++] = '"';
+        for (int i = off; i < off + n; i++) {
+            int b = v[i] & 0xFF;
+            buf[len++] = HEX[b >>> 4];
+            buf[len++] = HEX[b & 0x0F];
+        }
+        buf[len++] = '"';
+        return this;
+    }
+
+    /** Genel değer: Number / Boolean doğrudan, diğerleri String olarak. */
+    public AuditJsonWriter field(String name, Object v) {
+        if (v instanceof Integer || v instanceof Long || v instanceof Short || v instanceof Byte) {
+            return field(name, ((Number) v).longValue());
+        }
+        if (v instanceof Boolean b) return field(name, b.booleanValue());
+        if (v instanceof Number n) {
+            double d = n.doubleValue();
+            name(name);
+            // NaN / Infinity JSON'da yok
+            if (Double.isFinite(d)) putAscii(Double.toString(d));
+            else put(NULL);
+            return this;
+        }
+        if (v instanceof byte[] b) return hexField(name, b);
+        return field(name, v == null ? null : String.valueOf(v));
+    }
+
+    /** Başka bir {@code {...}} nesnesinin alanlarını olduğu gibi ekler. */
+    void rawObjectFields(byte[] obj) {
+        int from = 1, to = obj.length - 1;
+        if (obj.length < 2 || obj[0] != '{' || obj[to] != '}') throw new IllegalArgumentException("not a JSON object");
+        if (to <= from) return;
+        if (!first) put(',');
+        first = false;
+        ensure(to - from);
+        System.arraycopy(obj, from, buf, len, to - from);
+        len += to - from;
+    }
+
+    // ---------- yazım ----------
+
+    private void name(String name) {
+        if (!first) put(',');
+        first = false;
+        string(name);
+        put(':');
+    }
+
+    private void string(String s) {
+        int n = s.length();
+        // en kötü durum: her char 6 byte (\\u00XX)
+        ensure(2 + n * 6);
+        byte[] b = buf;
+        int p = len;
+        b[p++] = '"';
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c < 0x80) {
+                if (c == '"' || c == '\\') b[p++] = '\\';
+                b[p++] = (byte) c;
+            } else if (c < 0x20) {
+                if (c == 0) {
+                    p = utf8(b, p, 0xFFFD);
+                    continue;
+                }
+                b[p++] = '\\';
+                switch (c) {
+                    case '\b' -> b[p++] = 'b';
+                    case '\f' -> b[p++] = 'f';
+                    case '\n' -> b[p++] = 'n';
+                    case '\r' -> b[p++] = 'r';
+                    case '\t' -> b[p++] = 't';
+                    default -> {
+                        b[p++] = 'u';
+                        b[p++] = '0';
+                        b[p++] = '0';
+                        b[p++] = HEX[c >>> 4];
+                        b[p++] = HEX[c & 0x0F];
+                    }
+                }
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                p = utf8(b, p, Character.toCodePoint(c, s.charAt(++i)));
+            } else if (Character.isSurrogate(c)) {
+                p = utf8(b, p, 0xFFFD);
+            } else {
+                p = utf8(b, p, c);
+            }
+        }
+        b[p++] = '"';
+        len = p;
+    }
+
+    private static int utf8(byte[] b, int p, int cp) {
+        if (cp < 0x800) {
+            b[p++] = (byte) (0xC0 | (cp >>> 6));
+        } else if (cp < 0x10000) {
+            b[p++] = (byte) (0xE0 | (cp >>> 12));
+            b[p++] = (byte) (0x80 | ((cp >>> 6) & 0x3F));
+        } else {
+            b[p++] = (byte) (0xF0 | (cp >>> 18));
+            b[p++] = (byte) (0x80 | ((cp >>> 12) & 0x3F));
+            b[p++] = (byte) (0x80 | ((cp >>> 6) & 0x3F));
+        }
+        b[p++] = (byte) (0x80 | (cp & 0x3F));
+        return p;
+    }
+
+    private void putLong(long v) {
+        ensure(20);
+        if (v == Long.MIN_VALUE) {
+            putAscii("-9223372036854775808");
+            return;
+        }
+        if (v < 0) {
+            buf[len++] = '-';
+            v = -v;
+        }
+        int start = len;
+        do {
+            buf[len++] = (byte) ('0' + (v % 10));
+            v /= 10;
+        } while (v != 0);
+        // ters yazıldı, çevir
+        for (int i = start, j = len - 1; i < j; i++, j--) {
+            byte t = buf[i];
+            buf[i] = buf[j];
+            buf[j] = t;
+        }
+    }
+
+    private void putAscii(String s) {
+        ensure(s.length());
+        for (int i = 0; i < s.length(); i++) buf[len++] = (byte) s.charAt(i);
+    }
+
+    private void put(byte[] b) {
+        ensure(b.length);
+        System.arraycopy(b, 0, buf, len, b.length);
+        len += b.length;
+    }
+
+    private void put(char c) {
+        ensure(1);
+        buf[len++] = (byte) c;
+    }
+
+    private void ensure(int n) {
+        if (len + n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + n));
+        }
+    }
+}
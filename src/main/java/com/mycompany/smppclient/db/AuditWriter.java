@@ -0,0 +1,531 @@
+package com.mycompany.smppclient.db;
+
+import com.mycompany.smppclient.socket.SmppEventLoopGroup;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PDU log / submit / deliver kayıtlarını socket thread'inden alıp arka planda toplu yazan writer.
+ * <p>
+ * Çağıranlar sadece sınırlı bir kuyruğa ekler. Tek bir writer thread'i kayıtları en fazla
+ * {@code batchSize} adet veya {@code flushIntervalMs} süre biriktirir ve JDBC batch'leri ile tek
+ * transaction'da yazar. Kayıtlar arası bağlar (ör. submit'in submit_log_id'si) nesne referansı ile
+ * tutulur; kuyruk FIFO olduğundan referans verilen pdu_log satırı her zaman önce yazılır.
+ * <p>
+ * Kuyruk dolunca davranış {@link OverflowPolicy} ile seçilir (varsayılan {@code DROP_OLDEST}: kayıtlar NIO
+ * selector thread'inden gelir, orada beklemek tüm session'ların okuma/yazmasını durdurur). DLR'ın hangi
+ * submit'e ait olduğunu writer bilmez: deliver satırı message_id ile yazılır, submit_id'yi veritabanı bağlar.
+ * <p>
+ * {@link SpillJournal} verilirse DB hatasında (veya DB yavaşlayıp kuyruk yarıya dolunca) batch'ler kaybolmak
+ * yerine journal'a yazılır. Journal boşalana kadar yeni batch'ler de sırayı korumak için oraya gider;
+ * writer {@code replayRetryMs} aralıkla journal'ı batch batch DB'ye aktarmayı dener.
+ * <p>
+ * Journal'a düşme ve tekrar deneme sadece bağlantı hatalarında (SQLState 08xxx, timeout) olur. Veri hatası
+ * veren batch tekrar denense de reddedilir: satır satır yazılır, reddedilen satırlar warn ile loglanıp atlanır.
+ */
+public class AuditWriter implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(AuditWriter.class);
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 200;
+    public static final long DEFAULT_REPLAY_RETRY_MS = 1000;
+
+    public enum OverflowPolicy {
+        /**
+         * Kuyrukta yer açılana kadar çağıranı bekletir (kayıp yok). Sadece IO thread'i dışındaki üreticiler
+         * içindir; selector thread'inden gelen kayıtlar bu modda da beklemez, {@code DROP_OLDEST} gibi işlenir.
+         */
+        BLOCK,
+        /** En eski kaydı atıp yenisini ekler (socket thread'i hiç beklemez, {@link #getDroppedCount()} artar). */
+        DROP_OLDEST
+    }
+
+    // ---------- kayıtlar ----------
+
+    public static final class PduLog implements MessageStore.PduRef {
+        public final SmppDao.Direction direction;
+        public final String pduType;
+        public final int commandId;
+        public final int commandStatus;
+        public final int sequenceNumber;
+        public final byte[] raw;
+        public final AuditFields decoded;
+
+        /** pdu_log.id; yazılana kadar (veya kayıt düşürüldüyse) -1 */
+        volatile long id = -1;
+        /** journal'a düştüyse oradaki offset'i; bağlı kayıtlar replay'de buradan id bulur */
+        long journalOffset = -1;
+
+        PduLog(SmppDao.Direction direction, String pduType, int commandId, int commandStatus,
+               int sequenceNumber, byte[] raw, AuditFields decoded) {
+            this.direction = direction;
+            this.pduType = pduType;
+            this.commandId = commandId;
+            this.commandStatus = commandStatus;
+            this.sequenceNumber = sequenceNumber;
+            this.raw = raw;
+            this.decoded = decoded;
+        }
+
+        @Override
+        public long getId() { return id; }
+    }
+
+    public static final class Submit {
+        public final String sessionId;
+        public final String systemId;
+        public final int submitSeq;
+        public final String srcAddr;
+        public final String dstAddr;
+        public final int dataCoding;
+        public final int esmClass;
+        public final byte[] submitSm;
+        public final int respStatus;
+        public final String messageId;
+        public final PduLog submitLog;
+        public final PduLog submitRespLog;
+
+        volatile long id = -1;
+
+        Submit(String sessionId, String systemId, int submitSeq, String srcAddr, String dstAddr,
+               int dataCoding, int esmClass, byte[] submitSm, int respStatus, String messageId,
+               PduLog submitLog, PduLog submitRespLog) {
+            this.sessionId = sessionId;
+            this.systemId = systemId;
+            this.submitSeq = submitSeq;
+            this.srcAddr = srcAddr;
+            this.dstAddr = dstAddr;
+            this.dataCoding = dataCoding;
+            this.esmClass = esmClass;
+            this.submitSm = submitSm;
+            this.respStatus = respStatus;
+            this.messageId = messageId;
+            this.submitLog = submitLog;
+            this.submitRespLog = submitRespLog;
+        }
+
+        public long getId() { return id; }
+    }
+
+    public static final class Deliver {
+        public final String messageId;
+        public final boolean isDlr;
+        public final String srcAddr;
+        public final String dstAddr;
+        public final int dataCoding;
+        public final int esmClass;
+        public final String text;
+        public final PduLog deliverLog;
+
+        Deliver(String messageId, boolean isDlr, String srcAddr, String dstAddr,
+                int dataCoding, int esmClass, String text, PduLog deliverLog) {
+            this.messageId = messageId;
+            this.isDlr = isDlr;
+            this.srcAddr = srcAddr;
+            this.dstAddr = dstAddr;
+            this.dataCoding = dataCoding;
+            this.esmClass = esmClass;
+            this.text = text;
+            this.deliverLog = deliverLog;
+        }
+    }
+
+    /** Writer'ın DB tarafı; {@link SmppDao} uygular. */
+    interface Sink {
+        /**
+         * Tek transaction: önce pdu_log, sonra submit, sonra deliver. id'leri kayıtlara yazar.
+         * deliver.submit_id'yi DB bağlar (insert'te alt sorgu, submit sonradan gelirse trigger).
+         */
+        void write(List<PduLog> logs, List<Submit> submits, List<Deliver> delivers) throws SQLException;
+    }
+
+    private final Sink sink;
+    private final ArrayBlockingQueue<Object> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final OverflowPolicy policy;
+    private final SpillJournal spill;
+    private final int spillWatermark;
+    private final long replayRetryMs;
+
+    // writer thread'i yazar; journal'da bekleyen kayıt varken DB'ye doğrudan yazılmaz
+    private volatile boolean spilling;
+    private long nextReplayAt;
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile boolean closing;
+    private Thread thread;
+
+    // metrikler
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+    private volatile double avgFlushNanos;
+
+    public AuditWriter(SmppDao dao) {
+        this(dao, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MS, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * @param capacity        kuyrukta bekleyebilecek en fazla kayıt
+     * @param batchSize       tek flush'ta yazılacak en fazla kayıt
+     * @param flushIntervalMs batch dolmasa da en geç bu sürede yazılır
+     */
+    public AuditWriter(SmppDao dao, int capacity, int batchSize, long flushIntervalMs, OverflowPolicy policy) {
+        this(dao.auditSink(), capacity, batchSize, flushIntervalMs, policy, null, DEFAULT_REPLAY_RETRY_MS);
+    }
+
+    /**
+     * @param spill DB yazılamazken kayıtların düşeceği journal (null = yok, hata sayılır). Writer journal'ı
+     *              kapatmaz; writer kapatıldıktan sonra çağıran kapatır. Açılışta içinde kayıt varsa replay edilir.
+     */
+    public AuditWriter(SmppDao dao, int capacity, int batchSize, long flushIntervalMs, OverflowPolicy policy,
+                       SpillJournal spill) {
+        this(dao.auditSink(), capacity, batchSize, flushIntervalMs, policy, spill, DEFAULT_REPLAY_RETRY_MS);
+    }
+
+    AuditWriter(Sink sink, int capacity, int batchSize, long flushIntervalMs, OverflowPolicy policy) {
+        this(sink, capacity, batchSize, flushIntervalMs, policy, null, DEFAULT_REPLAY_RETRY_MS);
+    }
+
+    AuditWriter(Sink sink, int capacity, int batchSize, long flushIntervalMs, OverflowPolicy policy,
+                SpillJournal spill, long replayRetryMs) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be >= 1: " + batchSize);
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.policy = policy;
+        this.spill = spill;
+        this.spillWatermark = Math.max(1, capacity / 2);
+        this.replayRetryMs = replayRetryMs;
+        if (spill != null && !spill.isEmpty()) {
+            // önceki çalışmadan kalanlar: trafik gelmese de replay başlasın
+            spilling = true;
+            startIfNeeded();
+        }
+    }
+
+    // ---------- üretici tarafı (herhangi bir thread) ----------
+
+    /** Ham PDU ve decode alanları; hex dönüşümü writer thread'inde yapılır. */
+    public PduLog logPdu(SmppDao.Direction direction, String pduType, int commandId, int commandStatus,
+                         int sequenceNumber, byte[] raw, AuditFields decoded) {
+        PduLog r = new PduLog(direction, pduType, commandId, commandStatus, sequenceNumber, raw, decoded);
+        enqueue(r);
+        return r;
+    }
+
+    /**
+     * Başarılı ve message_id'li cevabı submit kaydı olarak kuyruğa atar. Hata status'lü ya da message_id'siz
+     * cevaplar submit tablosuna yazılmaz (id -1 kalır): DLR bağlanamaz, cevap zaten pdu_log'da, ve boş
+     * message_id'ler UNIQUE kısıtına takılıp bütün batch'i geri aldırır.
+     */
+    public Submit submitResp(String sessionId, String systemId, int submitSeq, String srcAddr, String dstAddr,
+                             int dataCoding, int esmClass, byte[] submitSm, int respStatus, String messageId,
+                             PduLog submitLog, PduLog submitRespLog) {
+        Submit r = new Submit(sessionId, systemId, submitSeq, srcAddr, dstAddr, dataCoding, esmClass,
+                submitSm, respStatus, messageId, submitLog, submitRespLog);
+        if (respStatus != 0 || messageId == null || messageId.isEmpty()) return r;
+        enqueue(r);
+        return r;
+    }
+
+    public Deliver deliver(String messageId, boolean isDlr, String srcAddr, String dstAddr,
+                           int dataCoding, int esmClass, String text, PduLog deliverLog) {
+        Deliver r = new Deliver(messageId, isDlr, srcAddr, dstAddr, dataCoding, esmClass, text, deliverLog);
+        enqueue(r);
+        return r;
+    }
+
+    private void enqueue(Object r) {
+        if (closing) {
+            dropped.incrementAndGet();
+            return;
+        }
+        startIfNeeded();
+
+        if (policy == OverflowPolicy.BLOCK && !SmppEventLoopGroup.inIoThread()) {
+            try {
+                queue.put(r);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.incrementAndGet();
+                return;
+            }
+        } else {
+            while (!queue.offer(r)) {
+                if (queue.poll() != null) dropped.incrementAndGet();
+            }
+        }
+        enqueued.incrementAndGet();
+    }
+
+    private void startIfNeeded() {
+        if (started.get() || !started.compareAndSet(false, true)) return;
+        thread = new Thread(this::runLoop, "smpp-audit-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // ---------- writer thread ----------
+
+    private void runLoop() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                Object first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                    while (batch.size() < batchSize) {
+                        queue.drainTo(batch, batchSize - batch.size());
+                        if (batch.size() >= batchSize) break;
+                        long left = deadline - System.nanoTime();
+                        if (left <= 0 || closing) break;
+                        Object next = queue.poll(left, TimeUnit.NANOSECONDS);
+                        if (next == null) break;
+                        batch.add(next);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                    batch.clear();
+                }
+                if (spilling && !closing && System.nanoTime() - nextReplayAt >= 0) replay();
+                if (closing && queue.isEmpty()) return;
+            } catch (InterruptedException e) {
+                if (closing) {
+                    queue.drainTo(batch);
+                    if (!batch.isEmpty()) flush(batch);
+                    return;
+                }
+            } catch (Throwable t) {
+                log.error("Audit writer loop error", t);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Object> batch) {
+        long t0 = System.nanoTime();
+
+        List<PduLog> logs = new ArrayList<>();
+        List<Submit> submits = new ArrayList<>();
+        List<Deliver> delivers = new ArrayList<>();
+        for (Object o : batch) {
+            if (o instanceof PduLog l) logs.add(l);
+            else if (o instanceof Submit s) submits.add(s);
+            else if (o instanceof Deliver d) delivers.add(d);
+        }
+
+        if (spill != null && (spilling || queue.size() >= spillWatermark)) {
+            // journal'da bekleyen var (sıra korunmalı) veya DB geride kalıyor
+            spillBatch(batch, null);
+        } else {
+            // tek transaction: pdu_log -> submit -> deliver (deliver'ın submit_id'sini DB bağlar)
+            try {
+                sink.write(logs, submits, delivers);
+                written.addAndGet(batch.size());
+            } catch (Exception e) {
+                for (PduLog l : logs) l.id = -1;
+                for (Submit s : submits) s.id = -1;
+                List<Object> rest = batch;
+                if (!isConnectionError(e)) {
+                    // veri hatası: aynı batch hep reddedilir, sorunlu satırları atlayıp gerisini yaz
+                    log.warn("[AUDIT] batch rejected by DB, writing row by row: {}", e.toString());
+                    rest = writeRowByRow(logs, submits, delivers);
+                }
+                if (rest != null && spill != null) {
+                    spillBatch(rest, e);
+                } else if (rest != null) {
+                    failed.addAndGet(rest.size());
+                    log.warn("Audit batch write failed ({} records)", rest.size(), e);
+                }
+            }
+        }
+
+        long took = System.nanoTime() - t0;
+        flushes.incrementAndGet();
+        lastFlushNanos = took;
+        if (took > maxFlushNanos) maxFlushNanos = took;
+        double avg = avgFlushNanos;
+        avgFlushNanos = avg == 0 ? took : avg + 0.1 * (took - avg);
+    }
+
+    private void spillBatch(List<Object> batch, Exception cause) {
+        try {
+            if (spill.append(batch)) {
+                spilled.addAndGet(batch.size());
+                if (!spilling) {
+                    spilling = true;
+                    nextReplayAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(replayRetryMs);
+                    log.warn("[AUDIT] spilling to {} ({})", spill.getFile(),
+                            cause != null ? cause.toString() : "queue depth " + queue.size());
+                }
+                return;
+            }
+            log.error("[AUDIT] spill journal full, {} records lost", batch.size());
+        } catch (Exception e) {
+            log.error("[AUDIT] spill journal write failed, {} records lost", batch.size(), e);
+        }
+        failed.addAndGet(batch.size());
+    }
+
+    /**
+     * Journal'daki kayıtları batch batch DB'ye yazar; kuyruk yarıya dolarsa veya bağlantı koparsa bırakır.
+     * Veri hatası veren batch satır satır yazılıp geçilir, journal takılı kalmaz.
+     */
+    private void replay() {
+        while (queue.size() < spillWatermark) {
+            List<Object> recs = spill.read(batchSize);
+            List<PduLog> logs = new ArrayList<>();
+            List<Submit> submits = new ArrayList<>();
+            List<Deliver> delivers = new ArrayList<>();
+            for (Object o : recs) {
+                if (o instanceof PduLog l) logs.add(l);
+                else if (o instanceof Submit s) submits.add(s);
+                else if (o instanceof Deliver d) delivers.add(d);
+            }
+            try {
+                if (!recs.isEmpty()) sink.write(logs, submits, delivers);
+                written.addAndGet(recs.size());
+            } catch (Exception e) {
+                for (PduLog l : logs) l.id = -1;
+                for (Submit s : submits) s.id = -1;
+                if (isConnectionError(e)) {
+                    nextReplayAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(replayRetryMs);
+                    log.debug("[AUDIT] replay failed, retry in {} ms: {}", replayRetryMs, e.toString());
+                    return;
+                }
+                log.warn("[AUDIT] journal batch rejected by DB, writing row by row: {}", e.toString());
+                if (writeRowByRow(logs, submits, delivers) != null) {
+                    // bağlantı arada koptu: batch tekrar okunur, bu turda yazılan satırlar ikinci kez yazılabilir
+                    nextReplayAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(replayRetryMs);
+                    return;
+                }
+            }
+            spill.commitRead();
+            replayed.addAndGet(recs.size());
+            if (spill.isEmpty()) {
+                spilling = false;
+                log.info("[AUDIT] spill journal replayed, writing to DB directly");
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reddedilen batch'i tek satırlık write'larla yazar (pdu_log -> submit -> deliver). Veri hatası veren
+     * satır atlanır ve {@link #getFailedCount()}'a sayılır.
+     *
+     * @return bağlantı koptuysa yazılamayan kalan satırlar, yoksa null
+     */
+    private List<Object> writeRowByRow(List<PduLog> logs, List<Submit> submits, List<Deliver> delivers) {
+        List<Object> rows = new ArrayList<>(logs.size() + submits.size() + delivers.size());
+        rows.addAll(logs);
+        rows.addAll(submits);
+        rows.addAll(delivers);
+        for (int i = 0; i < rows.size(); i++) {
+            Object r = rows.get(i);
+            try {
+                if (r instanceof PduLog l) sink.write(List.of(l), List.of(), List.of());
+                else if (r instanceof Submit s) sink.write(List.of(), List.of(s), List.of());
+                else sink.write(List.of(), List.of(), List.of((Deliver) r));
+                written.incrementAndGet();
+            } catch (Exception e) {
+                if (r instanceof PduLog l) l.id = -1;
+                else if (r instanceof Submit s) s.id = -1;
+                if (isConnectionError(e)) return rows.subList(i, rows.size());
+                failed.incrementAndGet();
+                log.warn("[AUDIT] record rejected by DB, skipped: {} ({})", describe(r), e.toString());
+            }
+        }
+        return null;
+    }
+
+    /** Bağlantı kopması / timeout mu (tekrar denenir), yoksa veri hatası mı (tekrar denemek aynı sonucu verir). */
+    static boolean isConnectionError(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLTimeoutException
+                    || t instanceof SQLTransientConnectionException
+                    || t instanceof SQLNonTransientConnectionException
+                    || t instanceof IOException) {
+                return true;
+            }
+            if (t instanceof SQLException se && se.getSQLState() != null && se.getSQLState().startsWith("08")) {
+                return true;
+            }
+            if (t.getCause() == t) break;
+        }
+        return false;
+    }
+
+    private static String describe(Object r) {
+        if (r instanceof PduLog l) return "pdu_log " + l.pduType + " seq=" + l.sequenceNumber;
+        if (r instanceof Submit s) return "submit seq=" + s.submitSeq + " message_id=" + s.messageId;
+        return "deliver message_id=" + ((Deliver) r).messageId;
+    }
+
+    // ---------- metrikler ----------
+
+    /** Kuyrukta yazılmayı bekleyen kayıt sayısı. */
+    public int getQueueDepth() { return queue.size(); }
+    public long getEnqueuedCount() { return enqueued.get(); }
+    public long getWrittenCount() { return written.get(); }
+    /** Kuyruk dolduğu (DROP_OLDEST) veya kapanırken gelen için atılan kayıt sayısı. */
+    public long getDroppedCount() { return dropped.get(); }
+    /** DB'nin reddettiği veya bağlantı hatasında yazılamayan (journal yoksa veya doluysa) kayıt sayısı. */
+    public long getFailedCount() { return failed.get(); }
+    /** Journal'a düşen toplam kayıt sayısı. */
+    public long getSpilledCount() { return spilled.get(); }
+    /** Journal'dan DB'ye aktarılan toplam kayıt sayısı. */
+    public long getReplayedCount() { return replayed.get(); }
+    /** Journal'da DB'ye aktarılmayı bekleyen kayıt sayısı. */
+    public long getSpillPendingCount() { return spill == null ? 0 : spill.getPendingCount(); }
+    public boolean isSpilling() { return spilling; }
+    public long getFlushCount() { return flushes.get(); }
+    public double getLastFlushMs() { return lastFlushNanos / 1_000_000.0; }
+    public double getAvgFlushMs() { return avgFlushNanos / 1_000_000.0; }
+    public double getMaxFlushMs() { return maxFlushNanos / 1_000_000.0; }
+    /** Kuyruktakileri yazar ve thread'i durdurur (en fazla timeoutMs bekler). */
+    public void close(long timeoutMs) {
+        closing = true;
+        Thread t = thread;
+        if (t == null) return;
+        try {
+            t.join(timeoutMs);
+            if (t.isAlive()) {
+                t.interrupt();
+                t.join(timeoutMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        close(5000);
+    }
+}
@@ -0,0 +1,479 @@
+package com.mycompany.smppclient.db;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link Db}'nin kullandığı basit JDBC bağlantı havuzu.
+ * <p>
+ * Dışarıya verilen {@link Connection} bir proxy'dir: {@code close()} fiziksel bağlantıyı kapatmaz,
+ * havuza geri koyar (açık transaction varsa rollback + autoCommit=true). {@code prepareStatement}
+ * aynı SQL için bağlantı başına önbellekteki statement'ı döndürür; statement'ın {@code close()}'u
+ * sadece parametreleri/batch'i temizler.
+ * <p>
+ * Boştaki bağlantılar LIFO kullanılır; {@code idleTimeoutMs}'ten uzun boşta kalanlar
+ * {@code minIdle}'ın üstündeyse arka planda kapatılır. Bir süredir boşta olan bağlantı verilmeden
+ * önce {@link Connection#isValid(int)} ile kontrol edilir. Havuz doluysa çağıran en fazla
+ * {@code waitTimeoutMs} bekler, sonra {@link SQLTransientConnectionException} alır.
+ */
+final class ConnectionPool implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(ConnectionPool.class);
+
+    /** Bu süreden kısa boşta kalan bağlantı doğrulanmadan verilir (her borrow'da round trip olmasın). */
+    static final long VALIDATE_AFTER_IDLE_MS = 1000;
+    static final int VALIDATE_TIMEOUT_SEC = 2;
+    /** Bağlantı başına önbellekte tutulan en fazla statement (SmppDao'daki sabit SQL'ler için yeterli). */
+    static final int STATEMENT_CACHE_SIZE = 32;
+
+    @FunctionalInterface
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int minIdle;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long waitTimeoutMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ArrayDeque<Pooled> idle = new ArrayDeque<>();
+    private int total;
+    private boolean closed;
+
+    private volatile ScheduledExecutorService evictor;
+
+    // metrikler
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong waitNanosTotal = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private volatile long maxWaitNanos;
+
+    ConnectionPool(ConnectionFactory factory, int minIdle, int maxSize, long idleTimeoutMs, long waitTimeoutMs) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be >= 1: " + maxSize);
+        this.factory = factory;
+        this.minIdle = Math.max(0, Math.min(minIdle, maxSize));
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    // ---------- borrow / release ----------
+
+    Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        startEvictorIfNeeded();
+
+        while (true) {
+            Pooled pc = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) throw new SQLException("Connection pool is closed");
+                    pc = idle.pollLast();
+                    if (pc != null) break;
+                    if (total < maxSize) {
+                        total++;
+                        create = true;
+                        break;
+                    }
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) {
+                        timeouts.incrementAndGet();
+                        throw new SQLTransientConnectionException(
+                                "Connection pool wait timeout after " + waitTimeoutMs + " ms (max=" + maxSize + ")");
+                    }
+                    try {
+                        available.awaitNanos(left);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for connection", e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    pc = new Pooled(factory.open());
+                    created.incrementAndGet();
+                } catch (SQLException | RuntimeException e) {
+                    discarded();
+                    throw e;
+                }
+            } else if (System.currentTimeMillis() - pc.lastUsedAtMs > VALIDATE_AFTER_IDLE_MS && !isValid(pc)) {
+                log.warn("[DB-POOL] stale connection discarded");
+                pc.closePhysical();
+                discarded();
+                continue;
+            }
+
+            recordWait(System.nanoTime() - start);
+            return pc.lease();
+        }
+    }
+
+    private void release(Pooled pc) {
+        boolean reusable = !pc.broken;
+        if (reusable) {
+            try {
+                if (!pc.physical.getAutoCommit()) {
+                    pc.physical.rollback();
+                    pc.physical.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                reusable = false;
+            }
+        }
+        if (!reusable) {
+            pc.closePhysical();
+            discarded();
+            return;
+        }
+
+        pc.lastUsedAtMs = System.currentTimeMillis();
+        lock.lock();
+        try {
+            if (closed) {
+                total--;
+            } else {
+                idle.addLast(pc);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        pc.closePhysical();
+    }
+
+    private void discarded() {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isValid(Pooled pc) {
+        try {
+            return pc.physical.isValid(VALIDATE_TIMEOUT_SEC);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void recordWait(long nanos) {
+        borrows.incrementAndGet();
+        waitNanosTotal.addAndGet(nanos);
+        if (nanos > maxWaitNanos) maxWaitNanos = nanos;
+    }
+
+    // ---------- boştakileri kapatma / minIdle ----------
+
+    /** Bakım thread'i ilk borrow'da başlar: hiç kullanılmayan Db thread açmaz. */
+    private void startEvictorIfNeeded() {
+        if (evictor != null) return;
+        synchronized (this) {
+            if (evictor != null || closed) return;
+            long period = Math.max(100, Math.min(idleTimeoutMs / 2, 30_000));
+            ScheduledExecutorService ses = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "smpp-db-pool");
+                t.setDaemon(true);
+                return t;
+            });
+            ses.scheduleWithFixedDelay(this::maintain, period, period, TimeUnit.MILLISECONDS);
+            evictor = ses;
+        }
+    }
+
+    /** idleTimeout'u geçen fazlalıkları kapatır, minIdle'a kadar bağlantı açar. */
+    void maintain() {
+        List<Pooled> toClose = new ArrayList<>();
+        int missing;
+        long now = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            if (closed) return;
+            Iterator<Pooled> it = idle.iterator(); // baş: en uzun süredir boşta
+            while (it.hasNext() && idle.size() > minIdle) {
+                Pooled pc = it.next();
+                if (now - pc.lastUsedAtMs < idleTimeoutMs) break;
+                it.remove();
+                total--;
+                toClose.add(pc);
+            }
+            missing = Math.max(0, Math.min(minIdle - idle.size(), maxSize - total));
+            total += missing;
+        } finally {
+            lock.unlock();
+        }
+
+        for (Pooled pc : toClose) pc.closePhysical();
+
+        for (int i = 0; i < missing; i++) {
+            Pooled pc;
+            try {
+                pc = new Pooled(factory.open());
+                created.incrementAndGet();
+            } catch (Exception e) {
+                log.warn("[DB-POOL] could not open idle connection: {}", e.toString());
+                lock.lock();
+                try {
+                    total -= missing - i;
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            release(pc);
+        }
+    }
+
+    // ---------- metrikler ----------
+
+    int getActiveCount() {
+        lock.lock();
+        try {
+            return total - idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getIdleCount() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getBorrowCount() { return borrows.get(); }
+    long getTimeoutCount() { return timeouts.get(); }
+    long getCreatedCount() { return created.get(); }
+
+    double getAvgWaitMs() {
+        long n = borrows.get();
+        return n == 0 ? 0 : waitNanosTotal.get() / 1_000_000.0 / n;
+    }
+
+    double getMaxWaitMs() { return maxWaitNanos / 1_000_000.0; }
+
+    @Override
+    public void close() {
+        List<Pooled> toClose;
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            total -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        synchronized (this) {
+            if (evictor != null) evictor.shutdownNow();
+        }
+        for (Pooled pc : toClose) pc.closePhysical();
+    }
+
+    // ---------- proxy'ler ----------
+
+    /** Fiziksel bağlantı + statement önbelleği. Aynı anda tek bir kiracısı olur. */
+    private final class Pooled {
+        final Connection physical;
+        final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= STATEMENT_CACHE_SIZE) return false;
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+        volatile long lastUsedAtMs = System.currentTimeMillis();
+        volatile boolean broken;
+
+        Pooled(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new ConnectionHandler(this));
+        }
+
+        void closePhysical() {
+            for (PreparedStatement ps : statements.values()) closeQuietly(ps);
+            statements.clear();
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Pooled pc;
+        private boolean returned;
+
+        ConnectionHandler(Pooled pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pc.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pc.physical + "]";
+                default:
+                    break;
+            }
+            if (returned) throw new SQLException("Connection already returned to pool");
+
+            if (m.getName().equals("prepareStatement") && isCacheable(args)) {
+                return cachedStatement(proxy, args);
+            }
+            return invokeOn(pc, pc.physical, m, args);
+        }
+
+        /** prepareStatement(sql), (sql, int autoGeneratedKeys), (sql, String[] columns) önbelleğe alınır. */
+        private boolean isCacheable(Object[] args) {
+            if (args.length == 1) return true;
+            return args.length == 2 && (args[1] instanceof Integer || args[1] instanceof String[]);
+        }
+
+        private Object cachedStatement(Object connProxy, Object[] args) throws Throwable {
+            String key = args.length == 1 ? (String) args[0]
+                    : args[0] + "\u0000" + (args[1] instanceof String[] cols ? Arrays.toString(cols) : args[1]);
+
+            PreparedStatement ps = pc.statements.get(key);
+            if (ps == null || ps.isClosed()) {
+                Method prepare = args.length == 1
+                        ? Connection.class.getMethod("prepareStatement", String.class)
+                        : Connection.class.getMethod("prepareStatement", String.class, args[1].getClass() == Integer.class ? int.class : String[].class);
+                ps = (PreparedStatement) invokeOn(pc, pc.physical, prepare, args);
+                pc.statements.put(key, ps);
+            }
+            return Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new StatementHandler(pc, ps, (Connection) connProxy));
+        }
+    }
+
+    /** Önbellekteki statement: close() fiziksel statement'ı açık bırakır. */
+    private static final class StatementHandler implements InvocationHandler {
+        private final Pooled pc;
+        private final PreparedStatement ps;
+        private final Connection conn;
+        private boolean closed;
+
+        StatementHandler(Pooled pc, PreparedStatement ps, Connection conn) {
+            this.pc = pc;
+            this.ps = ps;
+            this.conn = conn;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        try {
+                            ps.clearParameters();
+                            ps.clearBatch();
+                        } catch (SQLException e) {
+                            closeQuietly(ps);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || ps.isClosed();
+                case "getConnection":
+                    return conn;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (closed) throw new SQLException("Statement is closed");
+            return invokeOn(pc, ps, m, args);
+        }
+    }
+
+    /** Hedefi çağırır; bağlantı hatası (SQLState 08xxx) olursa bağlantı havuza geri konmaz. */
+    private static Object invokeOn(Pooled pc, Object target, Method m, Object[] args) throws Throwable {
+        try {
+            return m.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException se && isConnectionError(se)) pc.broken = true;
+            throw cause;
+        }
+    }
+
+    static boolean isConnectionError(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -4,18 +4,63 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 
-public final class Db {
+/**
+ * DAO'ların bağlantı kaynağı. Varsayılan olarak bağlantılar havuzlanır ({@link ConnectionPool});
+ * {@code getConnection()} ile alınan bağlantının {@code close()}'u onu havuza geri verir.
+ */
+public final class Db implements AutoCloseable {
+
+    public static final int DEFAULT_MIN_IDLE = 1;
+    public static final int DEFAULT_MAX_SIZE = 10;
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = 5 * 60_000;
+    public static final long DEFAULT_WAIT_TIMEOUT_MS = 5_000;
+
     private final String url;
     private final String user;
     private final String pass;
 
+    // null ise havuz kapalı: her çağrıda DriverManager
+    private final ConnectionPool pool;
+
     public Db(String url, String user, String pass) {
+        this(url, user, pass, DEFAULT_MIN_IDLE, DEFAULT_MAX_SIZE, DEFAULT_IDLE_TIMEOUT_MS, DEFAULT_WAIT_TIMEOUT_MS);
+    }
+
+    /**
+     * @param minIdle       boşta hazır tutulacak bağlantı sayısı
+     * @param maxSize       en fazla açık bağlantı; 0 ise havuz kapalı (her çağrıda yeni bağlantı)
+     * @param idleTimeoutMs minIdle'ın üstündeki bağlantı bu kadar boşta kalırsa kapatılır
+     * @param waitTimeoutMs havuz doluyken bağlantı için en fazla bekleme
+     */
+    public Db(String url, String user, String pass, int minIdle, int maxSize, long idleTimeoutMs, long waitTimeoutMs) {
         this.url = url;
         this.user = user;
         this.pass = pass;
+        this.pool = maxSize <= 0 ? null
+                : new ConnectionPool(this::openPhysical, minIdle, maxSize, idleTimeoutMs, waitTimeoutMs);
     }
 
     public Connection getConnection() throws SQLException {
+        return pool == null ? openPhysical() : pool.borrow();
+    }
+
+    private Connection openPhysical() throws SQLException {
         return DriverManager.getConnection(url, user, pass);
     }
+
+    // ---------- havuz metrikleri (havuz kapalıysa 0) ----------
+
+    public int getActiveConnections() { return pool == null ? 0 : pool.getActiveCount(); }
+    public int getIdleConnections() { return pool == null ? 0 : pool.getIdleCount(); }
+    /** Bağlantı almak için ortalama / en uzun bekleme (ms). */
+    public double getAvgPoolWaitMs() { return pool == null ? 0 : pool.getAvgWaitMs(); }
+    public double getMaxPoolWaitMs() { return pool == null ? 0 : pool.getMaxWaitMs(); }
+    /** waitTimeoutMs içinde bağlantı alınamayan çağrı sayısı. */
+    public long getPoolTimeoutCount() { return pool == null ? 0 : pool.getTimeoutCount(); }
+
+    /** Havuzdaki bağlantıları kapatır; kullanımdakiler geri verilince kapanır. */
+    @Override
+    public void close() {
+        if (pool != null) pool.close();
+    }
 }
@@ -0,0 +1,112 @@
+package com.mycompany.smppclient.db;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bellekte, sınırlı boyutlu store (PostgreSQL'siz test ve benchmark için).
+ * <p>
+ * PDU / submit / deliver kayıtları sabit boyutlu halka tamponlara yazılır: id bir {@link AtomicLong}'dan
+ * alınır, slot {@code id & mask}; kilit yok, en eski kayıt üzerine yazılır. DLR eşleşmesi için submit'ler
+ * message_id ile {@link ConcurrentHashMap}'te tutulur, halkadan düşen submit index'ten de silinir.
+ * DLR submit'ten önce gelirse sahipsiz bekler; submit gelince eşleşmiş sayılır (DB'deki trigger gibi).
+ */
+public final class InMemoryMessageStore implements MessageStore {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final int mask;
+    private final AtomicReferenceArray<AuditWriter.PduLog> pdus;
+    private final AtomicReferenceArray<AuditWriter.Submit> submits;
+    private final AtomicReferenceArray<AuditWriter.Deliver> delivers;
+
+    private final AtomicLong pduIds = new AtomicLong();
+    private final AtomicLong submitIds = new AtomicLong();
+    private final AtomicLong deliverCount = new AtomicLong();
+    private final AtomicLong matchedDlrs = new AtomicLong();
+
+    private final ConcurrentHashMap<String, AuditWriter.Submit> byMessageId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AuditWriter.Deliver> orphanDlrs = new ConcurrentHashMap<>();
+
+    public InMemoryMessageStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** @param capacity her tür için tutulacak en fazla kayıt (2'nin kuvvetine yuvarlanır) */
+    public InMemoryMessageStore(int capacity) {
+        int n = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = n - 1;
+        this.pdus = new AtomicReferenceArray<>(n);
+        this.submits = new AtomicReferenceArray<>(n);
+        this.delivers = new AtomicReferenceArray<>(n);
+    }
+
+    @Override
+    public PduRef logPdu(SmppDao.Direction direction, String pduType, int commandId, int commandStatus,
+                         int sequenceNumber, byte[] raw, AuditFields decoded) {
+        AuditWriter.PduLog l = new AuditWriter.PduLog(direction, pduType, commandId, commandStatus,
+                sequenceNumber, raw, decoded);
+        long id = pduIds.incrementAndGet();
+        l.id = id;
+        pdus.set((int) (id & mask), l);
+        return l;
+    }
+
+    @Override
+    public void submitResp(String sessionId, String systemId, int submitSeq, String srcAddr, String dstAddr,
+                           int dataCoding, int esmClass, byte[] submitSm, int respStatus, String messageId,
+                           PduRef submitLog, PduRef submitRespLog) {
+        AuditWriter.Submit s = new AuditWriter.Submit(sessionId, systemId, submitSeq, srcAddr, dstAddr,
+                dataCoding, esmClass, submitSm, respStatus, messageId, log(submitLog), log(submitRespLog));
+        long id = submitIds.incrementAndGet();
+        s.id = id;
+        AuditWriter.Submit old = submits.getAndSet((int) (id & mask), s);
+        if (old != null && old.messageId != null) byMessageId.remove(old.messageId, old);
+        if (messageId == null) return;
+
+        byMessageId.put(messageId, s);
+        if (orphanDlrs.remove(messageId) != null) matchedDlrs.incrementAndGet();
+    }
+
+    @Override
+    public void deliver(String messageId, boolean isDlr, String srcAddr, String dstAddr,
+                        int dataCoding, int esmClass, String text, PduRef deliverLog) {
+        AuditWriter.Deliver d = new AuditWriter.Deliver(messageId, isDlr, srcAddr, dstAddr, dataCoding,
+                esmClass, text, log(deliverLog));
+        long n = deliverCount.incrementAndGet();
+        delivers.set((int) (n & mask), d);
+        if (messageId == null) return;
+
+        if (byMessageId.containsKey(messageId)) {
+            matchedDlrs.incrementAndGet();
+        } else if (orphanDlrs.size() <= mask) {
+            orphanDlrs.put(messageId, d);
+        }
+    }
+
+    private static AuditWriter.PduLog log(PduRef ref) {
+        return ref instanceof AuditWriter.PduLog l ? l : null;
+    }
+
+    // ---------- sorgu ----------
+
+    /** message_id'ye ait submit (halkadan düşmediyse). */
+    public AuditWriter.Submit findSubmit(String messageId) {
+        return messageId == null ? null : byMessageId.get(messageId);
+    }
+
+    /** id'si verilen PDU kaydı (üzerine yazılmadıysa). */
+    public AuditWriter.PduLog getPdu(long id) {
+        AuditWriter.PduLog l = pdus.get((int) (id & mask));
+        return l != null && l.id == id ? l : null;
+    }
+
+    public long getPduCount() { return pduIds.get(); }
+    public long getSubmitCount() { return submitIds.get(); }
+    public long getDeliverCount() { return deliverCount.get(); }
+    /** Submit'i bulunmuş DLR sayısı (DLR önce gelip submit sonra gelenler dahil). */
+    public long getMatchedDlrCount() { return matchedDlrs.get(); }
+    /** Henüz submit'i gelmemiş DLR sayısı. */
+    public int getOrphanDlrCount() { return orphanDlrs.size(); }
+}
@@ -0,0 +1,60 @@
+package com.mycompany.smppclient.db;
+
+/**
+ * PostgreSQL'e yazan store: kayıtlar {@link AuditWriter} kuyruğuna atılır, writer thread'i
+ * {@link SmppDao} ile toplu yazar. DLR <-> submit eşleşmesini veritabanı yapar.
+ */
+public final class JdbcMessageStore implements MessageStore {
+
+    private final AuditWriter writer;
+    private final boolean ownsWriter;
+
+    /** Varsayılan ayarlarla kendi writer'ını açar; {@link #close()} onu da kapatır. */
+    public JdbcMessageStore(SmppDao dao) {
+        this(new AuditWriter(dao), true);
+    }
+
+    /** Paylaşılan writer; kapatmak çağıranın işidir. */
+    public JdbcMessageStore(AuditWriter writer) {
+        this(writer, false);
+    }
+
+    private JdbcMessageStore(AuditWriter writer, boolean ownsWriter) {
+        this.writer = writer;
+        this.ownsWriter = ownsWriter;
+    }
+
+    public AuditWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    public PduRef logPdu(SmppDao.Direction direction, String pduType, int commandId, int commandStatus,
+                         int sequenceNumber, byte[] raw, AuditFields decoded) {
+        return writer.logPdu(direction, pduType, commandId, commandStatus, sequenceNumber, raw, decoded);
+    }
+
+    @Override
+    public void submitResp(String sessionId, String systemId, int submitSeq, String srcAddr, String dstAddr,
+                           int dataCoding, int esmClass, byte[] submitSm, int respStatus, String messageId,
+                           PduRef submitLog, PduRef submitRespLog) {
+        writer.submitResp(sessionId, systemId, submitSeq, srcAddr, dstAddr, dataCoding, esmClass, submitSm,
+                respStatus, messageId, log(submitLog), log(submitRespLog));
+    }
+
+    @Override
+    public void deliver(String messageId, boolean isDlr, String srcAddr, String dstAddr,
+                        int dataCoding, int esmClass, String text, PduRef deliverLog) {
+        writer.deliver(messageId, isDlr, srcAddr, dstAddr, dataCoding, esmClass, text, log(deliverLog));
+    }
+
+    /** Başka store'un tutamacı gelirse bağ kurulmaz (FK null). */
+    private static AuditWriter.PduLog log(PduRef ref) {
+        return ref instanceof AuditWriter.PduLog l ? l : null;
+    }
+
+    @Override
+    public void close() {
+        if (ownsWriter) writer.close();
+    }
+}
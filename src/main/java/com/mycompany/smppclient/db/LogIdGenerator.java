@@ -0,0 +1,46 @@
+package com.mycompany.smppclient.db;
+
+/**
+ * Uygulama tarafında üretilen, zamana göre artan 64-bit id (pdu_log için).
+ * <p>
+ * Yerleşim: 41 bit milisaniye (2024-01-01'den itibaren) | 10 bit node | 12 bit sıra.
+ * Aynı milisaniyede 4096'dan fazla id istenirse bir sonraki milisaniyeye geçilir; saat geri giderse
+ * son kullanılan milisaniyeden devam edilir, böylece id'ler hep artar. Aynı tabloya yazan her JVM'in
+ * farklı bir {@code nodeId}'si olmalıdır.
+ */
+public final class LogIdGenerator {
+
+    static final long EPOCH_MS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQ_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final int SEQ_MASK = (1 << SEQ_BITS) - 1;
+
+    private final long nodePart;
+    private long lastMs = -1;
+    private int seq;
+
+    public LogIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be 0.." + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodePart = (long) nodeId << SEQ_BITS;
+    }
+
+    public synchronized long next() {
+        long now = System.currentTimeMillis();
+        if (now > lastMs) {
+            lastMs = now;
+            seq = 0;
+        } else {
+            seq = (seq + 1) & SEQ_MASK;
+            if (seq == 0) lastMs++; // bu milisaniye doldu
+        }
+        return ((lastMs - EPOCH_MS) << (NODE_BITS + SEQ_BITS)) | nodePart | seq;
+    }
+
+    /** id'nin üretildiği an (epoch ms); partition / arama için. */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQ_BITS)) + EPOCH_MS;
+    }
+}
@@ -0,0 +1,45 @@
+package com.mycompany.smppclient.db;
+
+/**
+ * Session ve sender'ın kalıcılık arayüzü: ham PDU log'u, submit / submit_sm_resp eşleşmesi ve DLR kaydı.
+ * <p>
+ * Uygulamalar: {@link JdbcMessageStore} (AuditWriter + PostgreSQL), {@link InMemoryMessageStore}
+ * (kilitsiz, sınırlı bellek; test ve benchmark için), {@link NoOpMessageStore} (hiçbir şey saklamaz).
+ * Metotlar socket / NIO thread'inden çağrılır; bloklamamalı ve exception fırlatmamalıdır.
+ */
+public interface MessageStore extends AutoCloseable {
+
+    /** {@link #logPdu} ile kaydedilmiş PDU; submit/deliver kayıtlarında bağ olarak verilir. */
+    interface PduRef {
+        /** Kalıcı id; henüz yazılmadıysa -1. */
+        long getId();
+    }
+
+    /**
+     * false ise session/sender kayıt için alan toplamaz (decode map'i, bekleyen submit bilgisi) ve
+     * bu arayüzü hiç çağırmaz.
+     */
+    default boolean isRecording() {
+        return true;
+    }
+
+    /**
+     * @param decoded decoded_json alanları; gerekirse sonradan (writer thread'inde) yazılır, null olabilir
+     * @return sonraki kayıtlarda bağ için tutamaç; saklanmadıysa null
+     */
+    PduRef logPdu(SmppDao.Direction direction, String pduType, int commandId, int commandStatus,
+                  int sequenceNumber, byte[] raw, AuditFields decoded);
+
+    /** submit_sm ile cevabı eşleşti: message_id artık belli. */
+    void submitResp(String sessionId, String systemId, int submitSeq, String srcAddr, String dstAddr,
+                    int dataCoding, int esmClass, byte[] submitSm, int respStatus, String messageId,
+                    PduRef submitLog, PduRef submitRespLog);
+
+    /** Gelen deliver_sm / DLR; hangi submit'e ait olduğunu message_id ile store bulur. */
+    void deliver(String messageId, boolean isDlr, String srcAddr, String dstAddr,
+                 int dataCoding, int esmClass, String text, PduRef deliverLog);
+
+    @Override
+    default void close() {
+    }
+}
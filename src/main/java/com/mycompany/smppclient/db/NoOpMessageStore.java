@@ -0,0 +1,32 @@
+package com.mycompany.smppclient.db;
+
+/** Hiçbir şey saklamaz; protokol maliyetini depolamadan ayırmak için. */
+public final class NoOpMessageStore implements MessageStore {
+
+    public static final NoOpMessageStore INSTANCE = new NoOpMessageStore();
+
+    private NoOpMessageStore() {
+    }
+
+    @Override
+    public boolean isRecording() {
+        return false;
+    }
+
+    @Override
+    public PduRef logPdu(SmppDao.Direction direction, String pduType, int commandId, int commandStatus,
+                         int sequenceNumber, byte[] raw, AuditFields decoded) {
+        return null;
+    }
+
+    @Override
+    public void submitResp(String sessionId, String systemId, int submitSeq, String srcAddr, String dstAddr,
+                           int dataCoding, int esmClass, byte[] submitSm, int respStatus, String messageId,
+                           PduRef submitLog, PduRef submitRespLog) {
+    }
+
+    @Override
+    public void deliver(String messageId, boolean isDlr, String srcAddr, String dstAddr,
+                        int dataCoding, int esmClass, String text, PduRef deliverLog) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.mycompany.smppclient.db;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * smpp.outbox kuyruğu: üreticiler satır ekler, {@code OutboxDispatcher} batch batch alıp gönderir.
+ * <p>
+ * {@link #claim} satırları {@code FOR UPDATE SKIP LOCKED} ile seçip aynı statement'ta SENDING'e çeker;
+ * transaction hemen biter, başka JVM'ler kilitli/alınmış satırları atlar. Sonuçlar {@link #markSent} /
+ * {@link #markFailed} ile tek UPDATE'te yazılır; sadece hâlâ {@code locked_by = owner} olan satırlar güncellenir.
+ * Claim'i alıp çöken (veya takılan) JVM'in satırları lease süresi dolunca {@link #releaseStale} ile tekrar NEW
+ * olur (en az bir kez gönderim); o JVM'in geç gelen sonucu, satırı yeniden alan JVM'inkini ezmez.
+ */
+public class Outbox {
+
+    /** schema.sql'deki trigger'ın NOTIFY kanalı */
+    public static final String CHANNEL = "smpp_outbox";
+
+    public static final class Message {
+        public final long id;
+        public final String srcAddr;
+        public final int srcTon;
+        public final int srcNpi;
+        public final String dstAddr;
+        public final int dstTon;
+        public final int dstNpi;
+        public final String text;
+        public final boolean registeredDelivery;
+        /** bu claim dahil deneme sayısı */
+        public final int attempts;
+
+        public Message(long id, String srcAddr, int srcTon, int srcNpi, String dstAddr, int dstTon, int dstNpi,
+                       String text, boolean registeredDelivery, int attempts) {
+            this.id = id;
+            this.srcAddr = srcAddr;
+            this.srcTon = srcTon;
+            this.srcNpi = srcNpi;
+            this.dstAddr = dstAddr;
+            this.dstTon = dstTon;
+            this.dstNpi = dstNpi;
+            this.text = text;
+            this.registeredDelivery = registeredDelivery;
+            this.attempts = attempts;
+        }
+    }
+
+    private final Db db;
+
+    public Outbox(Db db) {
+        this.db = db;
+    }
+
+    /** Varsayılan adres tipleriyle (kaynak alfanumerik, hedef uluslararası) kuyruğa ekler. */
+    public long enqueue(String srcAddr, String dstAddr, String text) throws SQLException {
+        String sql = """
+            INSERT INTO smpp.outbox (src_addr, dst_addr, text)
+            VALUES (?, ?, ?)
+            RETURNING id
+        """;
+        try (Connection c = db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, srcAddr);
+            ps.setString(2, dstAddr);
+            ps.setString(3, text);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /** Gönderilmeye hazır en fazla {@code limit} satırı {@code owner} adına alır. */
+    public List<Message> claim(String owner, int limit) throws SQLException {
+        String sql = """
+            UPDATE smpp.outbox o
+               SET status = 'SENDING', locked_by = ?, locked_at = now(), attempts = o.attempts + 1
+             WHERE o.id IN (
+                   SELECT id FROM smpp.outbox
+                    WHERE status = 'NEW' AND next_attempt_at <= now()
+                    ORDER BY id
+                    LIMIT ?
+                      FOR UPDATE SKIP LOCKED)
+            RETURNING o.id, o.src_addr, o.src_ton, o.src_npi, o.dst_addr, o.dst_ton, o.dst_npi,
+                      o.text, o.registered_delivery, o.attempts
+        """;
+        List<Message> out = new ArrayList<>(limit);
+        try (Connection c = db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, owner);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(new Message(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getInt(4),
+                            rs.getString(5), rs.getInt(6), rs.getInt(7), rs.getString(8),
+                            rs.getBoolean(9), rs.getInt(10)));
+                }
+            }
+        }
+        // RETURNING sırası garanti değil
+        out.sort((a, b) -> Long.compare(a.id, b.id));
+        return out;
+    }
+
+    /**
+     * @param owner      {@link #claim}'deki owner; satır başkasına geçtiyse güncellenmez
+     * @param messageIds her satır için SMSC message_id'leri (çok parçalı mesajda birden fazla)
+     */
+    public int markSent(String owner, List<Long> ids, List<List<String>> messageIds) throws SQLException {
+        if (ids.isEmpty()) return 0;
+        String sql = """
+            UPDATE smpp.outbox o
+               SET status = 'SENT', sent_at = now(), message_ids = string_to_array(v.mids, ','),
+                   locked_by = NULL, last_error = NULL
+              FROM unnest(?::bigint[], ?::text[]) AS v(id, mids)
+             WHERE o.id = v.id AND o.status = 'SENDING' AND o.locked_by = ?
+        """;
+        String[] mids = new String[messageIds.size()];
+        for (int i = 0; i < mids.length; i++) mids[i] = String.join(",", messageIds.get(i));
+        return bulk(sql, ids, mids, null, owner);
+    }
+
+    /**
+     * Deneme hakkı kalanlar {@code retryDelayMs} sonra tekrar NEW olur, kalmayanlar FAILED.
+     * Sadece {@code owner}'ın hâlâ tuttuğu satırlar güncellenir.
+     */
+    public int markFailed(String owner, List<Long> ids, List<String> errors, int maxAttempts, long retryDelayMs) throws SQLException {
+        if (ids.isEmpty()) return 0;
+        String sql = """
+            UPDATE smpp.outbox o
+               SET status = CASE WHEN o.attempts >= ? THEN 'FAILED' ELSE 'NEW' END,
+                   next_attempt_at = now() + ? * interval '1 millisecond',
+                   last_error = v.err, locked_by = NULL
+              FROM unnest(?::bigint[], ?::text[]) AS v(id, err)
+             WHERE o.id = v.id AND o.status = 'SENDING' AND o.locked_by = ?
+        """;
+        return bulk(sql, ids, errors.toArray(new String[0]), new long[]{maxAttempts, retryDelayMs}, owner);
+    }
+
+    /** Lease'i dolmuş SENDING satırlarını (claim eden JVM düşmüş) tekrar kuyruğa açar. */
+    public int releaseStale(long leaseMs) throws SQLException {
+        String sql = """
+            UPDATE smpp.outbox
+               SET status = 'NEW', locked_by = NULL
+             WHERE status = 'SENDING' AND locked_at < now() - ? * interval '1 millisecond'
+        """;
+        try (Connection c = db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, leaseMs);
+            return ps.executeUpdate();
+        }
+    }
+
+    private int bulk(String sql, List<Long> ids, String[] texts, long[] leading, String owner) throws SQLException {
+        try (Connection c = db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            int i = 1;
+            if (leading != null) {
+                for (long v : leading) ps.setLong(i++, v);
+            }
+            Array idArr = c.createArrayOf("bigint", ids.toArray(new Long[0]));
+            Array txtArr = c.createArrayOf("text", texts);
+            ps.setArray(i++, idArr);
+            ps.setArray(i++, txtArr);
+            ps.setString(i, owner);
+            return ps.executeUpdate();
+        }
+    }
+
+    /** {@link #CHANNEL} dinleyicisi; kendine ait bir bağlantıyı açık tutar (havuzdan bir bağlantı eksilir). */
+    public PgListener listen() throws SQLException {
+        return new PgListener(db, CHANNEL);
+    }
+}
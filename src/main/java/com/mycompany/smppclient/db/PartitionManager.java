@@ -0,0 +1,205 @@
+package com.mycompany.smppclient.db;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code created_at}'e göre RANGE partition'lanmış tablolar (schema_partitioned.sql) için
+ * partition'ları önceden açar ve süresi dolanları kaldırır.
+ * <p>
+ * Partition adı {@code <tablo>_pYYYYMMDD} (aralığın ilk günü, UTC). Her çalışmada bugünden
+ * {@code aheadPeriods} dönem ilerisine kadar eksik partition'lar açılır; üst sınırı
+ * {@code now - retentionDays}'ten eski olanlar DETACH edilir ve {@code dropDetached} ise DROP edilir.
+ * Tablo partition'lı değilse (eski schema.sql) hiçbir şey yapılmaz.
+ */
+public final class PartitionManager implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(PartitionManager.class);
+
+    public enum Granularity { DAILY, WEEKLY }
+
+    /** Partition'lı şemadaki tablolar. */
+    public static final List<String> TABLES = List.of("pdu_log", "submit", "deliver", "message_flow");
+
+    static final String SCHEMA = "smpp";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final Db db;
+    private final Granularity granularity;
+    private final int aheadPeriods;
+    private final int retentionDays;
+    private final boolean dropDetached;
+
+    private volatile ScheduledFuture<?> task;
+
+    /**
+     * @param aheadPeriods  bugünden sonra hazır tutulacak dönem (gün/hafta) sayısı
+     * @param retentionDays bu kadar günden eski partition'lar kaldırılır; 0 ise hiç kaldırılmaz
+     * @param dropDetached  false ise partition sadece DETACH edilir (arşiv için tablo olarak kalır)
+     */
+    public PartitionManager(Db db, Granularity granularity, int aheadPeriods, int retentionDays, boolean dropDetached) {
+        this.db = db;
+        this.granularity = granularity;
+        this.aheadPeriods = Math.max(1, aheadPeriods);
+        this.retentionDays = retentionDays;
+        this.dropDetached = dropDetached;
+    }
+
+    /** İlk bakımı hemen, sonrakileri {@code periodMs} aralıkla verilen scheduler'da çalıştırır. */
+    public void start(ScheduledExecutorService scheduler, long periodMs) {
+        ScheduledFuture<?> prev = task;
+        if (prev != null) prev.cancel(false);
+        task = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                maintain();
+            } catch (Exception e) {
+                log.warn("[PARTITION] maintenance failed: {}", e.toString());
+            }
+        }, 0, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Tüm tablolar için eksik partition'ları açar, süresi dolanları kaldırır. */
+    public void maintain() throws SQLException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        try (Connection c = db.getConnection()) {
+            for (String table : TABLES) {
+                if (!isPartitioned(c, table)) continue;
+                for (LocalDate from : periodsToCreate(today)) {
+                    createPartition(c, table, from);
+                }
+                if (retentionDays > 0) {
+                    for (String child : expiredPartitions(listPartitions(c, table), today)) {
+                        dropPartition(c, table, child);
+                    }
+                }
+            }
+        }
+    }
+
+    // ---------- hesaplar (DB'siz) ----------
+
+    /** {@code day}'in ait olduğu dönemin ilk günü. */
+    LocalDate periodStart(LocalDate day) {
+        return granularity == Granularity.WEEKLY
+                ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : day;
+    }
+
+    LocalDate periodEnd(LocalDate start) {
+        return granularity == Granularity.WEEKLY ? start.plusWeeks(1) : start.plusDays(1);
+    }
+
+    /** Bugünün dönemi + ileriki aheadPeriods dönem. */
+    List<LocalDate> periodsToCreate(LocalDate today) {
+        List<LocalDate> out = new ArrayList<>(aheadPeriods + 1);
+        LocalDate p = periodStart(today);
+        for (int i = 0; i <= aheadPeriods; i++) {
+            out.add(p);
+            p = periodEnd(p);
+        }
+        return out;
+    }
+
+    static String partitionName(String table, LocalDate from) {
+        return table + "_p" + from.format(SUFFIX);
+    }
+
+    /** Adı bizim düzenimizde olan ve üst sınırı retention'dan eski partition'lar (default partition hariç). */
+    List<String> expiredPartitions(List<String> children, LocalDate today) {
+        LocalDate cutoff = today.minusDays(retentionDays);
+        List<String> out = new ArrayList<>();
+        for (String child : children) {
+            int i = child.lastIndexOf("_p");
+            if (i < 0 || child.length() - i != 10) continue;
+            LocalDate from;
+            try {
+                from = LocalDate.parse(child.substring(i + 2), SUFFIX);
+            } catch (Exception e) {
+                continue;
+            }
+            if (!periodEnd(from).isAfter(cutoff)) out.add(child);
+        }
+        return out;
+    }
+
+    // ---------- DDL ----------
+
+    private static boolean isPartitioned(Connection c, String table) throws SQLException {
+        String sql = """
+            SELECT 1
+              FROM pg_partitioned_table pt
+              JOIN pg_class cl ON cl.oid = pt.partrelid
+              JOIN pg_namespace ns ON ns.oid = cl.relnamespace
+             WHERE ns.nspname = ? AND cl.relname = ?
+        """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, SCHEMA);
+            ps.setString(2, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static List<String> listPartitions(Connection c, String table) throws SQLException {
+        String sql = """
+            SELECT child.relname
+              FROM pg_inherits i
+              JOIN pg_class parent ON parent.oid = i.inhparent
+              JOIN pg_class child  ON child.oid  = i.inhrelid
+              JOIN pg_namespace ns ON ns.oid = parent.relnamespace
+             WHERE ns.nspname = ? AND parent.relname = ?
+        """;
+        List<String> out = new ArrayList<>();
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, SCHEMA);
+            ps.setString(2, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(rs.getString(1));
+            }
+        }
+        return out;
+    }
+
+    private void createPartition(Connection c, String table, LocalDate from) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS " + SCHEMA + "." + partitionName(table, from)
+                + " PARTITION OF " + SCHEMA + "." + table
+                + " FOR VALUES FROM ('" + from + " 00:00:00+00') TO ('" + periodEnd(from) + " 00:00:00+00')";
+        try (Statement st = c.createStatement()) {
+            st.execute(sql);
+        } catch (SQLException e) {
+            // default partition'da bu aralığa düşen satır varsa PostgreSQL izin vermez
+            log.warn("[PARTITION] create {} failed: {}", partitionName(table, from), e.getMessage());
+        }
+    }
+
+    private void dropPartition(Connection c, String table, String child) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("ALTER TABLE " + SCHEMA + "." + table + " DETACH PARTITION " + SCHEMA + "." + child);
+            if (dropDetached) st.execute("DROP TABLE " + SCHEMA + "." + child);
+        }
+        log.info("[PARTITION] {} {}", dropDetached ? "dropped" : "detached", child);
+    }
+
+    @Override
+    public void close() {
+        ScheduledFuture<?> t = task;
+        if (t != null) t.cancel(false);
+    }
+}
@@ -0,0 +1,135 @@
+package com.mycompany.smppclient.db;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * {@code COPY ... FROM STDIN (FORMAT binary)} verisini yeniden kullanılan bir byte dizisine yazar.
+ * <p>
+ * Biçim: 19 byte başlık, her satır için int16 alan sayısı + alan başına int32 uzunluk ve değer
+ * (NULL için uzunluk -1), sonda int16 -1. Tüm sayılar big-endian.
+ */
+final class PgBinaryCopyWriter {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    /** jsonb'nin binary gösterimi: 1 byte sürüm + JSON metni */
+    private static final int JSONB_VERSION = 1;
+
+    private byte[] buf;
+    private int pos;
+
+    PgBinaryCopyWriter() {
+        this(8192);
+    }
+
+    PgBinaryCopyWriter(int initialCapacity) {
+        this.buf = new byte[Math.max(64, initialCapacity)];
+    }
+
+    /** Yeni bir COPY akışı başlatır (önceki içerik silinir). */
+    PgBinaryCopyWriter begin() {
+        pos = 0;
+        ensure(SIGNATURE.length + 8);
+        System.arraycopy(SIGNATURE, 0, buf, 0, SIGNATURE.length);
+        pos = SIGNATURE.length;
+        putInt(0); // flags
+        putInt(0); // header extension length
+        return this;
+    }
+
+    PgBinaryCopyWriter row(int fieldCount) {
+        ensure(2);
+        putShort(fieldCount);
+        return this;
+    }
+
+    PgBinaryCopyWriter int8(long v) {
+        ensure(12);
+        putInt(8);
+        putInt((int) (v >>> 32));
+        putInt((int) v);
+        return this;
+    }
+
+    PgBinaryCopyWriter int4(int v) {
+        ensure(8);
+        putInt(4);
+        putInt(v);
+        return this;
+    }
+
+    PgBinaryCopyWriter bool(boolean v) {
+        ensure(5);
+        putInt(1);
+        buf[pos++] = (byte) (v ? 1 : 0);
+        return this;
+    }
+
+    /** text / varchar / enum etiketi: UTF-8 byte'ları. */
+    PgBinaryCopyWriter text(String s) {
+        if (s == null) return nul();
+        return bytes(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** bytea: ham byte'lar. */
+    PgBinaryCopyWriter bytes(byte[] b) {
+        if (b == null) return nul();
+        ensure(4 + b.length);
+        putInt(b.length);
+        System.arraycopy(b, 0, buf, pos, b.length);
+        pos += b.length;
+        return this;
+    }
+
+    PgBinaryCopyWriter jsonb(String json) {
+        if (json == null) return nul();
+        byte[] b = json.getBytes(StandardCharsets.UTF_8);
+        return jsonb(b, 0, b.length);
+    }
+
+    /** Hazır UTF-8 JSON metni (ör. {@link AuditJsonWriter} tamponu); kopya dışında ara nesne yok. */
+    PgBinaryCopyWriter jsonb(byte[] utf8, int off, int n) {
+        ensure(5 + n);
+        putInt(1 + n);
+        buf[pos++] = JSONB_VERSION;
+        System.arraycopy(utf8, off, buf, pos, n);
+        pos += n;
+        return this;
+    }
+
+    PgBinaryCopyWriter nul() {
+        ensure(4);
+        putInt(-1);
+        return this;
+    }
+
+    /** Akışı sonlandırır; veri {@link #array()}'in ilk {@link #length()} byte'ıdır. */
+    PgBinaryCopyWriter end() {
+        ensure(2);
+        putShort(-1);
+        return this;
+    }
+
+    byte[] array() { return buf; }
+
+    int length() { return pos; }
+
+    private void putInt(int v) {
+        buf[pos++] = (byte) (v >>> 24);
+        buf[pos++] = (byte) (v >>> 16);
+        buf[pos++] = (byte) (v >>> 8);
+        buf[pos++] = (byte) v;
+    }
+
+    private void putShort(int v) {
+        buf[pos++] = (byte) (v >>> 8);
+        buf[pos++] = (byte) v;
+    }
+
+    private void ensure(int n) {
+        if (pos + n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+        }
+    }
+}
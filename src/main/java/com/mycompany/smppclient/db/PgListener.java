@@ -0,0 +1,63 @@
+package com.mycompany.smppclient.db;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tek bir kanal için LISTEN / NOTIFY dinleyicisi; kendine ait bir bağlantıyı açık tutar
+ * (havuzdan bir bağlantı eksilir). Tek thread kullanımı içindir.
+ */
+public final class PgListener implements AutoCloseable {
+
+    private final Connection c;
+    private final PGConnection pg;
+    private final String channel;
+
+    /** @param channel sabit bir tanımlayıcı olmalı (SQL'e olduğu gibi yazılır) */
+    public PgListener(Db db, String channel) throws SQLException {
+        this.c = db.getConnection();
+        this.channel = channel;
+        try {
+            this.pg = c.unwrap(PGConnection.class);
+            try (Statement st = c.createStatement()) {
+                st.execute("LISTEN " + channel);
+            }
+        } catch (SQLException | RuntimeException e) {
+            c.close();
+            throw e;
+        }
+    }
+
+    /** En fazla {@code timeoutMs} bekler; bildirim geldiyse true. */
+    public boolean await(long timeoutMs) throws SQLException {
+        PGNotification[] n = pg.getNotifications((int) Math.max(1, timeoutMs));
+        return n != null && n.length > 0;
+    }
+
+    /** En fazla {@code timeoutMs} bekler; gelen bildirimlerin payload'larını döner (yoksa boş). */
+    public List<String> poll(long timeoutMs) throws SQLException {
+        PGNotification[] n = pg.getNotifications((int) Math.max(1, timeoutMs));
+        if (n == null || n.length == 0) return List.of();
+        List<String> out = new ArrayList<>(n.length);
+        for (PGNotification x : n) out.add(x.getParameter());
+        return out;
+    }
+
+    @Override
+    public void close() {
+        try (Statement st = c.createStatement()) {
+            st.execute("UNLISTEN " + channel);
+        } catch (SQLException ignored) {
+        }
+        try {
+            c.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
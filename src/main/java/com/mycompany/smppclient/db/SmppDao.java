@@ -1,16 +1,70 @@
 package com.mycompany.smppclient.db;
 
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 import org.postgresql.util.PGobject;
+import com.mycompany.smppclient.pdu.encoding.Hex;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public final class SmppDao {
 
     private final Db db;
 
+    /** AuditWriter'ın pdu_log batch'lerini nasıl yazacağı. */
+    public enum PduLogIngest {
+        /** JDBC batch INSERT; id'ler sequence'tan (RETURNING) gelir. */
+        INSERT,
+        /** COPY ... FROM STDIN (FORMAT binary); id'ler {@link LogIdGenerator} ile uygulamada üretilir. */
+        COPY
+    }
+
+    /** Ham PDU / short_message'ın saklanma biçimi (AuditWriter yolu). */
+    public enum RawStorage {
+        /** pdu_log.raw_hex / submit.submit_sm_hex TEXT kolonlarına büyük harf hex */
+        HEX,
+        /** pdu_log.raw_pdu / submit.submit_sm BYTEA kolonlarına ham byte (boyut yarıya iner, hex üretilmez) */
+        BYTEA
+    }
+
+    /**
+     * message_id aramalarında önce bakılan zaman penceresi. Partition'lı şemada (schema_partitioned.sql)
+     * created_at koşulu sayesinde sadece son partition'lar taranır; çoğu DLR bu pencerede gelir.
+     */
+    static final String RECENT_WINDOW = "interval '3 days'";
+
+    /** Önce son pencere, bulunamazsa tüm tablo; COALESCE ikinci alt sorguyu gerekmedikçe çalıştırmaz. 2 parametre. */
+    static final String SUBMIT_ID_BY_MESSAGE_ID =
+            "COALESCE((SELECT s.id FROM smpp.submit s WHERE s.message_id = ? AND s.created_at >= now() - "
+                    + RECENT_WINDOW + " LIMIT 1), (SELECT s.id FROM smpp.submit s WHERE s.message_id = ? LIMIT 1))";
+
+    private final PduLogIngest ingest;
+    private final RawStorage raw;
+    private final LogIdGenerator logIds;
+
     public SmppDao(Db db) {
+        this(db, PduLogIngest.INSERT, 0);
+    }
+
+    /**
+     * @param nodeId COPY modunda id üretimi için bu JVM'in numarası (0..1023); aynı DB'ye yazan her JVM'de farklı olmalı
+     */
+    public SmppDao(Db db, PduLogIngest ingest, int nodeId) {
+        this(db, ingest, nodeId, RawStorage.HEX);
+    }
+
+    /**
+     * @param raw BYTEA için şemada raw_pdu / submit_sm kolonları olmalı (schema.sql); okuma için smpp.pdu_log_hex view'ı
+     */
+    public SmppDao(Db db, PduLogIngest ingest, int nodeId, RawStorage raw) {
         this.db = db;
+        this.ingest = ingest;
+        this.raw = raw;
+        this.logIds = new LogIdGenerator(nodeId);
     }
 
     public enum Direction { IN, OUT }
@@ -47,7 +101,7 @@ public final class SmppDao {
             ps.setString(6, rawHex);
 
             // decoded_json (JSONB)
-            ps.setObject(7, toJsonb(decodedFields));
+            ps.setObject(7, toJsonb(AuditFields.of(decodedFields), new AuditJsonWriter()));
 
             try (ResultSet rs = ps.executeQuery()) {
                 rs.next();
@@ -56,41 +110,13 @@ public final class SmppDao {
         }
     }
 
-    private static PGobject toJsonb(Map<String, Object> map) {
-        if (map == null) return null;
-        try {
-            String json = SimpleJson.toJson(map);
-            PGobject obj = new PGobject();
-            obj.setType("jsonb");
-            obj.setValue(json);
-            return obj;
-        } catch (Exception e) {
-            throw new RuntimeException("json serialize failed", e);
-        }
-    }
-
-    // Jackson yoksa diye minimal JSON. Projede Jackson varsa bunu kaldır, ObjectMapper kullan.
-    static final class SimpleJson {
-        static String toJson(Map<String, Object> map) {
-            StringBuilder sb = new StringBuilder("{");
-            boolean first = true;
-            for (var e : map.entrySet()) {
-                if (!first) sb.append(",");
-                first = false;
-                sb.append("\"").append(esc(e.getKey())).append("\":");
-                sb.append(val(e.getValue()));
-            }
-            sb.append("}");
-            return sb.toString();
-        }
-        static String val(Object v) {
-            if (v == null) return "null";
-            if (v instanceof Number || v instanceof Boolean) return v.toString();
-            return "\"" + esc(String.valueOf(v)) + "\"";
-        }
-        static String esc(String s) {
-            return s.replace("\\","\\\\").replace("\"","\\\"");
-        }
+    /** decoded_json parametresi; INSERT yolu String ister, COPY yolu tamponu doğrudan kullanır. */
+    private static PGobject toJsonb(AuditFields fields, AuditJsonWriter json) throws SQLException {
+        if (!json.encode(fields)) return null;
+        PGobject obj = new PGobject();
+        obj.setType("jsonb");
+        obj.setValue(json.toString());
+        return obj;
     }
 
     public long insertMessageFlowOnSubmit(
@@ -149,7 +175,8 @@ public final class SmppDao {
                updated_at = now()
          WHERE session_id = ?
            AND submit_seq = ?
-    """;
+           AND created_at >= now() - %s
+    """.formatted(RECENT_WINDOW);
 
         try (Connection c = db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
@@ -185,9 +212,18 @@ public final class SmppDao {
          WHERE message_id = ?
     """;
 
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        try (Connection c = db.getConnection()) {
+            // önce son partition'lar; DLR geç geldiyse tüm tablo
+            int n = updateFlowDlr(c, sql + "   AND created_at >= now() - " + RECENT_WINDOW,
+                    dlrStat, dlrErr, dlrText, dlrLogId, messageId);
+            if (n > 0) return n;
+            return updateFlowDlr(c, sql, dlrStat, dlrErr, dlrText, dlrLogId, messageId);
+        }
+    }
 
+    private static int updateFlowDlr(Connection c, String sql, String dlrStat, String dlrErr, String dlrText,
+                                     long dlrLogId, String messageId) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, dlrStat);
             ps.setString(2, dlrErr);
             ps.setString(3, dlrText);
@@ -210,9 +246,19 @@ public final class SmppDao {
         public final byte addrTon;
         public final byte addrNpi;
         public final String addressRange;
+        public final boolean active;
+        /** smsc_account.updated_at (epoch ms); bilinmiyorsa 0 */
+        public final long updatedAtMs;
 
         public SmscAccount(String name, String host, int port, String systemId, String password,
                            String systemType, byte interfaceVersion, byte addrTon, byte addrNpi, String addressRange) {
+            this(name, host, port, systemId, password, systemType, interfaceVersion, addrTon, addrNpi, addressRange,
+                    true, 0);
+        }
+
+        public SmscAccount(String name, String host, int port, String systemId, String password,
+                           String systemType, byte interfaceVersion, byte addrTon, byte addrNpi, String addressRange,
+                           boolean active, long updatedAtMs) {
             this.name = name;
             this.host = host;
             this.port = port;
@@ -223,6 +269,28 @@ public final class SmppDao {
             this.addrTon = addrTon;
             this.addrNpi = addrNpi;
             this.addressRange = addressRange;
+            this.active = active;
+            this.updatedAtMs = updatedAtMs;
+        }
+
+        /** Bind'i etkileyen alanlar (adres + kimlik) aynı mı; farklıysa session'lar yeniden bind edilmeli. */
+        public boolean sameBind(SmscAccount o) {
+            return o != null
+                    && port == o.port
+                    && interfaceVersion == o.interfaceVersion
+                    && addrTon == o.addrTon
+                    && addrNpi == o.addrNpi
+                    && Objects.equals(host, o.host)
+                    && Objects.equals(systemId, o.systemId)
+                    && Objects.equals(password, o.password)
+                    && Objects.equals(systemType, o.systemType)
+                    && Objects.equals(addressRange, o.addressRange);
+        }
+
+        @Override
+        public String toString() {
+            // password yazılmaz
+            return name + "{" + systemId + "@" + host + ":" + port + (active ? "" : ", inactive") + "}";
         }
     }
 
@@ -261,6 +329,47 @@ public final class SmppDao {
 
 
 
+    private static final String SMSC_ACCOUNT_COLUMNS =
+            "name, host, port, system_id, password, system_type, interface_ver, addr_ton, addr_npi, address_range, "
+                    + "is_active, updated_at";
+
+    /**
+     * {@code updated_at >= changedSinceMs} olan hesaplar (pasifler dahil, registry kapatmak için görür);
+     * {@code changedSinceMs <= 0} ise hepsi.
+     */
+    public List<SmscAccount> loadSmscAccounts(long changedSinceMs) throws SQLException {
+        String sql = "SELECT " + SMSC_ACCOUNT_COLUMNS + " FROM smpp.smsc_account"
+                + (changedSinceMs > 0 ? " WHERE updated_at >= ?" : "")
+                + " ORDER BY name";
+
+        try (Connection c = db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            if (changedSinceMs > 0) ps.setTimestamp(1, new Timestamp(changedSinceMs));
+
+            List<SmscAccount> out = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp upd = rs.getTimestamp("updated_at");
+                    out.add(new SmscAccount(
+                            rs.getString("name"),
+                            rs.getString("host"),
+                            rs.getInt("port"),
+                            rs.getString("system_id"),
+                            rs.getString("password"),
+                            rs.getString("system_type"),
+                            (byte) rs.getInt("interface_ver"),
+                            (byte) rs.getInt("addr_ton"),
+                            (byte) rs.getInt("addr_npi"),
+                            rs.getString("address_range"),
+                            rs.getBoolean("is_active"),
+                            upd == null ? 0 : upd.getTime()
+                    ));
+                }
+            }
+            return out;
+        }
+    }
+
     public long insertSubmitOnResp(
             String sessionId,
             String systemId,
@@ -309,10 +418,11 @@ public final class SmppDao {
     }
 
     public Long findSubmitIdByMessageId(String messageId) throws SQLException {
-        String sql = "SELECT id FROM smpp.submit WHERE message_id = ? LIMIT 1";
+        String sql = "SELECT " + SUBMIT_ID_BY_MESSAGE_ID;
         try (Connection c = db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, messageId);
+            ps.setString(2, messageId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (!rs.next()) return null;
                 return rs.getLong(1);
@@ -360,8 +470,175 @@ public final class SmppDao {
         }
     }
 
+    // ---------- AuditWriter batch yazımı ----------
+
+    /** {@link AuditWriter}'ın kullandığı batch yazıcı. */
+    AuditWriter.Sink auditSink() {
+        return this::writeAuditBatch;
+    }
+
+    /**
+     * pdu_log, submit ve deliver kayıtlarını tek bağlantı + tek transaction içinde JDBC batch ile yazar.
+     * Üretilen id'ler kayıtlara geri yazılır; hata olursa hepsi geri alınır.
+     */
+    void writeAuditBatch(List<AuditWriter.PduLog> logs, List<AuditWriter.Submit> submits,
+                         List<AuditWriter.Deliver> delivers) throws SQLException {
+        // decoded_json alanları batch boyunca aynı tampona yazılır
+        AuditJsonWriter json = new AuditJsonWriter();
+        try (Connection c = db.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                if (!logs.isEmpty()) {
+                    if (ingest == PduLogIngest.COPY) copyPduLogBatch(c, logs, json);
+                    else insertPduLogBatch(c, logs, raw, json);
+                }
+                if (!submits.isEmpty()) insertSubmitBatch(c, submits, raw);
+                if (!delivers.isEmpty()) insertDeliverBatch(c, delivers);
+                c.commit();
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static void insertPduLogBatch(Connection c, List<AuditWriter.PduLog> logs, RawStorage raw,
+                                          AuditJsonWriter json) throws SQLException {
+        String sql = """
+            INSERT INTO smpp.pdu_log
+              (direction, pdu_type, command_id, command_status, sequence_number, %s, decoded_json)
+            VALUES
+              (?::smpp.direction, ?, ?, ?, ?, ?, ?)
+        """.formatted(raw == RawStorage.BYTEA ? "raw_pdu" : "raw_hex");
+
+        try (PreparedStatement ps = c.prepareStatement(sql, new String[]{"id"})) {
+            for (AuditWriter.PduLog r : logs) {
+                ps.setString(1, r.direction.name());
+                ps.setString(2, r.pduType);
+                ps.setInt(3, r.commandId);
+                ps.setInt(4, r.commandStatus);
+                ps.setInt(5, r.sequenceNumber);
+                if (raw == RawStorage.BYTEA) ps.setBytes(6, r.raw);
+                else ps.setString(6, Hex.toHex(r.raw));
+                ps.setObject(7, toJsonb(r.decoded, json));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                for (AuditWriter.PduLog r : logs) {
+                    if (!rs.next()) break;
+                    r.id = rs.getLong(1);
+                }
+            }
+        }
+    }
+
+    private static final String COPY_PDU_LOG_SQL = """
+        COPY smpp.pdu_log
+          (id, direction, pdu_type, command_id, command_status, sequence_number, %s, decoded_json)
+        FROM STDIN (FORMAT binary)
+    """;
 
+    /**
+     * pdu_log satırlarını tek bir binary COPY ile yazar. id'ler burada üretilir; sonraki submit/deliver
+     * satırları RETURNING beklemeden bu id'lere referans verir.
+     */
+    private void copyPduLogBatch(Connection c, List<AuditWriter.PduLog> logs, AuditJsonWriter json) throws SQLException {
+        boolean bytea = raw == RawStorage.BYTEA;
+        PgBinaryCopyWriter w = new PgBinaryCopyWriter(logs.size() * 256).begin();
+        for (AuditWriter.PduLog r : logs) {
+            r.id = logIds.next();
+            w.row(8)
+                    .int8(r.id)
+                    .text(r.direction.name())
+                    .text(r.pduType)
+                    .int4(r.commandId)
+                    .int4(r.commandStatus)
+                    .int4(r.sequenceNumber);
+            if (bytea) w.bytes(r.raw);
+            else w.text(Hex.toHex(r.raw));
+            if (json.encode(r.decoded)) w.jsonb(json.array(), 0, json.length());
+            else w.nul();
+        }
+        w.end();
 
+        String sql = COPY_PDU_LOG_SQL.formatted(bytea ? "raw_pdu" : "raw_hex");
+        CopyIn in = c.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        try {
+            in.writeToCopy(w.array(), 0, w.length());
+            in.endCopy();
+        } finally {
+            if (in.isActive()) in.cancelCopy();
+        }
+    }
 
+    private static void insertSubmitBatch(Connection c, List<AuditWriter.Submit> submits, RawStorage raw) throws SQLException {
+        String sql = """
+        INSERT INTO smpp.submit
+          (session_id, system_id, submit_seq, src_addr, dst_addr, data_coding, esm_class, %s,
+           resp_status, message_id, submit_log_id, submit_resp_log_id)
+        VALUES
+          (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+    """.formatted(raw == RawStorage.BYTEA ? "submit_sm" : "submit_sm_hex");
+
+        try (PreparedStatement ps = c.prepareStatement(sql, new String[]{"id"})) {
+            for (AuditWriter.Submit r : submits) {
+                ps.setString(1, r.sessionId);
+                ps.setString(2, r.systemId);
+                ps.setInt(3, r.submitSeq);
+                ps.setString(4, r.srcAddr);
+                ps.setString(5, r.dstAddr);
+                ps.setInt(6, r.dataCoding);
+                ps.setInt(7, r.esmClass);
+                if (raw == RawStorage.BYTEA) ps.setBytes(8, r.submitSm);
+                else ps.setString(8, Hex.toHex(r.submitSm));
+                ps.setInt(9, r.respStatus);
+                ps.setString(10, r.messageId);
+                setLogId(ps, 11, r.submitLog);
+                setLogId(ps, 12, r.submitRespLog);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                for (AuditWriter.Submit r : submits) {
+                    if (!rs.next()) break;
+                    r.id = rs.getLong(1);
+                }
+            }
+        }
+    }
 
+    /**
+     * submit_id aynı statement içinde message_id'den bulunur (submit aynı transaction'da az önce yazılmış
+     * olabilir). Submit henüz yoksa NULL kalır; submit satırı gelince smpp.submit üzerindeki trigger doldurur.
+     */
+    private static void insertDeliverBatch(Connection c, List<AuditWriter.Deliver> delivers) throws SQLException {
+        String sql = "INSERT INTO smpp.deliver"
+                + " (submit_id, message_id, is_dlr, src_addr, dst_addr, data_coding, esm_class, text, deliver_log_id)"
+                + " VALUES (" + SUBMIT_ID_BY_MESSAGE_ID + ", ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (AuditWriter.Deliver r : delivers) {
+                ps.setString(1, r.messageId);
+                ps.setString(2, r.messageId);
+                ps.setString(3, r.messageId);
+                ps.setBoolean(4, r.isDlr);
+                ps.setString(5, r.srcAddr);
+                ps.setString(6, r.dstAddr);
+                ps.setInt(7, r.dataCoding);
+                ps.setInt(8, r.esmClass);
+                ps.setString(9, r.text);
+                setLogId(ps, 10, r.deliverLog);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /** Bağlı pdu_log yazılamadıysa (id yok) FK null geçilir. */
+    private static void setLogId(PreparedStatement ps, int idx, AuditWriter.PduLog ref) throws SQLException {
+        long id = ref == null ? -1 : ref.id;
+        if (id > 0) ps.setLong(idx, id);
+        else ps.setNull(idx, Types.BIGINT);
+    }
 }
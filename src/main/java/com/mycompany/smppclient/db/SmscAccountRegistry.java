@@ -0,0 +1,228 @@
+package com.mycompany.smppclient.db;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * smpp.smsc_account'un bellekteki kopyası: açılışta tüm hesaplar yüklenir, sonra sadece değişenler okunur.
+ * <p>
+ * Her turda {@code updated_at}'i son görülenden (biraz geriden) büyük satırlar okunur; silinen satırlar
+ * için {@code fullReloadMs}'te bir (veya DELETE bildiriminde) tüm tablo okunur. Değişiklikler
+ * {@link Listener}'a bildirilir: yeni aktif hesap, bind bilgisi (host / port / kimlik) değişen hesap,
+ * pasifleşen / silinen hesap. schema.sql'deki trigger her değişiklikte {@link #CHANNEL}'a NOTIFY atar;
+ * dinleme yoksa {@code refreshMs}'te bir bakılır. {@link #get} DB'ye gitmez.
+ */
+public final class SmscAccountRegistry implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(SmscAccountRegistry.class);
+
+    /** schema.sql'deki trigger'ın NOTIFY kanalı; payload {@code <TG_OP>:<name>} */
+    public static final String CHANNEL = "smpp_account";
+
+    public static final long DEFAULT_REFRESH_MS = 30_000;
+    public static final long DEFAULT_FULL_RELOAD_MS = 10 * 60_000;
+    // updated_at transaction başlangıç zamanıdır; geç commit edilenleri kaçırmamak için geriden okunur
+    static final long OVERLAP_MS = 60_000;
+
+    /** Değişiklik bildirimleri registry thread'inden gelir. */
+    public interface Listener {
+        void onAccountAdded(SmppDao.SmscAccount account);
+
+        /** Bind bilgisi değişti; session'lar yeni bilgiyle yeniden bind edilmeli. */
+        void onAccountChanged(SmppDao.SmscAccount previous, SmppDao.SmscAccount current);
+
+        /** Hesap pasifleşti veya silindi. */
+        void onAccountRemoved(SmppDao.SmscAccount previous);
+    }
+
+    /** Hesapların kaynağı: {@code updated_at >= sinceMs} olanlar, sinceMs <= 0 ise hepsi. */
+    interface Source {
+        List<SmppDao.SmscAccount> load(long sinceMs) throws SQLException;
+    }
+
+    private final Source source;
+    private final Db db;
+    private final Listener listener;
+    private final long refreshMs;
+    private final long fullReloadMs;
+
+    // sadece aktif hesaplar
+    private final Map<String, SmppDao.SmscAccount> accounts = new ConcurrentHashMap<>();
+    private long watermarkMs;
+    private long nextFullReload;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public SmscAccountRegistry(SmppDao dao, Db db, Listener listener) {
+        this(dao::loadSmscAccounts, db, listener, DEFAULT_REFRESH_MS, DEFAULT_FULL_RELOAD_MS);
+    }
+
+    /** @param db NOTIFY dinlemek için; null ise sadece {@code refreshMs} aralıkla bakılır */
+    public SmscAccountRegistry(SmppDao dao, Db db, Listener listener, long refreshMs, long fullReloadMs) {
+        this(dao::loadSmscAccounts, db, listener, refreshMs, fullReloadMs);
+    }
+
+    SmscAccountRegistry(Source source, Db db, Listener listener, long refreshMs, long fullReloadMs) {
+        this.source = source;
+        this.db = db;
+        this.listener = listener;
+        this.refreshMs = Math.max(100, refreshMs);
+        this.fullReloadMs = fullReloadMs;
+    }
+
+    // ---------- okuma (DB'ye gitmez) ----------
+
+    public SmppDao.SmscAccount get(String name) {
+        return name == null ? null : accounts.get(name);
+    }
+
+    public Collection<SmppDao.SmscAccount> all() {
+        return List.copyOf(accounts.values());
+    }
+
+    public int size() {
+        return accounts.size();
+    }
+
+    // ---------- yenileme ----------
+
+    /** Tüm tabloyu okuyup farkları bildirir (açılışta ve silinenleri yakalamak için). */
+    public synchronized void reload() throws SQLException {
+        List<SmppDao.SmscAccount> rows = source.load(0);
+        Set<String> seen = new HashSet<>();
+        for (SmppDao.SmscAccount a : rows) {
+            seen.add(a.name);
+            apply(a);
+        }
+        for (SmppDao.SmscAccount old : new ArrayList<>(accounts.values())) {
+            if (!seen.contains(old.name) && accounts.remove(old.name, old)) {
+                log.info("[ACCOUNTS] removed {}", old);
+                notifyRemoved(old);
+            }
+        }
+        nextFullReload = System.currentTimeMillis() + fullReloadMs;
+    }
+
+    /** Sadece son turdan beri değişen satırları okur; silinenler bir sonraki {@link #reload()}'da görülür. */
+    public synchronized void refresh() throws SQLException {
+        if (watermarkMs == 0 || System.currentTimeMillis() >= nextFullReload) {
+            reload();
+            return;
+        }
+        for (SmppDao.SmscAccount a : source.load(watermarkMs - OVERLAP_MS)) apply(a);
+    }
+
+    private void apply(SmppDao.SmscAccount a) {
+        if (a.updatedAtMs > watermarkMs) watermarkMs = a.updatedAtMs;
+        SmppDao.SmscAccount old = accounts.get(a.name);
+
+        if (!a.active) {
+            if (old != null && accounts.remove(a.name, old)) {
+                log.info("[ACCOUNTS] deactivated {}", old);
+                notifyRemoved(old);
+            }
+            return;
+        }
+        accounts.put(a.name, a);
+        if (old == null) {
+            log.info("[ACCOUNTS] added {}", a);
+            try {
+                listener.onAccountAdded(a);
+            } catch (RuntimeException e) {
+                log.warn("[ACCOUNTS] onAccountAdded failed {}: {}", a, e.toString());
+            }
+        } else if (!old.sameBind(a)) {
+            log.info("[ACCOUNTS] changed {} -> {}", old, a);
+            try {
+                listener.onAccountChanged(old, a);
+            } catch (RuntimeException e) {
+                log.warn("[ACCOUNTS] onAccountChanged failed {}: {}", a, e.toString());
+            }
+        }
+    }
+
+    private void notifyRemoved(SmppDao.SmscAccount old) {
+        try {
+            listener.onAccountRemoved(old);
+        } catch (RuntimeException e) {
+            log.warn("[ACCOUNTS] onAccountRemoved failed {}: {}", old, e.toString());
+        }
+    }
+
+    // ---------- thread ----------
+
+    /** Hesapları yükler (hata olursa fırlatır) ve arka planda yenilemeyi başlatır. */
+    public synchronized void start() throws SQLException {
+        if (running) return;
+        reload();
+        running = true;
+        thread = new Thread(this::runLoop, "smpp-accounts");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void runLoop() {
+        PgListener notifications = null;
+        while (running) {
+            try {
+                if (db != null && notifications == null) {
+                    try {
+                        notifications = new PgListener(db, CHANNEL);
+                    } catch (Exception e) {
+                        log.debug("[ACCOUNTS] LISTEN failed, polling: {}", e.toString());
+                    }
+                }
+
+                boolean deleted = false;
+                if (notifications != null) {
+                    for (String payload : notifications.poll(refreshMs)) {
+                        if (payload != null && payload.startsWith("DELETE")) deleted = true;
+                    }
+                } else {
+                    Thread.sleep(refreshMs);
+                }
+                if (!running) break;
+
+                if (deleted) reload();
+                else refresh();
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                log.warn("[ACCOUNTS] refresh failed: {}", e.toString());
+                if (notifications != null) {
+                    notifications.close();
+                    notifications = null;
+                }
+                try {
+                    Thread.sleep(refreshMs);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+            }
+        }
+        if (notifications != null) notifications.close();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        Thread t = thread;
+        if (t == null) return;
+        t.interrupt();
+        try {
+            t.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.mycompany.smppclient.db;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DB yazılamazken {@link AuditWriter} kayıtlarının düştüğü, memory-mapped, sadece sona eklenen yerel dosya.
+ * <p>
+ * Başlıkta okuma/yazma pozisyonları tutulur; her {@link #append} kayıtları yazıp {@code force()} ettikten
+ * sonra yazma pozisyonunu ilerletir ve başlığı da {@code force()} eder, yani yarıda kalan ekleme süreç çökse
+ * de görünmez, tamamlanan ekleme OS çökse de kaybolmaz. Replay
+ * {@link #read} + {@link #commitRead} ile batch batch yapılır; dosya tamamen boşalınca başa sarılır.
+ * <p>
+ * Kayıtlar arası bağlar (submit -> pdu_log) ya DB id'si ya da journal'daki offset ile saklanır; offset'ler
+ * replay sırasında yazılan satırın id'sine çevrilir. Replay edilen id, append'e verilen asıl {@code PduLog}'a
+ * da yazılır; bellekte ona bağlı (ör. PendingSubmit) geç kayıtlar doğrudan yoldan da FK'yı bulur. Asıl nesneler
+ * zayıf referansla tutulur: kesinti boyunca heap journal ile birlikte büyümez, GC'nin topladıkları haritadan silinir.
+ * Tek thread (writer thread'i) kullanımı içindir.
+ */
+public final class SpillJournal implements AutoCloseable {
+
+    public static final long DEFAULT_MAX_BYTES = 512L * 1024 * 1024;
+
+    private static final int MAGIC = 0x534A524E; // "SJRN"
+    // 2: decoded_json, Map yerine AuditJsonWriter çıktısı olarak saklanır
+    private static final int VERSION = 2;
+    private static final int HEADER = 64;
+    private static final int OFF_READ = 8;
+    private static final int OFF_WRITE = 16;
+    private static final int OFF_READ_COUNT = 24;
+    private static final int OFF_WRITE_COUNT = 32;
+    private static final int OFF_BASE = 40;
+    private static final int MAX_REPLAYED_IDS = 100_000;
+    private static final long INITIAL_MAP = 16L * 1024 * 1024;
+
+    private static final byte T_PDU_LOG = 1;
+    private static final byte T_SUBMIT = 2;
+    private static final byte T_DELIVER = 3;
+
+    private static final byte REF_NONE = 0;
+    private static final byte REF_ID = 1;
+    private static final byte REF_OFFSET = 2;
+
+    private final Path file;
+    private final FileChannel ch;
+    private final long maxBytes;
+    private MappedByteBuffer map;
+
+    private long readPos;
+    private long writePos;
+    private long readCount;
+    private long writeCount;
+    // dosya her başa sarıldığında artar; offset'ler (base + pos) bu sayede hiç tekrar etmez
+    private long base;
+
+    // son read()'in sonu; commitRead'e kadar başlığa yazılmaz
+    private long pendingReadPos = -1;
+    private int pendingReadCount;
+    private final Map<Long, AuditWriter.PduLog> pendingLogs = new HashMap<>();
+    /** bu süreçte append edilen, henüz replay edilmemiş asıl pdu_log nesneleri (offset -> zayıf referans) */
+    private final Map<Long, LiveRef> liveLogs = new HashMap<>();
+    private final ReferenceQueue<AuditWriter.PduLog> collected = new ReferenceQueue<>();
+    /** replay edilmiş pdu_log offset -> DB id; geç gelen submit_resp'ler için son kayıtlar tutulur */
+    private final Map<Long, Long> replayedIds = new LinkedHashMap<>(1024, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > MAX_REPLAYED_IDS;
+        }
+    };
+
+    private final Out out = new Out();
+    private final AuditJsonWriter json = new AuditJsonWriter();
+
+    public SpillJournal(Path file) throws IOException {
+        this(file, DEFAULT_MAX_BYTES);
+    }
+
+    /** @param maxBytes dosyanın büyüyebileceği en fazla boyut (en fazla 2 GB); dolunca append false döner */
+    public SpillJournal(Path file, long maxBytes) throws IOException {
+        this.file = file;
+        this.maxBytes = Math.min(Math.max(maxBytes, HEADER + 1024), Integer.MAX_VALUE);
+        this.ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long size = ch.size();
+        remap(Math.max(Math.min(INITIAL_MAP, this.maxBytes), size));
+        if (size >= HEADER && map.getInt(0) == MAGIC) {
+            int v = map.getInt(4);
+            if (v != VERSION) {
+                ch.close();
+                throw new IOException("unsupported journal version " + v + ": " + file);
+            }
+            readPos = map.getLong(OFF_READ);
+            writePos = map.getLong(OFF_WRITE);
+            readCount = map.getLong(OFF_READ_COUNT);
+            writeCount = map.getLong(OFF_WRITE_COUNT);
+            base = map.getLong(OFF_BASE);
+        } else {
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+            readPos = writePos = HEADER;
+            readCount = writeCount = 0;
+            writeHeader();
+        }
+    }
+
+    public Path getFile() { return file; }
+
+    public boolean isEmpty() { return readPos >= writePos; }
+
+    /** Henüz DB'ye yazılmamış kayıt sayısı. */
+    public long getPendingCount() { return writeCount - readCount; }
+
+    public long getPendingBytes() { return writePos - readPos; }
+
+    /** Replay'de id'si geri yazılmak üzere izlenen, henüz GC'nin toplamadığı pdu_log sayısı. */
+    int getLiveLogCount() { return liveLogs.size(); }
+
+    // ---------- yazma ----------
+
+    /**
+     * Kayıtları (PduLog / Submit / Deliver) sırayla ekler ve diske zorlar. Yer yoksa hiçbirini eklemez, false döner.
+     */
+    public boolean append(List<?> records) throws IOException {
+        expungeCollected();
+        long pos = writePos;
+        int n = 0;
+        for (Object r : records) {
+            // offset encode'dan önce verilir ki aynı batch'te sonra gelen bağlar da offset ile yazılabilsin
+            if (r instanceof AuditWriter.PduLog l) l.journalOffset = base + pos;
+            out.reset();
+            if (!encode(r, out)) continue;
+            int need = 4 + out.len;
+            if (pos + need > map.capacity() && !grow(pos + need)) {
+                for (Object x : records) {
+                    if (x instanceof AuditWriter.PduLog l) l.journalOffset = -1;
+                }
+                return false;
+            }
+            map.putInt((int) pos, out.len);
+            map.put((int) pos + 4, out.buf, 0, out.len);
+            pos += need;
+            n++;
+        }
+        if (n == 0) return true;
+        map.force();
+        for (Object r : records) {
+            if (r instanceof AuditWriter.PduLog l) liveLogs.put(l.journalOffset, new LiveRef(l, collected));
+        }
+        writePos = pos;
+        writeCount += n;
+        writeHeader();
+        // başlık da diske inmeli; yoksa OS çökmesinde kayıtlar yazılı ama görünmez kalır
+        map.force();
+        return true;
+    }
+
+    private boolean encode(Object r, Out o) {
+        if (r instanceof AuditWriter.PduLog l) {
+            o.u8(T_PDU_LOG);
+            o.u8(l.direction == null ? -1 : l.direction.ordinal());
+            o.str(l.pduType);
+            o.i32(l.commandId);
+            o.i32(l.commandStatus);
+            o.i32(l.sequenceNumber);
+            o.bytes(l.raw);
+            if (json.encode(l.decoded)) o.bytes(json.array(), json.length());
+            else o.i32(-1);
+            return true;
+        }
+        if (r instanceof AuditWriter.Submit s) {
+            o.u8(T_SUBMIT);
+            o.str(s.sessionId);
+            o.str(s.systemId);
+            o.i32(s.submitSeq);
+            o.str(s.srcAddr);
+            o.str(s.dstAddr);
+            o.i32(s.dataCoding);
+            o.i32(s.esmClass);
+            o.bytes(s.submitSm);
+            o.i32(s.respStatus);
+            o.str(s.messageId);
+            ref(o, s.submitLog);
+            ref(o, s.submitRespLog);
+            return true;
+        }
+        if (r instanceof AuditWriter.Deliver d) {
+            o.u8(T_DELIVER);
+            o.str(d.messageId);
+            o.u8(d.isDlr ? 1 : 0);
+            o.str(d.srcAddr);
+            o.str(d.dstAddr);
+            o.i32(d.dataCoding);
+            o.i32(d.esmClass);
+            o.str(d.text);
+            ref(o, d.deliverLog);
+            return true;
+        }
+        return false;
+    }
+
+    private static void ref(Out o, AuditWriter.PduLog l) {
+        if (l == null) {
+            o.u8(REF_NONE);
+        } else if (l.id > 0) {
+            o.u8(REF_ID);
+            o.i64(l.id);
+        } else if (l.journalOffset > 0) {
+            o.u8(REF_OFFSET);
+            o.i64(l.journalOffset);
+        } else {
+            // bağlı kayıt ne yazıldı ne journal'a düştü (ör. DROP_OLDEST): FK null
+            o.u8(REF_NONE);
+        }
+    }
+
+    // ---------- replay ----------
+
+    /**
+     * Okuma pozisyonundan en fazla {@code max} kaydı nesneye çevirir. {@link #commitRead()} çağrılana kadar
+     * pozisyon ilerlemez; DB yazımı başarısız olursa aynı kayıtlar tekrar okunur.
+     */
+    public List<Object> read(int max) {
+        pendingLogs.clear();
+        List<Object> outList = new ArrayList<>(Math.min(max, 1024));
+        long pos = readPos;
+        while (pos < writePos && outList.size() < max) {
+            int len = map.getInt((int) pos);
+            In in = new In(map, (int) pos + 4);
+            Object r = decode(base + pos, in);
+            if (r != null) outList.add(r);
+            pos += 4 + len;
+        }
+        pendingReadPos = pos;
+        pendingReadCount = outList.size();
+        return outList;
+    }
+
+    /** Son {@link #read}'deki kayıtlar DB'ye yazıldı; pozisyonu ilerletir, journal boşaldıysa başa sarar. */
+    public void commitRead() {
+        if (pendingReadPos < 0) return;
+        for (Map.Entry<Long, AuditWriter.PduLog> e : pendingLogs.entrySet()) {
+            long id = e.getValue().id;
+            LiveRef ref = liveLogs.remove(e.getKey());
+            AuditWriter.PduLog live = ref == null ? null : ref.get();
+            if (id > 0) {
+                replayedIds.put(e.getKey(), id);
+                if (live != null) live.id = id;
+            }
+        }
+        pendingLogs.clear();
+        readPos = pendingReadPos;
+        readCount += pendingReadCount;
+        pendingReadPos = -1;
+        if (readPos >= writePos) {
+            base += writePos - HEADER;
+            readPos = writePos = HEADER;
+            readCount = writeCount = 0;
+        }
+        writeHeader();
+        map.force();
+    }
+
+    private Object decode(long offset, In in) {
+        byte type = in.u8();
+        switch (type) {
+            case T_PDU_LOG -> {
+                int dir = in.u8();
+                AuditWriter.PduLog l = new AuditWriter.PduLog(
+                        dir < 0 ? null : SmppDao.Direction.values()[dir],
+                        in.str(), in.i32(), in.i32(), in.i32(), in.bytes(), AuditFields.json(in.bytes()));
+                l.journalOffset = offset;
+                pendingLogs.put(offset, l);
+                return l;
+            }
+            case T_SUBMIT -> {
+                return new AuditWriter.Submit(in.str(), in.str(), in.i32(), in.str(), in.str(), in.i32(), in.i32(),
+                        in.bytes(), in.i32(), in.str(), ref(in), ref(in));
+            }
+            case T_DELIVER -> {
+                return new AuditWriter.Deliver(in.str(), in.u8() != 0, in.str(), in.str(), in.i32(), in.i32(),
+                        in.str(), ref(in));
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private AuditWriter.PduLog ref(In in) {
+        byte kind = in.u8();
+        if (kind == REF_NONE) return null;
+        long v = in.i64();
+        if (kind == REF_OFFSET) {
+            AuditWriter.PduLog same = pendingLogs.get(v);
+            if (same != null) return same;
+            Long id = replayedIds.get(v);
+            if (id == null) return null; // çok eski ya da süreç yeniden başlamadan önce replay edilmiş
+            v = id;
+        }
+        AuditWriter.PduLog stub = new AuditWriter.PduLog(null, null, 0, 0, 0, null, null);
+        stub.id = v;
+        return stub;
+    }
+
+    /** GC'nin topladığı asıl nesnelerin girişlerini siler; artık id yazılacak kimse yok. */
+    private void expungeCollected() {
+        for (Reference<? extends AuditWriter.PduLog> r; (r = collected.poll()) != null; ) {
+            LiveRef lr = (LiveRef) r;
+            liveLogs.remove(lr.offset, lr);
+        }
+    }
+
+    private static final class LiveRef extends WeakReference<AuditWriter.PduLog> {
+        final long offset;
+
+        LiveRef(AuditWriter.PduLog l, ReferenceQueue<AuditWriter.PduLog> q) {
+            super(l, q);
+            this.offset = l.journalOffset;
+        }
+    }
+
+    // ---------- dosya ----------
+
+    private boolean grow(long need) throws IOException {
+        if (need > maxBytes) return false;
+        long size = map.capacity();
+        while (size < need) size = Math.min(size * 2, maxBytes);
+        remap(size);
+        return true;
+    }
+
+    private void remap(long size) throws IOException {
+        map = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private void writeHeader() {
+        map.putLong(OFF_READ, readPos);
+        map.putLong(OFF_WRITE, writePos);
+        map.putLong(OFF_READ_COUNT, readCount);
+        map.putLong(OFF_WRITE_COUNT, writeCount);
+        map.putLong(OFF_BASE, base);
+    }
+
+    @Override
+    public void close() throws IOException {
+        map.force();
+        ch.close();
+    }
+
+    // ---------- basit ikili biçim ----------
+
+    private static final class Out {
+        byte[] buf = new byte[512];
+        int len;
+
+        void reset() { len = 0; }
+
+        void ensure(int n) {
+            if (len + n > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + n));
+        }
+
+        void u8(int v) { ensure(1); buf[len++] = (byte) v; }
+
+        void i32(int v) {
+            ensure(4);
+            buf[len++] = (byte) (v >>> 24);
+            buf[len++] = (byte) (v >>> 16);
+            buf[len++] = (byte) (v >>> 8);
+            buf[len++] = (byte) v;
+        }
+
+        void i64(long v) { i32((int) (v >>> 32)); i32((int) v); }
+
+        void bytes(byte[] b) {
+            if (b == null) { i32(-1); return; }
+            bytes(b, b.length);
+        }
+
+        void bytes(byte[] b, int n) {
+            i32(n);
+            ensure(n);
+            System.arraycopy(b, 0, buf, len, n);
+            len += n;
+        }
+
+        void str(String s) { bytes(s == null ? null : s.getBytes(StandardCharsets.UTF_8)); }
+    }
+
+    private static final class In {
+        private final MappedByteBuffer m;
+        private int p;
+
+        In(MappedByteBuffer m, int p) { this.m = m; this.p = p; }
+
+        byte u8() { return m.get(p++); }
+
+        int i32() { int v = m.getInt(p); p += 4; return v; }
+
+        long i64() { long v = m.getLong(p); p += 8; return v; }
+
+        byte[] bytes() {
+            int n = i32();
+            if (n < 0) return null;
+            byte[] b = new byte[n];
+            m.get(p, b);
+            p += n;
+            return b;
+        }
+
+        String str() {
+            byte[] b = bytes();
+            return b == null ? null : new String(b, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+-- raw_hex / submit_sm_hex (TEXT) -> raw_pdu / submit_sm (BYTEA) taşıma.
+-- Önce schema.sql çalıştırılmış olmalı (kolonlar + view'lar).
+-- Uygulama çalışırken çalıştırılabilir: 10.000'lik parçalar halinde, her parça ayrı transaction.
+-- (DO içinde COMMIT için PostgreSQL 11+ ve psql'de autocommit açık olmalı.)
+
+DO $$
+DECLARE
+    n INT;
+BEGIN
+    LOOP
+        UPDATE smpp.pdu_log
+           SET raw_pdu = decode(raw_hex, 'hex'),
+               raw_hex = NULL
+         WHERE id IN (SELECT id FROM smpp.pdu_log
+                       WHERE raw_pdu IS NULL AND raw_hex IS NOT NULL
+                       LIMIT 10000);
+        GET DIAGNOSTICS n = ROW_COUNT;
+        COMMIT;
+        EXIT WHEN n = 0;
+    END LOOP;
+
+    LOOP
+        UPDATE smpp.submit
+           SET submit_sm = decode(submit_sm_hex, 'hex'),
+               submit_sm_hex = NULL
+         WHERE id IN (SELECT id FROM smpp.submit
+                       WHERE submit_sm IS NULL AND submit_sm_hex IS NOT NULL
+                       LIMIT 10000);
+        GET DIAGNOSTICS n = ROW_COUNT;
+        COMMIT;
+        EXIT WHEN n = 0;
+    END LOOP;
+END $$;
+
+-- Boşalan alanı geri kazanmak için (tabloyu kilitler, bakım penceresinde):
+-- VACUUM (FULL, ANALYZE) smpp.pdu_log;
+-- VACUUM (FULL, ANALYZE) smpp.submit;
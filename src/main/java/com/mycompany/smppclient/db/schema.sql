@@ -92,6 +92,36 @@ CREATE TABLE IF NOT EXISTS smpp.smsc_account (
                                                  created_at    TIMESTAMPTZ NOT NULL DEFAULT now()
     );
 
+-- Hesap değişikliklerini SmscAccountRegistry'ye bildirmek için: updated_at + NOTIFY (payload "<TG_OP>:<name>")
+ALTER TABLE smpp.smsc_account ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+CREATE INDEX IF NOT EXISTS ix_smsc_account_updated_at ON smpp.smsc_account(updated_at);
+
+CREATE OR REPLACE FUNCTION smpp.smsc_account_touch() RETURNS trigger
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    NEW.updated_at := now();
+    RETURN NEW;
+END $$;
+
+DROP TRIGGER IF EXISTS trg_smsc_account_touch ON smpp.smsc_account;
+CREATE TRIGGER trg_smsc_account_touch
+    BEFORE UPDATE ON smpp.smsc_account
+    FOR EACH ROW EXECUTE FUNCTION smpp.smsc_account_touch();
+
+CREATE OR REPLACE FUNCTION smpp.smsc_account_notify() RETURNS trigger
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    PERFORM pg_notify('smpp_account', TG_OP || ':' || COALESCE(NEW.name, OLD.name));
+    RETURN NULL;
+END $$;
+
+DROP TRIGGER IF EXISTS trg_smsc_account_notify ON smpp.smsc_account;
+CREATE TRIGGER trg_smsc_account_notify
+    AFTER INSERT OR UPDATE OR DELETE ON smpp.smsc_account
+    FOR EACH ROW EXECUTE FUNCTION smpp.smsc_account_notify();
+
 
 CREATE TABLE IF NOT EXISTS smpp.submit (
                                            id            BIGSERIAL PRIMARY KEY,
@@ -149,3 +179,102 @@ ALTER TABLE smpp.deliver
 
 CREATE INDEX IF NOT EXISTS ix_deliver_message_id ON smpp.deliver(message_id) WHERE message_id IS NOT NULL;
 CREATE INDEX IF NOT EXISTS ix_deliver_submit_id ON smpp.deliver(submit_id) WHERE submit_id IS NOT NULL;
+
+
+-- ---------- ham PDU'lar için BYTEA (SmppDao.RawStorage.BYTEA) ----------
+-- Yeni satırlar raw_pdu / submit_sm'e ham byte olarak yazılır; eski satırlar raw_hex / submit_sm_hex'te kalır.
+-- Eski satırları taşımak için: migrate_raw_hex_to_bytea.sql
+
+ALTER TABLE smpp.pdu_log
+    ADD COLUMN IF NOT EXISTS raw_pdu BYTEA;
+
+ALTER TABLE smpp.pdu_log
+    ALTER COLUMN raw_hex DROP NOT NULL;
+
+ALTER TABLE smpp.submit
+    ADD COLUMN IF NOT EXISTS submit_sm BYTEA;
+
+-- insan için okuma: hangi kolona yazılmış olursa olsun büyük harf hex
+CREATE OR REPLACE FUNCTION smpp.pdu_hex(b BYTEA) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE
+AS $$ SELECT upper(encode(b, 'hex')) $$;
+
+CREATE OR REPLACE VIEW smpp.pdu_log_hex AS
+SELECT id, created_at, direction, pdu_type, sequence_number, command_id, command_status,
+       COALESCE(raw_hex, smpp.pdu_hex(raw_pdu)) AS raw_hex,
+       decoded_json, message_id, related_message_id, is_dlr
+  FROM smpp.pdu_log;
+
+CREATE OR REPLACE VIEW smpp.submit_hex AS
+SELECT id, created_at, session_id, system_id, submit_seq, src_addr, dst_addr, data_coding, esm_class,
+       COALESCE(submit_sm_hex, smpp.pdu_hex(submit_sm)) AS submit_sm_hex,
+       resp_status, message_id, submit_log_id, submit_resp_log_id
+  FROM smpp.submit;
+
+
+-- ---------- DLR <-> submit eşleşmesi veritabanında ----------
+-- deliver satırı INSERT'te submit_id'yi alt sorgu ile alır; submit henüz yoksa NULL yazılır.
+-- submit_sm_resp sonradan gelince bu trigger aynı message_id'li sahipsiz deliver'ları bağlar.
+
+CREATE INDEX IF NOT EXISTS ix_deliver_orphan_message_id
+    ON smpp.deliver(message_id) WHERE submit_id IS NULL;
+
+CREATE OR REPLACE FUNCTION smpp.deliver_backfill_submit_id() RETURNS trigger
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    UPDATE smpp.deliver
+       SET submit_id = NEW.id
+     WHERE submit_id IS NULL
+       AND message_id = NEW.message_id;
+    RETURN NULL;
+END $$;
+
+DROP TRIGGER IF EXISTS trg_submit_backfill_deliver ON smpp.submit;
+CREATE TRIGGER trg_submit_backfill_deliver
+    AFTER INSERT ON smpp.submit
+    FOR EACH ROW EXECUTE FUNCTION smpp.deliver_backfill_submit_id();
+
+
+-- ---------- outbox: DB üzerinden gönderim kuyruğu (Outbox / OutboxDispatcher) ----------
+-- Üreticiler INSERT eder; dispatcher'lar FOR UPDATE SKIP LOCKED ile claim eder (SENDING), sonucu toplu yazar.
+-- Her INSERT statement'ı smpp_outbox kanalına NOTIFY atar; dispatcher'lar boşta polling yapmaz.
+
+CREATE TABLE IF NOT EXISTS smpp.outbox (
+    id                  BIGSERIAL PRIMARY KEY,
+    created_at          TIMESTAMPTZ NOT NULL DEFAULT now(),
+
+    status              TEXT NOT NULL DEFAULT 'NEW',   -- NEW, SENDING, SENT, FAILED
+    src_addr            TEXT NOT NULL,
+    src_ton             INT  NOT NULL DEFAULT 5,
+    src_npi             INT  NOT NULL DEFAULT 0,
+    dst_addr            TEXT NOT NULL,
+    dst_ton             INT  NOT NULL DEFAULT 1,
+    dst_npi             INT  NOT NULL DEFAULT 1,
+    text                TEXT NOT NULL,
+    registered_delivery BOOLEAN NOT NULL DEFAULT true,
+
+    attempts            INT  NOT NULL DEFAULT 0,
+    next_attempt_at     TIMESTAMPTZ NOT NULL DEFAULT now(),
+    locked_by           TEXT,
+    locked_at           TIMESTAMPTZ,
+    sent_at             TIMESTAMPTZ,
+    message_ids         TEXT[],
+    last_error          TEXT
+);
+
+CREATE INDEX IF NOT EXISTS ix_outbox_ready ON smpp.outbox(id) WHERE status = 'NEW';
+CREATE INDEX IF NOT EXISTS ix_outbox_sending ON smpp.outbox(locked_at) WHERE status = 'SENDING';
+
+CREATE OR REPLACE FUNCTION smpp.outbox_notify() RETURNS trigger
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    PERFORM pg_notify('smpp_outbox', '');
+    RETURN NULL;
+END $$;
+
+DROP TRIGGER IF EXISTS trg_outbox_notify ON smpp.outbox;
+CREATE TRIGGER trg_outbox_notify
+    AFTER INSERT ON smpp.outbox
+    FOR EACH STATEMENT EXECUTE FUNCTION smpp.outbox_notify();
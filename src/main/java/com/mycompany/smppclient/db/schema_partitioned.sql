@@ -0,0 +1,265 @@
+-- Yüksek hacim için schema.sql'in created_at'e göre RANGE partition'lı hali (yeni kurulum).
+-- Partition'ları PartitionManager açar / kaldırır; burada sadece güvenlik için DEFAULT partition var.
+--
+-- schema.sql'den farklar (PostgreSQL partition kısıtları):
+--   * PK (id, created_at); pdu_log / submit'e FK verilemez, *_log_id ve submit_id düz BIGINT
+--   * message_id / (session_id, submit_seq) UNIQUE değil, düz index
+--   * message_id aramaları SmppDao.RECENT_WINDOW ile önce son partition'lara bakar
+-- Eski kurulumda: tablolar *_legacy olarak yeniden adlandırılıp bu dosya çalıştırılabilir.
+
+CREATE SCHEMA IF NOT EXISTS smpp;
+
+DO $$ BEGIN
+CREATE TYPE smpp.direction AS ENUM ('IN', 'OUT');
+EXCEPTION WHEN duplicate_object THEN NULL;
+END $$;
+
+CREATE TABLE IF NOT EXISTS smpp.pdu_log (
+    id              BIGSERIAL,
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT now(),
+
+    direction       smpp.direction NOT NULL,
+    pdu_type        TEXT NOT NULL,
+    sequence_number INT  NOT NULL,
+    command_id      INT  NOT NULL,
+    command_status  INT  NOT NULL,
+
+    raw_hex         TEXT,
+    raw_pdu         BYTEA,
+    decoded_json    JSONB,
+
+    message_id         TEXT,
+    related_message_id TEXT,
+    is_dlr             BOOLEAN NOT NULL DEFAULT false,
+
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS ix_pdu_log_created_at ON smpp.pdu_log(created_at DESC);
+CREATE INDEX IF NOT EXISTS ix_pdu_log_type ON smpp.pdu_log(pdu_type);
+CREATE INDEX IF NOT EXISTS ix_pdu_log_seq ON smpp.pdu_log(sequence_number);
+
+
+CREATE TABLE IF NOT EXISTS smpp.message_flow (
+    id         BIGSERIAL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+
+    session_id TEXT,
+    system_id  TEXT,
+
+    submit_seq    INT,
+    src_addr      TEXT,
+    dst_addr      TEXT,
+    data_coding   INT,
+    esm_class     INT,
+    submit_sm_hex TEXT,
+
+    submit_resp_seq    INT,
+    submit_resp_status INT,
+    message_id         TEXT,
+
+    dlr_received BOOLEAN NOT NULL DEFAULT false,
+    dlr_time     TIMESTAMPTZ,
+    dlr_stat     TEXT,
+    dlr_err      TEXT,
+    dlr_text     TEXT,
+
+    submit_log_id      BIGINT,
+    submit_resp_log_id BIGINT,
+    dlr_log_id         BIGINT,
+
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS ix_message_flow_created_at ON smpp.message_flow(created_at DESC);
+CREATE INDEX IF NOT EXISTS ix_message_flow_message_id ON smpp.message_flow(message_id);
+CREATE INDEX IF NOT EXISTS ix_message_flow_dlr_received ON smpp.message_flow(dlr_received);
+CREATE INDEX IF NOT EXISTS ix_message_flow_sess_submitseq ON smpp.message_flow(session_id, submit_seq);
+
+
+CREATE TABLE IF NOT EXISTS smpp.smsc_account (
+    id            BIGSERIAL PRIMARY KEY,
+    name          TEXT NOT NULL UNIQUE,
+    host          TEXT NOT NULL,
+    port          INT  NOT NULL,
+    system_id     TEXT NOT NULL,
+    password      TEXT NOT NULL,
+    system_type   TEXT NOT NULL DEFAULT '',
+    interface_ver INT  NOT NULL DEFAULT 0x34,
+    addr_ton      INT  NOT NULL DEFAULT 5,
+    addr_npi      INT  NOT NULL DEFAULT 0,
+    address_range TEXT NOT NULL DEFAULT '',
+    is_active     BOOLEAN NOT NULL DEFAULT true,
+    created_at    TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Hesap değişikliklerini SmscAccountRegistry'ye bildirmek için: updated_at + NOTIFY (payload "<TG_OP>:<name>")
+ALTER TABLE smpp.smsc_account ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+CREATE INDEX IF NOT EXISTS ix_smsc_account_updated_at ON smpp.smsc_account(updated_at);
+
+CREATE OR REPLACE FUNCTION smpp.smsc_account_touch() RETURNS trigger
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    NEW.updated_at := now();
+    RETURN NEW;
+END $$;
+
+DROP TRIGGER IF EXISTS trg_smsc_account_touch ON smpp.smsc_account;
+CREATE TRIGGER trg_smsc_account_touch
+    BEFORE UPDATE ON smpp.smsc_account
+    FOR EACH ROW EXECUTE FUNCTION smpp.smsc_account_touch();
+
+CREATE OR REPLACE FUNCTION smpp.smsc_account_notify() RETURNS trigger
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    PERFORM pg_notify('smpp_account', TG_OP || ':' || COALESCE(NEW.name, OLD.name));
+    RETURN NULL;
+END $$;
+
+DROP TRIGGER IF EXISTS trg_smsc_account_notify ON smpp.smsc_account;
+CREATE TRIGGER trg_smsc_account_notify
+    AFTER INSERT OR UPDATE OR DELETE ON smpp.smsc_account
+    FOR EACH ROW EXECUTE FUNCTION smpp.smsc_account_notify();
+
+
+CREATE TABLE IF NOT EXISTS smpp.submit (
+    id            BIGSERIAL,
+    created_at    TIMESTAMPTZ NOT NULL DEFAULT now(),
+
+    session_id    TEXT NOT NULL,
+    system_id     TEXT NOT NULL,
+
+    submit_seq    INT  NOT NULL,
+    src_addr      TEXT,
+    dst_addr      TEXT,
+    data_coding   INT,
+    esm_class     INT,
+    submit_sm_hex TEXT,
+    submit_sm     BYTEA,
+
+    resp_status   INT NOT NULL,
+    message_id    TEXT NOT NULL,
+
+    submit_log_id      BIGINT,
+    submit_resp_log_id BIGINT,
+
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS ix_submit_session_seq ON smpp.submit(session_id, submit_seq);
+CREATE INDEX IF NOT EXISTS ix_submit_message_id ON smpp.submit(message_id);
+
+
+CREATE TABLE IF NOT EXISTS smpp.deliver (
+    id          BIGSERIAL,
+    created_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+
+    submit_id   BIGINT,
+    message_id  TEXT,
+    is_dlr      BOOLEAN NOT NULL DEFAULT false,
+
+    src_addr    TEXT,
+    dst_addr    TEXT,
+    data_coding INT,
+    esm_class   INT,
+    text        TEXT,
+
+    deliver_log_id BIGINT,
+
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS ix_deliver_message_id ON smpp.deliver(message_id) WHERE message_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS ix_deliver_submit_id ON smpp.deliver(submit_id) WHERE submit_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS ix_deliver_orphan_message_id ON smpp.deliver(message_id) WHERE submit_id IS NULL;
+
+
+-- PartitionManager geç kalırsa satırlar buraya düşer (bu aralığa yeni partition açılamaz, log'a uyarı yazılır)
+CREATE TABLE IF NOT EXISTS smpp.pdu_log_default      PARTITION OF smpp.pdu_log      DEFAULT;
+CREATE TABLE IF NOT EXISTS smpp.message_flow_default PARTITION OF smpp.message_flow DEFAULT;
+CREATE TABLE IF NOT EXISTS smpp.submit_default       PARTITION OF smpp.submit       DEFAULT;
+CREATE TABLE IF NOT EXISTS smpp.deliver_default      PARTITION OF smpp.deliver      DEFAULT;
+
+
+CREATE OR REPLACE FUNCTION smpp.pdu_hex(b BYTEA) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE
+AS $$ SELECT upper(encode(b, 'hex')) $$;
+
+CREATE OR REPLACE VIEW smpp.pdu_log_hex AS
+SELECT id, created_at, direction, pdu_type, sequence_number, command_id, command_status,
+       COALESCE(raw_hex, smpp.pdu_hex(raw_pdu)) AS raw_hex,
+       decoded_json, message_id, related_message_id, is_dlr
+  FROM smpp.pdu_log;
+
+CREATE OR REPLACE VIEW smpp.submit_hex AS
+SELECT id, created_at, session_id, system_id, submit_seq, src_addr, dst_addr, data_coding, esm_class,
+       COALESCE(submit_sm_hex, smpp.pdu_hex(submit_sm)) AS submit_sm_hex,
+       resp_status, message_id, submit_log_id, submit_resp_log_id
+  FROM smpp.submit;
+
+
+-- DLR submit'ten önce gelmişse sahipsiz deliver'ı bağla; DLR'ın submit'ten çok önce gelmesi
+-- beklenmediğinden sadece son 1 günün partition'larına bakılır.
+CREATE OR REPLACE FUNCTION smpp.deliver_backfill_submit_id() RETURNS trigger
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    UPDATE smpp.deliver
+       SET submit_id = NEW.id
+     WHERE submit_id IS NULL
+       AND message_id = NEW.message_id
+       AND created_at >= NEW.created_at - interval '1 day';
+    RETURN NULL;
+END $$;
+
+DROP TRIGGER IF EXISTS trg_submit_backfill_deliver ON smpp.submit;
+CREATE TRIGGER trg_submit_backfill_deliver
+    AFTER INSERT ON smpp.submit
+    FOR EACH ROW EXECUTE FUNCTION smpp.deliver_backfill_submit_id();
+
+
+-- ---------- outbox: DB üzerinden gönderim kuyruğu (Outbox / OutboxDispatcher) ----------
+-- Üreticiler INSERT eder; dispatcher'lar FOR UPDATE SKIP LOCKED ile claim eder (SENDING), sonucu toplu yazar.
+-- Her INSERT statement'ı smpp_outbox kanalına NOTIFY atar; dispatcher'lar boşta polling yapmaz.
+
+CREATE TABLE IF NOT EXISTS smpp.outbox (
+    id                  BIGSERIAL PRIMARY KEY,
+    created_at          TIMESTAMPTZ NOT NULL DEFAULT now(),
+
+    status              TEXT NOT NULL DEFAULT 'NEW',   -- NEW, SENDING, SENT, FAILED
+    src_addr            TEXT NOT NULL,
+    src_ton             INT  NOT NULL DEFAULT 5,
+    src_npi             INT  NOT NULL DEFAULT 0,
+    dst_addr            TEXT NOT NULL,
+    dst_ton             INT  NOT NULL DEFAULT 1,
+    dst_npi             INT  NOT NULL DEFAULT 1,
+    text                TEXT NOT NULL,
+    registered_delivery BOOLEAN NOT NULL DEFAULT true,
+
+    attempts            INT  NOT NULL DEFAULT 0,
+    next_attempt_at     TIMESTAMPTZ NOT NULL DEFAULT now(),
+    locked_by           TEXT,
+    locked_at           TIMESTAMPTZ,
+    sent_at             TIMESTAMPTZ,
+    message_ids         TEXT[],
+    last_error          TEXT
+);
+
+CREATE INDEX IF NOT EXISTS ix_outbox_ready ON smpp.outbox(id) WHERE status = 'NEW';
+CREATE INDEX IF NOT EXISTS ix_outbox_sending ON smpp.outbox(locked_at) WHERE status = 'SENDING';
+
+CREATE OR REPLACE FUNCTION smpp.outbox_notify() RETURNS trigger
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    PERFORM pg_notify('smpp_outbox', '');
+    RETURN NULL;
+END $$;
+
+DROP TRIGGER IF EXISTS trg_outbox_notify ON smpp.outbox;
+CREATE TRIGGER trg_outbox_notify
+    AFTER INSERT ON smpp.outbox
+    FOR EACH STATEMENT EXECUTE FUNCTION smpp.outbox_notify();
@@ -0,0 +1,42 @@
+package com.mycompany.smppclient.pdu;
+
+/** SMSC'den: abonenin tekrar ulaşılabilir olduğu bildirimi; cevabı yoktur. */
+public class AlertNotification extends Pdu {
+    private byte sourceAddrTon;
+    private byte sourceAddrNpi;
+    private String sourceAddr = "";
+
+    private byte esmeAddrTon;
+    private byte esmeAddrNpi;
+    private String esmeAddr = "";
+
+    public AlertNotification() {
+        super(CommandId.ALERT_NOTIFICATION);
+    }
+
+    public byte getSourceAddrTon() { return sourceAddrTon; }
+    public void setSourceAddrTon(byte v) { this.sourceAddrTon = v; }
+
+    public byte getSourceAddrNpi() { return sourceAddrNpi; }
+    public void setSourceAddrNpi(byte v) { this.sourceAddrNpi = v; }
+
+    public String getSourceAddr() { return sourceAddr; }
+    public void setSourceAddr(String sourceAddr) { this.sourceAddr = sourceAddr; }
+
+    public byte getEsmeAddrTon() { return esmeAddrTon; }
+    public void setEsmeAddrTon(byte v) { this.esmeAddrTon = v; }
+
+    public byte getEsmeAddrNpi() { return esmeAddrNpi; }
+    public void setEsmeAddrNpi(byte v) { this.esmeAddrNpi = v; }
+
+    public String getEsmeAddr() { return esmeAddr; }
+    public void setEsmeAddr(String esmeAddr) { this.esmeAddr = esmeAddr; }
+
+    @Override
+    public String toString() {
+        return super.toString().replace("}", "") +
+                ", sourceAddr='" + sourceAddr + '\'' +
+                ", esmeAddr='" + esmeAddr + '\'' +
+                "}";
+    }
+}
@@ -0,0 +1,7 @@
+package com.mycompany.smppclient.pdu;
+
+public class BindReceiverReq extends BindReq {
+    public BindReceiverReq() {
+        super(CommandId.BIND_RECEIVER);
+    }
+}
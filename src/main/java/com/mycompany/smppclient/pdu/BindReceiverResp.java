@@ -0,0 +1,7 @@
+package com.mycompany.smppclient.pdu;
+
+public class BindReceiverResp extends BindResp {
+    public BindReceiverResp() {
+        super(CommandId.BIND_RECEIVER_RESP);
+    }
+}
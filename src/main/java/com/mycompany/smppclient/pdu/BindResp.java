@@ -0,0 +1,20 @@
+package com.mycompany.smppclient.pdu;
+
+/** bind_*_resp için ortak body: system_id (+ opsiyonel sc_interface_version TLV'si). */
+public abstract class BindResp extends Pdu {
+    private String systemId;
+
+    protected BindResp(int commandId) {
+        super(commandId);
+    }
+
+    public String getSystemId() { return systemId; }
+    public void setSystemId(String systemId) { this.systemId = systemId; }
+
+    @Override
+    public String toString() {
+        return super.toString().replace("}", "") +
+                ", systemId='" + systemId + '\'' +
+                "}";
+    }
+}
@@ -0,0 +1,7 @@
+package com.mycompany.smppclient.pdu;
+
+public class BindTransmitterReq extends BindReq {
+    public BindTransmitterReq() {
+        super(CommandId.BIND_TRANSMITTER);
+    }
+}
@@ -0,0 +1,7 @@
+package com.mycompany.smppclient.pdu;
+
+public class BindTransmitterResp extends BindResp {
+    public BindTransmitterResp() {
+        super(CommandId.BIND_TRANSMITTER_RESP);
+    }
+}
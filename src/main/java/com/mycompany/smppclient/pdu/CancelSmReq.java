@@ -0,0 +1,52 @@
+package com.mycompany.smppclient.pdu;
+
+/** message_id boşsa source + destination (+ service_type) eşleşen tüm bekleyen mesajlar iptal edilir. */
+public class CancelSmReq extends Pdu {
+    private String serviceType = "";
+    private String messageId = "";
+
+    private byte sourceAddrTon;
+    private byte sourceAddrNpi;
+    private String sourceAddr = "";
+
+    private byte destAddrTon;
+    private byte destAddrNpi;
+    private String destinationAddr = "";
+
+    public CancelSmReq() {
+        super(CommandId.CANCEL_SM);
+    }
+
+    public String getServiceType() { return serviceType; }
+    public void setServiceType(String s) { this.serviceType = s; }
+
+    public String getMessageId() { return messageId; }
+    public void setMessageId(String messageId) { this.messageId = messageId; }
+
+    public byte getSourceAddrTon() { return sourceAddrTon; }
+    public void setSourceAddrTon(byte v) { this.sourceAddrTon = v; }
+
+    public byte getSourceAddrNpi() { return sourceAddrNpi; }
+    public void setSourceAddrNpi(byte v) { this.sourceAddrNpi = v; }
+
+    public String getSourceAddr() { return sourceAddr; }
+    public void setSourceAddr(String sourceAddr) { this.sourceAddr = sourceAddr; }
+
+    public byte getDestAddrTon() { return destAddrTon; }
+    public void setDestAddrTon(byte v) { this.destAddrTon = v; }
+
+    public byte getDestAddrNpi() { return destAddrNpi; }
+    public void setDestAddrNpi(byte v) { this.destAddrNpi = v; }
+
+    public String getDestinationAddr() { return destinationAddr; }
+    public void setDestinationAddr(String destinationAddr) { this.destinationAddr = destinationAddr; }
+
+    @Override
+    public String toString() {
+        return super.toString().replace("}", "") +
+                ", messageId='" + messageId + '\'' +
+                ", sourceAddr='" + sourceAddr + '\'' +
+                ", destinationAddr='" + destinationAddr + '\'' +
+                "}";
+    }
+}
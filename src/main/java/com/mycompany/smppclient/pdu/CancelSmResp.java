@@ -0,0 +1,7 @@
+package com.mycompany.smppclient.pdu;
+
+public class CancelSmResp extends Pdu {
+    public CancelSmResp() {
+        super(CommandId.CANCEL_SM_RESP);
+    }
+}
@@ -0,0 +1,63 @@
+package com.mycompany.smppclient.pdu;
+
+/** data_sm: short_message alanı yoktur, içerik message_payload TLV'sinde taşınır. */
+public class DataSmReq extends Pdu {
+    private String serviceType = "";
+
+    private byte sourceAddrTon;
+    private byte sourceAddrNpi;
+    private String sourceAddr;
+
+    private byte destAddrTon;
+    private byte destAddrNpi;
+    private String destinationAddr;
+
+    private byte esmClass;
+    private byte registeredDelivery;
+    private byte dataCoding;
+
+    public DataSmReq() {
+        super(CommandId.DATA_SM);
+    }
+
+    public String getServiceType() { return serviceType; }
+    public void setServiceType(String s) { this.serviceType = s; }
+
+    public byte getSourceAddrTon() { return sourceAddrTon; }
+    public void setSourceAddrTon(byte v) { this.sourceAddrTon = v; }
+
+    public byte getSourceAddrNpi() { return sourceAddrNpi; }
+    public void setSourceAddrNpi(byte v) { this.sourceAddrNpi = v; }
+
+    public String getSourceAddr() { return sourceAddr; }
+    public void setSourceAddr(String sourceAddr) { this.sourceAddr = sourceAddr; }
+
+    public byte getDestAddrTon() { return destAddrTon; }
+    public void setDestAddrTon(byte v) { this.destAddrTon = v; }
+
+    public byte getDestAddrNpi() { return destAddrNpi; }
+    public void setDestAddrNpi(byte v) { this.destAddrNpi = v; }
+
+    public String getDestinationAddr() { return destinationAddr; }
+    public void setDestinationAddr(String destinationAddr) { this.destinationAddr = destinationAddr; }
+
+    public byte getEsmClass() { return esmClass; }
+    public void setEsmClass(byte v) { this.esmClass = v; }
+
+    public byte getRegisteredDelivery() { return registeredDelivery; }
+    public void setRegisteredDelivery(byte v) { this.registeredDelivery = v; }
+
+    public byte getDataCoding() { return dataCoding; }
+    public void setDataCoding(byte v) { this.dataCoding = v; }
+
+    @Override
+    public String toString() {
+        return super.toString().replace("}", "") +
+                ", sourceAddr='" + sourceAddr + '\'' +
+                ", destinationAddr='" + destinationAddr + '\'' +
+                ", esmClass=0x" + Integer.toHexString(esmClass & 0xFF) +
+                ", dataCoding=0x" + Integer.toHexString(dataCoding & 0xFF) +
+                ", tlvCount=" + getOptionalParameters().size() +
+                "}";
+    }
+}
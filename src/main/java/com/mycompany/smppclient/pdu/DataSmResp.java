@@ -0,0 +1,19 @@
+package com.mycompany.smppclient.pdu;
+
+public class DataSmResp extends Pdu {
+    private String messageId = "";
+
+    public DataSmResp() {
+        super(CommandId.DATA_SM_RESP);
+    }
+
+    public String getMessageId() { return messageId; }
+    public void setMessageId(String messageId) { this.messageId = messageId; }
+
+    @Override
+    public String toString() {
+        return super.toString().replace("}", "") +
+                ", messageId='" + messageId + '\'' +
+                "}";
+    }
+}
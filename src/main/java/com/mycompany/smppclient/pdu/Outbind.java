@@ -0,0 +1,24 @@
+package com.mycompany.smppclient.pdu;
+
+/** SMSC'nin ESME'yi bind'a çağırması; cevabı yoktur (ESME bind_receiver ile döner). */
+public class Outbind extends Pdu {
+    private String systemId;
+    private String password;
+
+    public Outbind() {
+        super(CommandId.OUTBIND);
+    }
+
+    public String getSystemId() { return systemId; }
+    public void setSystemId(String systemId) { this.systemId = systemId; }
+
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+
+    @Override
+    public String toString() {
+        return super.toString().replace("}", "") +
+                ", systemId='" + systemId + '\'' +
+                "}";
+    }
+}
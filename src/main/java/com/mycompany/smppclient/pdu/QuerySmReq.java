@@ -0,0 +1,32 @@
+package com.mycompany.smppclient.pdu;
+
+public class QuerySmReq extends Pdu {
+    private String messageId;
+    private byte sourceAddrTon;
+    private byte sourceAddrNpi;
+    private String sourceAddr = "";
+
+    public QuerySmReq() {
+        super(CommandId.QUERY_SM);
+    }
+
+    public String getMessageId() { return messageId; }
+    public void setMessageId(String messageId) { this.messageId = messageId; }
+
+    public byte getSourceAddrTon() { return sourceAddrTon; }
+    public void setSourceAddrTon(byte v) { this.sourceAddrTon = v; }
+
+    public byte getSourceAddrNpi() { return sourceAddrNpi; }
+    public void setSourceAddrNpi(byte v) { this.sourceAddrNpi = v; }
+
+    public String getSourceAddr() { return sourceAddr; }
+    public void setSourceAddr(String sourceAddr) { this.sourceAddr = sourceAddr; }
+
+    @Override
+    public String toString() {
+        return super.toString().replace("}", "") +
+                ", messageId='" + messageId + '\'' +
+                ", sourceAddr='" + sourceAddr + '\'' +
+                "}";
+    }
+}
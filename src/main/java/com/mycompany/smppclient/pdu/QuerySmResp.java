@@ -0,0 +1,34 @@
+package com.mycompany.smppclient.pdu;
+
+public class QuerySmResp extends Pdu {
+    private String messageId = "";
+    private String finalDate = "";
+    private byte messageState;   // 1 ENROUTE, 2 DELIVERED, 3 EXPIRED, 4 DELETED, 5 UNDELIVERABLE, 6 ACCEPTED, 7 UNKNOWN, 8 REJECTED
+    private byte errorCode;
+
+    public QuerySmResp() {
+        super(CommandId.QUERY_SM_RESP);
+    }
+
+    public String getMessageId() { return messageId; }
+    public void setMessageId(String messageId) { this.messageId = messageId; }
+
+    public String getFinalDate() { return finalDate; }
+    public void setFinalDate(String finalDate) { this.finalDate = finalDate; }
+
+    public byte getMessageState() { return messageState; }
+    public void setMessageState(byte v) { this.messageState = v; }
+
+    public byte getErrorCode() { return errorCode; }
+    public void setErrorCode(byte v) { this.errorCode = v; }
+
+    @Override
+    public String toString() {
+        return super.toString().replace("}", "") +
+                ", messageId='" + messageId + '\'' +
+                ", finalDate='" + finalDate + '\'' +
+                ", messageState=" + (messageState & 0xFF) +
+                ", errorCode=" + (errorCode & 0xFF) +
+                "}";
+    }
+}
@@ -0,0 +1,57 @@
+package com.mycompany.smppclient.pdu;
+
+public class ReplaceSmReq extends Pdu {
+    private String messageId;
+
+    private byte sourceAddrTon;
+    private byte sourceAddrNpi;
+    private String sourceAddr = "";
+
+    private String scheduleDeliveryTime = "";
+    private String validityPeriod = "";
+
+    private byte registeredDelivery;
+    private byte smDefaultMsgId;
+
+    private byte[] shortMessage = new byte[0];
+
+    public ReplaceSmReq() {
+        super(CommandId.REPLACE_SM);
+    }
+
+    public String getMessageId() { return messageId; }
+    public void setMessageId(String messageId) { this.messageId = messageId; }
+
+    public byte getSourceAddrTon() { return sourceAddrTon; }
+    public void setSourceAddrTon(byte v) { this.sourceAddrTon = v; }
+
+    public byte getSourceAddrNpi() { return sourceAddrNpi; }
+    public void setSourceAddrNpi(byte v) { this.sourceAddrNpi = v; }
+
+    public String getSourceAddr() { return sourceAddr; }
+    public void setSourceAddr(String sourceAddr) { this.sourceAddr = sourceAddr; }
+
+    public String getScheduleDeliveryTime() { return scheduleDeliveryTime; }
+    public void setScheduleDeliveryTime(String s) { this.scheduleDeliveryTime = s; }
+
+    public String getValidityPeriod() { return validityPeriod; }
+    public void setValidityPeriod(String s) { this.validityPeriod = s; }
+
+    public byte getRegisteredDelivery() { return registeredDelivery; }
+    public void setRegisteredDelivery(byte v) { this.registeredDelivery = v; }
+
+    public byte getSmDefaultMsgId() { return smDefaultMsgId; }
+    public void setSmDefaultMsgId(byte v) { this.smDefaultMsgId = v; }
+
+    public byte[] getShortMessage() { return shortMessage; }
+    public void setShortMessage(byte[] shortMessage) { this.shortMessage = shortMessage; }
+
+    @Override
+    public String toString() {
+        return super.toString().replace("}", "") +
+                ", messageId='" + messageId + '\'' +
+                ", sourceAddr='" + sourceAddr + '\'' +
+                ", shortMessageLen=" + (shortMessage == null ? 0 : shortMessage.length) +
+                "}";
+    }
+}
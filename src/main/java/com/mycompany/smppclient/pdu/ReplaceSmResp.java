@@ -0,0 +1,7 @@
+package com.mycompany.smppclient.pdu;
+
+public class ReplaceSmResp extends Pdu {
+    public ReplaceSmResp() {
+        super(CommandId.REPLACE_SM_RESP);
+    }
+}
@@ -0,0 +1,119 @@
+package com.mycompany.smppclient.pdu;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Tek short_message, en fazla 255 hedef (SME adresi veya SMSC'de tanımlı dağıtım listesi). */
+public class SubmitMultiReq extends Pdu {
+
+    public static final int DEST_FLAG_SME_ADDRESS = 1;
+    public static final int DEST_FLAG_DISTRIBUTION_LIST = 2;
+
+    /** dest_address: dest_flag 1 ise ton / npi / adres, 2 ise sadece liste adı. */
+    public static final class Destination {
+        public final int destFlag;
+        public final byte ton;
+        public final byte npi;
+        public final String address;
+
+        private Destination(int destFlag, byte ton, byte npi, String address) {
+            this.destFlag = destFlag;
+            this.ton = ton;
+            this.npi = npi;
+            this.address = address;
+        }
+
+        public static Destination sme(byte ton, byte npi, String address) {
+            return new Destination(DEST_FLAG_SME_ADDRESS, ton, npi, address);
+        }
+
+        public static Destination distributionList(String name) {
+            return new Destination(DEST_FLAG_DISTRIBUTION_LIST, (byte) 0, (byte) 0, name);
+        }
+
+        @Override
+        public String toString() {
+            return destFlag == DEST_FLAG_DISTRIBUTION_LIST ? "dl:" + address : address;
+        }
+    }
+
+    private String serviceType = "";
+
+    private byte sourceAddrTon;
+    private byte sourceAddrNpi;
+    private String sourceAddr;
+
+    private final List<Destination> destinations = new ArrayList<>();
+
+    private byte esmClass;
+    private byte protocolId;
+    private byte priorityFlag;
+
+    private String scheduleDeliveryTime = "";
+    private String validityPeriod = "";
+
+    private byte registeredDelivery;
+    private byte replaceIfPresentFlag;
+    private byte dataCoding;
+    private byte smDefaultMsgId;
+
+    private byte[] shortMessage = new byte[0];
+
+    public SubmitMultiReq() {
+        super(CommandId.SUBMIT_MULTI);
+    }
+
+    public String getServiceType() { return serviceType; }
+    public void setServiceType(String s) { this.serviceType = s; }
+
+    public byte getSourceAddrTon() { return sourceAddrTon; }
+    public void setSourceAddrTon(byte v) { this.sourceAddrTon = v; }
+
+    public byte getSourceAddrNpi() { return sourceAddrNpi; }
+    public void setSourceAddrNpi(byte v) { this.sourceAddrNpi = v; }
+
+    public String getSourceAddr() { return sourceAddr; }
+    public void setSourceAddr(String sourceAddr) { this.sourceAddr = sourceAddr; }
+
+    public List<Destination> getDestinations() { return destinations; }
+
+    public byte getEsmClass() { return esmClass; }
+    public void setEsmClass(byte v) { this.esmClass = v; }
+
+    public byte getProtocolId() { return protocolId; }
+    public void setProtocolId(byte v) { this.protocolId = v; }
+
+    public byte getPriorityFlag() { return priorityFlag; }
+    public void setPriorityFlag(byte v) { this.priorityFlag = v; }
+
+    public String getScheduleDeliveryTime() { return scheduleDeliveryTime; }
+    public void setScheduleDeliveryTime(String s) { this.scheduleDeliveryTime = s; }
+
+    public String getValidityPeriod() { return validityPeriod; }
+    public void setValidityPeriod(String s) { this.validityPeriod = s; }
+
+    public byte getRegisteredDelivery() { return registeredDelivery; }
+    public void setRegisteredDelivery(byte v) { this.registeredDelivery = v; }
+
+    public byte getReplaceIfPresentFlag() { return replaceIfPresentFlag; }
+    public void setReplaceIfPresentFlag(byte v) { this.replaceIfPresentFlag = v; }
+
+    public byte getDataCoding() { return dataCoding; }
+    public void setDataCoding(byte v) { this.dataCoding = v; }
+
+    public byte getSmDefaultMsgId() { return smDefaultMsgId; }
+    public void setSmDefaultMsgId(byte v) { this.smDefaultMsgId = v; }
+
+    public byte[] getShortMessage() { return shortMessage; }
+    public void setShortMessage(byte[] shortMessage) { this.shortMessage = shortMessage; }
+
+    @Override
+    public String toString() {
+        return super.toString().replace("}", "") +
+                ", sourceAddr='" + sourceAddr + '\'' +
+                ", destinations=" + destinations +
+                ", dataCoding=0x" + Integer.toHexString(dataCoding & 0xFF) +
+                ", shortMessageLen=" + (shortMessage == null ? 0 : shortMessage.length) +
+                "}";
+    }
+}
@@ -0,0 +1,47 @@
+package com.mycompany.smppclient.pdu;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SubmitMultiResp extends Pdu {
+
+    /** Teslim alınmayan hedef ve SMSC'nin verdiği hata kodu (command_status değerleri). */
+    public static final class UnsuccessSme {
+        public final byte ton;
+        public final byte npi;
+        public final String address;
+        public final int errorStatusCode;
+
+        public UnsuccessSme(byte ton, byte npi, String address, int errorStatusCode) {
+            this.ton = ton;
+            this.npi = npi;
+            this.address = address;
+            this.errorStatusCode = errorStatusCode;
+        }
+
+        @Override
+        public String toString() {
+            return address + "=0x" + Integer.toHexString(errorStatusCode);
+        }
+    }
+
+    private String messageId = "";
+    private final List<UnsuccessSme> unsuccessSmes = new ArrayList<>();
+
+    public SubmitMultiResp() {
+        super(CommandId.SUBMIT_MULTI_RESP);
+    }
+
+    public String getMessageId() { return messageId; }
+    public void setMessageId(String messageId) { this.messageId = messageId; }
+
+    public List<UnsuccessSme> getUnsuccessSmes() { return unsuccessSmes; }
+
+    @Override
+    public String toString() {
+        return super.toString().replace("}", "") +
+                ", messageId='" + messageId + '\'' +
+                ", unsuccess=" + unsuccessSmes +
+                "}";
+    }
+}
@@ -66,9 +66,21 @@ public class SubmitSmReq extends Pdu {
     public byte getPriorityFlag() { return priorityFlag; }
     public void setPriorityFlag(byte priorityFlag) { this.priorityFlag = priorityFlag; }
 
+    public String getScheduleDeliveryTime() { return scheduleDeliveryTime; }
+    public void setScheduleDeliveryTime(String s) { this.scheduleDeliveryTime = s; }
+
+    public String getValidityPeriod() { return validityPeriod; }
+    public void setValidityPeriod(String s) { this.validityPeriod = s; }
+
     public byte getRegisteredDelivery() { return registeredDelivery; }
     public void setRegisteredDelivery(byte registeredDelivery) { this.registeredDelivery = registeredDelivery; }
 
+    public byte getReplaceIfPresentFlag() { return replaceIfPresentFlag; }
+    public void setReplaceIfPresentFlag(byte v) { this.replaceIfPresentFlag = v; }
+
+    public byte getSmDefaultMsgId() { return smDefaultMsgId; }
+    public void setSmDefaultMsgId(byte v) { this.smDefaultMsgId = v; }
+
     public byte getDataCoding() { return dataCoding; }
     public void setDataCoding(byte dataCoding) { this.dataCoding = dataCoding; }
 
@@ -0,0 +1,33 @@
+package com.mycompany.smppclient.pdu.codec;
+
+import com.mycompany.smppclient.pdu.Pdu;
+import com.mycompany.smppclient.pdu.decoder.ByteReader;
+import com.mycompany.smppclient.pdu.encoder.ByteWriter;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/** Tek bir command_id'nin body'sini okur / yazar; 16 byte header'ı encoder ve decoder halleder. */
+public interface PduCodec<T extends Pdu> {
+
+    /** Header'dan sonraki byte'lardan PDU'yu kurar (header alanlarını decoder set eder). */
+    T decode(ByteReader body);
+
+    void encode(T pdu, ByteWriter body);
+
+    static <T extends Pdu> PduCodec<T> of(Function<ByteReader, T> decode, BiConsumer<T, ByteWriter> encode) {
+        return new PduCodec<>() {
+            @Override
+            public T decode(ByteReader body) { return decode.apply(body); }
+
+            @Override
+            public void encode(T pdu, ByteWriter body) { encode.accept(pdu, body); }
+        };
+    }
+
+    /** Body'si olmayan PDU (enquire_link, unbind, generic_nack, ...); fazla byte'lar yok sayılır. */
+    static <T extends Pdu> PduCodec<T> empty(Supplier<T> factory) {
+        return of(r -> factory.get(), (pdu, w) -> {});
+    }
+}
@@ -0,0 +1,82 @@
+package com.mycompany.smppclient.pdu.codec;
+
+import com.mycompany.smppclient.pdu.Pdu;
+import com.mycompany.smppclient.pdu.decoder.ByteReader;
+import com.mycompany.smppclient.pdu.encoder.ByteWriter;
+import com.mycompany.smppclient.pdu.exception.DecodeException;
+import com.mycompany.smppclient.pdu.exception.InvalidPduException;
+
+/**
+ * command_id ile indekslenen codec tablosu; encode ve decode tek dizi erişimiyle doğru codec'i bulur.
+ * <p>
+ * SMPP 3.4 id'leri 0x000..0x1FF aralığındadır, cevaplarda ayrıca 31. bit set edilir: slot = alt 9 bit
+ * + (cevapsa 512). Bu aralık dışındaki id'ler desteklenmez. {@link #smpp34()} tüm 3.4 PDU'larını içerir;
+ * kayıtlar açılışta yapılır, sonrasında tablo sadece okunur.
+ */
+public final class PduCodecRegistry {
+
+    private static final int SLOTS = 1024;
+
+    private static final PduCodecRegistry DEFAULT = smpp34();
+
+    private final Class<?>[] types = new Class<?>[SLOTS];
+    private final PduCodec<?>[] codecs = new PduCodec<?>[SLOTS];
+
+    /** Boş tablo; {@link #register} ile doldurulur. */
+    public PduCodecRegistry() {
+    }
+
+    /** SMPP 3.4'ün tüm PDU'larıyla dolu yeni bir tablo. */
+    public static PduCodecRegistry smpp34() {
+        PduCodecRegistry r = new PduCodecRegistry();
+        Smpp34Codecs.registerAll(r);
+        return r;
+    }
+
+    /** {@link com.mycompany.smppclient.pdu.encoder.PduEncoder} / decoder'ın varsayılan (paylaşılan) tablosu. */
+    public static PduCodecRegistry defaults() {
+        return DEFAULT;
+    }
+
+    /** Varsa aynı command_id'nin codec'ini değiştirir. */
+    public <T extends Pdu> PduCodecRegistry register(int commandId, Class<T> type, PduCodec<T> codec) {
+        int slot = slot(commandId);
+        if (slot < 0) throw new IllegalArgumentException("command_id out of SMPP range: 0x" + Integer.toHexString(commandId));
+        types[slot] = type;
+        codecs[slot] = codec;
+        return this;
+    }
+
+    public boolean supports(int commandId) {
+        int slot = slot(commandId);
+        return slot >= 0 && codecs[slot] != null;
+    }
+
+    /** Body'yi çözer; bilinmeyen command_id için {@link DecodeException}. */
+    public Pdu decode(int commandId, ByteReader body) {
+        int slot = slot(commandId);
+        PduCodec<?> c = slot < 0 ? null : codecs[slot];
+        if (c == null) {
+            throw new DecodeException("Unsupported command_id: 0x" + Integer.toHexString(commandId));
+        }
+        return c.decode(body);
+    }
+
+    /** PDU'nun body'sini command_id'sinin codec'iyle yazar. */
+    @SuppressWarnings("unchecked")
+    public void encode(Pdu pdu, ByteWriter body) {
+        int slot = slot(pdu.getCommandId());
+        PduCodec<Pdu> c = slot < 0 ? null : (PduCodec<Pdu>) codecs[slot];
+        if (c == null || !types[slot].isInstance(pdu)) {
+            throw new InvalidPduException("Encoder not implemented for: " + pdu.getClass().getSimpleName()
+                    + " (command_id=0x" + Integer.toHexString(pdu.getCommandId()) + ")");
+        }
+        c.encode(pdu, body);
+    }
+
+    static int slot(int commandId) {
+        int id = commandId & 0x7FFFFFFF;
+        if (id >= SLOTS / 2) return -1;
+        return commandId < 0 ? id + SLOTS / 2 : id;
+    }
+}
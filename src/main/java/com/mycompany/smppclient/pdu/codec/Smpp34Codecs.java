@@ -0,0 +1,562 @@
+package com.mycompany.smppclient.pdu.codec;
+
+import com.mycompany.smppclient.pdu.*;
+import com.mycompany.smppclient.pdu.decoder.ByteReader;
+import com.mycompany.smppclient.pdu.encoder.ByteWriter;
+import com.mycompany.smppclient.pdu.exception.DecodeException;
+import com.mycompany.smppclient.pdu.exception.InvalidPduException;
+import com.mycompany.smppclient.pdu.tlv.OptionalParameter;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/** SMPP 3.4 (bölüm 4) PDU body'leri; alan sırası spesifikasyondaki tablolarla aynı. */
+final class Smpp34Codecs {
+
+    private Smpp34Codecs() {}
+
+    static void registerAll(PduCodecRegistry r) {
+        r.register(CommandId.GENERIC_NACK, GenericNack.class, PduCodec.empty(GenericNack::new));
+
+        r.register(CommandId.BIND_TRANSMITTER, BindTransmitterReq.class, bindReq(BindTransmitterReq::new));
+        r.register(CommandId.BIND_TRANSMITTER_RESP, BindTransmitterResp.class, bindResp(BindTransmitterResp::new));
+        r.register(CommandId.BIND_RECEIVER, BindReceiverReq.class, bindReq(BindReceiverReq::new));
+        r.register(CommandId.BIND_RECEIVER_RESP, BindReceiverResp.class, bindResp(BindReceiverResp::new));
+        r.register(CommandId.BIND_TRANSCEIVER, BindTransceiverReq.class, bindReq(BindTransceiverReq::new));
+        r.register(CommandId.BIND_TRANSCEIVER_RESP, BindTransceiverResp.class, bindResp(BindTransceiverResp::new));
+        r.register(CommandId.OUTBIND, Outbind.class, PduCodec.of(Smpp34Codecs::decodeOutbind, Smpp34Codecs::encodeOutbind));
+
+        r.register(CommandId.UNBIND, UnbindReq.class, PduCodec.empty(UnbindReq::new));
+        r.register(CommandId.UNBIND_RESP, UnbindResp.class, PduCodec.empty(UnbindResp::new));
+        r.register(CommandId.ENQUIRE_LINK, EnquireLinkReq.class, PduCodec.empty(EnquireLinkReq::new));
+        r.register(CommandId.ENQUIRE_LINK_RESP, EnquireLinkResp.class, PduCodec.empty(EnquireLinkResp::new));
+
+        r.register(CommandId.SUBMIT_SM, SubmitSmReq.class, PduCodec.of(Smpp34Codecs::decodeSubmitSm, Smpp34Codecs::encodeSubmitSm));
+        r.register(CommandId.SUBMIT_SM_RESP, SubmitSmResp.class, PduCodec.of(Smpp34Codecs::decodeSubmitSmResp, Smpp34Codecs::encodeSubmitSmResp));
+        r.register(CommandId.SUBMIT_MULTI, SubmitMultiReq.class, PduCodec.of(Smpp34Codecs::decodeSubmitMulti, Smpp34Codecs::encodeSubmitMulti));
+        r.register(CommandId.SUBMIT_MULTI_RESP, SubmitMultiResp.class, PduCodec.of(Smpp34Codecs::decodeSubmitMultiResp, Smpp34Codecs::encodeSubmitMultiResp));
+        r.register(CommandId.DELIVER_SM, DeliverSmReq.class, PduCodec.of(Smpp34Codecs::decodeDeliverSm, Smpp34Codecs::encodeDeliverSm));
+        r.register(CommandId.DELIVER_SM_RESP, DeliverSmResp.class, PduCodec.of(Smpp34Codecs::decodeDeliverSmResp, Smpp34Codecs::encodeDeliverSmResp));
+        r.register(CommandId.DATA_SM, DataSmReq.class, PduCodec.of(Smpp34Codecs::decodeDataSm, Smpp34Codecs::encodeDataSm));
+        r.register(CommandId.DATA_SM_RESP, DataSmResp.class, PduCodec.of(Smpp34Codecs::decodeDataSmResp, Smpp34Codecs::encodeDataSmResp));
+
+        r.register(CommandId.QUERY_SM, QuerySmReq.class, PduCodec.of(Smpp34Codecs::decodeQuerySm, Smpp34Codecs::encodeQuerySm));
+        r.register(CommandId.QUERY_SM_RESP, QuerySmResp.class, PduCodec.of(Smpp34Codecs::decodeQuerySmResp, Smpp34Codecs::encodeQuerySmResp));
+        r.register(CommandId.CANCEL_SM, CancelSmReq.class, PduCodec.of(Smpp34Codecs::decodeCancelSm, Smpp34Codecs::encodeCancelSm));
+        r.register(CommandId.CANCEL_SM_RESP, CancelSmResp.class, PduCodec.empty(CancelSmResp::new));
+        r.register(CommandId.REPLACE_SM, ReplaceSmReq.class, PduCodec.of(Smpp34Codecs::decodeReplaceSm, Smpp34Codecs::encodeReplaceSm));
+        r.register(CommandId.REPLACE_SM_RESP, ReplaceSmResp.class, PduCodec.empty(ReplaceSmResp::new));
+
+        r.register(CommandId.ALERT_NOTIFICATION, AlertNotification.class,
+                PduCodec.of(Smpp34Codecs::decodeAlertNotification, Smpp34Codecs::encodeAlertNotification));
+    }
+
+    // -------------------- BIND --------------------
+    private static <T extends BindReq> PduCodec<T> bindReq(Supplier<T> factory) {
+        return PduCodec.of(r -> {
+            T req = factory.get();
+            req.setSystemId(r.readCString());
+            req.setPassword(r.readCString());
+            req.setSystemType(r.readCString());
+            req.setInterfaceVersion((byte) r.readByte());
+            req.setAddrTon((byte) r.readByte());
+            req.setAddrNpi((byte) r.readByte());
+            req.setAddressRange(r.readCString());
+            return req;
+        }, (req, w) -> {
+            requireNotNull(req.getSystemId(), "systemId");
+            requireNotNull(req.getPassword(), "password");
+            requireNotNull(req.getSystemType(), "systemType");
+            requireNotNull(req.getAddressRange(), "addressRange");
+
+            w.writeCString(req.getSystemId());
+            w.writeCString(req.getPassword());
+            w.writeCString(req.getSystemType());
+            w.writeByte(req.getInterfaceVersion());
+            w.writeByte(req.getAddrTon());
+            w.writeByte(req.getAddrNpi());
+            w.writeCString(req.getAddressRange());
+        });
+    }
+
+    private static <T extends BindResp> PduCodec<T> bindResp(Supplier<T> factory) {
+        return PduCodec.of(r -> {
+            T resp = factory.get();
+            // hata status'lü bind_resp'te body olmayabilir
+            resp.setSystemId(r.remaining() > 0 ? r.readCString() : "");
+            resp.getOptionalParameters().addAll(readTlvs(r)); // sc_interface_version
+            return resp;
+        }, (resp, w) -> {
+            requireNotNull(resp.getSystemId(), "systemId");
+            w.writeCString(resp.getSystemId());
+            writeTlvs(resp.getOptionalParameters(), w);
+        });
+    }
+
+    private static Outbind decodeOutbind(ByteReader r) {
+        Outbind o = new Outbind();
+        o.setSystemId(r.readCString());
+        o.setPassword(r.readCString());
+        return o;
+    }
+
+    private static void encodeOutbind(Outbind o, ByteWriter w) {
+        requireNotNull(o.getSystemId(), "systemId");
+        w.writeCString(o.getSystemId());
+        w.writeCString(o.getPassword());
+    }
+
+    // -------------------- SUBMIT_SM --------------------
+    private static SubmitSmReq decodeSubmitSm(ByteReader r) {
+        SubmitSmReq req = new SubmitSmReq();
+
+        req.setServiceType(r.readCString());
+        req.setSourceAddrTon((byte) r.readByte());
+        req.setSourceAddrNpi((byte) r.readByte());
+        req.setSourceAddr(r.readCString());
+
+        req.setDestAddrTon((byte) r.readByte());
+        req.setDestAddrNpi((byte) r.readByte());
+        req.setDestinationAddr(r.readCString());
+
+        req.setEsmClass((byte) r.readByte());
+        req.setProtocolId((byte) r.readByte());
+        req.setPriorityFlag((byte) r.readByte());
+
+        req.setScheduleDeliveryTime(r.readCString());
+        req.setValidityPeriod(r.readCString());
+
+        req.setRegisteredDelivery((byte) r.readByte());
+        req.setReplaceIfPresentFlag((byte) r.readByte());
+        req.setDataCoding((byte) r.readByte());
+        req.setSmDefaultMsgId((byte) r.readByte());
+
+        int smLen = r.readByte() & 0xFF;
+        req.setShortMessage(r.readBytes(smLen));
+
+        // TLV (kalan her şeyi TLV kabul ediyoruz)
+        req.getOptionalParameters().addAll(readTlvs(r));
+        return req;
+    }
+
+    private static void encodeSubmitSm(SubmitSmReq req, ByteWriter w) {
+        requireNotNull(req.getSourceAddr(), "sourceAddr");
+        requireNotNull(req.getDestinationAddr(), "destinationAddr");
+
+        w.writeCString(req.getServiceType());
+        w.writeByte(req.getSourceAddrTon());
+        w.writeByte(req.getSourceAddrNpi());
+        w.writeCString(req.getSourceAddr());
+
+        w.writeByte(req.getDestAddrTon());
+        w.writeByte(req.getDestAddrNpi());
+        w.writeCString(req.getDestinationAddr());
+
+        w.writeByte(req.getEsmClass());
+        w.writeByte(req.getProtocolId());
+        w.writeByte(req.getPriorityFlag());
+
+        w.writeCString(req.getScheduleDeliveryTime());
+        w.writeCString(req.getValidityPeriod());
+
+        w.writeByte(req.getRegisteredDelivery());
+        w.writeByte(req.getReplaceIfPresentFlag());
+        w.writeByte(req.getDataCoding());
+        w.writeByte(req.getSmDefaultMsgId());
+
+        writeShortMessage(req.getShortMessage(), w);
+        writeTlvs(req.getOptionalParameters(), w);
+    }
+
+    private static SubmitSmResp decodeSubmitSmResp(ByteReader r) {
+        SubmitSmResp resp = new SubmitSmResp();
+        // hata status'lü cevapta SMSC body göndermeyebilir
+        resp.setMessageId(r.remaining() > 0 ? r.readCString() : "");
+        resp.getOptionalParameters().addAll(readTlvs(r));
+        return resp;
+    }
+
+    private static void encodeSubmitSmResp(SubmitSmResp resp, ByteWriter w) {
+        requireNotNull(resp.getMessageId(), "messageId");
+        w.writeCString(resp.getMessageId());
+        writeTlvs(resp.getOptionalParameters(), w);
+    }
+
+    // -------------------- SUBMIT_MULTI --------------------
+    private static SubmitMultiReq decodeSubmitMulti(ByteReader r) {
+        SubmitMultiReq req = new SubmitMultiReq();
+
+        req.setServiceType(r.readCString());
+        req.setSourceAddrTon((byte) r.readByte());
+        req.setSourceAddrNpi((byte) r.readByte());
+        req.setSourceAddr(r.readCString());
+
+        int n = r.readByte();
+        for (int i = 0; i < n; i++) {
+            int flag = r.readByte();
+            if (flag == SubmitMultiReq.DEST_FLAG_SME_ADDRESS) {
+                byte ton = (byte) r.readByte();
+                byte npi = (byte) r.readByte();
+                req.getDestinations().add(SubmitMultiReq.Destination.sme(ton, npi, r.readCString()));
+            } else if (flag == SubmitMultiReq.DEST_FLAG_DISTRIBUTION_LIST) {
+                req.getDestinations().add(SubmitMultiReq.Destination.distributionList(r.readCString()));
+            } else {
+                throw new DecodeException("Invalid dest_flag: " + flag);
+            }
+        }
+
+        req.setEsmClass((byte) r.readByte());
+        req.setProtocolId((byte) r.readByte());
+        req.setPriorityFlag((byte) r.readByte());
+        req.setScheduleDeliveryTime(r.readCString());
+        req.setValidityPeriod(r.readCString());
+        req.setRegisteredDelivery((byte) r.readByte());
+        req.setReplaceIfPresentFlag((byte) r.readByte());
+        req.setDataCoding((byte) r.readByte());
+        req.setSmDefaultMsgId((byte) r.readByte());
+
+        int smLen = r.readByte() & 0xFF;
+        req.setShortMessage(r.readBytes(smLen));
+        req.getOptionalParameters().addAll(readTlvs(r));
+        return req;
+    }
+
+    private static void encodeSubmitMulti(SubmitMultiReq req, ByteWriter w) {
+        requireNotNull(req.getSourceAddr(), "sourceAddr");
+        List<SubmitMultiReq.Destination> dests = req.getDestinations();
+        if (dests.isEmpty() || dests.size() > 255) {
+            throw new InvalidPduException("submit_multi needs 1..255 destinations: " + dests.size());
+        }
+
+        w.writeCString(req.getServiceType());
+        w.writeByte(req.getSourceAddrTon());
+        w.writeByte(req.getSourceAddrNpi());
+        w.writeCString(req.getSourceAddr());
+
+        w.writeByte(dests.size());
+        for (SubmitMultiReq.Destination d : dests) {
+            requireNotNull(d.address, "destination address");
+            w.writeByte(d.destFlag);
+            if (d.destFlag == SubmitMultiReq.DEST_FLAG_SME_ADDRESS) {
+                w.writeByte(d.ton);
+                w.writeByte(d.npi);
+            }
+            w.writeCString(d.address);
+        }
+
+        w.writeByte(req.getEsmClass());
+        w.writeByte(req.getProtocolId());
+        w.writeByte(req.getPriorityFlag());
+        w.writeCString(req.getScheduleDeliveryTime());
+        w.writeCString(req.getValidityPeriod());
+        w.writeByte(req.getRegisteredDelivery());
+        w.writeByte(req.getReplaceIfPresentFlag());
+        w.writeByte(req.getDataCoding());
+        w.writeByte(req.getSmDefaultMsgId());
+
+        writeShortMessage(req.getShortMessage(), w);
+        writeTlvs(req.getOptionalParameters(), w);
+    }
+
+    private static SubmitMultiResp decodeSubmitMultiResp(ByteReader r) {
+        SubmitMultiResp resp = new SubmitMultiResp();
+        if (r.remaining() == 0) return resp;
+
+        resp.setMessageId(r.readCString());
+        int n = r.readByte();
+        for (int i = 0; i < n; i++) {
+            byte ton = (byte) r.readByte();
+            byte npi = (byte) r.readByte();
+            String addr = r.readCString();
+            resp.getUnsuccessSmes().add(new SubmitMultiResp.UnsuccessSme(ton, npi, addr, r.readInt()));
+        }
+        resp.getOptionalParameters().addAll(readTlvs(r));
+        return resp;
+    }
+
+    private static void encodeSubmitMultiResp(SubmitMultiResp resp, ByteWriter w) {
+        List<SubmitMultiResp.UnsuccessSme> failed = resp.getUnsuccessSmes();
+        if (failed.size() > 255) throw new InvalidPduException("too many unsuccess_sme: " + failed.size());
+
+        w.writeCString(resp.getMessageId());
+        w.writeByte(failed.size());
+        for (SubmitMultiResp.UnsuccessSme u : failed) {
+            w.writeByte(u.ton);
+            w.writeByte(u.npi);
+            w.writeCString(u.address);
+            w.writeInt(u.errorStatusCode);
+        }
+        writeTlvs(resp.getOptionalParameters(), w);
+    }
+
+    // -------------------- DELIVER_SM --------------------
+    private static DeliverSmReq decodeDeliverSm(ByteReader r) {
+        DeliverSmReq req = new DeliverSmReq();
+
+        req.setServiceType(r.readCString());
+        req.setSourceAddrTon((byte) r.readByte());
+        req.setSourceAddrNpi((byte) r.readByte());
+        req.setSourceAddr(r.readCString());
+
+        req.setDestAddrTon((byte) r.readByte());
+        req.setDestAddrNpi((byte) r.readByte());
+        req.setDestinationAddr(r.readCString());
+
+        req.setEsmClass((byte) r.readByte());
+        req.setProtocolId((byte) r.readByte());
+        req.setPriorityFlag((byte) r.readByte());
+
+        req.setScheduleDeliveryTime(r.readCString());
+        req.setValidityPeriod(r.readCString());
+
+        req.setRegisteredDelivery((byte) r.readByte());
+        req.setReplaceIfPresentFlag((byte) r.readByte());
+        req.setDataCoding((byte) r.readByte());
+        req.setSmDefaultMsgId((byte) r.readByte());
+
+        int smLen = r.readByte() & 0xFF;
+        req.setShortMessage(r.readBytes(smLen));
+
+        req.getOptionalParameters().addAll(readTlvs(r));
+        return req;
+    }
+
+    private static void encodeDeliverSm(DeliverSmReq req, ByteWriter w) {
+        w.writeCString(req.getServiceType());
+        w.writeByte(req.getSourceAddrTon());
+        w.writeByte(req.getSourceAddrNpi());
+        w.writeCString(req.getSourceAddr());
+
+        w.writeByte(req.getDestAddrTon());
+        w.writeByte(req.getDestAddrNpi());
+        w.writeCString(req.getDestinationAddr());
+
+        w.writeByte(req.getEsmClass());
+        w.writeByte(req.getProtocolId());
+        w.writeByte(req.getPriorityFlag());
+
+        w.writeCString(req.getScheduleDeliveryTime());
+        w.writeCString(req.getValidityPeriod());
+
+        w.writeByte(req.getRegisteredDelivery());
+        w.writeByte(req.getReplaceIfPresentFlag());
+        w.writeByte(req.getDataCoding());
+        w.writeByte(req.getSmDefaultMsgId());
+
+        writeShortMessage(req.getShortMessage(), w);
+        writeTlvs(req.getOptionalParameters(), w);
+    }
+
+    private static DeliverSmResp decodeDeliverSmResp(ByteReader r) {
+        DeliverSmResp resp = new DeliverSmResp();
+        resp.setMessageId(r.remaining() > 0 ? r.readCString() : "");
+        resp.getOptionalParameters().addAll(readTlvs(r));
+        return resp;
+    }
+
+    private static void encodeDeliverSmResp(DeliverSmResp resp, ByteWriter w) {
+        requireNotNull(resp.getMessageId(), "messageId");
+        w.writeCString(resp.getMessageId());
+        writeTlvs(resp.getOptionalParameters(), w);
+    }
+
+    // -------------------- DATA_SM --------------------
+    private static DataSmReq decodeDataSm(ByteReader r) {
+        DataSmReq req = new DataSmReq();
+        req.setServiceType(r.readCString());
+        req.setSourceAddrTon((byte) r.readByte());
+        req.setSourceAddrNpi((byte) r.readByte());
+        req.setSourceAddr(r.readCString());
+        req.setDestAddrTon((byte) r.readByte());
+        req.setDestAddrNpi((byte) r.readByte());
+        req.setDestinationAddr(r.readCString());
+        req.setEsmClass((byte) r.readByte());
+        req.setRegisteredDelivery((byte) r.readByte());
+        req.setDataCoding((byte) r.readByte());
+        req.getOptionalParameters().addAll(readTlvs(r));
+        return req;
+    }
+
+    private static void encodeDataSm(DataSmReq req, ByteWriter w) {
+        requireNotNull(req.getSourceAddr(), "sourceAddr");
+        requireNotNull(req.getDestinationAddr(), "destinationAddr");
+
+        w.writeCString(req.getServiceType());
+        w.writeByte(req.getSourceAddrTon());
+        w.writeByte(req.getSourceAddrNpi());
+        w.writeCString(req.getSourceAddr());
+        w.writeByte(req.getDestAddrTon());
+        w.writeByte(req.getDestAddrNpi());
+        w.writeCString(req.getDestinationAddr());
+        w.writeByte(req.getEsmClass());
+        w.writeByte(req.getRegisteredDelivery());
+        w.writeByte(req.getDataCoding());
+        writeTlvs(req.getOptionalParameters(), w);
+    }
+
+    private static DataSmResp decodeDataSmResp(ByteReader r) {
+        DataSmResp resp = new DataSmResp();
+        resp.setMessageId(r.remaining() > 0 ? r.readCString() : "");
+        resp.getOptionalParameters().addAll(readTlvs(r));
+        return resp;
+    }
+
+    private static void encodeDataSmResp(DataSmResp resp, ByteWriter w) {
+        w.writeCString(resp.getMessageId());
+        writeTlvs(resp.getOptionalParameters(), w);
+    }
+
+    // -------------------- QUERY / CANCEL / REPLACE --------------------
+    private static QuerySmReq decodeQuerySm(ByteReader r) {
+        QuerySmReq req = new QuerySmReq();
+        req.setMessageId(r.readCString());
+        req.setSourceAddrTon((byte) r.readByte());
+        req.setSourceAddrNpi((byte) r.readByte());
+        req.setSourceAddr(r.readCString());
+        return req;
+    }
+
+    private static void encodeQuerySm(QuerySmReq req, ByteWriter w) {
+        requireNotNull(req.getMessageId(), "messageId");
+        w.writeCString(req.getMessageId());
+        w.writeByte(req.getSourceAddrTon());
+        w.writeByte(req.getSourceAddrNpi());
+        w.writeCString(req.getSourceAddr());
+    }
+
+    private static QuerySmResp decodeQuerySmResp(ByteReader r) {
+        QuerySmResp resp = new QuerySmResp();
+        if (r.remaining() == 0) return resp;
+        resp.setMessageId(r.readCString());
+        resp.setFinalDate(r.readCString());
+        resp.setMessageState((byte) r.readByte());
+        resp.setErrorCode((byte) r.readByte());
+        return resp;
+    }
+
+    private static void encodeQuerySmResp(QuerySmResp resp, ByteWriter w) {
+        w.writeCString(resp.getMessageId());
+        w.writeCString(resp.getFinalDate());
+        w.writeByte(resp.getMessageState());
+        w.writeByte(resp.getErrorCode());
+    }
+
+    private static CancelSmReq decodeCancelSm(ByteReader r) {
+        CancelSmReq req = new CancelSmReq();
+        req.setServiceType(r.readCString());
+        req.setMessageId(r.readCString());
+        req.setSourceAddrTon((byte) r.readByte());
+        req.setSourceAddrNpi((byte) r.readByte());
+        req.setSourceAddr(r.readCString());
+        req.setDestAddrTon((byte) r.readByte());
+        req.setDestAddrNpi((byte) r.readByte());
+        req.setDestinationAddr(r.readCString());
+        return req;
+    }
+
+    private static void encodeCancelSm(CancelSmReq req, ByteWriter w) {
+        w.writeCString(req.getServiceType());
+        w.writeCString(req.getMessageId());
+        w.writeByte(req.getSourceAddrTon());
+        w.writeByte(req.getSourceAddrNpi());
+        w.writeCString(req.getSourceAddr());
+        w.writeByte(req.getDestAddrTon());
+        w.writeByte(req.getDestAddrNpi());
+        w.writeCString(req.getDestinationAddr());
+    }
+
+    private static ReplaceSmReq decodeReplaceSm(ByteReader r) {
+        ReplaceSmReq req = new ReplaceSmReq();
+        req.setMessageId(r.readCString());
+        req.setSourceAddrTon((byte) r.readByte());
+        req.setSourceAddrNpi((byte) r.readByte());
+        req.setSourceAddr(r.readCString());
+        req.setScheduleDeliveryTime(r.readCString());
+        req.setValidityPeriod(r.readCString());
+        req.setRegisteredDelivery((byte) r.readByte());
+        req.setSmDefaultMsgId((byte) r.readByte());
+        int smLen = r.readByte() & 0xFF;
+        req.setShortMessage(r.readBytes(smLen));
+        return req;
+    }
+
+    private static void encodeReplaceSm(ReplaceSmReq req, ByteWriter w) {
+        requireNotNull(req.getMessageId(), "messageId");
+        w.writeCString(req.getMessageId());
+        w.writeByte(req.getSourceAddrTon());
+        w.writeByte(req.getSourceAddrNpi());
+        w.writeCString(req.getSourceAddr());
+        w.writeCString(req.getScheduleDeliveryTime());
+        w.writeCString(req.getValidityPeriod());
+        w.writeByte(req.getRegisteredDelivery());
+        w.writeByte(req.getSmDefaultMsgId());
+        writeShortMessage(req.getShortMessage(), w);
+    }
+
+    // -------------------- ALERT_NOTIFICATION --------------------
+    private static AlertNotification decodeAlertNotification(ByteReader r) {
+        AlertNotification a = new AlertNotification();
+        a.setSourceAddrTon((byte) r.readByte());
+        a.setSourceAddrNpi((byte) r.readByte());
+        a.setSourceAddr(r.readCString());
+        a.setEsmeAddrTon((byte) r.readByte());
+        a.setEsmeAddrNpi((byte) r.readByte());
+        a.setEsmeAddr(r.readCString());
+        a.getOptionalParameters().addAll(readTlvs(r)); // ms_availability_status
+        return a;
+    }
+
+    private static void encodeAlertNotification(AlertNotification a, ByteWriter w) {
+        w.writeByte(a.getSourceAddrTon());
+        w.writeByte(a.getSourceAddrNpi());
+        w.writeCString(a.getSourceAddr());
+        w.writeByte(a.getEsmeAddrTon());
+        w.writeByte(a.getEsmeAddrNpi());
+        w.writeCString(a.getEsmeAddr());
+        writeTlvs(a.getOptionalParameters(), w);
+    }
+
+    // -------------------- ortak --------------------
+    private static void writeShortMessage(byte[] sm, ByteWriter w) {
+        int smLen = sm == null ? 0 : sm.length;
+        if (smLen > 255) {
+            throw new InvalidPduException("short_message too long for sm_length (max 255): " + smLen);
+        }
+        w.writeByte(smLen);         // sm_length
+        w.writeOctets(sm);          // short_message
+    }
+
+    static List<OptionalParameter> readTlvs(ByteReader r) {
+        List<OptionalParameter> list = new java.util.ArrayList<>();
+        while (r.remaining() >= 4) { // en az tag(2)+len(2)
+            int tag = r.readShort();
+            int len = r.readShort();
+            if (len > r.remaining()) {
+                throw new DecodeException("TLV length exceeds remaining. tag=0x" +
+                        Integer.toHexString(tag) + " len=" + len + " remaining=" + r.remaining());
+            }
+            byte[] val = r.readBytes(len);
+            list.add(new OptionalParameter(tag, len, val));
+        }
+        return list;
+    }
+
+    static void writeTlvs(List<OptionalParameter> tlvs, ByteWriter w) {
+        if (tlvs == null || tlvs.isEmpty()) return;
+
+        for (OptionalParameter p : tlvs) {
+            if (p == null) continue;
+
+            byte[] val = p.getValue();
+            int len = val == null ? 0 : val.length;
+
+            w.writeShort(p.getTag());
+            w.writeShort(len);
+            w.writeOctets(val);
+        }
+    }
+
+    private static void requireNotNull(Object v, String name) {
+        if (v == null) throw new InvalidPduException(name + " is null");
+    }
+}
@@ -1,49 +1,91 @@
 package com.mycompany.smppclient.pdu.encoder;
 
-import java.io.ByteArrayOutputStream;
-import java.nio.charset.StandardCharsets;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
+/**
+ * PDU alanlarını bir {@link ByteBuffer}'a, bulunduğu pozisyondan itibaren big-endian yazar.
+ * Dışarıdan verilen buffer'da yer yetmezse {@link BufferOverflowException}; no-arg constructor'da
+ * kendi heap buffer'ını büyütür. Ara dizi yok: C-string'ler char char yazılır.
+ */
 public class ByteWriter {
-    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private ByteBuffer buf;
+    private final int start;
+    private final boolean growable;
 
+    /** Kendi büyüyen buffer'ı. */
+    public ByteWriter() {
+        this.buf = ByteBuffer.allocate(256);
+        this.start = 0;
+        this.growable = true;
+    }
+
+    /** {@code target}'a mevcut pozisyondan yazar (sıra big-endian'a çekilir). */
+    public ByteWriter(ByteBuffer target) {
+        this.buf = target.order(ByteOrder.BIG_ENDIAN);
+        this.start = target.position();
+        this.growable = false;
+    }
+
+    /** Bu writer'ın yazdığı byte sayısı. */
     public int size() {
-        return out.size();
+        return buf.position() - start;
     }
 
     public byte[] toByteArray() {
-        return out.toByteArray();
+        byte[] out = new byte[size()];
+        buf.get(start, out);
+        return out;
+    }
+
+    public ByteBuffer buffer() {
+        return buf;
     }
 
     public void writeByte(int b) {
-        out.write(b & 0xFF);
+        ensure(1);
+        buf.put((byte) b);
     }
 
     public void writeBytes(byte[] bytes) {
         if (bytes == null || bytes.length == 0) return;
-        out.write(bytes, 0, bytes.length);
+        ensure(bytes.length);
+        buf.put(bytes);
     }
 
     public void writeInt(int value) {
-        out.write((value >>> 24) & 0xFF);
-        out.write((value >>> 16) & 0xFF);
-        out.write((value >>> 8) & 0xFF);
-        out.write(value & 0xFF);
+        ensure(4);
+        buf.putInt(value);
     }
 
+    /** US-ASCII + NUL; ASCII dışı karakterler '?' olur ({@code getBytes(US_ASCII)} ile aynı). */
     public void writeCString(String s) {
-        if (s == null) s = "";
-        byte[] bytes = s.getBytes(StandardCharsets.US_ASCII);
-        writeBytes(bytes);
-        writeByte(0x00);
+        int n = s == null ? 0 : s.length();
+        ensure(n + 1);
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            buf.put(c < 0x80 ? (byte) c : (byte) '?');
+        }
+        buf.put((byte) 0x00);
     }
 
     public void writeShort(int value) {
-        out.write((value >>> 8) & 0xFF);
-        out.write(value & 0xFF);
+        ensure(2);
+        buf.putShort((short) value);
     }
 
     public void writeOctets(byte[] b) {
         if (b == null) return;
         writeBytes(b);
     }
-}
\ No newline at end of file
+
+    private void ensure(int n) {
+        if (buf.remaining() >= n) return;
+        if (!growable) throw new BufferOverflowException();
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + n));
+        buf.flip();
+        bigger.put(buf);
+        buf = bigger;
+    }
+}
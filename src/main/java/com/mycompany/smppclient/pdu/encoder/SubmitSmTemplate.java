@@ -0,0 +1,157 @@
+package com.mycompany.smppclient.pdu.encoder;
+
+import com.mycompany.smppclient.pdu.SubmitSmReq;
+import com.mycompany.smppclient.pdu.exception.InvalidPduException;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Aynı içeriğin çok sayıda alıcıya gittiği kampanyalar için önceden encode edilmiş submit_sm.
+ * <p>
+ * Constructor temel isteği bir kez encode eder ve {@code destination_addr}'ın iki yanını saklar: header +
+ * service_type .. dest_addr_npi ve esm_class .. short_message / TLV'ler. Her gönderimde sadece alıcı
+ * adresi araya yazılır, command_length ve sequence_number yamanır. Temel istek sonradan değişse de
+ * şablon etkilenmez. Immutable; thread'ler arasında paylaşılabilir.
+ */
+public final class SubmitSmTemplate {
+
+    private static final int HEADER_LENGTH = PduEncoder.HEADER_LENGTH;
+
+    private final byte[] prefix;   // header + service_type .. dest_addr_npi
+    private final byte[] suffix;   // esm_class .. TLV'ler
+
+    // audit / PendingSubmit için
+    private final String sourceAddr;
+    private final byte esmClass;
+    private final byte dataCoding;
+    private final byte[] shortMessage;
+
+    public SubmitSmTemplate(SubmitSmReq base) {
+        this(base, new PduEncoder());
+    }
+
+    /** {@code base.getDestinationAddr()} ve sequence_number yok sayılır. */
+    public SubmitSmTemplate(SubmitSmReq base, PduEncoder encoder) {
+        if (base == null) throw new InvalidPduException("PDU is null");
+        SubmitSmReq copy = copyWithoutDestination(base);
+        byte[] encoded = encoder.encode(copy);
+
+        // service_type\0 ton npi source_addr\0 dest_ton dest_npi | ""\0 | esm_class ...
+        int p = skipCString(encoded, HEADER_LENGTH) + 2;
+        p = skipCString(encoded, p) + 2;
+        this.prefix = Arrays.copyOfRange(encoded, 0, p);
+        this.suffix = Arrays.copyOfRange(encoded, p + 1, encoded.length);
+
+        this.sourceAddr = copy.getSourceAddr();
+        this.esmClass = copy.getEsmClass();
+        this.dataCoding = copy.getDataCoding();
+        this.shortMessage = copy.getShortMessage();
+    }
+
+    /** Alıcı adresiyle birlikte PDU'nun toplam boyu (command_length). */
+    public int encodedLength(String destinationAddr) {
+        requireDestination(destinationAddr);
+        return prefix.length + destinationAddr.length() + 1 + suffix.length;
+    }
+
+    /** PDU'yu yeni bir diziye yazar; {@link PduEncoder#encode} ile aynı byte'lar. */
+    public byte[] encode(String destinationAddr, int sequenceNumber) {
+        byte[] out = new byte[encodedLength(destinationAddr)];
+        System.arraycopy(prefix, 0, out, 0, prefix.length);
+        int p = prefix.length;
+        for (int i = 0, n = destinationAddr.length(); i < n; i++) {
+            out[p++] = ascii(destinationAddr.charAt(i));
+        }
+        out[p++] = 0;
+        System.arraycopy(suffix, 0, out, p, suffix.length);
+
+        putInt(out, 0, out.length);          // command_length
+        putInt(out, 12, sequenceNumber);     // sequence_number
+        return out;
+    }
+
+    /**
+     * PDU'yu {@code buf}'ın mevcut pozisyonundan itibaren yazar; pozisyon PDU'nun sonuna ilerler.
+     *
+     * @return yazılan byte sayısı (command_length)
+     * @throws BufferOverflowException yer yetmezse; buffer değişmez
+     */
+    public int encodeTo(String destinationAddr, int sequenceNumber, ByteBuffer buf) {
+        int len = encodedLength(destinationAddr);
+        if (buf.remaining() < len) throw new BufferOverflowException();
+
+        int start = buf.position();
+        buf.put(prefix);
+        for (int i = 0, n = destinationAddr.length(); i < n; i++) {
+            buf.put(ascii(destinationAddr.charAt(i)));
+        }
+        buf.put((byte) 0);
+        buf.put(suffix);
+
+        // buffer'ın byte sırasından bağımsız, big-endian
+        putInt(buf, start, len);
+        putInt(buf, start + 12, sequenceNumber);
+        return len;
+    }
+
+    public String getSourceAddr() { return sourceAddr; }
+    public byte getEsmClass() { return esmClass; }
+    public byte getDataCoding() { return dataCoding; }
+
+    /** Şablonun short_message'ı (UDH dahil); dönen dizi değiştirilmemeli. */
+    public byte[] getShortMessage() { return shortMessage; }
+
+    private static SubmitSmReq copyWithoutDestination(SubmitSmReq src) {
+        SubmitSmReq r = new SubmitSmReq();
+        r.setServiceType(src.getServiceType());
+        r.setSourceAddrTon(src.getSourceAddrTon());
+        r.setSourceAddrNpi(src.getSourceAddrNpi());
+        r.setSourceAddr(src.getSourceAddr());
+        r.setDestAddrTon(src.getDestAddrTon());
+        r.setDestAddrNpi(src.getDestAddrNpi());
+        r.setDestinationAddr("");
+        r.setEsmClass(src.getEsmClass());
+        r.setProtocolId(src.getProtocolId());
+        r.setPriorityFlag(src.getPriorityFlag());
+        r.setScheduleDeliveryTime(src.getScheduleDeliveryTime());
+        r.setValidityPeriod(src.getValidityPeriod());
+        r.setRegisteredDelivery(src.getRegisteredDelivery());
+        r.setReplaceIfPresentFlag(src.getReplaceIfPresentFlag());
+        r.setDataCoding(src.getDataCoding());
+        r.setSmDefaultMsgId(src.getSmDefaultMsgId());
+        byte[] sm = src.getShortMessage();
+        r.setShortMessage(sm == null ? new byte[0] : sm.clone());
+        r.getOptionalParameters().addAll(src.getOptionalParameters());
+        return r;
+    }
+
+    private static void requireDestination(String destinationAddr) {
+        if (destinationAddr == null) throw new InvalidPduException("destinationAddr is null");
+    }
+
+    // ByteWriter.writeCString ile aynı kural
+    private static byte ascii(char c) {
+        return c < 0x80 ? (byte) c : (byte) '?';
+    }
+
+    private static int skipCString(byte[] b, int off) {
+        while (b[off] != 0) off++;
+        return off + 1;
+    }
+
+    private static void putInt(byte[] b, int off, int v) {
+        b[off] = (byte) (v >>> 24);
+        b[off + 1] = (byte) (v >>> 16);
+        b[off + 2] = (byte) (v >>> 8);
+        b[off + 3] = (byte) v;
+    }
+
+    private static void putInt(ByteBuffer b, int off, int v) {
+        b.put(off, (byte) (v >>> 24));
+        b.put(off + 1, (byte) (v >>> 16));
+        b.put(off + 2, (byte) (v >>> 8));
+        b.put(off + 3, (byte) v);
+    }
+}
@@ -0,0 +1,37 @@
+package com.mycompany.smppclient.pdu.encoding;
+
+import java.nio.charset.StandardCharsets;
+
+/** Tablo ile büyük harf hex dönüşümü (byte başına String.format yerine). */
+public final class Hex {
+    private Hex() {}
+
+    private static final byte[] DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    /** null için "" döner. */
+    public static String toHex(byte[] b) {
+        if (b == null || b.length == 0) return "";
+        byte[] out = new byte[b.length * 2];
+        for (int i = 0, j = 0; i < b.length; i++) {
+            int v = b[i] & 0xFF;
+            out[j++] = DIGITS[v >>> 4];
+            out[j++] = DIGITS[v & 0x0F];
+        }
+        // ASCII -> compact string, ara char[] kopyası yok
+        return new String(out, StandardCharsets.ISO_8859_1);
+    }
+
+    public static byte[] fromHex(String s) {
+        if (s == null) return new byte[0];
+        int n = s.length();
+        if ((n & 1) != 0) throw new IllegalArgumentException("odd hex length: " + n);
+        byte[] out = new byte[n / 2];
+        for (int i = 0; i < out.length; i++) {
+            int hi = Character.digit(s.charAt(2 * i), 16);
+            int lo = Character.digit(s.charAt(2 * i + 1), 16);
+            if (hi < 0 || lo < 0) throw new IllegalArgumentException("invalid hex at " + (2 * i));
+            out[i] = (byte) ((hi << 4) | lo);
+        }
+        return out;
+    }
+}
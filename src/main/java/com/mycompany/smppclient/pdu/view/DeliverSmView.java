@@ -0,0 +1,160 @@
+package com.mycompany.smppclient.pdu.view;
+
+import com.mycompany.smppclient.pdu.CommandId;
+import com.mycompany.smppclient.pdu.DeliverSmReq;
+import com.mycompany.smppclient.pdu.exception.DecodeException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * deliver_sm üzerinde salt okunur görünüm; {@link DeliverSmReq} ile aynı alanlar.
+ * <p>
+ * {@link #wrap} body'yi bir kez tarayıp alan offset'lerini çıkarır (bozuk PDU'da decoder ile aynı
+ * {@link DecodeException}); adresler ve short_message ilk erişimde üretilir ve saklanır.
+ */
+public final class DeliverSmView extends PduView {
+
+    /** message_payload TLV'si (short_message boşken metin burada gelir) */
+    public static final int TAG_MESSAGE_PAYLOAD = 0x0424;
+
+    // C-octet string'lerin başlangıçları; uzunluk = sonraki alan - başlangıç - 1 (NUL)
+    private int offService;
+    private int offSource;
+    private int offDest;
+    private int offEsm;
+    private int offSchedule;
+    private int offValidity;
+    private int offRegDelivery;
+    private int offSm;
+    private int smLength;
+
+    private String serviceType;
+    private String sourceAddr;
+    private String destinationAddr;
+    private String scheduleDeliveryTime;
+    private String validityPeriod;
+    private byte[] shortMessage;
+
+    public DeliverSmView wrap(ByteBuffer pdu) {
+        wrapHeader(pdu, CommandId.DELIVER_SM);
+        serviceType = sourceAddr = destinationAddr = scheduleDeliveryTime = validityPeriod = null;
+        shortMessage = null;
+
+        offService = HEADER_LENGTH;
+        int p = skipCString(offService);
+        require(p, 2);
+        offSource = p + 2;                  // source_addr_ton, source_addr_npi
+        p = skipCString(offSource);
+        require(p, 2);
+        offDest = p + 2;                    // dest_addr_ton, dest_addr_npi
+        offEsm = skipCString(offDest);
+        require(offEsm, 3);
+        offSchedule = offEsm + 3;           // esm_class, protocol_id, priority_flag
+        offValidity = skipCString(offSchedule);
+        offRegDelivery = skipCString(offValidity);
+        require(offRegDelivery, 5);         // registered_delivery .. sm_length
+        smLength = uint8(offRegDelivery + 4);
+        offSm = offRegDelivery + 5;
+        require(offSm, smLength);
+        checkTlvs(offSm + smLength);
+        return this;
+    }
+
+    public DeliverSmView wrap(byte[] pdu) {
+        return wrap(ByteBuffer.wrap(pdu));
+    }
+
+    // ---------- sabit alanlar (allocation yok) ----------
+
+    public byte sourceAddrTon() { return (byte) uint8(offSource - 2); }
+    public byte sourceAddrNpi() { return (byte) uint8(offSource - 1); }
+    public byte destAddrTon() { return (byte) uint8(offDest - 2); }
+    public byte destAddrNpi() { return (byte) uint8(offDest - 1); }
+    public byte esmClass() { return (byte) uint8(offEsm); }
+    public byte protocolId() { return (byte) uint8(offEsm + 1); }
+    public byte priorityFlag() { return (byte) uint8(offEsm + 2); }
+    public byte registeredDelivery() { return (byte) uint8(offRegDelivery); }
+    public byte replaceIfPresentFlag() { return (byte) uint8(offRegDelivery + 1); }
+    public byte dataCoding() { return (byte) uint8(offRegDelivery + 2); }
+    public byte smDefaultMsgId() { return (byte) uint8(offRegDelivery + 3); }
+    public int smLength() { return smLength; }
+
+    /** short_message'ın PDU başına göre offset'i ({@link #buffer()} ile birlikte kopyasız okumak için). */
+    public int shortMessageOffset() { return offSm; }
+
+    // ---------- ilk erişimde üretilen alanlar ----------
+
+    public String serviceType() {
+        if (serviceType == null) serviceType = ascii(offService, offSource - 2 - offService - 1);
+        return serviceType;
+    }
+
+    public String sourceAddr() {
+        if (sourceAddr == null) sourceAddr = ascii(offSource, offDest - 2 - offSource - 1);
+        return sourceAddr;
+    }
+
+    public String destinationAddr() {
+        if (destinationAddr == null) destinationAddr = ascii(offDest, offEsm - offDest - 1);
+        return destinationAddr;
+    }
+
+    public String scheduleDeliveryTime() {
+        if (scheduleDeliveryTime == null) scheduleDeliveryTime = ascii(offSchedule, offValidity - offSchedule - 1);
+        return scheduleDeliveryTime;
+    }
+
+    public String validityPeriod() {
+        if (validityPeriod == null) validityPeriod = ascii(offValidity, offRegDelivery - offValidity - 1);
+        return validityPeriod;
+    }
+
+    /** short_message kopyası (bir kez kopyalanır; dönen dizi değiştirilmemeli). */
+    public byte[] shortMessage() {
+        if (shortMessage == null) shortMessage = bytes(offSm, smLength);
+        return shortMessage;
+    }
+
+    /** short_message doluysa o, değilse message_payload TLV'si; ikisi de yoksa boş dizi. */
+    public byte[] payload() {
+        if (smLength > 0) return shortMessage();
+        byte[] v = tlvBytes(TAG_MESSAGE_PAYLOAD);
+        return v == null ? new byte[0] : v;
+    }
+
+    @Override
+    public DeliverSmReq materialize() {
+        DeliverSmReq req = new DeliverSmReq();
+        header(req);
+        req.setServiceType(serviceType());
+        req.setSourceAddrTon(sourceAddrTon());
+        req.setSourceAddrNpi(sourceAddrNpi());
+        req.setSourceAddr(sourceAddr());
+        req.setDestAddrTon(destAddrTon());
+        req.setDestAddrNpi(destAddrNpi());
+        req.setDestinationAddr(destinationAddr());
+        req.setEsmClass(esmClass());
+        req.setProtocolId(protocolId());
+        req.setPriorityFlag(priorityFlag());
+        req.setScheduleDeliveryTime(scheduleDeliveryTime());
+        req.setValidityPeriod(validityPeriod());
+        req.setRegisteredDelivery(registeredDelivery());
+        req.setReplaceIfPresentFlag(replaceIfPresentFlag());
+        req.setDataCoding(dataCoding());
+        req.setSmDefaultMsgId(smDefaultMsgId());
+        // POJO değiştirilebilir; görünümün sakladığı diziyle paylaşılmaz
+        req.setShortMessage(bytes(offSm, smLength));
+        copyTlvs(req.getOptionalParameters());
+        return req;
+    }
+
+    @Override
+    public String toString() {
+        return "DeliverSmView{seq=" + sequenceNumber() +
+                ", esmClass=0x" + Integer.toHexString(esmClass() & 0xFF) +
+                ", dataCoding=0x" + Integer.toHexString(dataCoding() & 0xFF) +
+                ", shortMessageLen=" + smLength +
+                ", tlvCount=" + tlvCount() +
+                "}";
+    }
+}
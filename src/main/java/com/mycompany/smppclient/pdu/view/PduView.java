@@ -0,0 +1,158 @@
+package com.mycompany.smppclient.pdu.view;
+
+import com.mycompany.smppclient.pdu.Pdu;
+import com.mycompany.smppclient.pdu.exception.DecodeException;
+import com.mycompany.smppclient.pdu.tlv.OptionalParameter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Çerçevelenmiş tek bir PDU'nun üzerinde salt okunur görünüm (flyweight).
+ * <p>
+ * {@code wrap} sadece header'ı doğrular ve body'deki alan sınırlarını bulur; String / byte[] alanlar
+ * ilk erişimde üretilir, hiç okunmayan alan için allocation olmaz. Buffer'ın position / limit'i
+ * değişmez (mutlak okuma). Görünüm buffer'ı kopyalamaz: buffer yeniden kullanılacaksa (ör. framer
+ * slice'ı) görünüm de sadece o süre geçerlidir; kalıcı nesne için {@link #materialize()}.
+ * Aynı nesne {@code wrap} ile tekrar tekrar kullanılabilir. Thread-safe değildir.
+ */
+public abstract class PduView {
+
+    static final int HEADER_LENGTH = 16;
+
+    ByteBuffer buf;
+    int base;   // PDU'nun buffer içindeki başlangıcı
+    int end;    // PDU sonu (exclusive)
+    int tlvStart;
+
+    /** pdu.position()..limit() arası tam bir PDU olmalı. */
+    final void wrapHeader(ByteBuffer pdu, int expectedCommandId) {
+        int len = pdu.remaining();
+        if (len < HEADER_LENGTH) {
+            throw new DecodeException("PDU too short (min 16 bytes header). len=" + len);
+        }
+        this.buf = pdu;
+        this.base = pdu.position();
+        this.end = pdu.limit();
+
+        int commandLength = commandLength();
+        if (commandLength != len) {
+            throw new DecodeException("command_length mismatch. header=" + commandLength + " actual=" + len);
+        }
+        if (commandId() != expectedCommandId) {
+            throw new DecodeException("Unexpected command_id: 0x" + Integer.toHexString(commandId())
+                    + " expected=0x" + Integer.toHexString(expectedCommandId));
+        }
+    }
+
+    // ---------- header ----------
+
+    public int commandLength() { return int32(0); }
+    public int commandId() { return int32(4); }
+    public int commandStatus() { return int32(8); }
+    public int sequenceNumber() { return int32(12); }
+
+    /** Görünümün okuduğu buffer (position..limit = PDU). */
+    public ByteBuffer buffer() { return buf; }
+
+    /** Alanları kopyalayıp decoder'ın döndüreceği POJO'nun aynısını üretir. */
+    public abstract Pdu materialize();
+
+    // ---------- TLV ----------
+
+    /** TLV'nin value kısmı (salt okunur slice); yoksa null. */
+    public ByteBuffer tlv(int tag) {
+        int off = findTlv(tag);
+        return off < 0 ? null : buf.slice(base + off + 4, uint16(off + 2)).asReadOnlyBuffer();
+    }
+
+    /** TLV'nin value kısmının kopyası; yoksa null. */
+    public byte[] tlvBytes(int tag) {
+        int off = findTlv(tag);
+        return off < 0 ? null : bytes(off + 4, uint16(off + 2));
+    }
+
+    public int tlvCount() {
+        int n = 0;
+        for (int p = tlvStart; end - (base + p) >= 4; p += 4 + uint16(p + 2)) n++;
+        return n;
+    }
+
+    // ---------- yardımcılar (offset'ler PDU başına göre) ----------
+
+    final int uint8(int off) {
+        return buf.get(base + off) & 0xFF;
+    }
+
+    final int uint16(int off) {
+        return (uint8(off) << 8) | uint8(off + 1);
+    }
+
+    final int int32(int off) {
+        return (uint8(off) << 24) | (uint8(off + 1) << 16) | (uint8(off + 2) << 8) | uint8(off + 3);
+    }
+
+    /** off'taki C-octet string'in NUL'undan sonraki offset. */
+    final int skipCString(int off) {
+        for (int p = off; base + p < end; p++) {
+            if (buf.get(base + p) == 0) return p + 1;
+        }
+        throw new DecodeException("CString not terminated with 0x00");
+    }
+
+    final void require(int off, int n) {
+        if (base + off + n > end) {
+            throw new DecodeException("Not enough bytes. need=" + n + " remaining=" + (end - base - off));
+        }
+    }
+
+    /** off'tan sona kadar TLV'lerin sınırlarını doğrular (decoder ile aynı kural). */
+    final void checkTlvs(int off) {
+        this.tlvStart = off;
+        int p = off;
+        while (end - (base + p) >= 4) {
+            int tag = uint16(p);
+            int len = uint16(p + 2);
+            int remaining = end - (base + p + 4);
+            if (len > remaining) {
+                throw new DecodeException("TLV length exceeds remaining. tag=0x" +
+                        Integer.toHexString(tag) + " len=" + len + " remaining=" + remaining);
+            }
+            p += 4 + len;
+        }
+    }
+
+    final int findTlv(int tag) {
+        for (int p = tlvStart; end - (base + p) >= 4; p += 4 + uint16(p + 2)) {
+            if (uint16(p) == tag) return p;
+        }
+        return -1;
+    }
+
+    final void copyTlvs(List<OptionalParameter> out) {
+        for (int p = tlvStart; end - (base + p) >= 4; p += 4 + uint16(p + 2)) {
+            int len = uint16(p + 2);
+            out.add(new OptionalParameter(uint16(p), len, bytes(p + 4, len)));
+        }
+    }
+
+    final String ascii(int off, int len) {
+        if (buf.hasArray()) {
+            return new String(buf.array(), buf.arrayOffset() + base + off, len, StandardCharsets.US_ASCII);
+        }
+        return new String(bytes(off, len), StandardCharsets.US_ASCII);
+    }
+
+    final byte[] bytes(int off, int len) {
+        byte[] out = new byte[len];
+        buf.get(base + off, out);
+        return out;
+    }
+
+    final void header(Pdu pdu) {
+        pdu.setCommandLength(commandLength());
+        pdu.setCommandStatus(commandStatus());
+        pdu.setSequenceNumber(sequenceNumber());
+    }
+}
@@ -0,0 +1,56 @@
+package com.mycompany.smppclient.pdu.view;
+
+import com.mycompany.smppclient.pdu.CommandId;
+import com.mycompany.smppclient.pdu.SubmitSmResp;
+
+import java.nio.ByteBuffer;
+
+/**
+ * submit_sm_resp üzerinde salt okunur görünüm. Hata status'lü cevaplarda SMSC body göndermeyebilir;
+ * bu durumda {@link #messageId()} boş string döner.
+ */
+public final class SubmitSmRespView extends PduView {
+
+    private int messageIdLength;   // NUL hariç; body yoksa -1
+    private String messageId;
+
+    public SubmitSmRespView wrap(ByteBuffer pdu) {
+        wrapHeader(pdu, CommandId.SUBMIT_SM_RESP);
+        messageId = null;
+        if (end - base == HEADER_LENGTH) {
+            messageIdLength = -1;
+            checkTlvs(HEADER_LENGTH);
+        } else {
+            int p = skipCString(HEADER_LENGTH);
+            messageIdLength = p - HEADER_LENGTH - 1;
+            checkTlvs(p);
+        }
+        return this;
+    }
+
+    public SubmitSmRespView wrap(byte[] pdu) {
+        return wrap(ByteBuffer.wrap(pdu));
+    }
+
+    public String messageId() {
+        if (messageId == null) messageId = messageIdLength <= 0 ? "" : ascii(HEADER_LENGTH, messageIdLength);
+        return messageId;
+    }
+
+    @Override
+    public SubmitSmResp materialize() {
+        SubmitSmResp resp = new SubmitSmResp();
+        header(resp);
+        resp.setMessageId(messageId());
+        copyTlvs(resp.getOptionalParameters());
+        return resp;
+    }
+
+    @Override
+    public String toString() {
+        return "SubmitSmRespView{seq=" + sequenceNumber() +
+                ", commandStatus=0x" + Integer.toHexString(commandStatus()) +
+                ", messageId='" + messageId() + '\'' +
+                "}";
+    }
+}
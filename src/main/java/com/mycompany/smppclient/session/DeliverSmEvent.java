@@ -1,9 +1,11 @@
 package com.mycompany.smppclient.session;
 
 import com.mycompany.smppclient.pdu.DeliverSmReq;
+import com.mycompany.smppclient.pdu.view.DeliverSmView;
 
 public final class DeliverSmEvent {
-    public final DeliverSmReq raw;
+    /** alınan PDU'nun görünümü; PDU'ya ait byte[] üzerindedir, callback sonrasında da okunabilir */
+    public final DeliverSmView view;
 
     public final String sourceAddr;
     public final String destinationAddr;
@@ -19,8 +21,10 @@ public final class DeliverSmEvent {
     /** receipt parse edilebildiyse */
     public final DeliveryReceipt receipt;
 
+    private DeliverSmReq raw;
+
     public DeliverSmEvent(
-            DeliverSmReq raw,
+            DeliverSmView view,
             String sourceAddr,
             String destinationAddr,
             byte esmClass,
@@ -29,7 +33,7 @@ public final class DeliverSmEvent {
             boolean isDeliveryReceipt,
             DeliveryReceipt receipt
     ) {
-        this.raw = raw;
+        this.view = view;
         this.sourceAddr = sourceAddr;
         this.destinationAddr = destinationAddr;
         this.esmClass = esmClass;
@@ -38,4 +42,10 @@ public final class DeliverSmEvent {
         this.isDeliveryReceipt = isDeliveryReceipt;
         this.receipt = receipt;
     }
+
+    /** Tam {@link DeliverSmReq}; ilk çağrıda görünümden üretilir (TLV'ler dahil). */
+    public DeliverSmReq raw() {
+        if (raw == null) raw = view.materialize();
+        return raw;
+    }
 }
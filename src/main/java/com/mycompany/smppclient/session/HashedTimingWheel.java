@@ -0,0 +1,134 @@
+package com.mycompany.smppclient.session;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Basit hashed timing wheel.
+ * <p>
+ * {@link #schedule} herhangi bir thread'den çağrılabilir; yeni timeout'lar önce lock-free bir kuyruğa
+ * girer, tick sırasında kovalara dağıtılır. Kovalara sadece ticker (tek thread) dokunur.
+ * Süresi dolan her timeout için {@code onExpire} ticker thread'inde çağrılır; bu yüzden callback kısa olmalı.
+ * <p>
+ * İptal edilen timeout hemen silinmez, kovası geldiğinde atlanır (en geç kendi süresi kadar bellekte kalır).
+ */
+final class HashedTimingWheel<T> {
+
+    static final class Timeout<T> {
+        final T value;
+        final long deadlineNanos;
+        long remainingRounds;
+        volatile boolean cancelled;
+
+        Timeout(T value, long deadlineNanos) {
+            this.value = value;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final ArrayDeque<Timeout<T>>[] buckets;
+    private final ConcurrentLinkedQueue<Timeout<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final Consumer<T> onExpire;
+    private final long startNanos = System.nanoTime();
+
+    // sadece ticker thread'i
+    private long tick;
+
+    private volatile ScheduledFuture<?> task;
+
+    @SuppressWarnings("unchecked")
+    HashedTimingWheel(long tickMs, int ticksPerWheel, Consumer<T> onExpire) {
+        if (tickMs < 1) throw new IllegalArgumentException("tickMs must be >= 1: " + tickMs);
+        if (ticksPerWheel < 1 || Integer.bitCount(ticksPerWheel) != 1) {
+            throw new IllegalArgumentException("ticksPerWheel must be a power of two: " + ticksPerWheel);
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.mask = ticksPerWheel - 1;
+        this.buckets = (ArrayDeque<Timeout<T>>[]) new ArrayDeque<?>[ticksPerWheel];
+        for (int i = 0; i < ticksPerWheel; i++) buckets[i] = new ArrayDeque<>();
+        this.onExpire = onExpire;
+    }
+
+    /** Ticker'ı verilen scheduler üzerinde başlatır (idempotent). */
+    void start(ScheduledExecutorService timer) {
+        if (task != null) return;
+        synchronized (this) {
+            if (task != null) return;
+            long ms = TimeUnit.NANOSECONDS.toMillis(tickNanos);
+            task = timer.scheduleAtFixedRate(this::safeTick, ms, ms, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    boolean isStarted() {
+        return task != null;
+    }
+
+    Timeout<T> schedule(T value, long timeoutMs) {
+        Timeout<T> t = new Timeout<>(value, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+        incoming.add(t);
+        return t;
+    }
+
+    private void safeTick() {
+        try {
+            advance(System.nanoTime());
+        } catch (Throwable ignored) {
+            // scheduleAtFixedRate exception'da durur; ticker hiç ölmemeli
+        }
+    }
+
+    /** {@code now}'a kadar geçen tüm tick'leri işler (gecikmeli çalışmada geri kalanları telafi eder). */
+    void advance(long now) {
+        long target = (now - startNanos) / tickNanos;
+        transferIncoming();
+        while (tick <= target) {
+            expireBucket(buckets[(int) (tick & mask)], now);
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        Timeout<T> t;
+        while ((t = incoming.poll()) != null) {
+            if (t.cancelled) continue;
+
+            long ticks = Math.max(0, (t.deadlineNanos - startNanos + tickNanos - 1) / tickNanos);
+            long at = Math.max(ticks, tick); // geçmişte kalanlar bu tick'te düşer
+            t.remainingRounds = (at - tick) / buckets.length;
+            buckets[(int) (at & mask)].add(t);
+        }
+    }
+
+    private void expireBucket(ArrayDeque<Timeout<T>> bucket, long now) {
+        Iterator<Timeout<T>> it = bucket.iterator();
+        while (it.hasNext()) {
+            Timeout<T> t = it.next();
+            if (t.cancelled) {
+                it.remove();
+            } else if (t.remainingRounds <= 0 && t.deadlineNanos <= now) {
+                it.remove();
+                onExpire.accept(t.value);
+            } else if (t.remainingRounds > 0) {
+                t.remainingRounds--;
+            }
+        }
+    }
+}
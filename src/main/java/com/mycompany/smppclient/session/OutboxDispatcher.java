@@ -0,0 +1,261 @@
+package com.mycompany.smppclient.session;
+
+import com.mycompany.smppclient.db.Outbox;
+import com.mycompany.smppclient.db.PgListener;
+import com.mycompany.smppclient.pdu.SubmitSmReq;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * smpp.outbox'tan batch batch mesaj alıp havuzdaki bind'lerden gönderen tek thread'li dağıtıcı.
+ * <p>
+ * Döngü: sonuçları toplu işaretle, pencerede yer varsa {@link Outbox#claim} ile en fazla {@code batchSize}
+ * satır al ve async gönder; iş yoksa NOTIFY (yoksa {@code pollMs}) bekle. Aynı outbox'ı birden çok JVM
+ * boşaltabilir; her satırı sadece claim eden gönderir. {@code maxInFlight} SMSC cevabı beklenen mesaj sayısını
+ * sınırlar.
+ */
+public class OutboxDispatcher implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(OutboxDispatcher.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 500;
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+    public static final long DEFAULT_RETRY_DELAY_MS = 30_000;
+    public static final long DEFAULT_POLL_MS = 1000;
+    public static final long DEFAULT_LEASE_MS = 5 * 60_000;
+
+    /** Tamamlanan gönderim; dispatcher thread'i toplu işaretler. */
+    private record Result(long id, List<String> messageIds, Throwable error) {}
+
+    private final Outbox outbox;
+    private final Function<Outbox.Message, CompletableFuture<List<String>>> sender;
+    private final BooleanSupplier canSend;
+    private final String owner;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+    private final long pollMs;
+    private final long leaseMs;
+    private final boolean useNotify;
+
+    private final int maxInFlight;
+    private final Semaphore window;
+    private final ConcurrentLinkedQueue<Result> done = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public OutboxDispatcher(Outbox outbox, SmppSessionPool pool, String owner) {
+        this(outbox, pool, owner, DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_ATTEMPTS, DEFAULT_RETRY_DELAY_MS);
+    }
+
+    /**
+     * @param owner        bu JVM'in adı (outbox.locked_by); JVM'ler arasında farklı olmalı
+     * @param maxAttempts  bu kadar denemeden sonra satır FAILED olur
+     * @param retryDelayMs başarısız gönderimin tekrar deneneceği süre
+     */
+    public OutboxDispatcher(Outbox outbox, SmppSessionPool pool, String owner,
+                            int batchSize, int maxInFlight, int maxAttempts, long retryDelayMs) {
+        this(outbox, m -> pool.sendConcatTrSingleShiftUnpackedAsync(toSubmitSm(m), m.text),
+                () -> pool.usableCount() > 0, owner,
+                batchSize, maxInFlight, maxAttempts, retryDelayMs, DEFAULT_POLL_MS, true);
+    }
+
+    /** @param canSend false iken claim yapılmaz (bind yokken deneme hakkı harcanmasın) */
+    OutboxDispatcher(Outbox outbox, Function<Outbox.Message, CompletableFuture<List<String>>> sender,
+                     BooleanSupplier canSend, String owner, int batchSize, int maxInFlight, int maxAttempts,
+                     long retryDelayMs, long pollMs, boolean useNotify) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be >= 1: " + batchSize);
+        this.outbox = outbox;
+        this.sender = sender;
+        this.canSend = canSend;
+        this.owner = owner;
+        this.batchSize = batchSize;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.window = new Semaphore(this.maxInFlight);
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMs = retryDelayMs;
+        this.pollMs = pollMs;
+        this.leaseMs = DEFAULT_LEASE_MS;
+        this.useNotify = useNotify;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::runLoop, "smpp-outbox");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    static SubmitSmReq toSubmitSm(Outbox.Message m) {
+        SubmitSmReq req = new SubmitSmReq();
+        req.setServiceType("");
+        req.setSourceAddrTon((byte) m.srcTon);
+        req.setSourceAddrNpi((byte) m.srcNpi);
+        req.setSourceAddr(m.srcAddr);
+        req.setDestAddrTon((byte) m.dstTon);
+        req.setDestAddrNpi((byte) m.dstNpi);
+        req.setDestinationAddr(SmppSender.normalizeMsisdn(m.dstAddr));
+        req.setEsmClass((byte) 0x40);
+        req.setProtocolId((byte) 0);
+        req.setPriorityFlag((byte) 0);
+        req.setRegisteredDelivery((byte) (m.registeredDelivery ? 1 : 0));
+        req.setDataCoding((byte) 0x00);
+        return req;
+    }
+
+    // ---------- dispatcher thread ----------
+
+    private void runLoop() {
+        PgListener listener = null;
+        long nextReclaim = 0;
+        while (running) {
+            try {
+                markDone();
+
+                long now = System.currentTimeMillis();
+                if (now >= nextReclaim) {
+                    int n = outbox.releaseStale(leaseMs);
+                    if (n > 0) log.warn("[OUTBOX] released {} stale SENDING rows", n);
+                    nextReclaim = now + leaseMs / 2;
+                }
+
+                if (useNotify && listener == null) {
+                    try {
+                        listener = outbox.listen();
+                    } catch (Exception e) {
+                        log.debug("[OUTBOX] LISTEN failed, polling: {}", e.toString());
+                    }
+                }
+
+                int free = canSend.getAsBoolean() ? Math.min(batchSize, window.availablePermits()) : 0;
+                List<Outbox.Message> batch = free > 0 ? outbox.claim(owner, free) : List.of();
+                for (Outbox.Message m : batch) dispatch(m);
+
+                if (batch.size() < free || free == 0) {
+                    // iş yok ya da pencere dolu: NOTIFY / cevap bekle; bekleyen sonuç varsa kısa tut
+                    long wait = done.isEmpty() && window.availablePermits() > 0 ? pollMs : Math.min(pollMs, 50);
+                    if (listener != null && free > 0) {
+                        listener.await(wait);
+                    } else {
+                        Thread.sleep(wait);
+                    }
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                log.warn("[OUTBOX] loop error: {}", e.toString());
+                if (listener != null) {
+                    listener.close();
+                    listener = null;
+                }
+                try {
+                    Thread.sleep(pollMs);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+            }
+        }
+        if (listener != null) listener.close();
+        // gönderilmişlerin cevabını bekle; yoksa satırlar lease dolana kadar SENDING kalır
+        try {
+            while (getInFlight() > 0 || !done.isEmpty()) {
+                markDone();
+                if (getInFlight() > 0) Thread.sleep(10);
+            }
+        } catch (InterruptedException ignored) {
+        } catch (Exception e) {
+            log.warn("[OUTBOX] final mark failed: {}", e.toString());
+        }
+    }
+
+    private void dispatch(Outbox.Message m) {
+        window.acquireUninterruptibly();
+        claimed.incrementAndGet();
+        CompletableFuture<List<String>> f;
+        try {
+            f = sender.apply(m);
+        } catch (RuntimeException e) {
+            f = CompletableFuture.failedFuture(e);
+        }
+        f.whenComplete((ids, err) -> {
+            done.add(new Result(m.id, ids, err));
+            window.release();
+        });
+    }
+
+    /** Tamamlananları tek markSent + tek markFailed ile yazar. */
+    private void markDone() throws Exception {
+        if (done.isEmpty()) return;
+        List<Long> okIds = new ArrayList<>();
+        List<List<String>> okMids = new ArrayList<>();
+        List<Long> errIds = new ArrayList<>();
+        List<String> errs = new ArrayList<>();
+        List<Result> taken = new ArrayList<>();
+        Result r;
+        while ((r = done.poll()) != null) {
+            taken.add(r);
+            if (r.error == null) {
+                okIds.add(r.id);
+                okMids.add(r.messageIds == null ? List.of() : r.messageIds);
+            } else {
+                errIds.add(r.id);
+                Throwable t = r.error instanceof CompletionException && r.error.getCause() != null
+                        ? r.error.getCause() : r.error;
+                errs.add(String.valueOf(t));
+            }
+        }
+        try {
+            outbox.markSent(owner, okIds, okMids);
+            outbox.markFailed(owner, errIds, errs, maxAttempts, retryDelayMs);
+        } catch (Exception e) {
+            // DB yoksa sonuçları kaybetme; bir sonraki turda tekrar dene
+            done.addAll(taken);
+            throw e;
+        }
+        sent.addAndGet(okIds.size());
+        failed.addAndGet(errIds.size());
+    }
+
+    // ---------- metrikler ----------
+
+    public long getClaimedCount() { return claimed.get(); }
+    public long getSentCount() { return sent.get(); }
+    public long getFailedCount() { return failed.get(); }
+    /** SMSC cevabı beklenen mesaj sayısı. */
+    public int getInFlight() { return maxInFlight - window.availablePermits(); }
+
+    /** Yeni claim'i durdurur; gönderilmiş olanların sonucunu en fazla timeoutMs bekleyip işaretler. */
+    public void close(long timeoutMs) {
+        running = false;
+        Thread t = thread;
+        if (t == null) return;
+        try {
+            t.join(timeoutMs);
+            if (t.isAlive()) t.interrupt();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        close(5000);
+    }
+}
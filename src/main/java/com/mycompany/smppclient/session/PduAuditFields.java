@@ -0,0 +1,143 @@
+package com.mycompany.smppclient.session;
+
+import com.mycompany.smppclient.db.AuditFields;
+import com.mycompany.smppclient.db.AuditJsonWriter;
+import com.mycompany.smppclient.pdu.BindTransceiverReq;
+import com.mycompany.smppclient.pdu.BindTransceiverResp;
+import com.mycompany.smppclient.pdu.DeliverSmReq;
+import com.mycompany.smppclient.pdu.Pdu;
+import com.mycompany.smppclient.pdu.SubmitSmReq;
+import com.mycompany.smppclient.pdu.SubmitSmResp;
+import com.mycompany.smppclient.pdu.encoder.SubmitSmTemplate;
+import com.mycompany.smppclient.pdu.view.DeliverSmView;
+import com.mycompany.smppclient.pdu.view.SubmitSmRespView;
+
+import java.nio.ByteBuffer;
+
+/**
+ * pdu_log.decoded_json için PDU tipine özel alan yazıcıları (eski toMap + SimpleJson yerine).
+ * <p>
+ * Socket thread'inde sadece küçük bir lambda oluşur; alanlar writer thread'inde doğrudan
+ * {@link AuditJsonWriter} tamponuna yazılır. Decode edilmiş PDU'lar sonradan değişmediği için
+ * nesnenin kendisi yakalanır; gönderilen submit_sm'in değerleri ise çağrı anında kopyalanır.
+ */
+final class PduAuditFields {
+
+    private PduAuditFields() {}
+
+    static AuditFields of(Pdu pdu) {
+        if (pdu == null) return out -> {};
+        return out -> write(pdu, out);
+    }
+
+    /** Gönderilen submit_sm; req sonradan yeniden kullanılabileceği için alanlar burada yakalanır. */
+    static AuditFields submitSm(int seq, SubmitSmReq req) {
+        String src = req.getSourceAddr();
+        String dst = req.getDestinationAddr();
+        int dataCoding = req.getDataCoding() & 0xFF;
+        int esmClass = req.getEsmClass() & 0xFF;
+        byte[] sm = req.getShortMessage();
+        return out -> out
+                .field("class", "SubmitSmReq")
+                .field("sequence_number", seq)
+                .field("source_addr", src)
+                .field("destination_addr", dst)
+                .field("data_coding", dataCoding)
+                .field("esm_class", esmClass)
+                .field("sm_length", sm == null ? 0 : sm.length)
+                .hexField("short_message_hex", sm);
+    }
+
+    /** Şablondan gönderilen submit_sm; şablon immutable, sadece alıcı değişir. */
+    static AuditFields submitSm(int seq, SubmitSmTemplate t, String dst) {
+        return out -> out
+                .field("class", "SubmitSmReq")
+                .field("sequence_number", seq)
+                .field("source_addr", t.getSourceAddr())
+                .field("destination_addr", dst)
+                .field("data_coding", t.getDataCoding() & 0xFF)
+                .field("esm_class", t.getEsmClass() & 0xFF)
+                .field("sm_length", t.getShortMessage().length)
+                .hexField("short_message_hex", t.getShortMessage());
+    }
+
+    /** Alınan deliver_sm; görünüm thread'e bağlı olduğu için değerler burada alınır, short_message PDU'dan okunur. */
+    static AuditFields deliverSm(DeliverSmView v) {
+        int seq = v.sequenceNumber();
+        int status = v.commandStatus();
+        int length = v.commandLength();
+        String src = v.sourceAddr();
+        String dst = v.destinationAddr();
+        int esmClass = v.esmClass() & 0xFF;
+        int dataCoding = v.dataCoding() & 0xFF;
+        int smLen = v.smLength();
+        ByteBuffer pdu = v.buffer();
+        byte[] arr = pdu.hasArray() ? pdu.array() : v.shortMessage();
+        int smOff = pdu.hasArray() ? pdu.arrayOffset() + pdu.position() + v.shortMessageOffset() : 0;
+        return out -> out
+                .field("class", "DeliverSmReq")
+                .field("sequence_number", seq)
+                .field("command_status", status)
+                .field("command_length", length)
+                .field("source_addr", src)
+                .field("destination_addr", dst)
+                .field("esm_class", esmClass)
+                .field("data_coding", dataCoding)
+                .field("sm_length", smLen)
+                .hexField("short_message_hex", arr, smOff, smLen);
+    }
+
+    static AuditFields submitSmResp(SubmitSmRespView v) {
+        int seq = v.sequenceNumber();
+        int status = v.commandStatus();
+        int length = v.commandLength();
+        String messageId = v.messageId();
+        return out -> out
+                .field("class", "SubmitSmResp")
+                .field("sequence_number", seq)
+                .field("command_status", status)
+                .field("command_length", length)
+                .field("message_id", messageId);
+    }
+
+    static AuditFields error(String message) {
+        return out -> out.field("error", message);
+    }
+
+    private static void write(Pdu pdu, AuditJsonWriter out) {
+        out.field("class", pdu.getClass().getSimpleName())
+                .field("sequence_number", pdu.getSequenceNumber())
+                .field("command_status", pdu.getCommandStatus())
+                .field("command_length", pdu.getCommandLength());
+
+        if (pdu instanceof BindTransceiverReq r) {
+            out.field("system_id", r.getSystemId())
+                    .field("system_type", r.getSystemType())
+                    .field("interface_version", r.getInterfaceVersion() & 0xFF)
+                    .field("addr_ton", r.getAddrTon() & 0xFF)
+                    .field("addr_npi", r.getAddrNpi() & 0xFF)
+                    .field("address_range", r.getAddressRange());
+        } else if (pdu instanceof BindTransceiverResp r) {
+            out.field("system_id", r.getSystemId());
+        } else if (pdu instanceof SubmitSmReq r) {
+            byte[] sm = r.getShortMessage();
+            out.field("service_type", r.getServiceType())
+                    .field("source_addr", r.getSourceAddr())
+                    .field("destination_addr", r.getDestinationAddr())
+                    .field("esm_class", r.getEsmClass() & 0xFF)
+                    .field("data_coding", r.getDataCoding() & 0xFF)
+                    .field("sm_length", sm == null ? 0 : sm.length)
+                    .hexField("short_message_hex", sm);
+        } else if (pdu instanceof SubmitSmResp r) {
+            out.field("message_id", r.getMessageId());
+        } else if (pdu instanceof DeliverSmReq r) {
+            byte[] sm = r.getShortMessage();
+            out.field("source_addr", r.getSourceAddr())
+                    .field("destination_addr", r.getDestinationAddr())
+                    .field("esm_class", r.getEsmClass() & 0xFF)
+                    .field("data_coding", r.getDataCoding() & 0xFF)
+                    .field("sm_length", sm == null ? 0 : sm.length)
+                    .hexField("short_message_hex", sm);
+        }
+    }
+}
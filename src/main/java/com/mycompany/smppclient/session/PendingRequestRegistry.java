@@ -1,42 +1,198 @@
 package com.mycompany.smppclient.session;
 
 import com.mycompany.smppclient.pdu.Pdu;
+import com.mycompany.smppclient.socket.SmppEventLoopGroup;
 
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-public class PendingRequestRegistry {
+/**
+ * Cevabı beklenen request'ler (sequence_number -> future + ek bilgi).
+ * <p>
+ * Kayıtlar {@code seq & mask} slotundan başlayan, en fazla {@link #MAX_PROBE} adımlık open-addressing
+ * bir diziye CAS ile yazılır: seq boxing'i, map node'u veya String key yoktur ve future ile request'e
+ * ait ek bilgi ({@link #attach}) aynı nesnede durur. Sequence numaraları artarak verildiği için
+ * kapasite bekleyen request sayısından büyük olduğu sürece kayıt neredeyse her zaman ilk slota düşer.
+ * Tüm işlemler lock-free'dir; yazan thread sayısı sınırsızdır.
+ * <p>
+ * {@link #register(int, long)} ile kaydedilen request'lerin süresini registry kendisi takip eder:
+ * tek bir ticker (hashed timing wheel) süresi dolan future'ları {@link TimeoutException} ile
+ * tamamlar ve kaydı siler. Bekleyen her request için ayrı bir thread park etmez.
+ */
+public class PendingRequestRegistry implements AutoCloseable {
 
-    private final Map<Integer, CompletableFuture<Pdu>> pending = new ConcurrentHashMap<>();
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final long DEFAULT_TICK_MS = 50;
+    public static final int DEFAULT_TICKS_PER_WHEEL = 512;
 
+    /** Bir seq için bakılan en fazla slot sayısı (ekleme ve arama). */
+    static final int MAX_PROBE = 16;
+
+    /** Future'ın kendisi: seq, timeout ve ek bilgi ayrı nesne açmadan burada tutulur. */
+    private static final class Entry extends CompletableFuture<Pdu> {
+        final int seq;
+        volatile HashedTimingWheel.Timeout<Entry> timeout;
+        volatile Object attachment;
+
+        Entry(int seq) { this.seq = seq; }
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final ScheduledExecutorService timer;
+    private final HashedTimingWheel<Entry> wheel;
+
+    /** Ticker paylaşılan SMPP timer thread'inde çalışır. */
+    public PendingRequestRegistry() {
+        this(SmppEventLoopGroup.shared().timer());
+    }
+
+    public PendingRequestRegistry(ScheduledExecutorService timer) {
+        this(timer, DEFAULT_CAPACITY);
+    }
+
+    /** @param capacity aynı anda bekleyebilecek request sayısının üst sınırı (2'nin kuvvetine yuvarlanır) */
+    public PendingRequestRegistry(ScheduledExecutorService timer, int capacity) {
+        this(timer, capacity, DEFAULT_TICK_MS, DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    /**
+     * @param tickMs        timeout çözünürlüğü (timeout'lar en fazla bir tick geç düşer)
+     * @param ticksPerWheel tekerlek boyutu (2'nin kuvveti)
+     */
+    public PendingRequestRegistry(ScheduledExecutorService timer, int capacity, long tickMs, int ticksPerWheel) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1: " + capacity);
+        int cap = Integer.highestOneBit(Math.max(MAX_PROBE, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(cap);
+        this.mask = cap - 1;
+        this.timer = timer;
+        this.wheel = new HashedTimingWheel<>(tickMs, ticksPerWheel, this::expire);
+    }
+
+    /** Timeout'suz kayıt: sadece cevap, {@link #fail} veya {@link #clearAll} ile tamamlanır. */
     public CompletableFuture<Pdu> register(int seq) {
-        CompletableFuture<Pdu> f = new CompletableFuture<>();
-        CompletableFuture<Pdu> prev = pending.putIfAbsent(seq, f);
-        if (prev != null) {
-            throw new IllegalStateException("Duplicate seq register: " + seq);
+        return add(seq);
+    }
+
+    /** Kayıt; timeoutMs içinde cevap gelmezse future TimeoutException ile tamamlanır ve kayıt silinir. */
+    public CompletableFuture<Pdu> register(int seq, long timeoutMs) {
+        Entry e = add(seq);
+        wheel.start(timer); // ticker ilk timeout'lu kayıtta başlar
+        e.timeout = wheel.schedule(e, timeoutMs);
+        return e;
+    }
+
+    private Entry add(int seq) {
+        int start = seq & mask;
+        for (int i = 0; i < MAX_PROBE; i++) {
+            Entry cur = slots.get((start + i) & mask);
+            if (cur != null && cur.seq == seq) {
+                throw new IllegalStateException("Duplicate seq register: " + seq);
+            }
         }
-        return f;
+
+        Entry e = new Entry(seq);
+        for (int i = 0; i < MAX_PROBE; i++) {
+            if (slots.compareAndSet((start + i) & mask, null, e)) return e;
+        }
+        throw new IllegalStateException("Pending request table full (capacity=" + slots.length() + ") seq=" + seq);
+    }
+
+    /** Bekleyen request'e ek bilgi bağlar (ör. DB korelasyonu); kayıt yoksa false. */
+    public boolean attach(int seq, Object attachment) {
+        Entry e = find(seq);
+        if (e == null) return false;
+        e.attachment = attachment;
+        return true;
+    }
+
+    /** Bekleyen request'in ek bilgisi; kayıt silinmez. Kayıt yoksa null. */
+    public Object attachment(int seq) {
+        Entry e = find(seq);
+        return e == null ? null : e.attachment;
     }
 
     public boolean complete(int seq, Pdu pdu) {
-        CompletableFuture<Pdu> f = pending.remove(seq);
-        if (f == null) return false;
-        f.complete(pdu);
+        Entry e = take(seq);
+        if (e == null) return false;
+        e.complete(pdu);
         return true;
     }
 
     public void fail(int seq, Throwable t) {
-        CompletableFuture<Pdu> f = pending.remove(seq);
-        if (f != null) {
-            f.completeExceptionally(t);
+        Entry e = take(seq);
+        if (e != null) {
+            e.completeExceptionally(t);
         }
     }
 
     public void clearAll(Throwable t) {
-        for (CompletableFuture<Pdu> f : pending.values()) {
-            f.completeExceptionally(t);
+        for (int i = 0; i < slots.length(); i++) {
+            Entry e = slots.get(i);
+            if (e != null && slots.compareAndSet(i, e, null)) {
+                cancelTimeout(e);
+                e.completeExceptionally(t);
+            }
+        }
+    }
+
+    /** Cevabı beklenen request sayısı (tüm tabloyu tarar; metrik/test içindir). */
+    public int size() {
+        int n = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) n++;
+        }
+        return n;
+    }
+
+    /** Ticker'ı durdurur; bekleyen kayıtlara dokunmaz. */
+    @Override
+    public void close() {
+        wheel.stop();
+    }
+
+    private Entry find(int seq) {
+        int start = seq & mask;
+        for (int i = 0; i < MAX_PROBE; i++) {
+            Entry e = slots.get((start + i) & mask);
+            if (e != null && e.seq == seq) return e;
+        }
+        return null;
+    }
+
+    /** seq'in kaydını tablodan çıkarır; aynı anda birden çok thread denerse sadece biri alır. */
+    private Entry take(int seq) {
+        int start = seq & mask;
+        for (int i = 0; i < MAX_PROBE; i++) {
+            int idx = (start + i) & mask;
+            Entry e = slots.get(idx);
+            if (e != null && e.seq == seq) {
+                if (!slots.compareAndSet(idx, e, null)) return null;
+                cancelTimeout(e);
+                return e;
+            }
         }
-        pending.clear();
+        return null;
+    }
+
+    private void expire(Entry e) {
+        // aynı seq yeniden kullanıldıysa yeni kaydı silme: slotta tam bu entry olmalı
+        int start = e.seq & mask;
+        for (int i = 0; i < MAX_PROBE; i++) {
+            int idx = (start + i) & mask;
+            if (slots.get(idx) == e) {
+                if (slots.compareAndSet(idx, e, null)) {
+                    e.completeExceptionally(new TimeoutException("No response for seq=" + e.seq));
+                }
+                return;
+            }
+        }
+    }
+
+    private static void cancelTimeout(Entry e) {
+        HashedTimingWheel.Timeout<Entry> t = e.timeout;
+        if (t != null) t.cancel();
     }
 }
@@ -2,17 +2,23 @@ package com.mycompany.smppclient.session;
 
 import com.mycompany.smppclient.pdu.*;
 import com.mycompany.smppclient.pdu.encoder.PduEncoder;
+import com.mycompany.smppclient.pdu.encoder.SubmitSmTemplate;
 import com.mycompany.smppclient.pdu.encoding.Gsm7Codec;
 import com.mycompany.smppclient.socket.SmppSocketClient;
+import com.mycompany.smppclient.db.MessageStore;
+import com.mycompany.smppclient.db.NoOpMessageStore;
 import com.mycompany.smppclient.db.SmppDao;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -24,38 +30,81 @@ public class SmppSender {
     private final PduEncoder encoder;
     private final PendingRequestRegistry pending;
     private final AtomicInteger seqGen;
+    private final Semaphore window;
+    private final SubmitRateController rate;
 
-    private final SmppDao dao;
+    // kayıt yoksa NoOpMessageStore
+    private final MessageStore store;
 
     private final String sessionId;
     private final String systemId;
 
     private static final Logger log = LogManager.getLogger(SmppSender.class);
 
-    private final java.util.concurrent.ConcurrentHashMap<String, PendingSubmit> pendingSubmitByKey = new java.util.concurrent.ConcurrentHashMap<>();
+    public SmppSender(
+            SmppSocketClient socket,
+            SmppSessionConfig cfg,
+            PduEncoder encoder,
+            PendingRequestRegistry pending,
+            AtomicInteger seqGen,
+            MessageStore store,
+            String sessionId,
+            String systemId
 
+    ) {
+        this(socket, cfg, encoder, pending, seqGen, new Semaphore(cfg.getWindowSize(), true), store, sessionId, systemId);
+    }
 
+    /**
+     * @param window session'a ait submit penceresi; her submit_sm cevabı gelene (veya timeout olana) kadar 1 permit tutar
+     */
     public SmppSender(
             SmppSocketClient socket,
             SmppSessionConfig cfg,
             PduEncoder encoder,
             PendingRequestRegistry pending,
             AtomicInteger seqGen,
-            SmppDao dao,
+            Semaphore window,
+            MessageStore store,
             String sessionId,
             String systemId
+    ) {
+        this(socket, cfg, encoder, pending, seqGen, window,
+                new SubmitRateController(cfg.getMaxTps(), cfg.getResponseTimeoutMs() / 4),
+                store, sessionId, systemId);
+    }
 
+    /**
+     * @param rate session'a ait hız kontrolü; submit_sm_resp durum kodu ve gecikmesiyle beslenir
+     */
+    public SmppSender(
+            SmppSocketClient socket,
+            SmppSessionConfig cfg,
+            PduEncoder encoder,
+            PendingRequestRegistry pending,
+            AtomicInteger seqGen,
+            Semaphore window,
+            SubmitRateController rate,
+            MessageStore store,
+            String sessionId,
+            String systemId
     ) {
         this.socket = Objects.requireNonNull(socket);
         this.cfg = Objects.requireNonNull(cfg);
         this.encoder = Objects.requireNonNull(encoder);
         this.pending = Objects.requireNonNull(pending);
         this.seqGen = Objects.requireNonNull(seqGen);
-        this.dao = dao;
+        this.window = Objects.requireNonNull(window);
+        this.rate = Objects.requireNonNull(rate);
+        this.store = store == null ? NoOpMessageStore.INSTANCE : store;
         this.sessionId = sessionId;
         this.systemId = systemId;
     }
 
+    public SubmitRateController getRateController() {
+        return rate;
+    }
+
     private int nextSeq() {
         int v = seqGen.getAndIncrement();
         if (v <= 0) {
@@ -74,11 +123,11 @@ public class SmppSender {
         final String dstAddr;
         final int dataCoding;
         final int esmClass;
-        final String submitSmHex;
-        final long submitLogId;
+        final byte[] submitSm;
+        final MessageStore.PduRef submitLog;
 
         PendingSubmit(String sessionId, String systemId, int submitSeq, String srcAddr, String dstAddr,
-                      int dataCoding, int esmClass, String submitSmHex, long submitLogId) {
+                      int dataCoding, int esmClass, byte[] submitSm, MessageStore.PduRef submitLog) {
             this.sessionId = sessionId;
             this.systemId = systemId;
             this.submitSeq = submitSeq;
@@ -86,104 +135,218 @@ public class SmppSender {
             this.dstAddr = dstAddr;
             this.dataCoding = dataCoding;
             this.esmClass = esmClass;
-            this.submitSmHex = submitSmHex;
-            this.submitLogId = submitLogId;
+            this.submitSm = submitSm;
+            this.submitLog = submitLog;
         }
     }
 
+    /** PendingSubmit, registry'de submit'in future'ı ile aynı kayıtta tutulur; cevap/timeout ile birlikte silinir. */
     public void rememberPendingSubmit(PendingSubmit ps) {
-        pendingSubmitByKey.put(key(ps.sessionId, ps.submitSeq), ps);
+        pending.attach(ps.submitSeq, ps);
     }
 
-    public PendingSubmit consumePendingSubmit(String sessionId, int seq) {
-        return pendingSubmitByKey.remove(key(sessionId, seq));
+    /** Cevabı beklenen submit'in DB bilgisi (kayıt silinmez); yoksa null. */
+    public PendingSubmit pendingSubmit(int seq) {
+        return pending.attachment(seq) instanceof PendingSubmit ps ? ps : null;
     }
 
+    /** Blocking wrapper: async path üzerinden gönderir ve SubmitSmResp gelene kadar bekler. */
     public String sendSubmitSm(SubmitSmReq req) throws Exception {
+        try {
+            return sendSubmitSmAsync(req).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception ex) throw ex;
+            throw e;
+        }
+    }
+
+    /**
+     * submit_sm'i gönderir, SubmitSmResp'i beklemeden döner.
+     * Pencere doluysa slot açılana kadar (en fazla responseTimeoutMs) çağıran thread bekletilir;
+     * bu sürede slot açılmazsa future TimeoutException ile tamamlanır. maxTps açıksa gönderim,
+     * {@link SubmitRateController}'ın o anki hızına göre sıraya girer.
+     */
+    public CompletableFuture<String> sendSubmitSmAsync(SubmitSmReq req) {
         Objects.requireNonNull(req, "req");
+        return submit(req, null, null);
+    }
 
-        int seq = nextSeq();
-        req.setSequenceNumber(seq);
-        req.setCommandStatus(0);
+    /**
+     * Önceden encode edilmiş şablonu tek bir alıcıya gönderir; {@link #sendSubmitSmAsync(SubmitSmReq)} ile
+     * aynı pencere / hız / kayıt yolu, ancak PDU alan alan yeniden encode edilmez.
+     */
+    public CompletableFuture<String> sendSubmitSmAsync(SubmitSmTemplate template, String destinationAddr) {
+        Objects.requireNonNull(template, "template");
+        Objects.requireNonNull(destinationAddr, "destinationAddr");
+        return submit(null, template, destinationAddr);
+    }
 
-        // önce register
-        CompletableFuture<Pdu> f = pending.register(seq);
-
-        // encode
-        byte[] bytes = encoder.encode(req);
-        byte[] sm = req.getShortMessage();
-
-        long submitLogId = -1;
-
-        // ✅ DB işlemleri ÖNCE (send’den önce)
-        if (dao != null) {
-            try {
-                String rawHex = bytesToHex(bytes);
-
-                int commandId = readInt(bytes, 4);
-                int commandStatus = readInt(bytes, 8);
-                int sequence = readInt(bytes, 12);
-
-                java.util.Map<String, Object> decoded = new java.util.HashMap<>();
-                decoded.put("class", "SubmitSmReq");
-                decoded.put("sequence_number", seq);
-                decoded.put("source_addr", req.getSourceAddr());
-                decoded.put("destination_addr", req.getDestinationAddr());
-                decoded.put("data_coding", req.getDataCoding() & 0xFF);
-                decoded.put("esm_class", req.getEsmClass() & 0xFF);
-                decoded.put("sm_length", sm == null ? 0 : sm.length);
-                decoded.put("short_message_hex", bytesToHex(sm));
-
-                submitLogId = dao.insertPduLog(
-                        SmppDao.Direction.OUT,
-                        "SubmitSmReq",
-                        commandId,
-                        commandStatus,
-                        sequence,
-                        rawHex,
-                        decoded
-                );
-
-                PendingSubmit ps = new PendingSubmit(
-                        sessionId,
-                        systemId,
-                        seq,
-                        req.getSourceAddr(),
-                        req.getDestinationAddr(),
-                        req.getDataCoding() & 0xFF,
-                        req.getEsmClass() & 0xFF,
-                        bytesToHex(sm),      // submitSmHex
-                        submitLogId
-                );
-                rememberPendingSubmit(ps);
-
-
-            } catch (Exception ex) {
-                log.warn("DB submit log/flow insert failed", ex);
+    /**
+     * Şablon parçalarını ({@link #prepareConcatTrSingleShiftUnpacked}) sırayla aynı alıcıya gönderir.
+     * Bir parça gönderilemezse (pencere, hız sınırı, socket) kalanlar gönderilmez, future o hatayla tamamlanır.
+     */
+    public CompletableFuture<List<String>> sendSubmitSmAsync(List<SubmitSmTemplate> templates, String destinationAddr) {
+        return sendInOrder(templates, t -> sendSubmitSmAsync(t, destinationAddr));
+    }
+
+    /** req ya da (template, dst) çiftinden biri dolu gelir. */
+    private CompletableFuture<String> submit(SubmitSmReq req, SubmitSmTemplate template, String dst) {
+        try {
+            if (!window.tryAcquire(cfg.getResponseTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(
+                        new TimeoutException("submit window full (size=" + cfg.getWindowSize() + ")"));
             }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(ie);
         }
 
+        try {
+            if (!rate.acquire(cfg.getResponseTimeoutMs())) {
+                window.release();
+                return CompletableFuture.failedFuture(
+                        new TimeoutException("submit rate limit (tps=" + (int) rate.getAllowedTps() + ")"));
+            }
+        } catch (InterruptedException ie) {
+            window.release();
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(ie);
+        }
 
-        socket.sendBytes(bytes);
-
-        // response bekle
-        Pdu resp = f.get(cfg.getResponseTimeoutMs(), TimeUnit.MILLISECONDS);
+        int seq = nextSeq();
+        if (req != null) {
+            req.setSequenceNumber(seq);
+            req.setCommandStatus(0);
+        }
 
-        if (!(resp instanceof SubmitSmResp ssr)) {
-            throw new IllegalStateException("Expected SubmitSmResp but got: " + resp.getClass().getSimpleName());
+        // önce register
+        CompletableFuture<Pdu> f;
+        try {
+            // timeout'u registry takip eder: süresi dolarsa kayıt silinir, future TimeoutException alır
+            f = pending.register(seq, cfg.getResponseTimeoutMs());
+        } catch (RuntimeException e) {
+            window.release();
+            return CompletableFuture.failedFuture(e);
         }
 
-        if (ssr.getMessageId() == null || ssr.getMessageId().isBlank()) {
-            throw new IllegalStateException("SubmitSmResp message_id is empty");
+        // cevap, hata ya da timeout: her durumda pencere slotu geri verilir
+        long sentAt = System.nanoTime();
+        CompletableFuture<Pdu> released = f.whenComplete((resp, err) -> {
+            window.release();
+            if (resp != null) {
+                rate.onResponse(resp.getCommandStatus(), System.nanoTime() - sentAt);
+            }
+            if (err instanceof TimeoutException) {
+                rate.onTimeout();
+                log.warn("[SUBMIT] TIMEOUT waiting response seq={}", seq);
+            }
+        });
+
+        try {
+            // encode (şablonda sadece alıcı ve seq yazılır)
+            byte[] bytes = template != null ? template.encode(dst, seq) : encoder.encode(req);
+
+            // store'a kayıt (JDBC'de kuyruğa gider, AuditWriter toplu yazar); gönderimi bekletmez
+            if (store.isRecording()) {
+                try {
+                    MessageStore.PduRef submitLog = store.logPdu(
+                            SmppDao.Direction.OUT,
+                            "SubmitSmReq",
+                            readInt(bytes, 4),
+                            readInt(bytes, 8),
+                            readInt(bytes, 12),
+                            bytes,
+                            template != null
+                                    ? PduAuditFields.submitSm(seq, template, dst)
+                                    : PduAuditFields.submitSm(seq, req)
+                    );
+
+                    PendingSubmit ps = template != null
+                            ? new PendingSubmit(sessionId, systemId, seq,
+                                    template.getSourceAddr(), dst,
+                                    template.getDataCoding() & 0xFF,
+                                    template.getEsmClass() & 0xFF,
+                                    template.getShortMessage(),
+                                    submitLog)
+                            : new PendingSubmit(sessionId, systemId, seq,
+                                    req.getSourceAddr(),
+                                    req.getDestinationAddr(),
+                                    req.getDataCoding() & 0xFF,
+                                    req.getEsmClass() & 0xFF,
+                                    req.getShortMessage(),   // short_message (hex/bytea DAO'da)
+                                    submitLog);
+                    rememberPendingSubmit(ps);
+
+
+                } catch (Exception ex) {
+                    log.warn("DB submit log enqueue failed", ex);
+                }
+            }
+
+            socket.sendBytes(bytes);
+        } catch (RuntimeException e) {
+            pending.fail(seq, e);
         }
 
-        return ssr.getMessageId();
+        return released.thenApply(resp -> {
+            if (!(resp instanceof SubmitSmResp ssr)) {
+                throw new IllegalStateException("Expected SubmitSmResp but got: " + resp.getClass().getSimpleName());
+            }
+
+            if (ssr.getMessageId() == null || ssr.getMessageId().isBlank()) {
+                throw new IllegalStateException("SubmitSmResp message_id is empty");
+            }
+
+            return ssr.getMessageId();
+        });
     }
 
 
 
 
+    /** Blocking wrapper: tüm parçaların SubmitSmResp'i gelene kadar bekler. */
     public List<String> sendConcatTrSingleShiftUnpacked(SubmitSmReq baseReq, String text) throws Exception {
+        try {
+            return sendConcatTrSingleShiftUnpackedAsync(baseReq, text).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception ex) throw ex;
+            throw e;
+        }
+    }
+
+    /**
+     * Uzun mesajı TR single-shift + concat UDH'li parçalara böler ve parçaları cevap beklemeden,
+     * sırayla aynı bind üzerinden gönderir (pencere/hız sınırı içinde). Tüm parçaların PDU'ları
+     * gönderimden önce hazırlanır; dönen future, message_id'ler parça sırasıyla gelince tamamlanır.
+     * Herhangi bir parça hata alırsa future o hatayla tamamlanır; gönderilemeyen parçadan sonrakiler hiç gönderilmez.
+     */
+    public CompletableFuture<List<String>> sendConcatTrSingleShiftUnpackedAsync(SubmitSmReq baseReq, String text) {
+        List<SubmitSmReq> segments = buildConcatTrSingleShiftUnpacked(baseReq, text);
+        if (segments.size() == 1) {
+            return sendSubmitSmAsync(segments.get(0)).thenApply(List::of);
+        }
+
+        // hepsini cevap beklemeden sırayla gönder (aynı thread: seq ve yazma sırası korunur)
+        return sendInOrder(segments, this::sendSubmitSmAsync);
+    }
+
+    /**
+     * Kampanya için: metni bir kez GSM7'ye çevirip parçalarını şablon olarak hazırlar
+     * ({@link #sendConcatTrSingleShiftUnpackedAsync} ile aynı bölme ve UDH). Her alıcı için
+     * {@link #sendSubmitSmAsync(List, String)}; concat referansı tüm alıcılarda aynıdır.
+     */
+    public List<SubmitSmTemplate> prepareConcatTrSingleShiftUnpacked(SubmitSmReq baseReq, String text) {
+        List<SubmitSmReq> segments = buildConcatTrSingleShiftUnpacked(baseReq, text);
+        List<SubmitSmTemplate> out = new ArrayList<>(segments.size());
+        for (SubmitSmReq seg : segments) {
+            out.add(new SubmitSmTemplate(seg, encoder));
+        }
+        return out;
+    }
+
+    private static List<SubmitSmReq> buildConcatTrSingleShiftUnpacked(SubmitSmReq baseReq, String text) {
         if (text == null) text = "";
 
         // UDH toplam byte = 9
@@ -202,15 +365,13 @@ public class SmppSender {
             byte[] body = Gsm7Codec.encodeUnpacked(text);
             one.setShortMessage(Gsm7Codec.withUdh(udhTr, body));
 
-            String id = sendSubmitSm(one);
-            return java.util.List.of(id);
+            return List.of(one);
         }
 
         int total = chunks.size();
-        int ref = java.util.concurrent.ThreadLocalRandom.current().nextInt(0, 256); // 8-bit ref
-
-        List<String> ids = new ArrayList<>(total);
+        int ref = ThreadLocalRandom.current().nextInt(0, 256); // 8-bit ref
 
+        List<SubmitSmReq> segments = new ArrayList<>(total);
         for (int i = 0; i < total; i++) {
             int seq = i + 1;
 
@@ -222,12 +383,34 @@ public class SmppSender {
             byte[] body = Gsm7Codec.encodeUnpacked(chunks.get(i));
 
             seg.setShortMessage(Gsm7Codec.withUdh(udh, body));
+            segments.add(seg);
+        }
+        return segments;
+    }
 
-            String mid = sendSubmitSm(seg);
-            ids.add(mid);
+    /**
+     * Parçaları sırayla gönderir. Bir parçanın future'ı daha gönderimde hata aldıysa (slot / hız izni yok,
+     * socket kapalı) durur: eksik concat alıcıda birleşmez, kalanlar için slot beklemenin anlamı yok.
+     */
+    private static <T> CompletableFuture<List<String>> sendInOrder(List<T> parts,
+                                                                   Function<T, CompletableFuture<String>> send) {
+        List<CompletableFuture<String>> ids = new ArrayList<>(parts.size());
+        for (T p : parts) {
+            CompletableFuture<String> f = send.apply(p);
+            ids.add(f);
+            if (f.isCompletedExceptionally()) break;
         }
+        return allInOrder(ids);
+    }
 
-        return ids;
+    /** message_id'ler parça sırasıyla; herhangi biri hata alırsa o hata. */
+    private static CompletableFuture<List<String>> allInOrder(List<CompletableFuture<String>> ids) {
+        return CompletableFuture.allOf(ids.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> {
+                    List<String> out = new ArrayList<>(ids.size());
+                    for (CompletableFuture<String> f : ids) out.add(f.join());
+                    return out;
+                });
     }
 
     private static SubmitSmReq cloneBase(SubmitSmReq src) {
@@ -248,13 +431,6 @@ public class SmppSender {
     }
 
 
-    private static String bytesToHex(byte[] b) {
-        if (b == null) return "";
-        StringBuilder sb = new StringBuilder(b.length * 2);
-        for (byte x : b) sb.append(String.format("%02X", x));
-        return sb.toString();
-    }
-
     private static int readInt(byte[] b, int offset) {
         // BIG ENDIAN
         return ((b[offset] & 0xFF) << 24)
@@ -263,11 +439,6 @@ public class SmppSender {
                 | (b[offset + 3] & 0xFF);
     }
 
-
-    private static String key(String sessionId, int seq) {
-        return sessionId + "#" + seq;
-    }
-
     /** Numaranın başında + varsa siler */
     public static String normalizeMsisdn(String raw) {
         if (raw == null) return null;
@@ -1,13 +1,34 @@
 package com.mycompany.smppclient.session;
 
 public class SmppSessionConfig {
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+
     private final int responseTimeoutMs ;
     private final int enquireLinkIntervalMs;
+    private final int windowSize;
+    private final int maxTps;
 
     public SmppSessionConfig(int responseTimeoutMs, int enquireLinkIntervalMs){
+        this(responseTimeoutMs, enquireLinkIntervalMs, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize aynı anda cevabı beklenen en fazla submit_sm sayısı (ör: 10–500)
+     */
+    public SmppSessionConfig(int responseTimeoutMs, int enquireLinkIntervalMs, int windowSize){
+        this(responseTimeoutMs, enquireLinkIntervalMs, windowSize, 0);
+    }
+
+    /**
+     * @param maxTps saniyede en fazla submit_sm; SMSC throttle ettiğinde bunun altına iner,
+     *               cevaplar hızlandıkça tekrar bu değere çıkar. {@code <= 0} ise hız sınırı yok.
+     */
+    public SmppSessionConfig(int responseTimeoutMs, int enquireLinkIntervalMs, int windowSize, int maxTps){
+        if (windowSize < 1) throw new IllegalArgumentException("windowSize must be >= 1: " + windowSize);
         this.responseTimeoutMs = responseTimeoutMs;
         this.enquireLinkIntervalMs = enquireLinkIntervalMs;
-
+        this.windowSize = windowSize;
+        this.maxTps = maxTps;
     }
 
     public int getResponseTimeoutMs() {
@@ -17,4 +38,12 @@ public class SmppSessionConfig {
     public int getEnquireLinkIntervalMs() {
         return enquireLinkIntervalMs;
     }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getMaxTps() {
+        return maxTps;
+    }
 }
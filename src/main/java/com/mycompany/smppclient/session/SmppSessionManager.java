@@ -1,9 +1,16 @@
     package com.mycompany.smppclient.session;
 
+    import com.mycompany.smppclient.db.JdbcMessageStore;
+    import com.mycompany.smppclient.db.MessageStore;
+    import com.mycompany.smppclient.db.NoOpMessageStore;
+    import com.mycompany.smppclient.db.SmppDao;
     import com.mycompany.smppclient.pdu.*;
     import com.mycompany.smppclient.pdu.decoder.PduDecoder;
     import com.mycompany.smppclient.pdu.encoder.PduEncoder;
     import com.mycompany.smppclient.pdu.encoding.Gsm7Codec;
+    import com.mycompany.smppclient.pdu.encoding.Hex;
+    import com.mycompany.smppclient.pdu.view.DeliverSmView;
+    import com.mycompany.smppclient.pdu.view.SubmitSmRespView;
     import com.mycompany.smppclient.socket.SmppSocketClient;
     import org.apache.logging.log4j.LogManager;
     import org.apache.logging.log4j.Logger;
@@ -13,9 +20,6 @@
     import java.util.concurrent.atomic.AtomicInteger;
     import java.util.Arrays;
     import java.nio.ByteBuffer;
-    import java.nio.ByteOrder;
-    import java.util.HashMap;
-    import java.util.Map;
 
 
     public class SmppSessionManager implements AutoCloseable {
@@ -26,11 +30,21 @@
         private final SmppSessionConfig cfg;
         private final PduEncoder encoder = new PduEncoder();
         private final PduDecoder decoder = new PduDecoder();
-        private final PendingRequestRegistry pending = new PendingRequestRegistry();
+        // sadece socket thread'inden kullanılır; kayıt için değerler kopyalanır
+        private final SubmitSmRespView submitRespView = new SubmitSmRespView();
+        private final PendingRequestRegistry pending;
 
         private final AtomicInteger seqGen = new AtomicInteger(1);
 
-        private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        // submit_sm penceresi: cevabı beklenen en fazla cfg.getWindowSize() submit
+        private final Semaphore window;
+
+        // submit hızı: ESME_RTHROTTLED / ESME_RMSGQFUL'da yarıya iner, hızlı cevaplarla maxTps'e döner
+        private final SubmitRateController rate;
+
+        // tüm session'larla paylaşılan timer (socket'in event loop grubundan)
+        private final ScheduledExecutorService scheduler;
+        private volatile ScheduledFuture<?> enquireTask;
         private volatile boolean bound = false;
 
         private final AtomicInteger enquireOkCount = new AtomicInteger(0);
@@ -45,68 +59,79 @@
         private volatile String lastHost;
         private volatile int lastPort;
 
-        private com.mycompany.smppclient.db.SmppDao dao;
+        // PDU/submit/deliver kayıtları; JDBC'de kuyruğa atılır, AuditWriter thread'i toplu yazar (kayıt yoksa NoOp)
+        private final MessageStore store;
+        private final boolean ownsStore;
         private String sessionId;
         private String systemId;
 
 
-        private final java.util.concurrent.ConcurrentHashMap<String, java.util.List<PendingDeliver>> pendingDeliverByMsgId
-                = new java.util.concurrent.ConcurrentHashMap<>();
-
-
         public SmppSessionManager(SmppSocketClient socket, SmppSessionConfig cfg) {
             this(socket, cfg, null);
         }
 
         public SmppSessionManager(SmppSocketClient socket, SmppSessionConfig cfg, IncomingMessageHandler handler) {
-            this(socket, cfg, handler, null, null, null); // <-- DB yok
+            this(socket, cfg, handler, null, false, null, null); // <-- DB yok
         }
 
         public SmppSessionManager(
                 SmppSocketClient socket,
                 SmppSessionConfig cfg,
                 IncomingMessageHandler handler,
-                com.mycompany.smppclient.db.SmppDao dao,
+                SmppDao dao,
+                String sessionId,
+                String systemId
+        ) {
+            this(socket, cfg, handler, dao == null ? null : new JdbcMessageStore(dao), true, sessionId, systemId);
+        }
+
+        /**
+         * @param store birden çok session'ın paylaşabileceği store; kapatmak çağıranın işidir (null = kayıt yok)
+         */
+        public SmppSessionManager(
+                SmppSocketClient socket,
+                SmppSessionConfig cfg,
+                IncomingMessageHandler handler,
+                MessageStore store,
+                String sessionId,
+                String systemId
+        ) {
+            this(socket, cfg, handler, store, false, sessionId, systemId);
+        }
+
+        private SmppSessionManager(
+                SmppSocketClient socket,
+                SmppSessionConfig cfg,
+                IncomingMessageHandler handler,
+                MessageStore store,
+                boolean ownsStore,
                 String sessionId,
                 String systemId
         ) {
             this.socket = socket;
             this.cfg = cfg;
             this.incomingHandler = handler;
+            this.scheduler = socket.timer();
+            // pencere + bind/enquire/unbind için pay; seq'ler ardışık olduğundan çakışma olmaz
+            this.pending = new PendingRequestRegistry(scheduler, cfg.getWindowSize() * 4 + 64);
 
-            this.dao = dao;
+            this.store = store == null ? NoOpMessageStore.INSTANCE : store;
+            this.ownsStore = ownsStore;
             this.sessionId = sessionId;
             this.systemId = systemId;
-            this.sender = new SmppSender(socket, cfg, encoder, pending, seqGen, dao, sessionId, systemId);
-
-        }
-
-        static final class PendingDeliver {
-            final String messageId;
-            final boolean isDlr;
-            final String srcAddr;
-            final String dstAddr;
-            final int dataCoding;
-            final int esmClass;
-            final String text;
-            final long deliverLogId;
-
-            PendingDeliver(String messageId, boolean isDlr, String srcAddr, String dstAddr,
-                           int dataCoding, int esmClass, String text, long deliverLogId) {
-                this.messageId = messageId;
-                this.isDlr = isDlr;
-                this.srcAddr = srcAddr;
-                this.dstAddr = dstAddr;
-                this.dataCoding = dataCoding;
-                this.esmClass = esmClass;
-                this.text = text;
-                this.deliverLogId = deliverLogId;
-            }
-        }
+            this.window = new Semaphore(cfg.getWindowSize(), true);
+            this.rate = new SubmitRateController(cfg.getMaxTps(), cfg.getResponseTimeoutMs() / 4);
+            this.sender = new SmppSender(socket, cfg, encoder, pending, seqGen, window, rate, this.store, sessionId, systemId);
 
+        }
 
         public boolean isBound() { return bound; }
 
+        /** Bağlantı koptu ve recover thread'i reconnect + rebind deniyor mu. */
+        public boolean isRecovering() { return recovering; }
+
+        public String getSessionId() { return sessionId; }
+
         private static final int MAX_SEQ = 0x7FFFFFFF;
         private int nextSeq() {
             // dönen değer: 1 ile MAX_SEQ arasında olmalı
@@ -119,151 +144,53 @@
             return sender.sendConcatTrSingleShiftUnpacked(baseReq, text);
         }
 
+        /** Parçaları cevap beklemeden gönderir; message_id listesi tüm cevaplar gelince tamamlanır. */
+        public CompletableFuture<List<String>> sendConcatTrSingleShiftUnpackedAsync(SubmitSmReq baseReq, String text) {
+            if (!bound) return CompletableFuture.failedFuture(new IllegalStateException("Session not bound"));
+            return sender.sendConcatTrSingleShiftUnpackedAsync(baseReq, text);
+        }
+
 
+        /**
+         * Gelen PDU'yu header'ına göre dağıtır: command_id / status / sequence doğrudan frame'den okunur.
+         * Body'si olmayan cevaplar ve keep-alive'lar decode edilmeden tamamlanır (fazla byte'lar decoder'daki gibi
+         * yok sayılır); submit_sm_resp ve deliver_sm görünüm üzerinden işlenir, sadece geri kalanlar
+         * {@link PduDecoder}'a gider.
+         */
         public void onIncomingPduBytes(byte[] data) {
-            String rawHex = bytesToHex(data);
-            PduHeader h = parseHeader(data);
+            boolean hasHeader = data != null && data.length >= 16;
+            int commandId = hasHeader ? int32(data, 4) : 0;
+            int commandStatus = hasHeader ? int32(data, 8) : 0;
+            int seq = hasHeader ? int32(data, 12) : 0;
 
             try {
-                Pdu pdu = decoder.decode(data);
-                log.debug("RX: {}", pdu);
-
-
-                if (pdu instanceof GenericNack gn) {
-                    int seq = gn.getSequenceNumber();
-                    int st = gn.getCommandStatus();
-
-                    log.error("[GENERIC_NACK] RX seq={} status=0x{}", seq, String.format("%08X", st));
-
-                    // ilgili bekleyeni bitirir
-                    pending.fail(seq, new RuntimeException("GENERIC_NACK status=0x" + String.format("%08X", st)));
-
+                switch (commandId) {
+                    case CommandId.SUBMIT_SM_RESP -> onSubmitSmResp(submitRespView.wrap(data), data);
+                    case CommandId.DELIVER_SM -> onDeliverSm(new DeliverSmView().wrap(data), data);
 
-                    return;
-                }
-
-
-                boolean isEnquire = (pdu instanceof EnquireLinkReq) || (pdu instanceof EnquireLinkResp);
-
-                long inLogId = -1;
-
-                if (dao != null && !isEnquire) {
-                    try {
-                        inLogId = dao.insertPduLog(
-                                com.mycompany.smppclient.db.SmppDao.Direction.IN,
-                                pdu.getClass().getSimpleName(),
-                                h.commandId,
-                                h.commandStatus,
-                                h.sequence,
-                                rawHex,
-                                toMap(pdu)
-                        );
-                    } catch (Exception ex) {
-                        log.warn("DB insert (IN) failed", ex);
+                    case CommandId.ENQUIRE_LINK_RESP -> {
+                        completeResponse(fromHeader(new EnquireLinkResp(), commandStatus, seq));
                     }
-                }
-
-                if (pdu instanceof SubmitSmResp ssr) {
-                    if (dao != null) {
-                        try {
-                            int seq = ssr.getSequenceNumber();
-                            String mid = normalizeMessageId(ssr.getMessageId());
-
-                            // 1) RAM’den submit’i çek
-                            SmppSender.PendingSubmit ps = sender.consumePendingSubmit(sessionId, seq);
-                            if (ps == null) {
-                                log.warn("SubmitSmResp geldi ama pending submit yok! sessionId={} seq={} mid={}",
-                                        sessionId, seq, mid);
-                                return;
-                            }
-
-                            // 2) submit tablosuna INSERT (message_id artık belli)
-                            long submitId = dao.insertSubmitOnResp(
-                                    ps.sessionId,
-                                    ps.systemId,
-                                    ps.submitSeq,
-                                    ps.srcAddr,
-                                    ps.dstAddr,
-                                    ps.dataCoding,
-                                    ps.esmClass,
-                                    ps.submitSmHex,
-                                    ssr.getCommandStatus(),
-                                    mid,
-                                    ps.submitLogId,
-                                    inLogId // submit_sm_resp IN pdu_log id
-                            );
-
-                            log.info("SUBMIT INSERT OK submitId={} sessionId={} seq={} mid={}",
-                                    submitId, sessionId, seq, mid);
-
-                            // 3) bu message_id için daha önce deliver geldiyse flush et
-                            java.util.List<PendingDeliver> pend = pendingDeliverByMsgId.remove(mid);
-                            if (pend != null) {
-                                for (PendingDeliver d : pend) {
-                                    try {
-                                        dao.insertDeliver(
-                                                submitId,
-                                                mid,
-                                                d.isDlr,
-                                                d.srcAddr,
-                                                d.dstAddr,
-                                                d.dataCoding,
-                                                d.esmClass,
-                                                d.text,
-                                                d.deliverLogId
-                                        );
-                                    } catch (Exception ex2) {
-                                        log.warn("deliver flush insert failed mid={}", mid, ex2);
-                                    }
-                                }
-                                log.info("DELIVER FLUSH OK mid={} count={}", mid, pend.size());
-                            }
-
-                        } catch (Exception ex) {
-                            log.warn("DB insert submit on submit_sm_resp failed", ex);
-                        }
+                    case CommandId.ENQUIRE_LINK -> {
+                        socket.sendBytes(headerOnly(CommandId.ENQUIRE_LINK_RESP, 0, seq));
+                        log.info("[ENQUIRE] RX EnquireLinkReq -> TX EnquireLinkResp seq={}", seq);
+                    }
+                    case CommandId.GENERIC_NACK -> {
+                        log.error("[GENERIC_NACK] RX seq={} status=0x{}", seq, String.format("%08X", commandStatus));
+                        // ilgili bekleyeni bitirir
+                        pending.fail(seq, new RuntimeException("GENERIC_NACK status=0x" + String.format("%08X", commandStatus)));
+                    }
+                    case CommandId.UNBIND_RESP -> {
+                        UnbindResp r = fromHeader(new UnbindResp(), commandStatus, seq);
+                        logIn(r, data);
+                        completeResponse(r);
                     }
-                }
-
-
-                if (pdu instanceof DeliverSmReq d) {
-                    handleDeliverSm(d, inLogId);
-                    return;
-                }
-                if (pdu instanceof EnquireLinkReq) {
-                    EnquireLinkResp r = new EnquireLinkResp();
-                    r.setCommandStatus(0);
-                    r.setSequenceNumber(pdu.getSequenceNumber());
-
-                    socket.sendBytes(encoder.encode(r));
-
-                    log.info("[ENQUIRE] RX EnquireLinkReq -> TX EnquireLinkResp seq={}", pdu.getSequenceNumber());
-                    return;
-                }
-                if (pdu instanceof UnbindReq) {
-                    UnbindResp r = new UnbindResp();
-                    r.setCommandStatus(0);
-                    r.setSequenceNumber(pdu.getSequenceNumber());
-
-                    sendAndLog(r, "UnbindResp");
-
-
-
-                    bound = false;
-                    log.info("[UNBIND] RX UnbindReq -> TX UnbindResp seq={}", pdu.getSequenceNumber());
-                    return;
-                }
 
-                boolean matched = pending.complete(pdu.getSequenceNumber(), pdu);
-                if (!matched) {
-                    log.info("[UNSOLICITED] RX {} seq={} status={}",
-                            pdu.getClass().getSimpleName(),
-                            pdu.getSequenceNumber(),
-                            pdu.getCommandStatus());
+                    default -> onDecodedPdu(decoder.decode(data), data);
                 }
 
             } catch (Exception e) {
-                log.error("RX decode failed: {}", rawHex, e);
+                log.error("RX decode failed: {}", Hex.toHex(data), e);
 
                 if (e instanceof com.mycompany.smppclient.pdu.exception.DecodeException
                         || e instanceof com.mycompany.smppclient.pdu.exception.InvalidPduException) {
@@ -276,31 +203,100 @@
                     }
                 }
 
-                if (dao != null) {
-                        try {
-                            dao.insertPduLog(
-                                    com.mycompany.smppclient.db.SmppDao.Direction.IN,
-                                    "DECODE_FAILED",
-                                    h.commandId,
-                                    h.commandStatus,
-                                    h.sequence,
-                                    rawHex,
-                                    Map.of("error", String.valueOf(e.getMessage()))
-                            );
-                        } catch (Exception ex) {
-                            log.warn("DB insert (IN decode_failed) failed", ex);
-                        }
-                    }
+                if (store.isRecording()) {
+                    store.logPdu(
+                            SmppDao.Direction.IN,
+                            "DECODE_FAILED",
+                            commandId,
+                            commandStatus,
+                            seq,
+                            data,
+                            PduAuditFields.error(String.valueOf(e.getMessage()))
+                    );
+                }
+            }
+        }
+
+        /** Body'si okunması gereken diğer PDU'lar (bind_resp, unbind, deliver_sm_resp ...). */
+        private void onDecodedPdu(Pdu pdu, byte[] data) throws Exception {
+            log.debug("RX: {}", pdu);
+            logIn(pdu, data);
+
+            if (pdu instanceof UnbindReq) {
+                UnbindResp r = new UnbindResp();
+                r.setCommandStatus(0);
+                r.setSequenceNumber(pdu.getSequenceNumber());
+
+                sendAndLog(r, "UnbindResp");
+
+                bound = false;
+                log.info("[UNBIND] RX UnbindReq -> TX UnbindResp seq={}", pdu.getSequenceNumber());
+                return;
             }
+
+            completeResponse(pdu);
+        }
+
+        private void logIn(Pdu pdu, byte[] data) {
+            if (!store.isRecording()) return;
+            store.logPdu(
+                    SmppDao.Direction.IN,
+                    pdu.getClass().getSimpleName(),
+                    pdu.getCommandId(),
+                    pdu.getCommandStatus(),
+                    pdu.getSequenceNumber(),
+                    data,
+                    PduAuditFields.of(pdu)
+            );
         }
 
 
-        private static String toHex(byte[] b) {
-            StringBuilder sb = new StringBuilder();
-            for (byte x : b) sb.append(String.format("%02X", x));
-            return sb.toString();
+        private void onSubmitSmResp(SubmitSmRespView v, byte[] data) {
+            log.debug("RX: {}", v);
+            if (store.isRecording()) {
+                MessageStore.PduRef inLog = store.logPdu(
+                        SmppDao.Direction.IN,
+                        "SubmitSmResp",
+                        v.commandId(),
+                        v.commandStatus(),
+                        v.sequenceNumber(),
+                        data,
+                        PduAuditFields.submitSmResp(v)
+                );
+                recordSubmitResp(v.sequenceNumber(), v.commandStatus(), v.messageId(), inLog);
+            }
+            // bekleyen future Pdu ister; message_id zaten okunduğu için ek decode yok
+            completeResponse(v.materialize());
+        }
+
+        private void onDeliverSm(DeliverSmView v, byte[] data) {
+            log.debug("RX: {}", v);
+            MessageStore.PduRef inLog = null;
+            if (store.isRecording()) {
+                inLog = store.logPdu(
+                        SmppDao.Direction.IN,
+                        "DeliverSmReq",
+                        v.commandId(),
+                        v.commandStatus(),
+                        v.sequenceNumber(),
+                        data,
+                        PduAuditFields.deliverSm(v)
+                );
+            }
+            handleDeliverSm(v, inLog);
         }
 
+        private void completeResponse(Pdu pdu) {
+            boolean matched = pending.complete(pdu.getSequenceNumber(), pdu);
+            if (!matched) {
+                log.info("[UNSOLICITED] RX {} seq={} status={}",
+                        pdu.getClass().getSimpleName(),
+                        pdu.getSequenceNumber(),
+                        pdu.getCommandStatus());
+            }
+        }
+
+
         // ----------------- Bind ----------
         public boolean bind(String host, int port, BindTransceiverReq req) throws Exception {
             this.lastHost = host;
@@ -333,7 +329,7 @@
             req.setSequenceNumber(seq);
             req.setCommandStatus(0);
 
-            CompletableFuture<Pdu> f = pending.register(seq);
+            CompletableFuture<Pdu> f = pending.register(seq, cfg.getResponseTimeoutMs());
 
             sendAndLog(req, "BindTransceiverReq");
 
@@ -370,7 +366,10 @@
             int seq = nextSeq();
             req.setSequenceNumber(seq);
 
-            CompletableFuture<Pdu> f = pending.register(seq);
+            CompletableFuture<Pdu> f = pending.register(seq, cfg.getResponseTimeoutMs());
+
+            // SMSC UnbindResp'ten hemen sonra bağlantıyı kapatabilir: bu kopuş recover tetiklemesin
+            bound = false;
 
             System.out.println("[UNBIND] TX UnbindReq seq=" + seq);
 
@@ -409,22 +408,40 @@
 
         // ---------- EnquireLink task ----------
         public void startEnquireLinkTask() {
-            scheduler.scheduleAtFixedRate(() -> {
-                try {
-                    if (!bound) return;
+            ScheduledFuture<?> prev = enquireTask;
+            if (prev != null) prev.cancel(false);
 
-                    EnquireLinkReq req = new EnquireLinkReq();
-                    req.setCommandStatus(0);
-                    int seq = nextSeq();
-                    req.setSequenceNumber(seq);
+            enquireTask = scheduler.scheduleAtFixedRate(
+                    this::sendEnquireLink, 0, cfg.getEnquireLinkIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+
+        /** Paylaşılan timer thread'ini bloklamaz: cevap future callback'i ile işlenir. */
+        private void sendEnquireLink() {
+            try {
+                if (!bound) return;
 
-                    CompletableFuture<Pdu> f = pending.register(seq);
+                EnquireLinkReq req = new EnquireLinkReq();
+                req.setCommandStatus(0);
+                int seq = nextSeq();
+                req.setSequenceNumber(seq);
 
-                    System.out.println("[ENQUIRE] TX EnquireLinkReq seq=" + seq);
-                    socket.sendBytes(encoder.encode(req));
+                CompletableFuture<Pdu> f = pending.register(seq, cfg.getResponseTimeoutMs());
 
-                    Pdu resp = awaitResponse("ENQUIRE", seq, f);
+                System.out.println("[ENQUIRE] TX EnquireLinkReq seq=" + seq);
+                socket.sendBytes(encoder.encode(req));
 
+                f.whenComplete((resp, err) -> {
+                    if (err instanceof TimeoutException) {
+                        log.warn("[ENQUIRE] TIMEOUT => assume dead, recover");
+                        bound = false;
+                        reconnectAndRebind();
+                        return;
+                    }
+                    if (err != null) {
+                        System.out.println("[ENQUIRE] ERROR: " + err);
+                        log.warn("EnquireLink task error", err);
+                        return;
+                    }
 
                     System.out.println("[ENQUIRE] RX " + resp.getClass().getSimpleName()
                             + " seq=" + resp.getSequenceNumber()
@@ -436,16 +453,12 @@
                     } else {
                         log.warn("Expected EnquireLinkResp OK, got {}", resp.getClass().getSimpleName());
                     }
+                });
 
-                } catch (TimeoutException te) {
-                    log.warn("[ENQUIRE] TIMEOUT => assume dead, recover");
-                    bound = false;
-                    reconnectAndRebind();
-                } catch (Exception e) {
-                    System.out.println("[ENQUIRE] ERROR: " + e);
-                    log.warn("EnquireLink task error", e);
-                }
-            }, 0, cfg.getEnquireLinkIntervalMs(), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                System.out.println("[ENQUIRE] ERROR: " + e);
+                log.warn("EnquireLink task error", e);
+            }
         }
 
         public int getEnquireOkCount() {
@@ -457,27 +470,48 @@
             return sender.sendSubmitSm(req);
         }
 
-        private void handleDeliverSm(DeliverSmReq req, long deliverLogId) {
+        /** Pencere izin verdiği sürece cevap beklemeden gönderir; future SMSC message_id ile tamamlanır. */
+        public CompletableFuture<String> sendSubmitSmAsync(SubmitSmReq req) {
+            if (!bound) return CompletableFuture.failedFuture(new IllegalStateException("Session not bound"));
+            return sender.sendSubmitSmAsync(req);
+        }
+
+        /** Şu an cevabı beklenen submit_sm sayısı. */
+        public int getOutstandingCount() {
+            return cfg.getWindowSize() - window.availablePermits();
+        }
+
+        /** Şu an izin verilen submit hızı (saniyede); maxTps kapalıysa 0 (sınırsız). */
+        public double getAllowedTps() {
+            return rate.getAllowedTps();
+        }
+
+        /** submit_sm_resp gecikmesinin ortalaması (ms); henüz cevap yoksa -1. */
+        public double getSubmitLatencyMs() {
+            return rate.getLatencyEwmaMs();
+        }
+
+        private void handleDeliverSm(DeliverSmView req, MessageStore.PduRef deliverLog) {
             try {
                 // SMSC'ye ACK: DeliverSmResp
                 DeliverSmResp resp = new DeliverSmResp();
                 resp.setCommandStatus(0);
-                resp.setSequenceNumber(req.getSequenceNumber());
+                resp.setSequenceNumber(req.sequenceNumber());
 
                 sendAndLog(resp, "DeliverSmResp");
 
                 // Mesaj decode
                 String text = decodeDeliverSmText(req);
 
-                byte[] raw = getDeliverSmPayloadBytes(req);
+                byte[] raw = req.payload();
                 log.info("[DELIVER_SM RAW] dc=0x{} esm=0x{} sm_hex={}",
-                        String.format("%02X", req.getDataCoding()),
-                        String.format("%02X", req.getEsmClass()),
-                        toHex(raw));
+                        String.format("%02X", req.dataCoding()),
+                        String.format("%02X", req.esmClass()),
+                        Hex.toHex(raw));
 
 
                 // Receipt mi?
-                boolean byEsm = DeliveryReceiptParser.isDeliveryReceiptByEsmClass(req.getEsmClass());
+                boolean byEsm = DeliveryReceiptParser.isDeliveryReceiptByEsmClass(req.esmClass());
                 boolean byText = DeliveryReceiptParser.looksLikeReceipt(text);
 
 
@@ -486,61 +520,31 @@
 
                 DeliveryReceipt receipt = isReceipt ? DeliveryReceiptParser.parse(text) : null;
 
-                if (dao != null && isReceipt && receipt != null) {
-                    try {
-                        String mid = normalizeMessageId(receipt.messageId);
-
-                        Long submitId = dao.findSubmitIdByMessageId(mid);
-
-                        if (submitId != null) {
-                            // submit varsa direkt deliver insert
-                            dao.insertDeliver(
-                                    submitId,
-                                    mid,
-                                    true,
-                                    req.getSourceAddr(),
-                                    req.getDestinationAddr(),
-                                    req.getDataCoding() & 0xFF,
-                                    req.getEsmClass() & 0xFF,
-                                    text,
-                                    deliverLogId
-                            );
-                            log.info("DELIVER INSERT OK mid={} submitId={}", mid, submitId);
-
-                        } else {
-                            // submit yoksa RAM'de beklet
-                            pendingDeliverByMsgId
-                                    .computeIfAbsent(mid, k -> new java.util.concurrent.CopyOnWriteArrayList<>())
-                                    .add(new PendingDeliver(
-                                            mid,
-                                            true,
-                                            req.getSourceAddr(),
-                                            req.getDestinationAddr(),
-                                            req.getDataCoding() & 0xFF,
-                                            req.getEsmClass() & 0xFF,
-                                            text,
-                                            deliverLogId
-                                    ));
-
-                            log.warn("DELIVER geldi ama submit yok -> RAM pending mid={}", mid);
-                        }
-
-                    } catch (Exception ex) {
-                        log.warn("deliver insert/pending failed", ex);
-                    }
+                if (store.isRecording() && isReceipt && receipt != null) {
+                    // submit eşleşmesini store yapar (JDBC'de veritabanı)
+                    store.deliver(
+                            normalizeMessageId(receipt.messageId),
+                            true,
+                            req.sourceAddr(),
+                            req.destinationAddr(),
+                            req.dataCoding() & 0xFF,
+                            req.esmClass() & 0xFF,
+                            text,
+                            deliverLog
+                    );
                 }
 
                 log.info("[DLR CHECK] esm=0x{} byEsm={} byText={} isReceipt={}",
-                        String.format("%02X", req.getEsmClass()),
+                        String.format("%02X", req.esmClass()),
                         byEsm, byText, isReceipt);
 
 
                 DeliverSmEvent ev = new DeliverSmEvent(
                         req,
-                        req.getSourceAddr(),
-                        req.getDestinationAddr(),
-                        req.getEsmClass(),
-                        req.getDataCoding(),
+                        req.sourceAddr(),
+                        req.destinationAddr(),
+                        req.esmClass(),
+                        req.dataCoding(),
                         text,
                         isReceipt,
                         receipt
@@ -567,12 +571,12 @@
             }
         }
 
-        private String decodeDeliverSmText(DeliverSmReq req) {
-            byte[] raw = getDeliverSmPayloadBytes(req);
-            if (raw == null || raw.length == 0) return "";
+        private String decodeDeliverSmText(DeliverSmView req) {
+            byte[] raw = req.payload();
+            if (raw.length == 0) return "";
 
-            int dc  = req.getDataCoding() & 0xFF;
-            int esm = req.getEsmClass() & 0xFF;
+            int dc  = req.dataCoding() & 0xFF;
+            int esm = req.esmClass() & 0xFF;
 
             //  dc kontrol
             if (dc == 0x00) {
@@ -633,24 +637,6 @@
 
 
 
-        private byte[] getDeliverSmPayloadBytes(DeliverSmReq req) {
-            byte[] sm = req.getShortMessage();
-            if (sm != null && sm.length > 0) return sm;
-
-            // short_message boşsa TLV message_payload'e bak
-            if (req.getOptionalParameters() != null) {
-                for (var tlv : req.getOptionalParameters()) {
-                    if ((tlv.getTag() & 0xFFFF) == 0x0424) { // message_payload
-                        byte[] v = tlv.getValue();
-                        if (v != null) return v;
-                    }
-                }
-            }
-            return new byte[0];
-        }
-
-
-
         private final Object reconnectLock = new Object();
         private volatile boolean recovering = false;
 
@@ -720,110 +706,81 @@
 
 
 
-        private static String bytesToHex(byte[] b) {
-            if (b == null) return "";
-            StringBuilder sb = new StringBuilder(b.length * 2);
-            for (byte x : b) sb.append(String.format("%02X", x));
-            return sb.toString();
+        private static int int32(byte[] d, int off) {
+            return ((d[off] & 0xFF) << 24) | ((d[off + 1] & 0xFF) << 16) | ((d[off + 2] & 0xFF) << 8) | (d[off + 3] & 0xFF);
         }
 
-        private static final class PduHeader {
-            final int commandLength;
-            final int commandId;
-            final int commandStatus;
-            final int sequence;
-            PduHeader(int l, int id, int st, int seq) {
-                this.commandLength = l;
-                this.commandId = id;
-                this.commandStatus = st;
-                this.sequence = seq;
-            }
+        /** Body'siz PDU'nun 16 byte'ı; encoder'a uğramadan. */
+        private static byte[] headerOnly(int commandId, int commandStatus, int seq) {
+            return ByteBuffer.allocate(16).putInt(16).putInt(commandId).putInt(commandStatus).putInt(seq).array();
         }
 
-        private static PduHeader parseHeader(byte[] data) {
-            if (data == null || data.length < 16) return new PduHeader(0, 0, 0, 0);
-            ByteBuffer bb = ByteBuffer.wrap(data).order(ByteOrder.BIG_ENDIAN);
-            int len = bb.getInt();
-            int cid = bb.getInt();
-            int st  = bb.getInt();
-            int seq = bb.getInt();
-            return new PduHeader(len, cid, st, seq);
-        }
-
-        /** decoded_json için minimal map */
-        private static Map<String, Object> toMap(Pdu pdu) {
-            Map<String, Object> m = new HashMap<>();
-            if (pdu == null) return m;
-
-            m.put("class", pdu.getClass().getSimpleName());
-            m.put("sequence_number", pdu.getSequenceNumber());
-            m.put("command_status", pdu.getCommandStatus());
-            m.put("command_length", pdu.getCommandLength());
-
-            if (pdu instanceof BindTransceiverReq r) {
-                m.put("system_id", r.getSystemId());
-                m.put("system_type", r.getSystemType());
-                m.put("interface_version", r.getInterfaceVersion() & 0xFF);
-                m.put("addr_ton", r.getAddrTon() & 0xFF);
-                m.put("addr_npi", r.getAddrNpi() & 0xFF);
-                m.put("address_range", r.getAddressRange());
-            } else if (pdu instanceof BindTransceiverResp r) {
-                m.put("system_id", r.getSystemId());
-            } else if (pdu instanceof SubmitSmReq r) {
-                m.put("service_type", r.getServiceType());
-                m.put("source_addr", r.getSourceAddr());
-                m.put("destination_addr", r.getDestinationAddr());
-                m.put("esm_class", r.getEsmClass() & 0xFF);
-                m.put("data_coding", r.getDataCoding() & 0xFF);
-                byte[] sm = r.getShortMessage();
-                m.put("sm_length", sm == null ? 0 : sm.length);
-                m.put("short_message_hex", bytesToHex(sm));
-            } else if (pdu instanceof SubmitSmResp r) {
-                m.put("message_id", r.getMessageId());
-            } else if (pdu instanceof DeliverSmReq r) {
-                m.put("source_addr", r.getSourceAddr());
-                m.put("destination_addr", r.getDestinationAddr());
-                m.put("esm_class", r.getEsmClass() & 0xFF);
-                m.put("data_coding", r.getDataCoding() & 0xFF);
-                byte[] sm = r.getShortMessage();
-                m.put("sm_length", sm == null ? 0 : sm.length);
-                m.put("short_message_hex", bytesToHex(sm));
-            }
-            return m;
+        private static <T extends Pdu> T fromHeader(T pdu, int commandStatus, int seq) {
+            pdu.setCommandLength(16);
+            pdu.setCommandStatus(commandStatus);
+            pdu.setSequenceNumber(seq);
+            return pdu;
         }
 
     private void sendAndLog(Pdu pdu, String pduTypeForDb) throws Exception {
         byte[] bytes = encoder.encode(pdu);
         socket.sendBytes(bytes);
 
-        if (dao != null) {
-            String rawHex = bytesToHex(bytes);
-            PduHeader h = parseHeader(bytes);
-            try {
-                dao.insertPduLog(
-                        com.mycompany.smppclient.db.SmppDao.Direction.OUT,
-                        pduTypeForDb,
-                        h.commandId,
-                        h.commandStatus,
-                        h.sequence,
-                        rawHex,
-                        toMap(pdu)
-                );
-            } catch (Exception ex) {
-                log.warn("DB insert (OUT) failed", ex);
-            }
+        if (store.isRecording()) {
+            store.logPdu(
+                    SmppDao.Direction.OUT,
+                    pduTypeForDb,
+                    pdu.getCommandId(),
+                    pdu.getCommandStatus(),
+                    pdu.getSequenceNumber(),
+                    bytes,
+                    PduAuditFields.of(pdu)
+            );
         }
     }
 
 
+        /** submit_sm_resp'i submit kaydı olarak kuyruğa atar; future henüz tamamlanmadığı için PendingSubmit registry'de durur. */
+        private void recordSubmitResp(int seq, int commandStatus, String messageId, MessageStore.PduRef respLog) {
+            String mid = normalizeMessageId(messageId);
+
+            // submit bilgisini registry’deki bekleyen kayıttan al
+            SmppSender.PendingSubmit ps = sender.pendingSubmit(seq);
+            if (ps == null) {
+                log.warn("SubmitSmResp geldi ama pending submit yok! sessionId={} seq={} mid={}",
+                        sessionId, seq, mid);
+                return;
+            }
+
+            // message_id artık belli; aynı mid için önceden gelmiş DLR'ları store bağlar
+            store.submitResp(
+                    ps.sessionId,
+                    ps.systemId,
+                    ps.submitSeq,
+                    ps.srcAddr,
+                    ps.dstAddr,
+                    ps.dataCoding,
+                    ps.esmClass,
+                    ps.submitSm,
+                    commandStatus,
+                    mid,
+                    ps.submitLog,
+                    respLog // submit_sm_resp IN pdu_log
+            );
+        }
+
+        /** Timeout'u registry uygular (register(seq, timeoutMs)); burada sadece sonuç beklenir. */
         private Pdu awaitResponse(String op, int seq, CompletableFuture<Pdu> f) throws Exception {
             try {
-                return f.get(cfg.getResponseTimeoutMs(), TimeUnit.MILLISECONDS);
-            } catch (TimeoutException te) {
-                pending.fail(seq, te);
-                log.warn("[{}] TIMEOUT waiting response seq={}", op, seq);
-
-                throw te;
+                return f.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof TimeoutException te) {
+                    log.warn("[{}] TIMEOUT waiting response seq={}", op, seq);
+                    throw te;
+                }
+                if (cause instanceof Exception ex) throw ex;
+                throw e;
             }
         }
 
@@ -845,7 +802,10 @@
 
         @Override
         public void close() {
-            try { scheduler.shutdownNow(); } catch (Exception ignored) {}
+            ScheduledFuture<?> t = enquireTask;
+            if (t != null) t.cancel(false);
+            pending.close();
             try { socket.disconnect(); } catch (Exception ignored) {}
+            if (ownsStore) store.close();
         }
     }
@@ -0,0 +1,294 @@
+package com.mycompany.smppclient.session;
+
+import com.mycompany.smppclient.db.JdbcMessageStore;
+import com.mycompany.smppclient.db.MessageStore;
+import com.mycompany.smppclient.db.SmppDao;
+import com.mycompany.smppclient.db.SmscAccountRegistry;
+import com.mycompany.smppclient.pdu.BindTransceiverReq;
+import com.mycompany.smppclient.pdu.SubmitSmReq;
+import com.mycompany.smppclient.socket.SmppSocketClient;
+import com.mycompany.smppclient.socket.SmppSocketConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Bir veya daha fazla SMSC hesabına açılmış N bind'i tek bir gönderici gibi kullandırır.
+ * <p>
+ * Her submit, o an bound olan (recover etmeyen) session'lar arasından cevabı beklenen submit sayısı
+ * en az olana gider; eşitlikte ortalama submit_sm_resp gecikmesi düşük olan seçilir.
+ * Uygun session yoksa future IllegalStateException ile tamamlanır.
+ */
+public class SmppSessionPool implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(SmppSessionPool.class);
+
+    /** Havuzdaki tek bir bind: session + tekrar bind için gereken bilgiler. */
+    public static final class Member {
+        public final String accountName;
+        public final SmppSessionManager session;
+        final SmppSocketClient socket;
+        final String host;
+        final int port;
+        final BindTransceiverReq bindReq;
+
+        Member(String accountName, SmppSessionManager session, SmppSocketClient socket,
+               String host, int port, BindTransceiverReq bindReq) {
+            this.accountName = accountName;
+            this.session = session;
+            this.socket = socket;
+            this.host = host;
+            this.port = port;
+            this.bindReq = bindReq;
+        }
+
+        boolean isUsable() {
+            return session.isBound() && !session.isRecovering();
+        }
+    }
+
+    private final List<Member> members = new CopyOnWriteArrayList<>();
+    // openAll() çağrıldıysa sonradan eklenen hesaplar da hemen bind edilir
+    private volatile boolean opened;
+
+    // addAccount(..., SmppDao) ile açılan tüm bind'lerin ortak store'u; havuz kapanınca kapatılır
+    private MessageStore ownedStore;
+
+    /** Dışarıda oluşturulmuş bir session'ı havuza ekler (bind {@link #openAll()} ile yapılır). */
+    public Member add(String accountName, SmppSessionManager session, String host, int port, BindTransceiverReq bindReq) {
+        Member m = new Member(accountName, Objects.requireNonNull(session), null, host, port, bindReq);
+        members.add(m);
+        return m;
+    }
+
+    /**
+     * {@code smpp.smsc_account} satırı için {@code binds} adet socket + session oluşturup havuza ekler.
+     * Gelen deliver_sm'ler tüm bind'lerden aynı handler'a akar.
+     */
+    public List<Member> addAccount(SmppDao.SmscAccount acc, int binds,
+                                   SmppSocketConfig sockCfg, SmppSessionConfig cfg,
+                                   IncomingMessageHandler handler, SmppDao dao) {
+        MessageStore store = null;
+        if (dao != null) {
+            synchronized (this) {
+                if (ownedStore == null) ownedStore = new JdbcMessageStore(dao);
+                store = ownedStore;
+            }
+        }
+        return addAccount(acc, binds, sockCfg, cfg, handler, store);
+    }
+
+    /** Aynı, ama store dışarıdan verilir (havuz kapatmaz; null = kayıt yok). */
+    public List<Member> addAccount(SmppDao.SmscAccount acc, int binds,
+                                   SmppSocketConfig sockCfg, SmppSessionConfig cfg,
+                                   IncomingMessageHandler handler, MessageStore store) {
+        List<Member> added = new ArrayList<>(binds);
+        for (int i = 1; i <= binds; i++) {
+            SmppSocketClient socket = new SmppSocketClient(sockCfg, null);
+            String sessionId = acc.name + "-" + i + "-" + UUID.randomUUID();
+            SmppSessionManager sm = new SmppSessionManager(socket, cfg, handler, store, sessionId, acc.systemId);
+
+            Member m = new Member(acc.name, sm, socket, acc.host, acc.port, toBindReq(acc));
+            members.add(m);
+            added.add(m);
+        }
+        return added;
+    }
+
+    /** Hesabın tüm bind'lerini havuzdan çıkarıp unbind eder ve kapatır; çıkarılan bind sayısını döner. */
+    public int removeAccount(String accountName) {
+        int n = 0;
+        for (Member m : members) {
+            if (!m.accountName.equals(accountName)) continue;
+            // önce listeden çıkar ki select() artık seçmesin
+            if (members.remove(m)) {
+                shutdown(m);
+                n++;
+            }
+        }
+        if (n > 0) log.info("[POOL] removed account={} binds={}", accountName, n);
+        return n;
+    }
+
+    /**
+     * {@link SmscAccountRegistry} değişikliklerini havuza uygulayan listener: yeni hesap için {@code binds}
+     * session eklenir, bind bilgisi değişen hesabın session'ları kapatılıp yeni bilgiyle eklenir, pasifleşen
+     * hesabınkiler kapatılır. {@link #openAll()} daha önce çağrıldıysa eklenenler hemen bind edilir.
+     */
+    public SmscAccountRegistry.Listener accountListener(int binds, SmppSocketConfig sockCfg, SmppSessionConfig cfg,
+                                                        IncomingMessageHandler handler, MessageStore store) {
+        return new SmscAccountRegistry.Listener() {
+            @Override
+            public void onAccountAdded(SmppDao.SmscAccount account) {
+                List<Member> added = addAccount(account, binds, sockCfg, cfg, handler, store);
+                if (opened) for (Member m : added) open(m);
+            }
+
+            @Override
+            public void onAccountChanged(SmppDao.SmscAccount previous, SmppDao.SmscAccount current) {
+                removeAccount(previous.name);
+                onAccountAdded(current);
+            }
+
+            @Override
+            public void onAccountRemoved(SmppDao.SmscAccount previous) {
+                removeAccount(previous.name);
+            }
+        };
+    }
+
+    /** Bound olmayan tüm session'ları bind eder ve enquire_link'i başlatır; bound session sayısını döner. */
+    public int openAll() {
+        opened = true;
+        int ok = 0;
+        for (Member m : members) {
+            if (open(m)) ok++;
+        }
+        return ok;
+    }
+
+    public boolean open(Member m) {
+        if (m.session.isBound()) return true;
+        try {
+            if (m.session.bind(m.host, m.port, copyBind(m.bindReq))) {
+                m.session.startEnquireLinkTask();
+                log.info("[POOL] bound account={} session={}", m.accountName, m.session.getSessionId());
+                return true;
+            }
+            log.warn("[POOL] bind rejected account={} session={}", m.accountName, m.session.getSessionId());
+        } catch (Exception e) {
+            log.warn("[POOL] bind failed account={} session={}: {}", m.accountName, m.session.getSessionId(), e.toString());
+        }
+        return false;
+    }
+
+    /**
+     * Submit'in gideceği session: kullanılabilir olanlar içinde en az outstanding,
+     * eşitlikte en düşük gecikme. Yoksa null.
+     */
+    public SmppSessionManager select() {
+        Member best = null;
+        int bestOutstanding = Integer.MAX_VALUE;
+        double bestLatency = Double.MAX_VALUE;
+
+        for (Member m : members) {
+            if (!m.isUsable()) continue;
+
+            int out = m.session.getOutstandingCount();
+            double lat = m.session.getSubmitLatencyMs();
+            if (lat < 0) lat = 0; // henüz ölçüm yok: yeni session'a şans ver
+
+            if (out < bestOutstanding || (out == bestOutstanding && lat < bestLatency)) {
+                best = m;
+                bestOutstanding = out;
+                bestLatency = lat;
+            }
+        }
+        return best == null ? null : best.session;
+    }
+
+    public CompletableFuture<String> sendSubmitSmAsync(SubmitSmReq req) {
+        SmppSessionManager sm = select();
+        if (sm == null) return CompletableFuture.failedFuture(noSession());
+        return sm.sendSubmitSmAsync(req);
+    }
+
+    public String sendSubmitSm(SubmitSmReq req) throws Exception {
+        return await(sendSubmitSmAsync(req));
+    }
+
+    /** Uzun mesajın tüm parçaları aynı bind'den gider (SMSC birleştirmesi için). */
+    public CompletableFuture<List<String>> sendConcatTrSingleShiftUnpackedAsync(SubmitSmReq baseReq, String text) {
+        SmppSessionManager sm = select();
+        if (sm == null) return CompletableFuture.failedFuture(noSession());
+        return sm.sendConcatTrSingleShiftUnpackedAsync(baseReq, text);
+    }
+
+    public List<String> sendConcatTrSingleShiftUnpacked(SubmitSmReq baseReq, String text) throws Exception {
+        return await(sendConcatTrSingleShiftUnpackedAsync(baseReq, text));
+    }
+
+    public List<Member> members() {
+        return List.copyOf(members);
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    /** Şu an submit alabilecek session sayısı. */
+    public int usableCount() {
+        int n = 0;
+        for (Member m : members) if (m.isUsable()) n++;
+        return n;
+    }
+
+    /** Tüm session'ları unbind edip kapatır; havuzun oluşturduğu socket'leri ve DB log writer'ını da kapatır. */
+    @Override
+    public void close() {
+        for (Member m : members) shutdown(m);
+        MessageStore st;
+        synchronized (this) {
+            st = ownedStore;
+            ownedStore = null;
+        }
+        if (st != null) st.close();
+    }
+
+    private static void shutdown(Member m) {
+        try {
+            if (m.session.isBound()) m.session.unbind();
+        } catch (Exception e) {
+            log.warn("[POOL] unbind failed session={}: {}", m.session.getSessionId(), e.toString());
+        }
+        m.session.close();
+        if (m.socket != null) {
+            try { m.socket.close(); } catch (Exception ignored) {}
+        }
+    }
+
+    static BindTransceiverReq toBindReq(SmppDao.SmscAccount acc) {
+        BindTransceiverReq r = new BindTransceiverReq();
+        r.setSystemId(acc.systemId);
+        r.setPassword(acc.password);
+        r.setSystemType(acc.systemType);
+        r.setInterfaceVersion(acc.interfaceVersion);
+        r.setAddrTon(acc.addrTon);
+        r.setAddrNpi(acc.addrNpi);
+        r.setAddressRange(acc.addressRange);
+        return r;
+    }
+
+    private static BindTransceiverReq copyBind(BindTransceiverReq src) {
+        BindTransceiverReq r = new BindTransceiverReq();
+        r.setSystemId(src.getSystemId());
+        r.setPassword(src.getPassword());
+        r.setSystemType(src.getSystemType());
+        r.setInterfaceVersion(src.getInterfaceVersion());
+        r.setAddrTon(src.getAddrTon());
+        r.setAddrNpi(src.getAddrNpi());
+        r.setAddressRange(src.getAddressRange());
+        return r;
+    }
+
+    private static IllegalStateException noSession() {
+        return new IllegalStateException("No bound SMPP session available in pool");
+    }
+
+    private static <T> T await(CompletableFuture<T> f) throws Exception {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception ex) throw ex;
+            throw e;
+        }
+    }
+}
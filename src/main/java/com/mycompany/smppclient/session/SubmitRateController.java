@@ -0,0 +1,129 @@
+package com.mycompany.smppclient.session;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Session başına submit_sm hız kontrolü (AIMD).
+ * <p>
+ * Başlangıçta izin verilen hız config'teki {@code maxTps}'tir. SMSC ESME_RTHROTTLED (0x58) veya
+ * ESME_RMSGQFUL (0x14) döndüğünde (ya da submit timeout olduğunda) hız yarıya iner. Cevaplar hızlı
+ * geldiği sürece (gecikme EWMA'sı {@code fastLatencyMs} altında) hız saniyede yaklaşık
+ * {@code maxTps / 20} artarak {@code maxTps}'e geri döner.
+ * <p>
+ * {@link #acquire} gönderimleri 1/tps aralıklarla sıraya koyar; sıradaki slotu CAS ile ayırır,
+ * çağıran thread slot zamanına kadar park eder. {@code maxTps <= 0} ise kontrol kapalıdır.
+ */
+public class SubmitRateController {
+
+    public static final int ESME_RMSGQFUL = 0x00000014;
+    public static final int ESME_RTHROTTLED = 0x00000058;
+
+    static final double MIN_TPS = 1.0;
+    static final double DECREASE_FACTOR = 0.5;
+    static final double EWMA_ALPHA = 0.2;
+
+    private final boolean enabled;
+    private final double maxTps;
+    private final double increasePerSecond;
+    private final long fastLatencyNanos;
+
+    private volatile double allowedTps;
+    private volatile double latencyEwmaNanos = -1;
+
+    // art arda gelen throttle cevapları tek bir düşüş sayılır
+    private long lastDecreaseNanos;
+
+    // sıradaki gönderimin en erken zamanı (System.nanoTime)
+    private final AtomicLong nextSendNanos = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param maxTps        başlangıç ve üst sınır (saniyede submit); {@code <= 0} kapalı
+     * @param fastLatencyMs bu sürenin altındaki ortalama cevap süresi "hızlı" sayılır
+     */
+    public SubmitRateController(double maxTps, long fastLatencyMs) {
+        this.enabled = maxTps > 0;
+        this.maxTps = enabled ? Math.max(MIN_TPS, maxTps) : 0;
+        this.allowedTps = this.maxTps;
+        this.increasePerSecond = Math.max(MIN_TPS, this.maxTps / 20.0);
+        this.fastLatencyNanos = TimeUnit.MILLISECONDS.toNanos(fastLatencyMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Şu an izin verilen hız (saniyede submit); kontrol kapalıysa 0 (sınırsız). */
+    public double getAllowedTps() {
+        return allowedTps;
+    }
+
+    /** submit_sm_resp gecikmesinin üssel ortalaması (ms); henüz cevap yoksa -1. */
+    public double getLatencyEwmaMs() {
+        double v = latencyEwmaNanos;
+        return v < 0 ? -1 : v / 1_000_000.0;
+    }
+
+    /**
+     * Bir sonraki gönderim slotunu ayırır ve zamanı gelene kadar bekler.
+     *
+     * @return slot timeoutMs içinde geliyorsa true; gelmiyorsa hiç beklemeden false
+     */
+    public boolean acquire(long timeoutMs) throws InterruptedException {
+        if (!enabled) return true;
+
+        long interval = (long) (1_000_000_000L / allowedTps);
+        long now = System.nanoTime();
+        long slot;
+        while (true) {
+            long next = nextSendNanos.get();
+            slot = Math.max(now, next);
+            if (slot - now > TimeUnit.MILLISECONDS.toNanos(timeoutMs)) return false;
+            if (nextSendNanos.compareAndSet(next, slot + interval)) break;
+        }
+
+        long wait;
+        while ((wait = slot - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+            if (Thread.interrupted()) throw new InterruptedException();
+        }
+        return true;
+    }
+
+    /** submit_sm_resp geldiğinde çağrılır. */
+    public void onResponse(int commandStatus, long latencyNanos) {
+        double prev = latencyEwmaNanos;
+        latencyEwmaNanos = prev < 0 ? latencyNanos : prev + EWMA_ALPHA * (latencyNanos - prev);
+
+        if (!enabled) return;
+
+        if (commandStatus == ESME_RTHROTTLED || commandStatus == ESME_RMSGQFUL) {
+            decrease();
+        } else if (commandStatus == 0 && latencyEwmaNanos < fastLatencyNanos) {
+            increase();
+        }
+    }
+
+    /** Cevap gelmeden timeout olan submit: SMSC tıkanmış kabul edilir. */
+    public void onTimeout() {
+        if (enabled) decrease();
+    }
+
+    private synchronized void decrease() {
+        long now = System.nanoTime();
+        // son düşüşten beri bir cevap süresi geçmediyse aynı tıkanmanın devamıdır
+        long cooldown = Math.max(fastLatencyNanos, (long) Math.max(0, latencyEwmaNanos));
+        if (lastDecreaseNanos != 0 && now - lastDecreaseNanos < cooldown) return;
+
+        lastDecreaseNanos = now;
+        allowedTps = Math.max(MIN_TPS, allowedTps * DECREASE_FACTOR);
+    }
+
+    private synchronized void increase() {
+        double cur = allowedTps;
+        if (cur >= maxTps) return;
+        // her başarılı cevapta increasePerSecond / cur: saniyede ~increasePerSecond artış
+        allowedTps = Math.min(maxTps, cur + increasePerSecond / cur);
+    }
+}
@@ -0,0 +1,123 @@
+package com.mycompany.smppclient.socket;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bağlantı başına sınırlı kapasiteli çıkış kuyruğu.
+ * Birden çok thread {@link #offer} yapar (MPSC); tek yazıcı (event loop thread'i)
+ * {@link #writeTo} ile bekleyen PDU'ları tek bir gathering write ile gönderir.
+ * Kuyruk doluyken {@link #offer} false döner, {@link #awaitSpace} ise yer açılana kadar bekler.
+ */
+final class OutboundQueue {
+
+    private final ConcurrentLinkedQueue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    // sadece yazıcı thread kullanır
+    private final ByteBuffer[] batch;
+
+    private final Object spaceLock = new Object();
+    private volatile int waiters;
+
+    OutboundQueue(int capacity, int maxBatch) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1: " + capacity);
+        if (maxBatch < 1) throw new IllegalArgumentException("maxBatch must be >= 1: " + maxBatch);
+        this.capacity = capacity;
+        this.batch = new ByteBuffer[maxBatch];
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    /** Kapasite doluysa eklemez ve false döner (backpressure sinyali). */
+    boolean offer(ByteBuffer buf) {
+        while (true) {
+            int cur = size.get();
+            if (cur >= capacity) return false;
+            if (size.compareAndSet(cur, cur + 1)) break;
+        }
+        queue.offer(buf);
+        return true;
+    }
+
+    /** Kuyrukta yer açılana kadar en fazla timeoutMs bekler; yer varsa true. */
+    boolean awaitSpace(long timeoutMs) throws InterruptedException {
+        if (size.get() < capacity) return true;
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        synchronized (spaceLock) {
+            waiters++;
+            try {
+                while (size.get() >= capacity) {
+                    long leftMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (leftMs <= 0) return false;
+                    spaceLock.wait(leftMs);
+                }
+                return true;
+            } finally {
+                waiters--;
+            }
+        }
+    }
+
+    /**
+     * Bekleyen PDU'ları maxBatch'lik gruplar halinde tek write çağrısıyla yazar.
+     *
+     * @return kuyruk tamamen boşaldıysa true; socket buffer dolduysa (kalan var) false
+     */
+    boolean writeTo(GatheringByteChannel ch) throws IOException {
+        try {
+            while (true) {
+                int n = 0;
+                Iterator<ByteBuffer> it = queue.iterator();
+                while (n < batch.length && it.hasNext()) {
+                    batch[n++] = it.next();
+                }
+                if (n == 0) return true;
+
+                ch.write(batch, 0, n);
+
+                int done = 0;
+                while (done < n && !batch[done].hasRemaining()) {
+                    queue.poll();
+                    done++;
+                }
+                if (done > 0) released(done);
+                if (done < n) return false;
+            }
+        } finally {
+            java.util.Arrays.fill(batch, null);
+        }
+    }
+
+    void clear() {
+        int n = 0;
+        while (queue.poll() != null) n++;
+        if (n > 0) released(n);
+    }
+
+    private void released(int n) {
+        size.addAndGet(-n);
+        if (waiters > 0) {
+            synchronized (spaceLock) {
+                spaceLock.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.mycompany.smppclient.socket;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Tekrar kullanılan tek bir okuma buffer'ı üzerinde SMPP PDU sınırlarını bulur.
+ * <p>
+ * Kanal doğrudan {@link #writableBuffer()} içine okur; {@link #drain(Consumer)} tam PDU'ları
+ * kopyalamadan slice olarak verir ve sadece yarım kalan son PDU'nun byte'larını başa taşır.
+ * Verilen slice'lar yalnızca callback süresince geçerlidir (sonra buffer compact edilir).
+ * <p>
+ * command_length, {@code maxPduLength}'ten büyükse {@link IOException} fırlatılır; bozuk bir
+ * length alanı büyük bir allocation'a yol açamaz. Thread-safe değildir (tek reader thread).
+ */
+public final class PduFramer {
+
+    private static final int HEADER_LEN = 16;
+
+    private final int maxPduLength;
+    private final boolean direct;
+
+    // okumalar arasında "write" modunda: position = dolu byte sayısı
+    private ByteBuffer buf;
+
+    public PduFramer(int initialCapacity, int maxPduLength, boolean direct) {
+        if (maxPduLength < HEADER_LEN) throw new IllegalArgumentException("maxPduLength must be >= 16: " + maxPduLength);
+        this.maxPduLength = maxPduLength;
+        this.direct = direct;
+        this.buf = allocate(Math.max(HEADER_LEN, Math.min(initialCapacity, maxPduLength)));
+    }
+
+    /** Kanaldan okunacak alan (position..limit boş kısım). */
+    public ByteBuffer writableBuffer() {
+        return buf;
+    }
+
+    public int capacity() {
+        return buf.capacity();
+    }
+
+    /** Henüz tam bir PDU'ya dönüşmemiş bekleyen byte sayısı. */
+    public int buffered() {
+        return buf.position();
+    }
+
+    /**
+     * Buffer'daki tüm tam PDU'ları sırayla {@code sink}'e verir.
+     *
+     * @throws IOException command_length 16'dan küçük veya maxPduLength'ten büyükse
+     */
+    public void drain(Consumer<ByteBuffer> sink) throws IOException {
+        buf.flip();
+        int needed = 0;
+        try {
+            while (buf.remaining() >= 4) {
+                int start = buf.position();
+                int pduLen = buf.getInt(start);
+                if (pduLen < HEADER_LEN || pduLen > maxPduLength) {
+                    throw new IOException("Invalid SMPP PDU length: " + pduLen + " (max " + maxPduLength + ")");
+                }
+                if (buf.remaining() < pduLen) {
+                    needed = pduLen;
+                    break;
+                }
+
+                ByteBuffer pdu = buf.slice(start, pduLen);
+                buf.position(start + pduLen);
+                sink.accept(pdu);
+            }
+        } finally {
+            buf.compact();
+        }
+
+        if (needed > buf.capacity()) {
+            grow(needed);
+        }
+    }
+
+    /** Yarım kalan PDU mevcut kapasiteye sığmıyorsa (en fazla maxPduLength'e kadar) büyüt. */
+    private void grow(int needed) {
+        int cap = buf.capacity();
+        while (cap < needed) cap = Math.min(maxPduLength, cap * 2);
+
+        ByteBuffer bigger = allocate(cap);
+        buf.flip();
+        bigger.put(buf);
+        buf = bigger;
+    }
+
+    private ByteBuffer allocate(int cap) {
+        return direct ? ByteBuffer.allocateDirect(cap) : ByteBuffer.allocate(cap);
+    }
+}
@@ -0,0 +1,206 @@
+package com.mycompany.smppclient.socket;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sabit sayıda selector thread'i: tüm {@link SmppSocketClient} bağlantıları bu loop'lara
+ * round-robin dağıtılır, böylece bind sayısı arttıkça thread sayısı artmaz.
+ * Ayrıca session'ların enquire_link gibi periyodik işleri için ortak bir timer sağlar.
+ */
+public final class SmppEventLoopGroup implements AutoCloseable {
+    private static final Logger log = LogManager.getLogger(SmppEventLoopGroup.class);
+
+    private static volatile SmppEventLoopGroup shared;
+
+    private final EventLoop[] loops;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService timer;
+
+    public SmppEventLoopGroup(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be >= 1: " + threads);
+        this.loops = new EventLoop[threads];
+        for (int i = 0; i < threads; i++) {
+            loops[i] = new EventLoop("smpp-io-" + i);
+        }
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "smpp-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** JVM genelinde paylaşılan grup: CPU sayısının yarısı kadar (1..4) IO thread'i. */
+    public static SmppEventLoopGroup shared() {
+        SmppEventLoopGroup g = shared;
+        if (g == null) {
+            synchronized (SmppEventLoopGroup.class) {
+                g = shared;
+                if (g == null) {
+                    int n = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+                    g = new SmppEventLoopGroup(n);
+                    shared = g;
+                }
+            }
+        }
+        return g;
+    }
+
+    /** Çağıran thread bir selector (IO) thread'i mi; bu thread'lerde bloklayan çağrı yapılmamalı. */
+    public static boolean inIoThread() {
+        return Thread.currentThread() instanceof IoThread;
+    }
+
+    public int size() {
+        return loops.length;
+    }
+
+    public ScheduledExecutorService timer() {
+        return timer;
+    }
+
+    EventLoop next() {
+        return loops[Math.floorMod(next.getAndIncrement(), loops.length)];
+    }
+
+    @Override
+    public void close() {
+        for (EventLoop l : loops) l.shutdown();
+        timer.shutdownNow();
+    }
+
+    /** Selector'a kayıtlı kanalın olay callback'leri; her zaman ilgili loop thread'inde çağrılır. */
+    interface ChannelHandler {
+        void onRegistered(SelectionKey key);
+        void onReadable();
+        void onWritable();
+    }
+
+    private static final class IoThread extends Thread {
+        IoThread(Runnable r, String name) {
+            super(r, name);
+        }
+    }
+
+    static final class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Thread thread;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private volatile boolean running = true;
+
+        EventLoop(String name) {
+            try {
+                this.selector = Selector.open();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Selector open failed", e);
+            }
+            this.thread = new IoThread(this, name);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        boolean inEventLoop() {
+            return Thread.currentThread() == thread;
+        }
+
+        /**
+         * Task'ı loop thread'inde çalıştırır. Loop thread'inin kendisinden eklenenler wakeup almaz;
+         * {@link #run()} onları callback'lerden sonra aynı turda çalıştırır.
+         */
+        void execute(Runnable task) {
+            tasks.offer(task);
+            if (!inEventLoop()) selector.wakeup();
+        }
+
+        /** Kanalı bu loop'un selector'ına kaydeder; kayıt bitene kadar bekler. */
+        void register(SocketChannel ch, int ops, ChannelHandler handler) throws IOException {
+            if (inEventLoop()) {
+                handler.onRegistered(ch.register(selector, ops, handler));
+                return;
+            }
+            CompletableFuture<Void> f = new CompletableFuture<>();
+            execute(() -> {
+                try {
+                    handler.onRegistered(ch.register(selector, ops, handler));
+                    f.complete(null);
+                } catch (Exception e) {
+                    f.completeExceptionally(e);
+                }
+            });
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("register interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IOException("register failed", e.getCause());
+            }
+        }
+
+        void shutdown() {
+            running = false;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select();
+                    runTasks();
+                    processSelectedKeys();
+                    // callback'lerin içinden eklenen task'lar (ör. okunan PDU'ya cevabın flush'ı) wakeup
+                    // almaz; bir sonraki olayı beklemeden burada çalışır
+                    runTasks();
+                } catch (Throwable t) {
+                    log.warn("Event loop error: {}", t.toString());
+                }
+            }
+            try { selector.close(); } catch (IOException ignored) {}
+        }
+
+        private void runTasks() {
+            Runnable r;
+            while ((r = tasks.poll()) != null) {
+                try {
+                    r.run();
+                } catch (Throwable t) {
+                    log.warn("Event loop task failed: {}", t.toString());
+                }
+            }
+        }
+
+        private void processSelectedKeys() {
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+            while (it.hasNext()) {
+                SelectionKey k = it.next();
+                it.remove();
+
+                ChannelHandler h = (ChannelHandler) k.attachment();
+                try {
+                    if (!k.isValid()) continue;
+                    int ready = k.readyOps();
+                    if ((ready & SelectionKey.OP_WRITE) != 0) h.onWritable();
+                    if (k.isValid() && (ready & SelectionKey.OP_READ) != 0) h.onReadable();
+                } catch (CancelledKeyException ignored) {
+                    // kanal başka thread'den kapatıldı
+                }
+            }
+        }
+    }
+}
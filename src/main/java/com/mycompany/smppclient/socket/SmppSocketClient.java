@@ -4,36 +4,44 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.InetSocketAddress;
-import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
 import java.util.Objects;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Non-blocking SMPP TCP bağlantısı. Okuma/yazma, {@link SmppEventLoopGroup} içindeki
+ * bir selector thread'i tarafından yapılır; bağlantı başına thread açılmaz.
+ * {@code onPduBytes} ve {@code onDisconnect} callback'leri o loop thread'inde çağrılır.
+ */
 public class SmppSocketClient implements AutoCloseable {
     private static final Logger log = LogManager.getLogger(SmppSocketClient.class);
 
+    // disconnect() sırasında kuyruktaki PDU'ların (ör: unbind) yazılması için beklenecek süre
+    private static final long CLOSE_DRAIN_TIMEOUT_MS = 1000;
+
     public interface BytesListener {
         void onBytesReceived(byte[] data, int length);
     }
 
     private final SmppSocketConfig config;
     private final BytesListener listener;
+    private final SmppEventLoopGroup group;
 
-    private final ExecutorService readerExecutor = Executors.newSingleThreadExecutor();
-    private final AtomicBoolean running = new AtomicBoolean(false);
-
-    private volatile Socket socket;
-    private volatile InputStream in;
-    private volatile OutputStream out;
+    private final AtomicReference<Connection> conn = new AtomicReference<>();
 
     private volatile String host;
     private volatile int port;
 
     private java.util.function.Consumer<byte[]> onPduBytes;
+    private java.util.function.Consumer<ByteBuffer> onPdu;
 
     private Runnable onDisconnect;
 
@@ -50,22 +58,43 @@ public class SmppSocketClient implements AutoCloseable {
     }
 
     public SmppSocketClient(SmppSocketConfig config, BytesListener listener) {
+        this(config, listener, SmppEventLoopGroup.shared());
+    }
+
+    public SmppSocketClient(SmppSocketConfig config, BytesListener listener, SmppEventLoopGroup group) {
         this.config = Objects.requireNonNull(config, "config");
         this.listener = listener;
+        this.group = Objects.requireNonNull(group, "group");
     }
 
+    public SmppEventLoopGroup getEventLoopGroup() {
+        return group;
+    }
+
+    /** Session'ların periyodik işleri için paylaşılan timer. */
+    public ScheduledExecutorService timer() {
+        return group.timer();
+    }
 
+    /** Her PDU için kopyalanmış bir byte[] verir. */
     public void setOnPduBytes(java.util.function.Consumer<byte[]> onPduBytes) {
         this.onPduBytes = onPduBytes;
     }
 
+    /**
+     * Her PDU'yu okuma buffer'ı üzerinde kopyasız bir slice olarak verir (position=0, limit=command_length).
+     * Slice sadece callback süresince geçerlidir; saklanacaksa kopyalanmalı.
+     */
+    public void setOnPdu(java.util.function.Consumer<ByteBuffer> onPdu) {
+        this.onPdu = onPdu;
+    }
+
     public synchronized boolean connect(String host, int port) {
         this.host = host;
         this.port = port;
 
         try {
             doConnect();
-            startReader();
             log.info("Connected to {}:{}", host, port);
             return true;
         } catch (Exception e) {
@@ -77,148 +106,105 @@ public class SmppSocketClient implements AutoCloseable {
 
 
     public synchronized void disconnect() {
-        running.set(false);
-        safeCloseSocket();
+        Connection c = conn.getAndSet(null);
+        if (c != null) c.closeGracefully(CLOSE_DRAIN_TIMEOUT_MS);
         log.info("Disconnected.");
     }
 
 
+    /**
+     * PDU'yu bağlantının çıkış kuyruğuna ekler; yazma işini loop thread'i yapar.
+     * Kuyruk doluysa en fazla writeTimeoutMs yer açılmasını bekler, açılmazsa
+     * IllegalStateException fırlatır. Yazma hatası olursa bağlantı kapatılır ve onDisconnect çağrılır.
+     */
     public void sendBytes(byte[] data) {
         Objects.requireNonNull(data, "data");
-        OutputStream localOut = this.out;
+        ByteBuffer buf = ByteBuffer.wrap(data);
 
-        if (localOut == null) {
-            throw new IllegalStateException("Not connected: output stream is null");
-        }
-
-        try {
-            localOut.write(data);
-            localOut.flush();
-        } catch (IOException e) {
-            log.warn("sendBytes failed: {}", e.toString());
+        while (true) {
+            Connection c = requireConnection();
+            if (c.offer(buf)) return;
 
-
-            running.set(false);
-            safeCloseSocket();
-
-            Runnable cb = onDisconnect;
-            if (cb != null) {
-                try { cb.run(); } catch (Exception ex) { log.warn("onDisconnect callback failed: {}", ex.toString()); }
+            // loop thread'i kendi kuyruğunu bekleyemez: elindekini yazmayı dene, yine doluysa hata
+            if (c.loop.inEventLoop()) {
+                c.flush();
+                if (c.offer(buf)) return;
+                throw new IllegalStateException("Write queue full (capacity=" + c.outbound.capacity() + ")");
             }
 
-            throw new RuntimeException("sendBytes failed", e);
+            try {
+                if (!c.outbound.awaitSpace(config.getWriteTimeoutMs())) {
+                    throw new IllegalStateException("Write queue full (capacity=" + c.outbound.capacity() + ")");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for write queue", e);
+            }
         }
     }
 
+    /** Beklemeden göndermeyi dener; çıkış kuyruğu doluysa false döner (backpressure). */
+    public boolean trySendBytes(byte[] data) {
+        Objects.requireNonNull(data, "data");
+        return requireConnection().offer(ByteBuffer.wrap(data));
+    }
 
-    private void startReader() {
-        if (running.getAndSet(true)) return;
-
-        readerExecutor.submit(() -> {
-            byte[] readBuf = new byte[4096];
-
-            java.io.ByteArrayOutputStream acc = new java.io.ByteArrayOutputStream();
-
-            while (running.get()) {
-                try {
-                    InputStream localIn = this.in;
-                    if (localIn == null) {
-                        break;
-                    }
-                    int n = localIn.read(readBuf);
-                    if (n == -1) throw new IOException("Remote closed connection (read=-1)");
-
-                    acc.write(readBuf, 0, n);
-
-                    byte[] buf = acc.toByteArray();
-                    int offset = 0;
-
-                    while (true) {
-                        if (buf.length - offset < 4) break;
-
-                        int pduLen = readIntBE(buf, offset);
-                        if (pduLen < 16) throw new IOException("Invalid SMPP PDU length: " + pduLen);
-
-                        if (buf.length - offset < pduLen) break;
-
-                        byte[] onePdu = new byte[pduLen];
-                        System.arraycopy(buf, offset, onePdu, 0, pduLen);
-                        offset += pduLen;
-
-                        log.info("[SOCKET] RX raw PDU len={} cmdId=0x{} seq={} hex={}",
-                                pduLen,
-                                String.format("%08X", readIntBE(onePdu, 4)),
-                                readIntBE(onePdu, 12),
-                                toHex(onePdu)
-                        );
-
-
-                        if (onPduBytes != null) {
-                            onPduBytes.accept(onePdu);
-                        }
-
-                    }
-
-                    java.io.ByteArrayOutputStream next = new java.io.ByteArrayOutputStream();
-                    if (offset < buf.length) {
-                        next.write(buf, offset, buf.length - offset);
-                    }
-                    acc = next;
-
-                } catch (java.net.SocketTimeoutException timeout) {
-                    log.debug("Read timeout (no data) - continuing...");
-                } catch (Exception e) {
-                    if (!running.get()) break;
-
-                    log.warn("Reader loop error: {}. stopping reader.", e.toString());
+    /** Çıkış kuyruğunda yer var mı. */
+    public boolean isWritable() {
+        Connection c = conn.get();
+        return c != null && !c.closed && c.outbound.size() < c.outbound.capacity();
+    }
 
-                    running.set(false);
-                    safeCloseSocket();
+    /** Henüz socket'e yazılmamış PDU sayısı. */
+    public int getPendingWriteCount() {
+        Connection c = conn.get();
+        return c == null ? 0 : c.outbound.size();
+    }
 
-                    Runnable cb = onDisconnect;
-                    if (cb != null) {
-                        try { cb.run(); } catch (Exception ex) { log.warn("onDisconnect callback failed: {}", ex.toString()); }
-                    }
-                    break;
-                }
-            }
-        });
+    private Connection requireConnection() {
+        Connection c = conn.get();
+        if (c == null || c.closed) {
+            throw new IllegalStateException("Not connected: channel is closed");
+        }
+        return c;
     }
 
 
     private void doConnect() throws IOException {
-        Socket s = new Socket();
-        s.connect(new InetSocketAddress(host, port), config.getConnectTimeoutMs());
-        s.setSoTimeout(config.getReadTimeoutMs());
-
-        this.socket = s;
-        this.in = s.getInputStream();
-        this.out = s.getOutputStream();
+        SocketChannel ch = SocketChannel.open();
+        try {
+            // connect blocking + timeout, sonra non-blocking moda geçip selector'a kaydet
+            ch.socket().connect(new InetSocketAddress(host, port), config.getConnectTimeoutMs());
+            ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            ch.configureBlocking(false);
+
+            Connection c = new Connection(ch, group.next());
+            // kayıttan önce yayınlanır: register sırasında okunan PDU'ya callback'ten cevap yazılabilsin.
+            // Arada gelen sendBytes'ın flush'ı key'siz çalışır, OP_WRITE'ı onRegistered ekler.
+            conn.set(c);
+            c.loop.register(ch, SelectionKey.OP_READ, c);
+        } catch (IOException e) {
+            try { ch.close(); } catch (IOException ignored) {}
+            throw e;
+        }
     }
 
 
     private void safeCloseSocket() {
-        try { if (in != null) in.close(); } catch (Exception ignored) {}
-        try { if (out != null) out.close(); } catch (Exception ignored) {}
-        try { if (socket != null) socket.close(); } catch (Exception ignored) {}
-
-        in = null;
-        out = null;
-        socket = null;
+        Connection c = conn.getAndSet(null);
+        if (c != null) c.close();
     }
 
     public synchronized void reconnect(String host, int port) {
         this.host = host;
         this.port = port;
 
-        // reader dur
-        running.set(false);
+        // eski bağlantıyı kapat
         safeCloseSocket();
 
         // tekrar bağlan
         try {
             doConnect();
-            startReader();
             log.info("Reconnected (manual) to {}:{}", host, port);
         } catch (Exception e) {
             log.error("Manual reconnect failed to {}:{} - {}", host, port, e.toString());
@@ -227,25 +213,162 @@ public class SmppSocketClient implements AutoCloseable {
         }
     }
 
-    private static String toHex(byte[] b) {
-        StringBuilder sb = new StringBuilder(b.length * 2);
-        for (byte x : b) sb.append(String.format("%02X", x));
+    private static String toHex(ByteBuffer b) {
+        StringBuilder sb = new StringBuilder(b.remaining() * 2);
+        for (int i = b.position(); i < b.limit(); i++) sb.append(String.format("%02X", b.get(i)));
         return sb.toString();
     }
 
-
-
-    private static int readIntBE(byte[] b, int off) {
-        return ((b[off] & 0xFF) << 24) |
-                ((b[off + 1] & 0xFF) << 16) |
-                ((b[off + 2] & 0xFF) << 8) |
-                (b[off + 3] & 0xFF);
-    }
-
     @Override
     public void close() {
         disconnect();
-        readerExecutor.shutdownNow();
+    }
+
+    /** Tek bir TCP bağlantısının durumu; reconnect'te yenisi oluşturulur. */
+    private final class Connection implements SmppEventLoopGroup.ChannelHandler {
+        final SocketChannel ch;
+        final SmppEventLoopGroup.EventLoop loop;
+        volatile SelectionKey key;
+        volatile boolean closed;
+
+        private final PduFramer framer = new PduFramer(
+                config.getReadBufferSize(), config.getMaxPduLength(), config.isDirectReadBuffer());
+
+        final OutboundQueue outbound = new OutboundQueue(config.getWriteQueueCapacity(), config.getWriteBatchSize());
+        private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+        private volatile CompletableFuture<Void> drained;
+
+        Connection(SocketChannel ch, SmppEventLoopGroup.EventLoop loop) {
+            this.ch = ch;
+            this.loop = loop;
+        }
+
+        @Override
+        public void onRegistered(SelectionKey key) {
+            this.key = key;
+            // kayıttan önceki flush socket'e sığmadıysa devamı OP_WRITE ile
+            if (outbound.size() > 0) key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+
+        boolean offer(ByteBuffer buf) {
+            if (!outbound.offer(buf)) return false;
+            // zaten planlanmış bir flush varsa yeni task yok: ardışık PDU'lar tek write'ta birleşir
+            if (flushScheduled.compareAndSet(false, true)) {
+                loop.execute(this::flush);
+            }
+            return true;
+        }
+
+        void flush() {
+            flushScheduled.set(false);
+            if (closed) return;
+            try {
+                if (!outbound.writeTo(ch)) {
+                    // socket buffer dolu: OP_WRITE ile devam (kayıt henüz bitmediyse onRegistered ekler)
+                    SelectionKey k = key;
+                    if (k != null) k.interestOps(k.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+                SelectionKey k = key;
+                if (k != null && (k.interestOps() & SelectionKey.OP_WRITE) != 0) {
+                    k.interestOps(k.interestOps() & ~SelectionKey.OP_WRITE);
+                }
+                CompletableFuture<Void> d = drained;
+                if (d != null) d.complete(null);
+            } catch (Exception e) {
+                log.warn("sendBytes failed: {}", e.toString());
+                failed();
+            }
+        }
+
+        @Override
+        public void onWritable() {
+            flush();
+        }
+
+        @Override
+        public void onReadable() {
+            try {
+                int n = ch.read(framer.writableBuffer());
+                if (n == -1) throw new IOException("Remote closed connection (read=-1)");
+                if (n == 0) return;
+
+                framer.drain(this::deliver);
+
+            } catch (Exception e) {
+                if (closed) return;
+                log.warn("Reader loop error: {}. stopping reader.", e.toString());
+                failed();
+            }
+        }
+
+        private void deliver(ByteBuffer pdu) {
+            if (closed) return;
+
+            if (log.isDebugEnabled()) {
+                log.debug("[SOCKET] RX raw PDU len={} cmdId=0x{} seq={} hex={}",
+                        pdu.limit(),
+                        String.format("%08X", pdu.getInt(4)),
+                        pdu.getInt(12),
+                        toHex(pdu)
+                );
+            }
+
+            java.util.function.Consumer<ByteBuffer> sliceCb = onPdu;
+            if (sliceCb != null) {
+                sliceCb.accept(pdu.duplicate());
+            }
+
+            java.util.function.Consumer<byte[]> cb = onPduBytes;
+            if (cb != null) {
+                byte[] onePdu = new byte[pdu.remaining()];
+                pdu.get(pdu.position(), onePdu);
+                cb.accept(onePdu);
+            }
+        }
+
+        /** IO hatası: bağlantıyı kapat, hâlâ aktif bağlantıysa onDisconnect'i tetikle. */
+        private void failed() {
+            if (closed) return;
+            close();
+
+            // disconnect()/reconnect() ile zaten değiştirildiyse callback yok
+            if (!conn.compareAndSet(this, null)) return;
+
+            Runnable cb = onDisconnect;
+            if (cb != null) {
+                try { cb.run(); } catch (Exception ex) { log.warn("onDisconnect callback failed: {}", ex.toString()); }
+            }
+        }
+
+        /** Kuyrukta bekleyenleri (en fazla timeoutMs) yazdıktan sonra kapatır. */
+        void closeGracefully(long timeoutMs) {
+            if (closed) return;
+            if (loop.inEventLoop()) {
+                flush();
+            } else {
+                CompletableFuture<Void> d = new CompletableFuture<>();
+                drained = d;
+                loop.execute(this::flush);
+                try {
+                    d.get(timeoutMs, TimeUnit.MILLISECONDS);
+                } catch (Exception e) {
+                    log.debug("Outbound drain not completed before close: {}", e.toString());
+                }
+            }
+            close();
+        }
+
+        void close() {
+            closed = true;
+            SelectionKey k = key;
+            if (k != null) k.cancel();
+            try { ch.close(); } catch (Exception ignored) {}
+            outbound.clear();
+
+            CompletableFuture<Void> d = drained;
+            if (d != null) d.complete(null);
+        }
     }
 
 }
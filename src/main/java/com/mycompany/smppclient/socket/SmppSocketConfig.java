@@ -1,22 +1,62 @@
 package com.mycompany.smppclient.socket;
 
 public class SmppSocketConfig {
+    public static final int DEFAULT_READ_BUFFER_SIZE = 16 * 1024;
+    public static final int DEFAULT_MAX_PDU_LENGTH = 64 * 1024;
+    public static final int DEFAULT_WRITE_QUEUE_CAPACITY = 1024;
+    public static final int DEFAULT_WRITE_BATCH_SIZE = 64;
+    public static final int DEFAULT_WRITE_TIMEOUT_MS = 5000;
+
     private final int connectTimeoutMs;
     private final int readTimeoutMs;
     private final int maxReconnectAttempts;
     private final int reconnectBackoffMs;
+    private final int readBufferSize;
+    private final int maxPduLength;
+    private final boolean directReadBuffer;
+    private final int writeQueueCapacity;
+    private final int writeBatchSize;
+    private final int writeTimeoutMs;
 
     public SmppSocketConfig(int connectTimeoutMs, int readTimeoutMs, int maxReconnectAttempts, int reconnectBackoffMs) {
+        this(connectTimeoutMs, readTimeoutMs, maxReconnectAttempts, reconnectBackoffMs,
+                DEFAULT_READ_BUFFER_SIZE, DEFAULT_MAX_PDU_LENGTH, false,
+                DEFAULT_WRITE_QUEUE_CAPACITY, DEFAULT_WRITE_BATCH_SIZE, DEFAULT_WRITE_TIMEOUT_MS);
+    }
+
+    /**
+     * @param readBufferSize   bağlantı başına okuma buffer'ının başlangıç boyutu
+     * @param maxPduLength     kabul edilen en büyük command_length; aşılırsa bağlantı kapatılır
+     * @param directReadBuffer okuma buffer'ı heap dışında (direct) mı olsun
+     * @param writeQueueCapacity yazılmayı bekleyebilecek en fazla PDU sayısı
+     * @param writeBatchSize   tek gathering write'ta gönderilecek en fazla PDU sayısı
+     * @param writeTimeoutMs   çıkış kuyruğu doluyken sendBytes'ın yer açılmasını bekleyeceği süre
+     */
+    public SmppSocketConfig(int connectTimeoutMs, int readTimeoutMs, int maxReconnectAttempts, int reconnectBackoffMs,
+                            int readBufferSize, int maxPduLength, boolean directReadBuffer,
+                            int writeQueueCapacity, int writeBatchSize, int writeTimeoutMs) {
         this.connectTimeoutMs = connectTimeoutMs;
         this.readTimeoutMs = readTimeoutMs;
         this.maxReconnectAttempts = maxReconnectAttempts;
         this.reconnectBackoffMs = reconnectBackoffMs;
+        this.readBufferSize = readBufferSize;
+        this.maxPduLength = maxPduLength;
+        this.directReadBuffer = directReadBuffer;
+        this.writeQueueCapacity = writeQueueCapacity;
+        this.writeBatchSize = writeBatchSize;
+        this.writeTimeoutMs = writeTimeoutMs;
     }
 
     public int getConnectTimeoutMs() { return connectTimeoutMs; }
     public int getReadTimeoutMs() { return readTimeoutMs; }
     public int getMaxReconnectAttempts() { return maxReconnectAttempts; }
     public int getReconnectBackoffMs() { return reconnectBackoffMs; }
+    public int getReadBufferSize() { return readBufferSize; }
+    public int getMaxPduLength() { return maxPduLength; }
+    public boolean isDirectReadBuffer() { return directReadBuffer; }
+    public int getWriteQueueCapacity() { return writeQueueCapacity; }
+    public int getWriteBatchSize() { return writeBatchSize; }
+    public int getWriteTimeoutMs() { return writeTimeoutMs; }
 
     public static SmppSocketConfig defaults() {
         return new SmppSocketConfig(
@@ -0,0 +1,102 @@
+package com.mycompany.smppclient.bench;
+
+import com.mycompany.smppclient.pdu.Pdu;
+import com.mycompany.smppclient.pdu.SubmitSmResp;
+import com.mycompany.smppclient.session.PendingRequestRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Submit başına korelasyon maliyeti: register + ek bilgi bağlama + cevapta okuma + complete.
+ * <p>
+ * {@code maps}: eski yapı (ConcurrentHashMap&lt;Integer, future&gt; + "sessionId#seq" String key'li map),
+ * {@code slotTable}: PendingRequestRegistry. Her iki durumda da {@code window} kadar request açıkta tutulur.
+ * <p>
+ * Çalıştırma: {@code mvn test-compile} sonrası test classpath'i ile
+ * {@code java org.openjdk.jmh.Main CorrelationTableBenchmark} veya IDE'den {@link #main}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CorrelationTableBenchmark {
+
+    @Param({"100", "1000"})
+    int window;
+
+    private static final String SESSION_ID = "sess-1";
+    private static final Pdu RESP = new SubmitSmResp();
+    private static final Object ATTACHMENT = new Object();
+
+    private ConcurrentHashMap<Integer, CompletableFuture<Pdu>> futures;
+    private ConcurrentHashMap<String, Object> attachments;
+
+    private ScheduledExecutorService timer;
+    private PendingRequestRegistry registry;
+
+    private int seq;
+
+    @Setup
+    public void setup() {
+        futures = new ConcurrentHashMap<>();
+        attachments = new ConcurrentHashMap<>();
+        timer = Executors.newSingleThreadScheduledExecutor();
+        registry = new PendingRequestRegistry(timer, window * 4 + 64);
+
+        // pencere dolu başlasın: her ölçümde en eski cevap gelir, yeni submit açılır
+        for (seq = 1; seq <= window; seq++) {
+            futures.put(seq, new CompletableFuture<>());
+            attachments.put(SESSION_ID + "#" + seq, ATTACHMENT);
+            registry.register(seq);
+            registry.attach(seq, ATTACHMENT);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        registry.close();
+        timer.shutdownNow();
+    }
+
+    @Benchmark
+    public Object maps() {
+        int s = seq++;
+        CompletableFuture<Pdu> f = new CompletableFuture<>();
+        futures.put(s, f);
+        attachments.put(SESSION_ID + "#" + s, ATTACHMENT);
+
+        int old = s - window;
+        Object a = attachments.remove(SESSION_ID + "#" + old);
+        futures.remove(old).complete(RESP);
+        return a;
+    }
+
+    @Benchmark
+    public Object slotTable() {
+        int s = seq++;
+        registry.register(s);
+        registry.attach(s, ATTACHMENT);
+
+        int old = s - window;
+        Object a = registry.attachment(old);
+        registry.complete(old, RESP);
+        return a;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(CorrelationTableBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
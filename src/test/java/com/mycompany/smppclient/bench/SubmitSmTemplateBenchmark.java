@@ -0,0 +1,103 @@
+package com.mycompany.smppclient.bench;
+
+import com.mycompany.smppclient.pdu.SubmitSmReq;
+import com.mycompany.smppclient.pdu.encoder.PduEncoder;
+import com.mycompany.smppclient.pdu.encoder.SubmitSmTemplate;
+import com.mycompany.smppclient.pdu.encoding.Gsm7Codec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kampanyada alıcı başına submit_sm encode maliyeti (tek parçalı TR single-shift mesaj).
+ * <p>
+ * {@code perRecipient}: eski yol (temel istekten kopya + Gsm7Codec.encodeUnpacked + UDH + PduEncoder.encode),
+ * {@code template}: SubmitSmTemplate.encode (yeni byte[]), {@code templateEncodeTo}: aynı şablon, tekrar
+ * kullanılan buffer'a (allocation yok).
+ * <p>
+ * Çalıştırma: {@code mvn test-compile} sonrası test classpath'i ile
+ * {@code java org.openjdk.jmh.Main SubmitSmTemplateBenchmark} veya IDE'den {@link #main}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SubmitSmTemplateBenchmark {
+
+    private static final String TEXT = "Sayın müşterimiz, kampanyamız 31 Ekim'e kadar geçerlidir. Detay: ornek.com/k";
+    private static final byte[] UDH_TR = {0x03, 0x24, 0x01, 0x01};
+
+    private final PduEncoder encoder = new PduEncoder();
+    private final ByteBuffer out = ByteBuffer.allocateDirect(512);
+
+    private SubmitSmReq base;
+    private SubmitSmTemplate template;
+    private String[] recipients;
+    private int i;
+
+    @Setup
+    public void setup() {
+        base = new SubmitSmReq();
+        base.setSourceAddrTon((byte) 5);
+        base.setSourceAddr("NETTEST");
+        base.setDestAddrTon((byte) 1);
+        base.setDestAddrNpi((byte) 1);
+        base.setRegisteredDelivery((byte) 1);
+
+        SubmitSmReq t = copy(base);
+        t.setEsmClass((byte) 0x40);
+        t.setShortMessage(Gsm7Codec.withUdh(UDH_TR, Gsm7Codec.encodeUnpacked(TEXT)));
+        template = new SubmitSmTemplate(t, encoder);
+
+        recipients = new String[1024];
+        for (int k = 0; k < recipients.length; k++) recipients[k] = "90555" + (1000000 + k * 7919);
+    }
+
+    private String nextRecipient() {
+        return recipients[i++ & (recipients.length - 1)];
+    }
+
+    @Benchmark
+    public byte[] perRecipient() {
+        SubmitSmReq req = copy(base);
+        req.setDestinationAddr(nextRecipient());
+        req.setEsmClass((byte) 0x40);
+        req.setShortMessage(Gsm7Codec.withUdh(UDH_TR, Gsm7Codec.encodeUnpacked(TEXT)));
+        req.setSequenceNumber(i);
+        return encoder.encode(req);
+    }
+
+    @Benchmark
+    public byte[] template() {
+        return template.encode(nextRecipient(), i);
+    }
+
+    @Benchmark
+    public int templateEncodeTo() {
+        out.clear();
+        return template.encodeTo(nextRecipient(), i, out);
+    }
+
+    private static SubmitSmReq copy(SubmitSmReq src) {
+        SubmitSmReq r = new SubmitSmReq();
+        r.setSourceAddrTon(src.getSourceAddrTon());
+        r.setSourceAddr(src.getSourceAddr());
+        r.setDestAddrTon(src.getDestAddrTon());
+        r.setDestAddrNpi(src.getDestAddrNpi());
+        r.setRegisteredDelivery(src.getRegisteredDelivery());
+        return r;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(SubmitSmTemplateBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
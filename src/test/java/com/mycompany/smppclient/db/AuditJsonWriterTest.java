@@ -0,0 +1,54 @@
+package com.mycompany.smppclient.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditJsonWriterTest {
+
+    @Test
+    void escapesQuotesBackslashAndControlChars() {
+        String json = AuditJsonWriter.toJson(out -> out.field("e", "a\"b\\c\n\r\t\b\f\u0001\u001F"));
+        assertEquals("{\"e\":\"a\\\"b\\\\c\\n\\r\\t\\b\\f\\u0001\\u001F\"}", json);
+    }
+
+    @Test
+    void nulAndLoneSurrogate_becomeReplacementChar_validUtf8Otherwise() {
+        String json = AuditJsonWriter.toJson(out -> out
+                .field("nul", "x\u0000y")
+                .field("lone", "\uD83D!")
+                .field("tr", "çğış €")
+                .field("emoji", "😀"));
+        assertEquals("{\"nul\":\"x�y\",\"lone\":\"�!\",\"tr\":\"çğış €\",\"emoji\":\"😀\"}", json);
+    }
+
+    @Test
+    void numbersHexNullAndMapFallback() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("i", -42);
+        m.put("l", Long.MIN_VALUE);
+        m.put("b", true);
+        m.put("d", Double.NaN);
+        m.put("n", null);
+        AuditJsonWriter w = new AuditJsonWriter(16);
+        assertTrue(w.encode(AuditFields.of(m)));
+        assertEquals("{\"i\":-42,\"l\":-9223372036854775808,\"b\":true,\"d\":null,\"n\":null}", w.toString());
+
+        assertTrue(w.encode(out -> out.field("z", 0).hexField("h", new byte[]{0x0A, (byte) 0xFF}).hexField("e", null)));
+        assertEquals("{\"z\":0,\"h\":\"0AFF\",\"e\":\"\"}", w.toString());
+
+        assertFalse(w.encode(null));
+        assertEquals(0, w.length());
+    }
+
+    @Test
+    void preEncodedObject_isSplicedAsFields() {
+        byte[] obj = "{\"a\":1,\"b\":\"x\"}".getBytes(StandardCharsets.UTF_8);
+        assertEquals("{\"a\":1,\"b\":\"x\"}", AuditJsonWriter.toJson(AuditFields.json(obj)));
+        assertEquals("{}", AuditJsonWriter.toJson(AuditFields.json("{}".getBytes(StandardCharsets.UTF_8))));
+    }
+}
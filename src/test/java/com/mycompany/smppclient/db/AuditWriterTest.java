@@ -0,0 +1,315 @@
+package com.mycompany.smppclient.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditWriterTest {
+
+    /** DB yerine id dağıtan, yazılanları bellekte tutan sink. */
+    static class FakeSink implements AuditWriter.Sink {
+        final AtomicLong ids = new AtomicLong();
+        final List<Integer> batchSizes = new ArrayList<>();
+        final List<AuditWriter.PduLog> logs = new ArrayList<>();
+        final List<AuditWriter.Submit> submits = new ArrayList<>();
+        final List<AuditWriter.Deliver> delivers = new ArrayList<>();
+        /** yazıldığı andaki submit_log_id (DAO'nun setLogId'si gibi) */
+        final List<Long> submitLogIds = new ArrayList<>();
+        volatile CountDownLatch gate;
+        volatile boolean down;
+        /** bu message_id'li submit veri hatası verir (ör. kolon sınırı) */
+        volatile String poison;
+
+        @Override
+        public synchronized void write(List<AuditWriter.PduLog> l, List<AuditWriter.Submit> s,
+                                       List<AuditWriter.Deliver> d) throws java.sql.SQLException {
+            CountDownLatch g = gate;
+            if (g != null) {
+                try {
+                    g.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new java.sql.SQLException(e);
+                }
+            }
+            if (down) throw new java.sql.SQLException("connection refused", "08001");
+            for (AuditWriter.Submit r : s) {
+                if (r.messageId.equals(poison)) throw new java.sql.SQLException("value too long", "22001");
+            }
+            // schema.sql: message_id UNIQUE; ihlalde transaction'daki her şey geri alınır
+            java.util.Set<String> mids = new java.util.HashSet<>();
+            for (AuditWriter.Submit r : submits) mids.add(r.messageId);
+            for (AuditWriter.Submit r : s) {
+                if (!mids.add(r.messageId)) throw new java.sql.SQLException("duplicate message_id", "23505");
+            }
+            batchSizes.add(l.size() + s.size() + d.size());
+            for (AuditWriter.PduLog r : l) { r.id = ids.incrementAndGet(); logs.add(r); }
+            for (AuditWriter.Submit r : s) {
+                r.id = ids.incrementAndGet();
+                submits.add(r);
+                submitLogIds.add(r.submitLog == null ? -1 : r.submitLog.getId());
+            }
+            delivers.addAll(d);
+        }
+    }
+
+    private static AuditWriter.PduLog log(AuditWriter w, int seq) {
+        return w.logPdu(SmppDao.Direction.OUT, "SubmitSmReq", 4, 0, seq, new byte[]{0, 0, 0, 16}, null);
+    }
+
+    private static void waitWritten(AuditWriter w, long n) throws InterruptedException {
+        long t0 = System.currentTimeMillis();
+        while (w.getWrittenCount() < n && System.currentTimeMillis() - t0 < 3000) Thread.sleep(5);
+        assertEquals(n, w.getWrittenCount());
+    }
+
+    @Test
+    void records_areBatched_andSubmitLinksToLogIds() throws Exception {
+        FakeSink sink = new FakeSink();
+        try (AuditWriter w = new AuditWriter(sink, 1000, 50, 50, AuditWriter.OverflowPolicy.BLOCK)) {
+            sink.gate = new CountDownLatch(1);
+
+            AuditWriter.PduLog first = log(w, 1);
+            for (int i = 2; i <= 120; i++) log(w, i);
+            AuditWriter.PduLog resp = w.logPdu(SmppDao.Direction.IN, "SubmitSmResp", 0x80000004, 0, 1, new byte[16], null);
+            AuditWriter.Submit sub = w.submitResp("s", "sys", 1, "a", "b", 0, 0, new byte[0], 0, "MID1", first, resp);
+
+            sink.gate.countDown();
+            waitWritten(w, 122);
+
+            // ilk flush writer'ın aldığı ilk kayıtla başlar; sonrakiler batchSize ile sınırlı
+            for (int n : sink.batchSizes) assertTrue(n <= 50, "batch=" + n);
+            assertTrue(sink.batchSizes.size() < 122 / 10);
+            assertTrue(first.getId() > 0);
+            assertTrue(resp.getId() > 0);
+            assertTrue(sub.getId() > first.getId() && sub.getId() > resp.getId());
+            assertEquals(0, w.getDroppedCount());
+            assertTrue(w.getFlushCount() > 0);
+        }
+    }
+
+    @Test
+    void deliverAndSubmit_goToTheSameWrite_inDependencyOrder() throws Exception {
+        FakeSink sink = new FakeSink();
+        sink.gate = new CountDownLatch(1);
+        try (AuditWriter w = new AuditWriter(sink, 1000, 100, 20, AuditWriter.OverflowPolicy.BLOCK)) {
+            log(w, 0);
+            Thread.sleep(50); // writer ilk kayıtta bekliyor; sonrakiler tek batch'e düşer
+
+            // DLR, submit_sm_resp'ten önce gelmiş
+            AuditWriter.PduLog dl = w.logPdu(SmppDao.Direction.IN, "DeliverSmReq", 5, 0, 9, new byte[16], null);
+            w.deliver("NEW", true, "x", "y", 0, 4, "id:NEW stat:DELIVRD", dl);
+            AuditWriter.Submit sub = w.submitResp("s", "sys", 3, "a", "b", 0, 0, new byte[0], 0, "NEW", null, null);
+
+            sink.gate.countDown();
+            waitWritten(w, 4);
+
+            // writer bekletmez/sorgulamaz: hepsi tek write'ta, sink pdu_log -> submit -> deliver sırasıyla yazar
+            assertEquals(List.of(1, 3), sink.batchSizes);
+            assertTrue(sub.getId() > 0);
+            assertEquals("NEW", sink.delivers.get(0).messageId);
+            assertSame(dl, sink.delivers.get(0).deliverLog);
+        }
+    }
+
+    @Test
+    void errorResponses_inOneBatch_doNotRollBackTheBatch() throws Exception {
+        FakeSink sink = new FakeSink();
+        sink.gate = new CountDownLatch(1);
+        try (AuditWriter w = new AuditWriter(sink, 1000, 100, 20, AuditWriter.OverflowPolicy.BLOCK)) {
+            log(w, 0);
+            Thread.sleep(50); // writer ilk kayıtta bekliyor; sonrakiler tek batch'e düşer
+
+            // gövdesiz iki hata cevabı: ikisinin de message_id'si ""
+            AuditWriter.PduLog r1 = w.logPdu(SmppDao.Direction.IN, "SubmitSmResp", 0x80000004, 0x58, 1, new byte[16], null);
+            AuditWriter.Submit e1 = w.submitResp("s", "sys", 1, "a", "b", 0, 0, new byte[0], 0x58, "", null, r1);
+            AuditWriter.PduLog r2 = w.logPdu(SmppDao.Direction.IN, "SubmitSmResp", 0x80000004, 0x58, 2, new byte[16], null);
+            AuditWriter.Submit e2 = w.submitResp("s", "sys", 2, "a", "b", 0, 0, new byte[0], 0x58, "", null, r2);
+            AuditWriter.Submit ok = w.submitResp("s", "sys", 3, "a", "b", 0, 0, new byte[0], 0, "OK1", null, null);
+
+            sink.gate.countDown();
+            waitWritten(w, 4);
+
+            assertEquals(List.of(1, 3), sink.batchSizes);
+            assertTrue(r1.getId() > 0 && r2.getId() > 0, "cevaplar pdu_log'a yazılır");
+            assertEquals(-1, e1.getId());
+            assertEquals(-1, e2.getId());
+            assertTrue(ok.getId() > 0);
+            assertEquals(List.of("OK1"), sink.submits.stream().map(x -> x.messageId).toList());
+        }
+    }
+
+    @Test
+    void dropOldest_neverBlocks_andCountsDrops() throws Exception {
+        FakeSink sink = new FakeSink();
+        sink.gate = new CountDownLatch(1);
+        try (AuditWriter w = new AuditWriter(sink, 10, 5, 10, AuditWriter.OverflowPolicy.DROP_OLDEST)) {
+            log(w, 0);
+            Thread.sleep(50); // writer ilk kaydı alıp sink'te bekliyor
+
+            for (int i = 1; i <= 100; i++) log(w, i);
+            assertEquals(10, w.getQueueDepth());
+            assertTrue(w.getDroppedCount() >= 85, "dropped=" + w.getDroppedCount());
+
+            sink.gate.countDown();
+            waitWritten(w, 101 - w.getDroppedCount());
+
+            // en yeni kayıtlar kalır
+            assertEquals(100, sink.logs.get(sink.logs.size() - 1).sequenceNumber);
+            assertEquals(0, w.getQueueDepth());
+        }
+    }
+
+    @Test
+    void dbDown_spillsToJournal_andReplaysWithLinks(@TempDir Path dir) throws Exception {
+        FakeSink sink = new FakeSink();
+        sink.down = true;
+        try (SpillJournal j = new SpillJournal(dir.resolve("audit.journal"), 1 << 20)) {
+            AuditWriter w = new AuditWriter(sink, 100, 10, 10, AuditWriter.OverflowPolicy.BLOCK, j, 20);
+
+            AuditWriter.PduLog req = log(w, 7);
+            AuditWriter.PduLog resp = w.logPdu(SmppDao.Direction.IN, "SubmitSmResp", 0x80000004, 0, 7,
+                    new byte[16], out -> out.field("message_id", "M7").field("len", 16L));
+            w.submitResp("s", "sys", 7, "a", "b", 0, 0, new byte[]{1, 2}, 0, "M7", req, resp);
+
+            long t0 = System.currentTimeMillis();
+            while (w.getSpilledCount() < 3 && System.currentTimeMillis() - t0 < 3000) Thread.sleep(5);
+            assertEquals(3, w.getSpilledCount());
+            assertTrue(w.isSpilling());
+            assertEquals(0, w.getFailedCount());
+
+            // DB geri geldi: journal'dakiler sırayla, submit'in log bağlarıyla yazılır
+            sink.down = false;
+            waitWritten(w, 3);
+            w.close();
+
+            assertFalse(w.isSpilling());
+            assertEquals(0, w.getSpillPendingCount());
+            assertEquals(2, sink.logs.size());
+            assertEquals("{\"message_id\":\"M7\",\"len\":16}", AuditJsonWriter.toJson(sink.logs.get(1).decoded));
+            AuditWriter.Submit sub = sink.submits.get(0);
+            assertEquals(sink.logs.get(0).getId(), sub.submitLog.getId());
+            assertEquals(sink.logs.get(1).getId(), sub.submitRespLog.getId());
+            assertArrayEquals(new byte[]{1, 2}, sub.submitSm);
+            assertTrue(j.isEmpty());
+        }
+    }
+
+    @Test
+    void spilledLog_getsReplayedId_soLateSubmitOnDirectPathKeepsFk(@TempDir Path dir) throws Exception {
+        FakeSink sink = new FakeSink();
+        sink.down = true;
+        try (SpillJournal j = new SpillJournal(dir.resolve("audit.journal"), 1 << 20)) {
+            AuditWriter w = new AuditWriter(sink, 100, 10, 10, AuditWriter.OverflowPolicy.BLOCK, j, 20);
+
+            // submit_sm DB kesikken journal'a düşer; PendingSubmit bu nesneyi tutar
+            AuditWriter.PduLog req = log(w, 11);
+            long t0 = System.currentTimeMillis();
+            while (w.getSpilledCount() < 1 && System.currentTimeMillis() - t0 < 3000) Thread.sleep(5);
+            assertEquals(1, w.getSpilledCount());
+
+            sink.down = false;
+            waitWritten(w, 1);
+            t0 = System.currentTimeMillis();
+            while (w.isSpilling() && System.currentTimeMillis() - t0 < 3000) Thread.sleep(5);
+            assertFalse(w.isSpilling());
+
+            // replay edilen id asıl nesneye de yazılmış olmalı
+            assertEquals(sink.logs.get(0).getId(), req.getId());
+
+            // cevap replay bittikten sonra gelir: doğrudan yoldan yazılır, FK dolu kalır
+            AuditWriter.PduLog resp = w.logPdu(SmppDao.Direction.IN, "SubmitSmResp", 0x80000004, 0, 11, new byte[16], null);
+            w.submitResp("s", "sys", 11, "a", "b", 0, 0, new byte[0], 0, "M11", req, resp);
+            waitWritten(w, 3);
+            w.close();
+
+            assertEquals(1, w.getReplayedCount());
+            assertEquals(List.of(sink.logs.get(0).getId()), sink.submitLogIds);
+            assertTrue(sink.submitLogIds.get(0) > 0);
+        }
+    }
+
+    @Test
+    void dataError_skipsOnlyTheBadRow_andJournalKeepsDraining(@TempDir Path dir) throws Exception {
+        FakeSink sink = new FakeSink();
+        sink.down = true;
+        sink.poison = "BAD";
+        try (SpillJournal j = new SpillJournal(dir.resolve("audit.journal"), 1 << 20)) {
+            AuditWriter w = new AuditWriter(sink, 100, 10, 10, AuditWriter.OverflowPolicy.BLOCK, j, 20);
+
+            AuditWriter.PduLog req = log(w, 1);
+            w.submitResp("s", "sys", 1, "a", "b", 0, 0, new byte[0], 0, "BAD", req, null);
+            w.submitResp("s", "sys", 2, "a", "b", 0, 0, new byte[0], 0, "OK1", req, null);
+            long t0 = System.currentTimeMillis();
+            while (w.getSpilledCount() < 3 && System.currentTimeMillis() - t0 < 3000) Thread.sleep(5);
+            assertEquals(3, w.getSpilledCount());
+
+            // bağlantı geldi ama journal'daki batch hep reddedilir: takılmadan satır satır geçilmeli
+            sink.down = false;
+            waitWritten(w, 2);
+            t0 = System.currentTimeMillis();
+            while (w.isSpilling() && System.currentTimeMillis() - t0 < 3000) Thread.sleep(5);
+            assertFalse(w.isSpilling());
+            assertTrue(j.isEmpty());
+            assertEquals(1, w.getFailedCount());
+
+            // doğrudan yol: veri hatası journal'a düşürmez
+            w.submitResp("s", "sys", 3, "a", "b", 0, 0, new byte[0], 0, "BAD", null, null);
+            AuditWriter.Submit ok2 = w.submitResp("s", "sys", 4, "a", "b", 0, 0, new byte[0], 0, "OK2", null, null);
+            waitWritten(w, 3);
+            w.close();
+
+            assertEquals(3, w.getSpilledCount());
+            assertEquals(2, w.getFailedCount());
+            assertTrue(ok2.getId() > 0);
+            assertEquals(List.of("OK1", "OK2"), sink.submits.stream().map(x -> x.messageId).toList());
+            assertEquals(List.of(sink.logs.get(0).getId()), sink.submitLogIds.subList(0, 1));
+        }
+    }
+
+    @Test
+    void onlyConnectionErrors_areRetried() {
+        assertTrue(AuditWriter.isConnectionError(new java.sql.SQLException("refused", "08001")));
+        assertTrue(AuditWriter.isConnectionError(new java.sql.SQLTimeoutException("statement timeout")));
+        assertTrue(AuditWriter.isConnectionError(
+                new java.sql.SQLException("batch", "XX000", new java.net.SocketException("reset"))));
+        assertFalse(AuditWriter.isConnectionError(new java.sql.SQLException("duplicate", "23505")));
+        assertFalse(AuditWriter.isConnectionError(new IllegalStateException("bug")));
+    }
+
+    @Test
+    void journal_doesNotPinSpilledLogs(@TempDir Path dir) throws Exception {
+        try (SpillJournal j = new SpillJournal(dir.resolve("audit.journal"), 1 << 20)) {
+            List<Object> batch = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                batch.add(new AuditWriter.PduLog(SmppDao.Direction.OUT, "SubmitSmReq", 4, 0, i, new byte[256], null));
+            }
+            AuditWriter.PduLog kept = (AuditWriter.PduLog) batch.get(0);
+            assertTrue(j.append(batch));
+            batch.clear();
+            assertEquals(1000, j.getLiveLogCount());
+
+            // yalnızca dışarıda tutulan nesne izlenmeye devam eder
+            for (int i = 0; i < 50 && j.getLiveLogCount() > 1; i++) {
+                System.gc();
+                Thread.sleep(20);
+                j.append(List.of());
+            }
+            assertEquals(1, j.getLiveLogCount());
+
+            List<Object> recs = j.read(2000);
+            assertEquals(1000, recs.size());
+            for (Object o : recs) ((AuditWriter.PduLog) o).id = 500 + ((AuditWriter.PduLog) o).sequenceNumber;
+            j.commitRead();
+            assertEquals(500, kept.getId());
+            assertEquals(0, j.getLiveLogCount());
+        }
+    }
+}
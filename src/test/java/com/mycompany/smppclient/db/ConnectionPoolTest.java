@@ -0,0 +1,144 @@
+package com.mycompany.smppclient.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTest {
+
+    /** Sadece havuzun kullandığı metotlara cevap veren sahte fiziksel bağlantı. */
+    static final class FakeConn {
+        final AtomicInteger prepares = new AtomicInteger();
+        boolean autoCommit = true;
+        boolean closed;
+        boolean valid = true;
+        int rollbacks;
+        boolean failNextExecute;
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (p, m, a) -> switch (m.getName()) {
+                        case "prepareStatement" -> {
+                            prepares.incrementAndGet();
+                            yield statement();
+                        }
+                        case "getAutoCommit" -> autoCommit;
+                        case "setAutoCommit" -> { autoCommit = (Boolean) a[0]; yield null; }
+                        case "rollback" -> { rollbacks++; yield null; }
+                        case "isValid" -> valid;
+                        case "close" -> { closed = true; yield null; }
+                        case "isClosed" -> closed;
+                        default -> null;
+                    });
+        }
+
+        private PreparedStatement statement() {
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                    (p, m, a) -> switch (m.getName()) {
+                        case "executeUpdate" -> {
+                            if (failNextExecute) {
+                                failNextExecute = false;
+                                throw new SQLException("connection reset", "08006");
+                            }
+                            yield 1;
+                        }
+                        case "isClosed" -> false;
+                        default -> null;
+                    });
+        }
+    }
+
+    private static ConnectionPool pool(List<FakeConn> opened, int max, long waitMs) {
+        return new ConnectionPool(() -> {
+            FakeConn c = new FakeConn();
+            opened.add(c);
+            return c.proxy();
+        }, 0, max, 60_000, waitMs);
+    }
+
+    @Test
+    void connections_areReused_andStatementsCachedPerConnection() throws Exception {
+        List<FakeConn> opened = new ArrayList<>();
+        try (ConnectionPool pool = pool(opened, 2, 100)) {
+            for (int i = 0; i < 5; i++) {
+                try (Connection c = pool.borrow();
+                     PreparedStatement ps = c.prepareStatement("INSERT INTO t VALUES (?)")) {
+                    ps.setInt(1, i);
+                    assertEquals(1, ps.executeUpdate());
+                }
+            }
+            assertEquals(1, opened.size());
+            assertEquals(1, opened.get(0).prepares.get());
+            assertEquals(1, pool.getIdleCount());
+            assertEquals(0, pool.getActiveCount());
+            assertEquals(5, pool.getBorrowCount());
+        }
+        assertTrue(opened.get(0).closed);
+    }
+
+    @Test
+    void fullPool_waitsThenTimesOut() throws Exception {
+        List<FakeConn> opened = new ArrayList<>();
+        try (ConnectionPool pool = pool(opened, 1, 50)) {
+            Connection held = pool.borrow();
+
+            long t0 = System.nanoTime();
+            assertThrows(SQLTransientConnectionException.class, pool::borrow);
+            assertTrue(System.nanoTime() - t0 >= 40_000_000L);
+            assertEquals(1, pool.getTimeoutCount());
+
+            Thread releaser = new Thread(() -> {
+                try {
+                    Thread.sleep(20);
+                    held.close();
+                } catch (Exception ignored) {
+                }
+            });
+            releaser.start();
+            try (Connection c = pool.borrow()) {
+                assertNotNull(c);
+            }
+            releaser.join();
+            assertEquals(1, opened.size());
+            assertTrue(pool.getMaxWaitMs() > 0);
+        }
+    }
+
+    @Test
+    void openTransaction_isRolledBack_andBrokenConnectionDiscarded() throws Exception {
+        List<FakeConn> opened = new ArrayList<>();
+        try (ConnectionPool pool = pool(opened, 2, 100)) {
+            Connection c = pool.borrow();
+            c.setAutoCommit(false);
+            c.close();
+            assertTrue(c.isClosed());
+            assertThrows(SQLException.class, () -> c.prepareStatement("SELECT 1"));
+
+            FakeConn first = opened.get(0);
+            assertEquals(1, first.rollbacks);
+            assertTrue(first.autoCommit);
+
+            first.failNextExecute = true;
+            try (Connection c2 = pool.borrow();
+                 PreparedStatement ps = c2.prepareStatement("UPDATE t SET x = 1")) {
+                assertThrows(SQLException.class, ps::executeUpdate);
+            }
+            assertTrue(first.closed);
+            assertEquals(0, pool.getIdleCount());
+
+            try (Connection c3 = pool.borrow()) {
+                assertNotNull(c3);
+            }
+            assertEquals(2, opened.size());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.mycompany.smppclient.db;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryMessageStoreTest {
+
+    @Test
+    void submitResp_thenDlr_matches_andLinksPduLogs() {
+        InMemoryMessageStore store = new InMemoryMessageStore(16);
+
+        MessageStore.PduRef submitLog = store.logPdu(SmppDao.Direction.OUT, "SubmitSmReq", 0x00000004, 0, 7,
+                new byte[]{1, 2, 3}, out -> out.field("destination_addr", "905551112233"));
+        MessageStore.PduRef respLog = store.logPdu(SmppDao.Direction.IN, "SubmitSmResp", 0x80000004, 0, 7,
+                new byte[]{4}, null);
+        store.submitResp("s1", "sys", 7, "SRC", "905551112233", 0, 0x40, new byte[]{1, 2, 3}, 0, "MID-1",
+                submitLog, respLog);
+        store.deliver("MID-1", true, "905551112233", "SRC", 0, 0x04, "stat:DELIVRD", null);
+
+        AuditWriter.Submit s = store.findSubmit("MID-1");
+        assertNotNull(s);
+        assertSame(submitLog, s.submitLog);
+        assertSame(respLog, store.getPdu(respLog.getId()));
+        assertEquals(1, store.getMatchedDlrCount());
+        assertEquals(0, store.getOrphanDlrCount());
+    }
+
+    @Test
+    void dlrBeforeSubmitResp_isOrphan_untilSubmitArrives() {
+        InMemoryMessageStore store = new InMemoryMessageStore(16);
+
+        store.deliver("MID-2", true, "905551112233", "SRC", 0, 0x04, "stat:DELIVRD", null);
+        assertEquals(1, store.getOrphanDlrCount());
+        assertEquals(0, store.getMatchedDlrCount());
+
+        store.submitResp("s1", "sys", 8, "SRC", "905551112233", 0, 0x40, null, 0, "MID-2", null, null);
+        assertEquals(0, store.getOrphanDlrCount());
+        assertEquals(1, store.getMatchedDlrCount());
+    }
+
+    @Test
+    void ring_overwritesOldest_andDropsItFromIndex() {
+        InMemoryMessageStore store = new InMemoryMessageStore(4);
+
+        MessageStore.PduRef first = store.logPdu(SmppDao.Direction.OUT, "EnquireLink", 0x15, 0, 1, null, null);
+        for (int i = 0; i < 5; i++) {
+            store.submitResp("s1", "sys", i, "SRC", "DST", 0, 0, null, 0, "MID-" + i, null, null);
+        }
+        for (int i = 0; i < 4; i++) store.logPdu(SmppDao.Direction.OUT, "EnquireLink", 0x15, 0, i + 2, null, null);
+
+        assertNull(store.getPdu(first.getId()), "ilk PDU halkadan düşmeli");
+        assertNull(store.findSubmit("MID-0"), "ilk submit index'ten silinmeli");
+        assertNotNull(store.findSubmit("MID-4"));
+        assertEquals(5, store.getPduCount());
+        assertEquals(5, store.getSubmitCount());
+    }
+
+    @Test
+    void noOp_isNotRecording() {
+        assertFalse(NoOpMessageStore.INSTANCE.isRecording());
+        assertNull(NoOpMessageStore.INSTANCE.logPdu(SmppDao.Direction.IN, "x", 0, 0, 0, null, null));
+    }
+}
@@ -0,0 +1,35 @@
+package com.mycompany.smppclient.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionManagerTest {
+
+    @Test
+    void weeklyPeriodsStartOnMondayAndRunAhead() {
+        PartitionManager pm = new PartitionManager(null, PartitionManager.Granularity.WEEKLY, 2, 30, true);
+
+        // 2026-10-18 pazar
+        List<LocalDate> p = pm.periodsToCreate(LocalDate.of(2026, 10, 18));
+        assertEquals(List.of(LocalDate.of(2026, 10, 12), LocalDate.of(2026, 10, 19), LocalDate.of(2026, 10, 26)), p);
+        assertEquals("pdu_log_p20261012", PartitionManager.partitionName("pdu_log", p.get(0)));
+    }
+
+    @Test
+    void expiresOnlyOwnPartitionsPastRetention() {
+        PartitionManager pm = new PartitionManager(null, PartitionManager.Granularity.DAILY, 3, 7, true);
+
+        List<String> expired = pm.expiredPartitions(List.of(
+                "deliver_p20261010",   // bitiş 11'i, cutoff 11'i -> kaldırılır
+                "deliver_p20261011",   // bitiş 12'si -> kalır
+                "deliver_p20261018",
+                "deliver_default",
+                "deliver_pxxxxxxxx"), LocalDate.of(2026, 10, 18));
+
+        assertEquals(List.of("deliver_p20261010"), expired);
+    }
+}
@@ -0,0 +1,71 @@
+package com.mycompany.smppclient.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgBinaryCopyWriterTest {
+
+    @Test
+    void writesHeaderRowsAndTrailer() {
+        PgBinaryCopyWriter w = new PgBinaryCopyWriter(16).begin();
+        w.row(4).int8(0x0102030405060708L).int4(-2).text("OUT").nul();
+        w.row(1).jsonb("{\"a\":1}");
+        w.end();
+
+        ByteBuffer bb = ByteBuffer.wrap(Arrays.copyOf(w.array(), w.length()));
+
+        byte[] sig = new byte[11];
+        bb.get(sig);
+        assertArrayEquals("PGCOPY\n\377\r\n\0".getBytes(StandardCharsets.ISO_8859_1), sig);
+        assertEquals(0, bb.getInt()); // flags
+        assertEquals(0, bb.getInt()); // extension
+
+        assertEquals(4, bb.getShort());
+        assertEquals(8, bb.getInt());
+        assertEquals(0x0102030405060708L, bb.getLong());
+        assertEquals(4, bb.getInt());
+        assertEquals(-2, bb.getInt());
+        assertEquals(3, bb.getInt());
+        byte[] txt = new byte[3];
+        bb.get(txt);
+        assertEquals("OUT", new String(txt, StandardCharsets.UTF_8));
+        assertEquals(-1, bb.getInt());
+
+        assertEquals(1, bb.getShort());
+        assertEquals(8, bb.getInt());
+        assertEquals(1, bb.get()); // jsonb sürümü
+        byte[] json = new byte[7];
+        bb.get(json);
+        assertEquals("{\"a\":1}", new String(json, StandardCharsets.UTF_8));
+
+        assertEquals(-1, bb.getShort());
+        assertFalse(bb.hasRemaining());
+
+        // begin() tamponu sıfırlar
+        assertEquals(19, w.begin().length());
+    }
+
+    @Test
+    void logIds_areUniqueIncreasing_andCarryTimestamp() {
+        LogIdGenerator g = new LogIdGenerator(5);
+        long before = System.currentTimeMillis();
+        Set<Long> seen = new HashSet<>();
+        long prev = Long.MIN_VALUE;
+        for (int i = 0; i < 20_000; i++) { // ms başına 4096'yı aşar
+            long id = g.next();
+            assertTrue(id > prev);
+            assertTrue(seen.add(id));
+            assertEquals(5, (id >>> LogIdGenerator.SEQ_BITS) & LogIdGenerator.MAX_NODE_ID);
+            prev = id;
+        }
+        assertTrue(LogIdGenerator.timestampOf(prev) >= before);
+        assertThrows(IllegalArgumentException.class, () -> new LogIdGenerator(LogIdGenerator.MAX_NODE_ID + 1));
+    }
+}
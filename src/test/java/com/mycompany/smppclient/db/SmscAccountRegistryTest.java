@@ -0,0 +1,108 @@
+package com.mycompany.smppclient.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmscAccountRegistryTest {
+
+    /** smpp.smsc_account yerine; updated_at filtresini aynı şekilde uygular ve son since'i tutar. */
+    static class FakeSource implements SmscAccountRegistry.Source {
+        final Map<String, SmppDao.SmscAccount> rows = new LinkedHashMap<>();
+        final List<Long> sinces = new ArrayList<>();
+        long clock = 1_000_000;
+
+        void put(String name, String host, String password, boolean active) {
+            rows.put(name, new SmppDao.SmscAccount(name, host, 2775, "sys-" + name, password, "", (byte) 0x34,
+                    (byte) 5, (byte) 0, "", active, clock += 1000));
+        }
+
+        @Override
+        public List<SmppDao.SmscAccount> load(long sinceMs) {
+            sinces.add(sinceMs);
+            List<SmppDao.SmscAccount> out = new ArrayList<>();
+            for (SmppDao.SmscAccount a : rows.values()) {
+                if (sinceMs <= 0 || a.updatedAtMs >= sinceMs) out.add(a);
+            }
+            return out;
+        }
+    }
+
+    static class Events implements SmscAccountRegistry.Listener {
+        final List<String> log = new ArrayList<>();
+
+        @Override
+        public void onAccountAdded(SmppDao.SmscAccount a) { log.add("add:" + a.name); }
+
+        @Override
+        public void onAccountChanged(SmppDao.SmscAccount p, SmppDao.SmscAccount c) { log.add("change:" + c.name + "@" + c.host); }
+
+        @Override
+        public void onAccountRemoved(SmppDao.SmscAccount p) { log.add("remove:" + p.name); }
+    }
+
+    @Test
+    void reload_thenIncrementalRefresh_reportsAddChangeDeactivate() throws Exception {
+        FakeSource src = new FakeSource();
+        src.put("a", "10.0.0.1", "pw", true);
+        src.put("b", "10.0.0.2", "pw", true);
+        src.put("off", "10.0.0.3", "pw", false);
+        Events ev = new Events();
+
+        SmscAccountRegistry reg = new SmscAccountRegistry(src, null, ev, 1000, Long.MAX_VALUE / 2);
+        reg.reload();
+        assertEquals(List.of("add:a", "add:b"), ev.log);
+        assertEquals(2, reg.size());
+        assertNull(reg.get("off"));
+
+        ev.log.clear();
+        src.put("a", "10.0.0.9", "pw", true);      // host değişti -> rebind
+        src.put("b", "10.0.0.2", "pw", false);     // pasif -> kapat
+        src.put("c", "10.0.0.4", "pw", true);      // yeni
+        src.put("off", "10.0.0.3", "pw", false);   // pasif kaldı -> olay yok
+        reg.refresh();
+
+        assertEquals(List.of("change:a@10.0.0.9", "remove:b", "add:c"), ev.log);
+        assertEquals("10.0.0.9", reg.get("a").host);
+        assertNull(reg.get("b"));
+        // incremental: tüm tablo değil, son görülen updated_at'ten (geriden) okunur
+        long since = src.sinces.get(src.sinces.size() - 1);
+        assertTrue(since > 0);
+    }
+
+    @Test
+    void unchangedBindInfo_noEvent_andDeletedRow_removedOnFullReload() throws Exception {
+        FakeSource src = new FakeSource();
+        src.put("a", "10.0.0.1", "pw", true);
+        src.put("b", "10.0.0.2", "pw", true);
+        Events ev = new Events();
+
+        SmscAccountRegistry reg = new SmscAccountRegistry(src, null, ev, 1000, Long.MAX_VALUE / 2);
+        reg.reload();
+        ev.log.clear();
+
+        // sadece updated_at değişti (ör. aynı değerlerle UPDATE): bind'lere dokunulmaz
+        src.put("a", "10.0.0.1", "pw", true);
+        reg.refresh();
+        assertEquals(List.of(), ev.log);
+
+        // şifre değişti: rebind
+        src.put("a", "10.0.0.1", "pw2", true);
+        reg.refresh();
+        assertEquals(List.of("change:a@10.0.0.1"), ev.log);
+
+        // satır silindi: incremental görmez, tam okuma görür
+        ev.log.clear();
+        src.rows.remove("b");
+        reg.refresh();
+        assertEquals(List.of(), ev.log);
+        reg.reload();
+        assertEquals(List.of("remove:b"), ev.log);
+        assertEquals(1, reg.size());
+    }
+}
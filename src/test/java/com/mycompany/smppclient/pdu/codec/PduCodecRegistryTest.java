@@ -0,0 +1,147 @@
+package com.mycompany.smppclient.pdu.codec;
+
+import com.mycompany.smppclient.pdu.*;
+import com.mycompany.smppclient.pdu.decoder.PduDecoder;
+import com.mycompany.smppclient.pdu.encoder.PduEncoder;
+import com.mycompany.smppclient.pdu.exception.DecodeException;
+import com.mycompany.smppclient.pdu.exception.InvalidPduException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PduCodecRegistryTest {
+
+    private final PduEncoder enc = new PduEncoder();
+    private final PduDecoder dec = new PduDecoder();
+
+    @SuppressWarnings("unchecked")
+    private <T extends Pdu> T roundTrip(T pdu) {
+        pdu.setSequenceNumber(7);
+        byte[] data = enc.encode(pdu);
+        Pdu out = dec.decode(data);
+        assertEquals(pdu.getClass(), out.getClass());
+        assertEquals(7, out.getSequenceNumber());
+        assertArrayEquals(data, enc.encode(out), "tekrar encode aynı byte'ları vermeli");
+        return (T) out;
+    }
+
+    @Test
+    void submitMulti_andResp_roundTrip() {
+        SubmitMultiReq req = new SubmitMultiReq();
+        req.setSourceAddr("NETTEST");
+        req.getDestinations().add(SubmitMultiReq.Destination.sme((byte) 1, (byte) 1, "905551112233"));
+        req.getDestinations().add(SubmitMultiReq.Destination.distributionList("vip"));
+        req.setDataCoding((byte) 0x08);
+        req.setShortMessage(new byte[]{0, 'H', 0, 'i'});
+
+        SubmitMultiReq m = roundTrip(req);
+        assertEquals(2, m.getDestinations().size());
+        assertEquals("905551112233", m.getDestinations().get(0).address);
+        assertEquals(1, m.getDestinations().get(0).ton);
+        assertEquals(SubmitMultiReq.DEST_FLAG_DISTRIBUTION_LIST, m.getDestinations().get(1).destFlag);
+        assertArrayEquals(new byte[]{0, 'H', 0, 'i'}, m.getShortMessage());
+
+        SubmitMultiResp resp = new SubmitMultiResp();
+        resp.setMessageId("M1");
+        resp.getUnsuccessSmes().add(new SubmitMultiResp.UnsuccessSme((byte) 1, (byte) 1, "905550000000", 0x0B));
+        SubmitMultiResp r = roundTrip(resp);
+        assertEquals("M1", r.getMessageId());
+        assertEquals(0x0B, r.getUnsuccessSmes().get(0).errorStatusCode);
+
+        assertThrows(InvalidPduException.class, () -> enc.encode(new SubmitMultiReq()));
+    }
+
+    @Test
+    void remainingSmpp34Pdus_roundTrip() {
+        BindTransmitterReq bind = new BindTransmitterReq();
+        bind.setSystemId("sys");
+        bind.setPassword("pw");
+        bind.setSystemType("");
+        bind.setInterfaceVersion((byte) 0x34);
+        bind.setAddressRange("");
+        assertEquals("sys", roundTrip(bind).getSystemId());
+
+        BindReceiverResp bindResp = new BindReceiverResp();
+        bindResp.setSystemId("SMSC");
+        assertEquals("SMSC", roundTrip(bindResp).getSystemId());
+
+        Outbind outbind = new Outbind();
+        outbind.setSystemId("SMSC");
+        outbind.setPassword("pw");
+        assertEquals("pw", roundTrip(outbind).getPassword());
+
+        DataSmReq data = new DataSmReq();
+        data.setSourceAddr("1");
+        data.setDestinationAddr("2");
+        data.setDataCoding((byte) 0x08);
+        data.getOptionalParameters().add(new com.mycompany.smppclient.pdu.tlv.OptionalParameter(
+                0x0424, 2, "ok".getBytes(StandardCharsets.US_ASCII)));
+        DataSmReq d = roundTrip(data);
+        assertEquals(0x08, d.getDataCoding());
+        assertEquals(0x0424, d.getOptionalParameters().get(0).getTag());
+
+        QuerySmResp query = new QuerySmResp();
+        query.setMessageId("M1");
+        query.setFinalDate("251018120000000+");
+        query.setMessageState((byte) 2);
+        QuerySmResp q = roundTrip(query);
+        assertEquals("251018120000000+", q.getFinalDate());
+        assertEquals(2, q.getMessageState());
+
+        CancelSmReq cancel = new CancelSmReq();
+        cancel.setMessageId("M1");
+        cancel.setSourceAddr("1");
+        cancel.setDestinationAddr("2");
+        assertEquals("2", roundTrip(cancel).getDestinationAddr());
+
+        ReplaceSmReq replace = new ReplaceSmReq();
+        replace.setMessageId("M1");
+        replace.setSourceAddr("1");
+        replace.setShortMessage("yeni".getBytes(StandardCharsets.US_ASCII));
+        assertEquals("yeni", new String(roundTrip(replace).getShortMessage(), StandardCharsets.US_ASCII));
+
+        AlertNotification alert = new AlertNotification();
+        alert.setSourceAddr("905551112233");
+        alert.setEsmeAddr("NETTEST");
+        assertEquals("NETTEST", roundTrip(alert).getEsmeAddr());
+
+        roundTrip(new CancelSmResp());
+        roundTrip(new ReplaceSmResp());
+    }
+
+    @Test
+    void submitSm_optionalFields_nowOnTheWire() {
+        SubmitSmReq req = new SubmitSmReq();
+        req.setSourceAddr("1");
+        req.setDestinationAddr("2");
+        req.setValidityPeriod("000001000000000R");
+        req.setReplaceIfPresentFlag((byte) 1);
+        req.setShortMessage(new byte[]{'x'});
+        SubmitSmReq m = roundTrip(req);
+        assertEquals("000001000000000R", m.getValidityPeriod());
+        assertEquals(1, m.getReplaceIfPresentFlag());
+    }
+
+    @Test
+    void slotMapping_andUnsupportedIds() {
+        assertEquals(0x04, PduCodecRegistry.slot(CommandId.SUBMIT_SM));
+        assertEquals(0x04 + 512, PduCodecRegistry.slot(CommandId.SUBMIT_SM_RESP));
+        assertEquals(0x103, PduCodecRegistry.slot(CommandId.DATA_SM));
+        assertEquals(-1, PduCodecRegistry.slot(0x00010200));
+
+        PduCodecRegistry r = PduCodecRegistry.defaults();
+        assertTrue(r.supports(CommandId.ALERT_NOTIFICATION));
+        assertFalse(r.supports(0x00000102 | 0x80000000));   // alert_notification'ın cevabı yok
+
+        byte[] unknown = ByteBuffer.allocate(16).putInt(16).putInt(0x00000200).putInt(0).putInt(1).array();
+        DecodeException e = assertThrows(DecodeException.class, () -> dec.decode(unknown));
+        assertTrue(e.getMessage().contains("0x200"));
+
+        // boş tablo: encoder codec'i olmayan PDU'yu reddeder
+        PduEncoder bare = new PduEncoder(new PduCodecRegistry());
+        assertThrows(InvalidPduException.class, () -> bare.encode(new EnquireLinkReq()));
+    }
+}
@@ -0,0 +1,87 @@
+package com.mycompany.smppclient.pdu.encoder;
+
+import com.mycompany.smppclient.pdu.EnquireLinkReq;
+import com.mycompany.smppclient.pdu.SubmitSmReq;
+import com.mycompany.smppclient.pdu.tlv.OptionalParameter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PduEncoderEncodeToTest {
+
+    private static SubmitSmReq submit(int seq, String text) {
+        SubmitSmReq req = new SubmitSmReq();
+        req.setSequenceNumber(seq);
+        req.setServiceType("");
+        req.setSourceAddrTon((byte) 5);
+        req.setSourceAddrNpi((byte) 0);
+        req.setSourceAddr("nettest");
+        req.setDestAddrTon((byte) 1);
+        req.setDestAddrNpi((byte) 1);
+        req.setDestinationAddr("905551112233");
+        req.setEsmClass((byte) 0x40);
+        req.setRegisteredDelivery((byte) 1);
+        req.setShortMessage(text.getBytes(StandardCharsets.US_ASCII));
+        req.getOptionalParameters().add(new OptionalParameter(0x1401, 2, new byte[]{1, 2}));
+        return req;
+    }
+
+    @Test
+    void encodeTo_writesSameBytesAsEncode_atCurrentPosition() {
+        PduEncoder enc = new PduEncoder();
+        SubmitSmReq req = submit(42, "hello");
+        byte[] expected = enc.encode(req);
+
+        ByteBuffer buf = ByteBuffer.allocateDirect(512);
+        buf.position(7);
+        int n = enc.encodeTo(req, buf);
+        assertEquals(expected.length, n);
+        assertEquals(7 + n, buf.position());
+
+        // aynı buffer'a ikinci PDU arkasından eklenir
+        int m = enc.encodeTo(new EnquireLinkReq(), buf);
+        assertEquals(16, m);
+
+        byte[] actual = new byte[n];
+        buf.get(7, actual);
+        assertArrayEquals(expected, actual);
+        assertEquals(16, buf.getInt(7 + n));
+    }
+
+    @Test
+    void overflow_leavesPositionAndOrderUnchanged() {
+        PduEncoder enc = new PduEncoder();
+        ByteBuffer buf = ByteBuffer.allocate(40).order(ByteOrder.LITTLE_ENDIAN);
+        buf.position(3);
+
+        assertThrows(BufferOverflowException.class, () -> enc.encodeTo(submit(1, "too long for 40 bytes"), buf));
+        assertEquals(3, buf.position());
+        assertEquals(ByteOrder.LITTLE_ENDIAN, buf.order());
+
+        // header her zaman big-endian, çağıranın sırası geri yüklenir
+        enc.encodeTo(new EnquireLinkReq(), buf);
+        assertEquals(ByteOrder.LITTLE_ENDIAN, buf.order());
+        assertEquals(16, buf.order(ByteOrder.BIG_ENDIAN).getInt(3));
+    }
+
+    @Test
+    void encode_growsScratch_forLargePdus() {
+        PduEncoder enc = new PduEncoder();
+        SubmitSmReq req = submit(3, "x");
+        byte[] payload = new byte[5000];
+        Arrays.fill(payload, (byte) 'a');
+        req.getOptionalParameters().add(new OptionalParameter(0x0424, payload.length, payload));
+
+        byte[] data = enc.encode(req);
+        assertEquals(data.length, ByteBuffer.wrap(data).getInt(0));
+        assertTrue(data.length > 5000);
+        // sonraki küçük PDU eski içerikten etkilenmez
+        assertEquals(16, enc.encode(new EnquireLinkReq()).length);
+    }
+}
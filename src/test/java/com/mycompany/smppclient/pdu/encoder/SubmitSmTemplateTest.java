@@ -0,0 +1,76 @@
+package com.mycompany.smppclient.pdu.encoder;
+
+import com.mycompany.smppclient.pdu.SubmitSmReq;
+import com.mycompany.smppclient.pdu.exception.InvalidPduException;
+import com.mycompany.smppclient.pdu.tlv.OptionalParameter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SubmitSmTemplateTest {
+
+    private static SubmitSmReq base() {
+        SubmitSmReq req = new SubmitSmReq();
+        req.setServiceType("CMT");
+        req.setSourceAddrTon((byte) 5);
+        req.setSourceAddr("NETTEST");
+        req.setDestAddrTon((byte) 1);
+        req.setDestAddrNpi((byte) 1);
+        req.setEsmClass((byte) 0x40);
+        req.setRegisteredDelivery((byte) 1);
+        req.setValidityPeriod("000001000000000R");
+        req.setShortMessage(new byte[]{0x03, 0x24, 0x01, 0x01, 'H', 'i'});
+        req.getOptionalParameters().add(new OptionalParameter(0x020C, 2, new byte[]{0, 7}));
+        return req;
+    }
+
+    @Test
+    void encode_matchesPduEncoder_forEachRecipient() {
+        SubmitSmReq req = base();
+        SubmitSmTemplate t = new SubmitSmTemplate(req);
+        PduEncoder enc = new PduEncoder();
+
+        for (String dst : new String[]{"905551112233", "1", ""}) {
+            req.setDestinationAddr(dst);
+            req.setSequenceNumber(42);
+            assertArrayEquals(enc.encode(req), t.encode(dst, 42), "dst=" + dst);
+            assertEquals(enc.encode(req).length, t.encodedLength(dst));
+        }
+
+        // şablon temel isteğin sonraki değişikliklerinden etkilenmez
+        byte[] before = t.encode("905551112233", 1);
+        req.getShortMessage()[4] = 'X';
+        req.setSourceAddr("OTHER");
+        assertArrayEquals(before, t.encode("905551112233", 1));
+        assertEquals("NETTEST", t.getSourceAddr());
+
+        assertThrows(InvalidPduException.class, () -> t.encode(null, 1));
+    }
+
+    @Test
+    void encodeTo_writesAtPosition_bigEndianRegardlessOfOrder() {
+        SubmitSmReq req = base();
+        req.setDestinationAddr("905551112233");
+        req.setSequenceNumber(7);
+        byte[] expected = new PduEncoder().encode(req);
+
+        SubmitSmTemplate t = new SubmitSmTemplate(req);
+        ByteBuffer buf = ByteBuffer.allocateDirect(256).order(ByteOrder.LITTLE_ENDIAN);
+        buf.position(10);
+        int n = t.encodeTo("905551112233", 7, buf);
+
+        assertEquals(expected.length, n);
+        assertEquals(10 + n, buf.position());
+        byte[] out = new byte[n];
+        buf.get(10, out);
+        assertArrayEquals(expected, out);
+
+        ByteBuffer small = ByteBuffer.allocate(n - 1);
+        assertThrows(BufferOverflowException.class, () -> t.encodeTo("905551112233", 7, small));
+        assertEquals(0, small.position());
+    }
+}
@@ -0,0 +1,27 @@
+package com.mycompany.smppclient.pdu.encoding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HexTest {
+
+    @Test
+    void toHex_matchesFormatPerByte_andRoundTrips() {
+        byte[] all = new byte[256];
+        for (int i = 0; i < 256; i++) all[i] = (byte) i;
+
+        StringBuilder expected = new StringBuilder();
+        for (byte b : all) expected.append(String.format("%02X", b));
+
+        String hex = Hex.toHex(all);
+        assertEquals(expected.toString(), hex);
+        assertArrayEquals(all, Hex.fromHex(hex));
+        assertArrayEquals(all, Hex.fromHex(hex.toLowerCase()));
+
+        assertEquals("", Hex.toHex(null));
+        assertEquals("", Hex.toHex(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> Hex.fromHex("ABC"));
+        assertThrows(IllegalArgumentException.class, () -> Hex.fromHex("ZZ"));
+    }
+}
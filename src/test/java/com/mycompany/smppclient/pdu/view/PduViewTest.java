@@ -0,0 +1,128 @@
+package com.mycompany.smppclient.pdu.view;
+
+import com.mycompany.smppclient.pdu.CommandId;
+import com.mycompany.smppclient.pdu.DeliverSmReq;
+import com.mycompany.smppclient.pdu.SubmitSmResp;
+import com.mycompany.smppclient.pdu.decoder.PduDecoder;
+import com.mycompany.smppclient.pdu.exception.DecodeException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PduViewTest {
+
+    /** Byte düzeyi kontrol için PDU elle kurulur. */
+    private static byte[] deliverSm(int seq, String src, String dst, byte[] sm, byte[] payloadTlv) {
+        ByteBuffer b = ByteBuffer.allocate(512);
+        b.putInt(0).putInt(CommandId.DELIVER_SM).putInt(0).putInt(seq);
+        cstr(b, "CMT");
+        b.put((byte) 1).put((byte) 1);
+        cstr(b, src);
+        b.put((byte) 5).put((byte) 0);
+        cstr(b, dst);
+        b.put((byte) 0x04).put((byte) 0).put((byte) 0);     // esm_class, protocol_id, priority_flag
+        cstr(b, "");
+        cstr(b, "");
+        b.put((byte) 0).put((byte) 0).put((byte) 0x08).put((byte) 0);
+        b.put((byte) sm.length).put(sm);
+        b.putShort((short) 0x001E).putShort((short) 3).put("ab".getBytes(StandardCharsets.US_ASCII)).put((byte) 0);
+        if (payloadTlv != null) b.putShort((short) 0x0424).putShort((short) payloadTlv.length).put(payloadTlv);
+        b.putInt(0, b.position());
+        byte[] out = new byte[b.position()];
+        b.get(0, out);
+        return out;
+    }
+
+    private static void cstr(ByteBuffer b, String s) {
+        b.put(s.getBytes(StandardCharsets.US_ASCII)).put((byte) 0);
+    }
+
+    @Test
+    void deliverSm_fieldsMatchDecoder_andMaterializeIsEquivalent() {
+        byte[] data = deliverSm(9, "905551112233", "nettest", new byte[]{0, 'H', 0, 'i'}, null);
+        DeliverSmReq decoded = (DeliverSmReq) new PduDecoder().decode(data);
+
+        DeliverSmView v = new DeliverSmView().wrap(data);
+        assertEquals(9, v.sequenceNumber());
+        assertEquals(data.length, v.commandLength());
+        assertEquals(decoded.getServiceType(), v.serviceType());
+        assertEquals(decoded.getSourceAddr(), v.sourceAddr());
+        assertEquals(decoded.getDestinationAddr(), v.destinationAddr());
+        assertEquals(decoded.getDestAddrTon(), v.destAddrTon());
+        assertEquals(decoded.getEsmClass(), v.esmClass());
+        assertEquals(decoded.getDataCoding(), v.dataCoding());
+        assertArrayEquals(decoded.getShortMessage(), v.shortMessage());
+        // ikinci erişim yeniden üretmez
+        assertSame(v.sourceAddr(), v.sourceAddr());
+
+        assertEquals(1, v.tlvCount());
+        assertEquals("ab", StandardCharsets.US_ASCII.decode(v.tlv(0x001E)).toString().trim());
+        assertNull(v.tlv(0x0424));
+
+        DeliverSmReq m = v.materialize();
+        assertEquals(decoded, m);
+        assertEquals(decoded.getSourceAddr(), m.getSourceAddr());
+        assertEquals(decoded.getValidityPeriod(), m.getValidityPeriod());
+        assertArrayEquals(decoded.getShortMessage(), m.getShortMessage());
+        assertEquals(1, m.getOptionalParameters().size());
+        assertEquals(0x001E, m.getOptionalParameters().get(0).getTag());
+    }
+
+    @Test
+    void deliverSm_overSliceOfLargerBuffer_isReusable_andFallsBackToMessagePayload() {
+        byte[] first = deliverSm(1, "111", "222", new byte[]{'x'}, null);
+        byte[] second = deliverSm(2, "333", "444", new byte[0], "payload".getBytes(StandardCharsets.US_ASCII));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(first.length + second.length + 8);
+        direct.position(8);
+        direct.put(first).put(second);
+
+        DeliverSmView v = new DeliverSmView();
+        v.wrap(direct.slice(8, first.length));
+        assertEquals("111", v.sourceAddr());
+        assertArrayEquals(new byte[]{'x'}, v.payload());
+
+        ByteBuffer pdu = direct.duplicate().position(8 + first.length).limit(8 + first.length + second.length);
+        v.wrap(pdu);
+        assertEquals(8 + first.length, pdu.position(), "görünüm position'ı değiştirmemeli");
+        assertEquals(2, v.sequenceNumber());
+        assertEquals("333", v.sourceAddr());
+        assertEquals(0, v.smLength());
+        assertEquals("payload", new String(v.payload(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void submitSmResp_withAndWithoutBody_andMalformedPdusRejected() {
+        ByteBuffer b = ByteBuffer.allocate(32);
+        b.putInt(0).putInt(CommandId.SUBMIT_SM_RESP).putInt(0).putInt(5);
+        cstr(b, "MID-42");
+        b.putInt(0, b.position());
+        byte[] ok = new byte[b.position()];
+        b.get(0, ok);
+
+        SubmitSmRespView v = new SubmitSmRespView().wrap(ok);
+        assertEquals("MID-42", v.messageId());
+        SubmitSmResp m = v.materialize();
+        assertEquals(new PduDecoder().decode(ok), m);
+        assertEquals("MID-42", m.getMessageId());
+
+        // ESME_RTHROTTLED: body yok
+        byte[] empty = ByteBuffer.allocate(16).putInt(16).putInt(CommandId.SUBMIT_SM_RESP).putInt(0x58).putInt(6).array();
+        v.wrap(empty);
+        assertEquals(0x58, v.commandStatus());
+        assertEquals("", v.messageId());
+        assertEquals("", ((SubmitSmResp) new PduDecoder().decode(empty)).getMessageId());
+
+        byte[] wrongLen = ok.clone();
+        wrongLen[3]++;
+        assertThrows(DecodeException.class, () -> v.wrap(wrongLen));
+        assertThrows(DecodeException.class, () -> new DeliverSmView().wrap(ok));
+
+        byte[] truncatedTlv = deliverSm(3, "1", "2", new byte[0], null);
+        truncatedTlv[truncatedTlv.length - 4] = 9;  // TLV length 3 -> 9
+        assertThrows(DecodeException.class, () -> new DeliverSmView().wrap(truncatedTlv));
+    }
+}
@@ -0,0 +1,95 @@
+package com.mycompany.smppclient.session;
+
+import com.mycompany.smppclient.db.Outbox;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboxDispatcherTest {
+
+    /** smpp.outbox yerine bellekte; claim SKIP LOCKED gibi her satırı tek sahibe verir. */
+    static class FakeOutbox extends Outbox {
+        final List<Long> ready = new ArrayList<>();
+        final Map<Long, String> owners = new ConcurrentHashMap<>();
+        final Map<Long, List<String>> sent = new ConcurrentHashMap<>();
+        final Map<Long, String> failed = new ConcurrentHashMap<>();
+        final AtomicInteger markCalls = new AtomicInteger();
+
+        FakeOutbox(int n) {
+            super(null);
+            for (long i = 1; i <= n; i++) ready.add(i);
+        }
+
+        @Override
+        public synchronized List<Message> claim(String owner, int limit) {
+            List<Message> out = new ArrayList<>();
+            while (!ready.isEmpty() && out.size() < limit) {
+                long id = ready.remove(0);
+                assertNull(owners.put(id, owner), "double claim " + id);
+                out.add(new Message(id, "src", 5, 0, "90555" + id, 1, 1, "msg " + id, true, 1));
+            }
+            return out;
+        }
+
+        @Override
+        public int markSent(String owner, List<Long> ids, List<List<String>> messageIds) {
+            if (!ids.isEmpty()) markCalls.incrementAndGet();
+            for (long id : ids) assertEquals(owners.get(id), owner, "foreign row " + id);
+            for (int i = 0; i < ids.size(); i++) sent.put(ids.get(i), messageIds.get(i));
+            return ids.size();
+        }
+
+        @Override
+        public int markFailed(String owner, List<Long> ids, List<String> errors, int maxAttempts, long retryDelayMs) {
+            if (!ids.isEmpty()) markCalls.incrementAndGet();
+            for (long id : ids) assertEquals(owners.get(id), owner, "foreign row " + id);
+            for (int i = 0; i < ids.size(); i++) failed.put(ids.get(i), errors.get(i));
+            return ids.size();
+        }
+
+        @Override
+        public int releaseStale(long leaseMs) {
+            return 0;
+        }
+    }
+
+    @Test
+    void twoDispatchers_drainTheSameOutbox_withoutDoubleSend() throws Exception {
+        FakeOutbox outbox = new FakeOutbox(1000);
+        Map<Long, AtomicInteger> sends = new ConcurrentHashMap<>();
+
+        OutboxDispatcher[] ds = new OutboxDispatcher[2];
+        for (int i = 0; i < ds.length; i++) {
+            ds[i] = new OutboxDispatcher(outbox, m -> {
+                sends.computeIfAbsent(m.id, k -> new AtomicInteger()).incrementAndGet();
+                if (m.id % 100 == 0) return CompletableFuture.failedFuture(new IllegalStateException("throttled"));
+                return CompletableFuture.supplyAsync(() -> List.of("MID" + m.id));
+            }, () -> true, "node-" + i, 50, 64, 3, 1000, 20, false);
+            ds[i].start();
+        }
+
+        long t0 = System.currentTimeMillis();
+        while (outbox.sent.size() + outbox.failed.size() < 1000 && System.currentTimeMillis() - t0 < 5000) {
+            Thread.sleep(10);
+        }
+        for (OutboxDispatcher d : ds) d.close();
+
+        assertEquals(990, outbox.sent.size());
+        assertEquals(10, outbox.failed.size());
+        assertEquals(List.of("MID7"), outbox.sent.get(7L));
+        assertTrue(outbox.failed.get(100L).contains("throttled"));
+        for (AtomicInteger n : sends.values()) assertEquals(1, n.get());
+
+        // sonuçlar satır satır değil toplu işaretlenir
+        assertTrue(outbox.markCalls.get() < 1000 / 5, "markCalls=" + outbox.markCalls.get());
+        assertEquals(1000, ds[0].getClaimedCount() + ds[1].getClaimedCount());
+        assertEquals(0, ds[0].getInFlight() + ds[1].getInFlight());
+    }
+}
@@ -0,0 +1,84 @@
+package com.mycompany.smppclient.session;
+
+import com.mycompany.smppclient.pdu.EnquireLinkResp;
+import com.mycompany.smppclient.pdu.Pdu;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PendingRequestRegistryTest {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    void register_withTimeout_failsExpiredAndRemovesEntry() throws Exception {
+        PendingRequestRegistry reg = new PendingRequestRegistry(timer, 64, 10, 8); // tur: 80ms
+
+        CompletableFuture<Pdu> expiring = reg.register(1, 200); // birden fazla tur sürer
+        CompletableFuture<Pdu> answered = reg.register(2, 200);
+        assertEquals(2, reg.size());
+
+        assertTrue(reg.complete(2, new EnquireLinkResp()));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> expiring.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, ex.getCause());
+        assertTrue(answered.isDone() && !answered.isCompletedExceptionally());
+        assertEquals(0, reg.size());
+
+        // süresi dolmuş seq'e geç gelen cevap eşleşmez
+        assertFalse(reg.complete(1, new EnquireLinkResp()));
+        reg.close();
+    }
+
+    @Test
+    void expiry_doesNotTouchReRegisteredSeq() throws Exception {
+        PendingRequestRegistry reg = new PendingRequestRegistry(timer, 64, 10, 8);
+
+        CompletableFuture<Pdu> first = reg.register(7, 30);
+        reg.fail(7, new RuntimeException("socket closed"));
+
+        CompletableFuture<Pdu> second = reg.register(7);
+        Thread.sleep(150); // ilk kaydın süresi çoktan geçti
+
+        assertTrue(first.isCompletedExceptionally());
+        assertFalse(second.isDone());
+        assertEquals(1, reg.size());
+        reg.close();
+    }
+
+    @Test
+    void attachment_sharesEntryWithFuture_andCollidingSeqsProbe() throws Exception {
+        PendingRequestRegistry reg = new PendingRequestRegistry(timer, 16);
+
+        // 3 ve 3+32 aynı slota düşer (kapasite 32'ye yuvarlanır)
+        CompletableFuture<Pdu> a = reg.register(3);
+        CompletableFuture<Pdu> b = reg.register(3 + 32);
+        assertTrue(reg.attach(3, "A"));
+        assertTrue(reg.attach(35, "B"));
+        assertFalse(reg.attach(99, "X"));
+
+        assertEquals("A", reg.attachment(3));
+        assertEquals("B", reg.attachment(35));
+        assertThrows(IllegalStateException.class, () -> reg.register(35));
+
+        assertTrue(reg.complete(35, new EnquireLinkResp()));
+        assertNull(reg.attachment(35));
+        assertTrue(b.isDone());
+        assertFalse(a.isDone());
+        assertEquals("A", reg.attachment(3));
+        assertEquals(1, reg.size());
+    }
+}
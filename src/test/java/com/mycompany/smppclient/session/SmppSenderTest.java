@@ -0,0 +1,45 @@
+package com.mycompany.smppclient.session;
+
+import com.mycompany.smppclient.pdu.SubmitSmReq;
+import com.mycompany.smppclient.pdu.encoder.PduEncoder;
+import com.mycompany.smppclient.pdu.encoder.SubmitSmTemplate;
+import com.mycompany.smppclient.socket.SmppSocketClient;
+import com.mycompany.smppclient.socket.SmppSocketConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmppSenderTest {
+
+    @Test
+    void concat_stopsAfterFirstSegmentThatCannotBeSent() throws Exception {
+        // bağlı olmayan socket: ilk parçanın sendBytes'ı hata verir
+        try (SmppSocketClient socket = new SmppSocketClient(new SmppSocketConfig(2000, 2000, 1, 0), null)) {
+            AtomicInteger seq = new AtomicInteger(1);
+            SmppSender sender = new SmppSender(socket, new SmppSessionConfig(3000, 60000, 10), new PduEncoder(),
+                    new PendingRequestRegistry(), seq, null, "s", "sys");
+
+            SubmitSmReq base = new SubmitSmReq();
+            base.setSourceAddr("src");
+            base.setDestinationAddr("905000000000");
+            String text = "Ş".repeat(200); // 3 parça
+
+            CompletableFuture<List<String>> f = sender.sendConcatTrSingleShiftUnpackedAsync(base, text);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertEquals(2, seq.get(), "sadece ilk parça için seq alınmalı");
+
+            List<SubmitSmTemplate> parts = sender.prepareConcatTrSingleShiftUnpacked(base, text);
+            assertEquals(3, parts.size());
+            CompletableFuture<List<String>> g = sender.sendSubmitSmAsync(parts, "905000000001");
+            assertThrows(ExecutionException.class, () -> g.get(1, TimeUnit.SECONDS));
+            assertEquals(3, seq.get());
+        }
+    }
+}
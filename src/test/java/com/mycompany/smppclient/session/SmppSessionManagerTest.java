@@ -11,6 +11,8 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -128,6 +130,241 @@ public class SmppSessionManagerTest {
         }
     }
 
+    @Test
+    void submitSmAsync_pipelinesWithinWindow() throws Exception {
+        PduEncoder enc = new PduEncoder();
+        PduDecoder dec = new PduDecoder();
+        final int n = 5;
+
+        try (ServerSocket server = new ServerSocket(0)) {
+            int port = server.getLocalPort();
+
+            ExecutorService es = Executors.newSingleThreadExecutor();
+            Future<?> serverFuture = es.submit(() -> {
+                try (Socket s = server.accept()) {
+                    s.setSoTimeout(5000);
+                    InputStream in = s.getInputStream();
+                    OutputStream out = s.getOutputStream();
+
+                    Pdu bind = dec.decode(readOnePdu(in));
+                    BindTransceiverResp bindResp = new BindTransceiverResp();
+                    bindResp.setSequenceNumber(bind.getSequenceNumber());
+                    bindResp.setSystemId("SMSC");
+                    out.write(enc.encode(bindResp));
+                    out.flush();
+
+                    // hiç cevap vermeden n adet submit_sm oku: client pipeline yapıyorsa hepsi gelir
+                    List<Pdu> submits = new ArrayList<>();
+                    for (int i = 0; i < n; i++) {
+                        Pdu p = dec.decode(readOnePdu(in));
+                        assertTrue(p instanceof SubmitSmReq);
+                        submits.add(p);
+                    }
+
+                    // ters sırada cevapla
+                    for (int i = n - 1; i >= 0; i--) {
+                        SubmitSmResp r = new SubmitSmResp();
+                        r.setSequenceNumber(submits.get(i).getSequenceNumber());
+                        r.setMessageId("MID-" + ((SubmitSmReq) submits.get(i)).getDestinationAddr());
+                        out.write(enc.encode(r));
+                    }
+                    out.flush();
+
+                    Pdu unbind = dec.decode(readOnePdu(in));
+                    UnbindResp ur = new UnbindResp();
+                    ur.setSequenceNumber(unbind.getSequenceNumber());
+                    out.write(enc.encode(ur));
+                    out.flush();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            SmppSocketConfig sockCfg = new SmppSocketConfig(2000, 2000, 1, 0);
+            try (SmppSocketClient socket = new SmppSocketClient(sockCfg, null)) {
+                SmppSessionConfig cfg = new SmppSessionConfig(3000, 60000, 10);
+                SmppSessionManager sm = new SmppSessionManager(socket, cfg);
+
+                BindTransceiverReq bindReq = new BindTransceiverReq();
+                bindReq.setSystemId("sys");
+                bindReq.setPassword("pw");
+                bindReq.setSystemType("cp");
+                assertTrue(sm.bind("127.0.0.1", port, bindReq));
+
+                List<CompletableFuture<String>> futures = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    SubmitSmReq req = new SubmitSmReq();
+                    req.setSourceAddr("src");
+                    req.setDestinationAddr("90500000000" + i);
+                    futures.add(sm.sendSubmitSmAsync(req));
+                }
+
+                for (int i = 0; i < n; i++) {
+                    assertEquals("MID-90500000000" + i, futures.get(i).get(3, TimeUnit.SECONDS));
+                }
+                assertEquals(0, sm.getOutstandingCount());
+
+                assertTrue(sm.unbind());
+                sm.close();
+            }
+
+            serverFuture.get(3, TimeUnit.SECONDS);
+            es.shutdownNow();
+        }
+    }
+
+    @Test
+    void concatAsync_sendsAllSegmentsBeforeFirstResponse() throws Exception {
+        PduEncoder enc = new PduEncoder();
+        PduDecoder dec = new PduDecoder();
+        final String text = "Ş".repeat(200); // her karakter ESC + kod: 3 parça
+
+        try (ServerSocket server = new ServerSocket(0)) {
+            int port = server.getLocalPort();
+
+            ExecutorService es = Executors.newSingleThreadExecutor();
+            Future<List<Integer>> serverFuture = es.submit(() -> {
+                try (Socket s = server.accept()) {
+                    s.setSoTimeout(5000);
+                    InputStream in = s.getInputStream();
+                    OutputStream out = s.getOutputStream();
+
+                    Pdu bind = dec.decode(readOnePdu(in));
+                    BindTransceiverResp bindResp = new BindTransceiverResp();
+                    bindResp.setSequenceNumber(bind.getSequenceNumber());
+                    bindResp.setSystemId("SMSC");
+                    out.write(enc.encode(bindResp));
+                    out.flush();
+
+                    // tüm parçalar cevap beklemeden gelmeli
+                    List<SubmitSmReq> parts = new ArrayList<>();
+                    List<Integer> partNos = new ArrayList<>();
+                    for (int i = 0; i < 3; i++) {
+                        SubmitSmReq p = (SubmitSmReq) dec.decode(readOnePdu(in));
+                        parts.add(p);
+                        partNos.add(p.getShortMessage()[5] & 0xFF); // concat IE: ref, total, seq
+                    }
+
+                    for (int i = parts.size() - 1; i >= 0; i--) {
+                        SubmitSmResp r = new SubmitSmResp();
+                        r.setSequenceNumber(parts.get(i).getSequenceNumber());
+                        r.setMessageId("MID-" + (i + 1));
+                        out.write(enc.encode(r));
+                    }
+                    out.flush();
+
+                    Pdu unbind = dec.decode(readOnePdu(in));
+                    UnbindResp ur = new UnbindResp();
+                    ur.setSequenceNumber(unbind.getSequenceNumber());
+                    out.write(enc.encode(ur));
+                    out.flush();
+                    return partNos;
+                }
+            });
+
+            SmppSocketConfig sockCfg = new SmppSocketConfig(2000, 2000, 1, 0);
+            try (SmppSocketClient socket = new SmppSocketClient(sockCfg, null)) {
+                SmppSessionManager sm = new SmppSessionManager(socket, new SmppSessionConfig(3000, 60000, 10));
+
+                BindTransceiverReq bindReq = new BindTransceiverReq();
+                bindReq.setSystemId("sys");
+                bindReq.setPassword("pw");
+                bindReq.setSystemType("cp");
+                assertTrue(sm.bind("127.0.0.1", port, bindReq));
+
+                SubmitSmReq base = new SubmitSmReq();
+                base.setSourceAddr("src");
+                base.setDestinationAddr("905000000000");
+
+                List<String> ids = sm.sendConcatTrSingleShiftUnpackedAsync(base, text).get(3, TimeUnit.SECONDS);
+                assertEquals(List.of("MID-1", "MID-2", "MID-3"), ids);
+
+                assertTrue(sm.unbind());
+                sm.close();
+            }
+
+            assertEquals(List.of(1, 2, 3), serverFuture.get(3, TimeUnit.SECONDS));
+            es.shutdownNow();
+        }
+    }
+
+    @Test
+    void headerOnlyPdus_enquireLinkFromSmsc_andGenericNack_routedWithoutDecode() throws Exception {
+        PduEncoder enc = new PduEncoder();
+        PduDecoder dec = new PduDecoder();
+
+        try (ServerSocket server = new ServerSocket(0)) {
+            int port = server.getLocalPort();
+
+            ExecutorService es = Executors.newSingleThreadExecutor();
+            Future<byte[]> serverFuture = es.submit(() -> {
+                try (Socket s = server.accept()) {
+                    s.setSoTimeout(5000);
+                    InputStream in = s.getInputStream();
+                    OutputStream out = s.getOutputStream();
+
+                    Pdu bind = dec.decode(readOnePdu(in));
+                    BindTransceiverResp bindResp = new BindTransceiverResp();
+                    bindResp.setSequenceNumber(bind.getSequenceNumber());
+                    bindResp.setSystemId("SMSC");
+                    out.write(enc.encode(bindResp));
+
+                    // SMSC tarafından keep-alive
+                    EnquireLinkReq el = new EnquireLinkReq();
+                    el.setSequenceNumber(77);
+                    out.write(enc.encode(el));
+                    out.flush();
+                    byte[] elResp = readOnePdu(in);
+
+                    // submit_sm'e generic_nack
+                    Pdu submit = dec.decode(readOnePdu(in));
+                    GenericNack nack = new GenericNack();
+                    nack.setCommandStatus(0x00000003);
+                    nack.setSequenceNumber(submit.getSequenceNumber());
+                    out.write(enc.encode(nack));
+                    out.flush();
+
+                    Pdu unbind = dec.decode(readOnePdu(in));
+                    UnbindResp ur = new UnbindResp();
+                    ur.setSequenceNumber(unbind.getSequenceNumber());
+                    out.write(enc.encode(ur));
+                    out.flush();
+                    return elResp;
+                }
+            });
+
+            SmppSocketConfig sockCfg = new SmppSocketConfig(2000, 2000, 1, 0);
+            try (SmppSocketClient socket = new SmppSocketClient(sockCfg, null)) {
+                SmppSessionManager sm = new SmppSessionManager(socket, new SmppSessionConfig(3000, 60000, 10));
+
+                BindTransceiverReq bindReq = new BindTransceiverReq();
+                bindReq.setSystemId("sys");
+                bindReq.setPassword("pw");
+                bindReq.setSystemType("cp");
+                assertTrue(sm.bind("127.0.0.1", port, bindReq));
+
+                SubmitSmReq req = new SubmitSmReq();
+                req.setSourceAddr("src");
+                req.setDestinationAddr("905000000000");
+                ExecutionException ex = assertThrows(ExecutionException.class,
+                        () -> sm.sendSubmitSmAsync(req).get(3, TimeUnit.SECONDS));
+                assertTrue(ex.getCause().getMessage().contains("GENERIC_NACK"), ex.getCause().toString());
+                assertTrue(sm.isBound(), "generic_nack oturumu düşürmemeli");
+
+                assertTrue(sm.unbind());
+                sm.close();
+            }
+
+            byte[] elResp = serverFuture.get(3, TimeUnit.SECONDS);
+            Pdu p = dec.decode(elResp);
+            assertTrue(p instanceof EnquireLinkResp);
+            assertEquals(16, elResp.length);
+            assertEquals(77, p.getSequenceNumber());
+            assertEquals(0, p.getCommandStatus());
+            es.shutdownNow();
+        }
+    }
+
     // TCP stream'den 1 PDU okumak: önce 4 byte length, sonra kalan length-4 byte
     private static byte[] readOnePdu(InputStream in) throws Exception {
         byte[] lenBytes = in.readNBytes(4);
@@ -0,0 +1,164 @@
+package com.mycompany.smppclient.session;
+
+import com.mycompany.smppclient.pdu.*;
+import com.mycompany.smppclient.pdu.decoder.PduDecoder;
+import com.mycompany.smppclient.pdu.encoder.PduEncoder;
+import com.mycompany.smppclient.socket.SmppSocketClient;
+import com.mycompany.smppclient.socket.SmppSocketConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmppSessionPoolTest {
+
+    /** bind, enquire_link ve unbind'e cevap veren, submit_sm'leri cevapsız bırakıp bağlantı başına sayan sunucu. */
+    private static void serve(ServerSocket server, ExecutorService es, ConcurrentHashMap<Integer, AtomicInteger> submitsByConn) {
+        PduEncoder enc = new PduEncoder();
+        es.submit(() -> {
+            int connNo = 0;
+            while (!server.isClosed()) {
+                Socket s;
+                try {
+                    s = server.accept();
+                } catch (Exception e) {
+                    return;
+                }
+                AtomicInteger counter = new AtomicInteger();
+                submitsByConn.put(connNo++, counter);
+                es.submit(() -> {
+                    PduDecoder dec = new PduDecoder();
+                    try (Socket c = s) {
+                        InputStream in = c.getInputStream();
+                        OutputStream out = c.getOutputStream();
+                        while (true) {
+                            Pdu p = dec.decode(readOnePdu(in));
+                            Pdu resp = null;
+                            if (p instanceof BindTransceiverReq) {
+                                BindTransceiverResp r = new BindTransceiverResp();
+                                r.setSystemId("SMSC");
+                                resp = r;
+                            } else if (p instanceof EnquireLinkReq) {
+                                resp = new EnquireLinkResp();
+                            } else if (p instanceof UnbindReq) {
+                                resp = new UnbindResp();
+                            } else if (p instanceof SubmitSmReq) {
+                                counter.incrementAndGet();
+                            }
+                            if (resp != null) {
+                                resp.setSequenceNumber(p.getSequenceNumber());
+                                out.write(enc.encode(resp));
+                                out.flush();
+                            }
+                            if (p instanceof UnbindReq) return;
+                        }
+                    } catch (Exception ignored) {
+                    }
+                });
+            }
+        });
+    }
+
+    /** Dinleyeni olmayan bir port: açıp hemen kapatılır. */
+    private static int freePort() throws Exception {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+
+    @Test
+    void submits_goToLeastOutstandingBoundSession_andSkipUnbound() throws Exception {
+        ConcurrentHashMap<Integer, AtomicInteger> submitsByConn = new ConcurrentHashMap<>();
+        ExecutorService es = Executors.newCachedThreadPool();
+
+        int deadPort = freePort(); // bu porta bind başarısız olur
+
+        try (ServerSocket server = new ServerSocket(0)) {
+            serve(server, es, submitsByConn);
+
+            SmppSocketConfig sockCfg = new SmppSocketConfig(1000, 1000, 1, 0);
+            SmppSessionConfig cfg = new SmppSessionConfig(1500, 60000, 10);
+
+            BindTransceiverReq bindReq = new BindTransceiverReq();
+            bindReq.setSystemId("sys");
+            bindReq.setPassword("pw");
+            bindReq.setSystemType("cp");
+
+            List<SmppSocketClient> sockets = new ArrayList<>();
+            try (SmppSessionPool pool = new SmppSessionPool()) {
+                for (int i = 0; i < 3; i++) {
+                    SmppSocketClient socket = new SmppSocketClient(sockCfg, null);
+                    sockets.add(socket);
+                    int port = i < 2 ? server.getLocalPort() : deadPort;
+                    pool.add("acc", new SmppSessionManager(socket, cfg), "127.0.0.1", port, bindReq);
+                }
+
+                assertEquals(2, pool.openAll());
+                assertEquals(2, pool.usableCount());
+
+                List<CompletableFuture<String>> futures = new ArrayList<>();
+                for (int i = 0; i < 6; i++) {
+                    SubmitSmReq req = new SubmitSmReq();
+                    req.setSourceAddr("src");
+                    req.setDestinationAddr("90500000000" + i);
+                    futures.add(pool.sendSubmitSmAsync(req));
+                }
+
+                List<SmppSessionPool.Member> members = pool.members();
+                assertEquals(3, members.get(0).session.getOutstandingCount());
+                assertEquals(3, members.get(1).session.getOutstandingCount());
+                assertEquals(0, members.get(2).session.getOutstandingCount());
+
+                // cevapsız submit'ler response timeout ile düşer
+                for (CompletableFuture<String> f : futures) {
+                    assertThrows(Exception.class, f::join);
+                }
+            }
+
+            long t0 = System.currentTimeMillis();
+            while (submitsByConn.values().stream().mapToInt(AtomicInteger::get).sum() < 6
+                    && System.currentTimeMillis() - t0 < 2000) {
+                Thread.sleep(20);
+            }
+            assertEquals(2, submitsByConn.size());
+            for (AtomicInteger c : submitsByConn.values()) assertEquals(3, c.get());
+
+            for (SmppSocketClient s : sockets) s.close();
+        } finally {
+            es.shutdownNow();
+        }
+    }
+
+    @Test
+    void emptyPool_failsFast() {
+        try (SmppSessionPool pool = new SmppSessionPool()) {
+            assertNull(pool.select());
+            CompletableFuture<String> f = pool.sendSubmitSmAsync(new SubmitSmReq());
+            assertTrue(f.isCompletedExceptionally());
+        }
+    }
+
+    private static byte[] readOnePdu(InputStream in) throws Exception {
+        DataInputStream din = new DataInputStream(in);
+        int len = din.readInt();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(len);
+        bos.write(new byte[]{(byte) (len >>> 24), (byte) (len >>> 16), (byte) (len >>> 8), (byte) len});
+        byte[] rest = new byte[len - 4];
+        din.readFully(rest);
+        bos.write(rest);
+        return bos.toByteArray();
+    }
+}
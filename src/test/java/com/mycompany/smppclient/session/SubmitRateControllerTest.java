@@ -0,0 +1,64 @@
+package com.mycompany.smppclient.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SubmitRateControllerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Test
+    void throttle_halvesOnce_thenFastResponsesCreepBack() throws Exception {
+        SubmitRateController rc = new SubmitRateController(100, 50);
+        assertEquals(100.0, rc.getAllowedTps());
+
+        // aynı tıkanmanın art arda gelen cevapları tek düşüş sayılır
+        rc.onResponse(SubmitRateController.ESME_RTHROTTLED, FAST);
+        rc.onResponse(SubmitRateController.ESME_RMSGQFUL, FAST);
+        assertEquals(50.0, rc.getAllowedTps());
+
+        Thread.sleep(60); // cooldown (fastLatencyMs) geçti
+        rc.onResponse(SubmitRateController.ESME_RMSGQFUL, FAST);
+        assertEquals(25.0, rc.getAllowedTps());
+
+        // başarılı + hızlı cevaplarla additive artış, maxTps'te durur
+        double before = rc.getAllowedTps();
+        rc.onResponse(0, FAST);
+        assertTrue(rc.getAllowedTps() > before);
+        for (int i = 0; i < 10_000; i++) rc.onResponse(0, FAST);
+        assertEquals(100.0, rc.getAllowedTps());
+    }
+
+    @Test
+    void slowResponses_doNotIncrease() {
+        SubmitRateController rc = new SubmitRateController(100, 50);
+        rc.onTimeout();
+        assertEquals(50.0, rc.getAllowedTps());
+
+        for (int i = 0; i < 100; i++) rc.onResponse(0, TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(50.0, rc.getAllowedTps());
+        assertTrue(rc.getLatencyEwmaMs() > 150);
+    }
+
+    @Test
+    void acquire_pacesAtAllowedRate_andDisabledIsUnlimited() throws Exception {
+        SubmitRateController rc = new SubmitRateController(100, 50); // 10ms aralık
+        long t0 = System.nanoTime();
+        for (int i = 0; i < 11; i++) assertTrue(rc.acquire(1000));
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        assertTrue(ms >= 90, "11 gönderim en az ~100ms sürmeli, süre=" + ms);
+
+        // sıradaki slot timeout'tan uzaksa beklemeden false
+        SubmitRateController slow = new SubmitRateController(1, 50);
+        assertTrue(slow.acquire(0));
+        assertFalse(slow.acquire(10));
+
+        SubmitRateController off = new SubmitRateController(0, 50);
+        assertFalse(off.isEnabled());
+        for (int i = 0; i < 1000; i++) assertTrue(off.acquire(0));
+        assertEquals(0.0, off.getAllowedTps());
+    }
+}
@@ -0,0 +1,74 @@
+package com.mycompany.smppclient.socket;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboundQueueTest {
+
+    /** Her write çağrısında en fazla maxPerWrite byte kabul eden sahte kanal. */
+    static final class FakeChannel implements GatheringByteChannel {
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        int maxPerWrite;
+        int writeCalls;
+
+        FakeChannel(int maxPerWrite) { this.maxPerWrite = maxPerWrite; }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            writeCalls++;
+            int budget = maxPerWrite;
+            long total = 0;
+            for (int i = offset; i < offset + length && budget > 0; i++) {
+                int n = Math.min(budget, srcs[i].remaining());
+                for (int j = 0; j < n; j++) written.write(srcs[i].get());
+                budget -= n;
+                total += n;
+            }
+            return total;
+        }
+
+        @Override public long write(ByteBuffer[] srcs) { return write(srcs, 0, srcs.length); }
+        @Override public int write(ByteBuffer src) { return (int) write(new ByteBuffer[]{src}, 0, 1); }
+        @Override public boolean isOpen() { return true; }
+        @Override public void close() {}
+    }
+
+    @Test
+    void writeTo_coalescesPendingPdusIntoOneWrite() throws Exception {
+        OutboundQueue q = new OutboundQueue(10, 64);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(q.offer(ByteBuffer.wrap(new byte[]{(byte) i, (byte) i})));
+        }
+
+        FakeChannel ch = new FakeChannel(Integer.MAX_VALUE);
+        assertTrue(q.writeTo(ch));
+
+        assertEquals(1, ch.writeCalls);
+        assertArrayEquals(new byte[]{0, 0, 1, 1, 2, 2, 3, 3, 4, 4}, ch.written.toByteArray());
+        assertEquals(0, q.size());
+    }
+
+    @Test
+    void offer_returnsFalseWhenFull_andPartialWriteKeepsRemainder() throws Exception {
+        OutboundQueue q = new OutboundQueue(2, 64);
+        assertTrue(q.offer(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+        assertTrue(q.offer(ByteBuffer.wrap(new byte[]{4, 5, 6})));
+        assertFalse(q.offer(ByteBuffer.wrap(new byte[]{7})));
+        assertFalse(q.awaitSpace(10));
+
+        FakeChannel ch = new FakeChannel(4);
+        assertFalse(q.writeTo(ch));   // ilk PDU bitti, ikincisi yarım
+        assertEquals(1, q.size());
+        assertTrue(q.awaitSpace(10));
+
+        ch.maxPerWrite = 100;
+        assertTrue(q.writeTo(ch));
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6}, ch.written.toByteArray());
+        assertEquals(0, q.size());
+    }
+}
@@ -0,0 +1,66 @@
+package com.mycompany.smppclient.socket;
+
+import com.mycompany.smppclient.pdu.EnquireLinkReq;
+import com.mycompany.smppclient.pdu.SubmitSmResp;
+import com.mycompany.smppclient.pdu.encoder.PduEncoder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PduFramerTest {
+
+    @Test
+    void drain_splitsPdusAcrossReads_andGrowsForLargePdu() throws Exception {
+        PduEncoder enc = new PduEncoder();
+
+        EnquireLinkReq el = new EnquireLinkReq();
+        el.setSequenceNumber(1);
+        SubmitSmResp resp = new SubmitSmResp();
+        resp.setSequenceNumber(2);
+        resp.setMessageId("x".repeat(100)); // başlangıç kapasitesinden (32) büyük
+
+        byte[] a = enc.encode(el);
+        byte[] b = enc.encode(resp);
+        byte[] stream = new byte[a.length + b.length];
+        System.arraycopy(a, 0, stream, 0, a.length);
+        System.arraycopy(b, 0, stream, a.length, b.length);
+
+        PduFramer framer = new PduFramer(32, 1024, false);
+        List<Integer> seqs = new ArrayList<>();
+        List<Integer> lens = new ArrayList<>();
+
+        // 7'şer byte'lık parçalar halinde besle
+        int off = 0;
+        while (off < stream.length) {
+            ByteBuffer w = framer.writableBuffer();
+            int n = Math.min(7, Math.min(w.remaining(), stream.length - off));
+            w.put(stream, off, n);
+            off += n;
+            framer.drain(pdu -> {
+                seqs.add(pdu.getInt(12));
+                lens.add(pdu.remaining());
+            });
+        }
+
+        assertEquals(List.of(1, 2), seqs);
+        assertEquals(List.of(a.length, b.length), lens);
+        assertEquals(0, framer.buffered());
+        assertTrue(framer.capacity() >= b.length);
+    }
+
+    @Test
+    void drain_rejectsLengthAboveMax() {
+        PduFramer framer = new PduFramer(64, 256, false);
+        ByteBuffer w = framer.writableBuffer();
+        w.putInt(10_000_000); // bozuk command_length
+        w.putInt(0x80000004);
+
+        assertThrows(IOException.class, () -> framer.drain(pdu -> fail("no pdu expected")));
+        assertEquals(64, framer.capacity());
+    }
+}
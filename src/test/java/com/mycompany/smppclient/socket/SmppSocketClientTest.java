@@ -53,6 +53,40 @@
         }
 
 
+        @Test
+        void replySentFromReadCallback_isFlushedWithoutAnotherWakeup() throws Exception {
+            ArrayBlockingQueue<byte[]> received = new ArrayBlockingQueue<>(1);
+
+            try (ServerSocket server = new ServerSocket(0)) {
+                int port = server.getLocalPort();
+
+                // server tek PDU gönderip cevabı bekler; başka trafik yok, selector ikinci kez uyanmaz
+                Thread serverThread = new Thread(() -> {
+                    try (Socket client = server.accept()) {
+                        client.getOutputStream().write(new byte[]{0, 0, 0, 16, 0, 0, 0, 0x15, 0, 0, 0, 0, 0, 0, 0, 9});
+                        client.getOutputStream().flush();
+                        byte[] buf = new byte[16];
+                        int n = client.getInputStream().readNBytes(buf, 0, 16);
+                        if (n == 16) received.offer(buf);
+                    } catch (Exception ignored) {}
+                });
+                serverThread.start();
+
+                SmppSocketConfig cfg = new SmppSocketConfig(2000, 2000, 1, 200);
+                try (SmppSocketClient client = new SmppSocketClient(cfg, null)) {
+                    // enquire_link'e loop thread'inin içinden cevap: flush task'ı wakeup'sız kuyruğa girer
+                    client.setOnPduBytes(pdu -> client.sendBytes(
+                            new byte[]{0, 0, 0, 16, (byte) 0x80, 0, 0, 0x15, 0, 0, 0, 0, pdu[12], pdu[13], pdu[14], pdu[15]}));
+                    assertTrue(client.connect("127.0.0.1", port));
+
+                    byte[] got = received.poll(2, TimeUnit.SECONDS);
+                    assertNotNull(got, "reply should be flushed in the same loop iteration");
+                    assertEquals((byte) 0x80, got[4]);
+                    assertEquals(9, got[15]);
+                }
+            }
+        }
+
         @Test
         void sendBytes_whenServerCloses_clientAttemptsReconnect() throws Exception {
             // Server: bağlantıyı kabul edip hemen kapatsın (kopma simülasyonu)
@@ -76,6 +110,12 @@
                 try (SmppSocketClient client = new SmppSocketClient(cfg, null)) {
                     assertTrue(client.connect("127.0.0.1", port));
 
+                    // kopma event loop'ta asenkron fark edilir: sunucu kapatıp client bunu görene kadar bekle
+                    serverThread.join(2000);
+                    long t0 = System.currentTimeMillis();
+                    while (client.isWritable() && System.currentTimeMillis() - t0 < 2000) {
+                        Thread.sleep(10);
+                    }
 
                     assertThrows(RuntimeException.class, () ->
                             client.sendBytes("selam".getBytes(StandardCharsets.US_ASCII))